@@ -0,0 +1,96 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.algebra;
+
+import com.google.common.base.Objects;
+import org.apache.tajo.util.TUtil;
+
+import java.util.Map;
+
+/**
+ * CREATE INDEX statement. Its child is a relation to be indexed.
+ */
+public class CreateIndex extends UnaryOperator {
+  private boolean unique = false;
+  private String indexName;
+  private Sort.SortSpec [] sortSpecs;
+  private String methodName;
+  private Map<String, String> params;
+
+  public CreateIndex(final String indexName, final Sort.SortSpec[] sortSpecs) {
+    super(OpType.CreateIndex);
+    this.indexName = indexName;
+    this.sortSpecs = sortSpecs;
+  }
+
+  public void setUnique() {
+    unique = true;
+  }
+
+  public boolean isUnique() {
+    return unique;
+  }
+
+  public String getIndexName() {
+    return indexName;
+  }
+
+  public Sort.SortSpec [] getSortSpecs() {
+    return sortSpecs;
+  }
+
+  public boolean hasMethodName() {
+    return methodName != null;
+  }
+
+  public void setMethodName(String methodName) {
+    this.methodName = methodName;
+  }
+
+  public String getMethodName() {
+    return methodName;
+  }
+
+  public boolean hasParams() {
+    return params != null;
+  }
+
+  public Map<String, String> getParams() {
+    return params;
+  }
+
+  public void setParams(Map<String, String> params) {
+    this.params = params;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hashCode(unique, indexName, Objects.hashCode(sortSpecs), methodName, params);
+  }
+
+  @Override
+  boolean equalsTo(Expr expr) {
+    CreateIndex another = (CreateIndex) expr;
+    return unique == another.unique &&
+        TUtil.checkEquals(indexName, another.indexName) &&
+        TUtil.checkEquals(sortSpecs, another.sortSpecs) &&
+        TUtil.checkEquals(methodName, another.methodName) &&
+        TUtil.checkEquals(params, another.params);
+  }
+}
@@ -46,6 +46,8 @@ public enum OpType {
   DropDatabase(DropDatabase.class),
   CreateTable(CreateTable.class),
   DropTable(DropTable.class),
+  AnalyzeTable(AnalyzeTable.class),
+  CreateIndex(CreateIndex.class),
 
   // Insert or Update
   Insert(Insert.class),
@@ -24,8 +24,10 @@ import org.apache.commons.logging.LogFactory;
 import org.apache.tajo.annotation.Nullable;
 import org.apache.tajo.catalog.CatalogProtocol.CatalogProtocolService;
 import org.apache.tajo.catalog.exception.NoSuchFunctionException;
+import org.apache.tajo.catalog.partition.PartitionDesc;
 import org.apache.tajo.catalog.partition.PartitionMethodDesc;
 import org.apache.tajo.catalog.proto.CatalogProtos.*;
+import org.apache.tajo.catalog.statistics.TableStats;
 import org.apache.tajo.common.TajoDataTypes.DataType;
 import org.apache.tajo.conf.TajoConf;
 import org.apache.tajo.rpc.NettyClientBase;
@@ -39,6 +41,7 @@ import java.net.InetSocketAddress;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 /**
  * CatalogClient provides a client API to access the catalog server.
@@ -49,13 +52,69 @@ public abstract class AbstractCatalogClient implements CatalogService {
   protected RpcConnectionPool pool;
   protected InetSocketAddress catalogServerAddr;
   protected TajoConf conf;
+  /** NULL if the cache is disabled */
+  private final CatalogClientCache cache;
 
   abstract CatalogProtocolService.BlockingInterface getStub(NettyClientBase client);
 
   public AbstractCatalogClient(TajoConf conf, InetSocketAddress catalogServerAddr) {
+    this(conf, catalogServerAddr, conf.getLongVar(TajoConf.ConfVars.CATALOG_CLIENT_CACHE_VALIDATION_INTERVAL));
+  }
+
+  /**
+   * @param cacheValidationInterval the interval in milliseconds to check the catalog version for cached lookups
+   */
+  protected AbstractCatalogClient(TajoConf conf, InetSocketAddress catalogServerAddr, long cacheValidationInterval) {
     this.pool = RpcConnectionPool.getPool(conf);
     this.catalogServerAddr = catalogServerAddr;
     this.conf = conf;
+    if (conf.getBoolVar(TajoConf.ConfVars.CATALOG_CLIENT_CACHE_ENABLED)) {
+      this.cache = new CatalogClientCache(cacheValidationInterval);
+    } else {
+      this.cache = null;
+    }
+  }
+
+  @Override
+  public final long getCatalogVersion() {
+    try {
+      long version = new ServerCallable<Long>(pool, catalogServerAddr, CatalogProtocol.class, false) {
+        public Long call(NettyClientBase client) throws ServiceException {
+          CatalogProtocolService.BlockingInterface stub = getStub(client);
+          return stub.getCatalogVersion(null, NullProto.newBuilder().build()).getValue();
+        }
+      }.withRetries();
+      if (cache != null) {
+        cache.validated(version);
+      }
+      return version;
+    } catch (ServiceException e) {
+      LOG.error(e.getMessage(), e);
+      return -1;
+    }
+  }
+
+  @Override
+  public final void updateCatalogVersion(long version) {
+    if (cache != null) {
+      cache.observe(version);
+    }
+  }
+
+  /**
+   * It checks the catalog version if the validation interval has passed. Cached entries older than
+   * the version are not used anymore.
+   */
+  private void validateCache() {
+    if (cache.needsValidation() && getCatalogVersion() < 0) {
+      cache.invalidate();
+    }
+  }
+
+  private void invalidateCache() {
+    if (cache != null) {
+      cache.invalidate();
+    }
   }
 
   @Override
@@ -141,6 +200,8 @@ public abstract class AbstractCatalogClient implements CatalogService {
     } catch (ServiceException e) {
       LOG.error(e.getMessage(), e);
       return Boolean.FALSE;
+    } finally {
+      invalidateCache();
     }
   }
 
@@ -156,6 +217,8 @@ public abstract class AbstractCatalogClient implements CatalogService {
     } catch (ServiceException e) {
       LOG.error(e.getMessage(), e);
       return Boolean.FALSE;
+    } finally {
+      invalidateCache();
     }
   }
 
@@ -192,17 +255,38 @@ public abstract class AbstractCatalogClient implements CatalogService {
 
   @Override
   public final TableDesc getTableDesc(final String databaseName, final String tableName) {
+    TableDescProto table = getTableDescProto(databaseName, tableName);
+    // a new instance is created for every call because TableDesc is mutable.
+    return table == null ? null : CatalogUtil.newTableDesc(table);
+  }
+
+  private TableDescProto getTableDescProto(final String databaseName, final String tableName) {
+    String canonicalName = CatalogUtil.getCanonicalTableName(databaseName, tableName);
+    if (cache != null) {
+      validateCache();
+      TableDescProto cached = cache.getTable(canonicalName);
+      if (cached != null) {
+        return cached;
+      }
+    }
+
     try {
-      return new ServerCallable<TableDesc>(this.pool, catalogServerAddr, CatalogProtocol.class, false) {
-        public TableDesc call(NettyClientBase client) throws ServiceException {
+      GetTableDescResponse response =
+          new ServerCallable<GetTableDescResponse>(this.pool, catalogServerAddr, CatalogProtocol.class, false) {
+        public GetTableDescResponse call(NettyClientBase client) throws ServiceException {
           TableIdentifierProto.Builder builder = TableIdentifierProto.newBuilder();
           builder.setDatabaseName(databaseName);
           builder.setTableName(tableName);
 
           CatalogProtocolService.BlockingInterface stub = getStub(client);
-          return CatalogUtil.newTableDesc(stub.getTableDesc(null, builder.build()));
+          return stub.getTableDesc(null, builder.build());
         }
       }.withRetries();
+
+      if (cache != null) {
+        cache.putTable(canonicalName, response.getCatalogVersion(), response.getTable());
+      }
+      return response.getTable();
     } catch (ServiceException e) {
       LOG.error(e.getMessage(), e);
       return null;
@@ -255,6 +339,86 @@ public abstract class AbstractCatalogClient implements CatalogService {
     }
   }
 
+  @Override
+  public final boolean addPartitions(final String databaseName, final String tableName,
+                                     final List<PartitionDesc> partitions) {
+    try {
+      return new ServerCallable<Boolean>(this.pool, catalogServerAddr, CatalogProtocol.class, false) {
+        public Boolean call(NettyClientBase client) throws ServiceException {
+
+          PartitionsProto.Builder builder = PartitionsProto.newBuilder();
+          builder.setTableIdentifier(TableIdentifierProto.newBuilder()
+              .setDatabaseName(databaseName).setTableName(tableName));
+          for (PartitionDesc partition : partitions) {
+            builder.addPartition(partition.getProto());
+          }
+
+          CatalogProtocolService.BlockingInterface stub = getStub(client);
+          return stub.addPartitions(null, builder.build()).getValue();
+        }
+      }.withRetries();
+    } catch (ServiceException e) {
+      LOG.error(e.getMessage(), e);
+      return false;
+    }
+  }
+
+  @Override
+  public final List<PartitionDesc> getPartitions(final String databaseName, final String tableName,
+                                                 final List<Set<String>> allowedValues) {
+    try {
+      return new ServerCallable<List<PartitionDesc>>(this.pool, catalogServerAddr, CatalogProtocol.class, false) {
+        public List<PartitionDesc> call(NettyClientBase client) throws ServiceException {
+
+          GetPartitionsRequest.Builder builder = GetPartitionsRequest.newBuilder();
+          builder.setTableIdentifier(TableIdentifierProto.newBuilder()
+              .setDatabaseName(databaseName).setTableName(tableName));
+          if (allowedValues != null) {
+            for (Set<String> values : allowedValues) {
+              PartitionKeyFilterProto.Builder filter = PartitionKeyFilterProto.newBuilder();
+              filter.setAnyValue(values == null);
+              if (values != null) {
+                filter.addAllValues(values);
+              }
+              builder.addKeyFilters(filter);
+            }
+          }
+
+          CatalogProtocolService.BlockingInterface stub = getStub(client);
+          PartitionsProto response = stub.getPartitions(null, builder.build());
+          List<PartitionDesc> partitions = new ArrayList<PartitionDesc>();
+          for (PartitionDescProto partition : response.getPartitionList()) {
+            partitions.add(new PartitionDesc(partition));
+          }
+          return partitions;
+        }
+      }.withRetries();
+    } catch (ServiceException e) {
+      LOG.error(e.getMessage(), e);
+      return null;
+    }
+  }
+
+  @Override
+  public final int getNumPartitions(final String databaseName, final String tableName) {
+    try {
+      return new ServerCallable<Integer>(this.pool, catalogServerAddr, CatalogProtocol.class, false) {
+        public Integer call(NettyClientBase client) throws ServiceException {
+
+          TableIdentifierProto.Builder builder = TableIdentifierProto.newBuilder();
+          builder.setDatabaseName(databaseName);
+          builder.setTableName(tableName);
+
+          CatalogProtocolService.BlockingInterface stub = getStub(client);
+          return stub.getNumPartitions(null, builder.build()).getValue();
+        }
+      }.withRetries();
+    } catch (ServiceException e) {
+      LOG.error(e.getMessage(), e);
+      return -1;
+    }
+  }
+
   @Override
   public final Collection<String> getAllTableNames(final String databaseName) {
     try {
@@ -310,6 +474,8 @@ public abstract class AbstractCatalogClient implements CatalogService {
     } catch (ServiceException e) {
       LOG.error(e.getMessage(), e);
       return false;
+    } finally {
+      invalidateCache();
     }
   }
 
@@ -334,6 +500,38 @@ public abstract class AbstractCatalogClient implements CatalogService {
     } catch (ServiceException e) {
       LOG.error(e.getMessage(), e);
       return false;
+    } finally {
+      invalidateCache();
+    }
+  }
+
+  @Override
+  public boolean updateTableStats(String tableName, final TableStats stats) {
+    String [] splitted = CatalogUtil.splitFQTableName(tableName);
+    final String databaseName = splitted[0];
+    final String simpleName = splitted[1];
+
+    try {
+      return new ServerCallable<Boolean>(this.pool, catalogServerAddr, CatalogProtocol.class, false) {
+        public Boolean call(NettyClientBase client) throws ServiceException {
+
+          TableIdentifierProto.Builder identifier = TableIdentifierProto.newBuilder();
+          identifier.setDatabaseName(databaseName);
+          identifier.setTableName(simpleName);
+
+          UpdateTableStatsRequest.Builder builder = UpdateTableStatsRequest.newBuilder();
+          builder.setTableIdentifier(identifier);
+          builder.setStats(stats.getProto());
+
+          CatalogProtocolService.BlockingInterface stub = getStub(client);
+          return stub.updateTableStats(null, builder.build()).getValue();
+        }
+      }.withRetries();
+    } catch (ServiceException e) {
+      LOG.error(e.getMessage(), e);
+      return false;
+    } finally {
+      invalidateCache();
     }
   }
 
@@ -343,6 +541,13 @@ public abstract class AbstractCatalogClient implements CatalogService {
       throw new IllegalArgumentException(
           "tableName cannot be composed of multiple parts, but it is \"" + tableName + "\"");
     }
+    // absent tables are not cached because they can be created by other clients at any time.
+    if (cache != null) {
+      validateCache();
+      if (cache.getTable(CatalogUtil.getCanonicalTableName(databaseName, tableName)) != null) {
+        return true;
+      }
+    }
     try {
       return new ServerCallable<Boolean>(this.pool, catalogServerAddr, CatalogProtocol.class, false) {
         public Boolean call(NettyClientBase client) throws ServiceException {
@@ -495,6 +700,8 @@ public abstract class AbstractCatalogClient implements CatalogService {
     } catch (ServiceException e) {
       LOG.error(e.getMessage(), e);
       return false;
+    } finally {
+      invalidateCache();
     }
   }
 
@@ -513,6 +720,8 @@ public abstract class AbstractCatalogClient implements CatalogService {
     } catch (ServiceException e) {
       LOG.error(e.getMessage(), e);
       return false;
+    } finally {
+      invalidateCache();
     }
   }
 
@@ -532,19 +741,50 @@ public abstract class AbstractCatalogClient implements CatalogService {
       builder.addParameterTypes(type);
     }
 
-    FunctionDescProto descProto = null;
+    FunctionDescProto descProto = getFunctionMeta(builder.build());
+
+    if (descProto == null) {
+      throw new NoSuchFunctionException(signature, paramTypes);
+    }
+
     try {
-      descProto = new ServerCallable<FunctionDescProto>(this.pool, catalogServerAddr, CatalogProtocol.class, false) {
-        public FunctionDescProto call(NettyClientBase client) throws ServiceException {
+      return new FunctionDesc(descProto);
+    } catch (ClassNotFoundException e) {
+      LOG.error(e);
+      throw new NoSuchFunctionException(signature, paramTypes);
+    }
+  }
+
+  /**
+   * @return the function matched to a request, or NULL if there is no such function
+   */
+  private FunctionDescProto getFunctionMeta(final GetFunctionMetaRequest request) {
+    if (cache != null) {
+      validateCache();
+      FunctionDescProto cached = cache.getFunction(request);
+      if (cached != null) {
+        return cached;
+      }
+    }
+
+    try {
+      GetFunctionMetaResponse response =
+          new ServerCallable<GetFunctionMetaResponse>(this.pool, catalogServerAddr, CatalogProtocol.class, false) {
+        public GetFunctionMetaResponse call(NettyClientBase client) throws ServiceException {
           try {
             CatalogProtocolService.BlockingInterface stub = getStub(client);
-            return stub.getFunctionMeta(null, builder.build());
+            return stub.getFunctionMeta(null, request);
           } catch (NoSuchFunctionException e) {
             abort();
             throw e;
           }
         }
       }.withRetries();
+
+      if (cache != null) {
+        cache.putFunction(request, response.getCatalogVersion(), response.getFunction());
+      }
+      return response.getFunction();
     } catch(ServiceException e) {
       // this is not good. we need to define user massage exception
       if(e.getCause() instanceof NoSuchFunctionException){
@@ -552,17 +792,7 @@ public abstract class AbstractCatalogClient implements CatalogService {
       } else {
         LOG.error(e.getMessage(), e);
       }
-    }
-
-    if (descProto == null) {
-      throw new NoSuchFunctionException(signature, paramTypes);
-    }
-
-    try {
-      return new FunctionDesc(descProto);
-    } catch (ClassNotFoundException e) {
-      LOG.error(e);
-      throw new NoSuchFunctionException(signature, paramTypes);
+      return null;
     }
   }
 
@@ -583,6 +813,19 @@ public abstract class AbstractCatalogClient implements CatalogService {
       builder.addParameterTypes(type);
     }
 
+    if (cache != null) {
+      validateCache();
+      GetFunctionMetaRequest.Builder key = GetFunctionMetaRequest.newBuilder();
+      key.setSignature(signature);
+      if (funcType != null) {
+        key.setFunctionType(funcType);
+      }
+      key.addAllParameterTypes(builder.getParameterTypesList());
+      if (cache.getFunction(key.build()) != null) {
+        return true;
+      }
+    }
+
     try {
       return new ServerCallable<Boolean>(this.pool, catalogServerAddr, CatalogProtocol.class, false) {
         public Boolean call(NettyClientBase client) throws ServiceException {
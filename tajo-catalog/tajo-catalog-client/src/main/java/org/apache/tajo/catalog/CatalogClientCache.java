@@ -0,0 +1,133 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.catalog;
+
+import org.apache.tajo.catalog.proto.CatalogProtos.FunctionDescProto;
+import org.apache.tajo.catalog.proto.CatalogProtos.GetFunctionMetaRequest;
+import org.apache.tajo.catalog.proto.CatalogProtos.TableDescProto;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A cache of table descriptions and functions in a catalog client.
+ *
+ * Each entry keeps the catalog version when it was retrieved. CatalogServer increases the version
+ * whenever the catalog is changed, and the version is piggybacked on lookup responses. An entry older
+ * than the latest version known to this cache is regarded as stale. The latest version is also checked
+ * at most once in a validation interval, so that changes made by other clients are noticed without a
+ * round trip per lookup.
+ *
+ * Only protobuf messages are cached, because they are immutable.
+ */
+class CatalogClientCache {
+  private final long validationInterval;
+  private final AtomicLong knownVersion = new AtomicLong(-1);
+  private volatile long lastValidatedTime = 0;
+
+  private final ConcurrentMap<String, Entry<TableDescProto>> tables =
+      new ConcurrentHashMap<String, Entry<TableDescProto>>();
+  private final ConcurrentMap<GetFunctionMetaRequest, Entry<FunctionDescProto>> functions =
+      new ConcurrentHashMap<GetFunctionMetaRequest, Entry<FunctionDescProto>>();
+
+  /**
+   * @param validationInterval the interval in milliseconds to check the catalog version.
+   *                           If it is zero, the version is checked for every lookup.
+   */
+  CatalogClientCache(long validationInterval) {
+    this.validationInterval = validationInterval;
+  }
+
+  boolean needsValidation() {
+    return validationInterval <= 0 || System.currentTimeMillis() - lastValidatedTime >= validationInterval;
+  }
+
+  /**
+   * @param version the latest catalog version retrieved from the catalog server
+   */
+  void validated(long version) {
+    observe(version);
+    lastValidatedTime = System.currentTimeMillis();
+  }
+
+  /**
+   * Entries older than an observed version are not used anymore.
+   */
+  void observe(long version) {
+    long known;
+    do {
+      known = knownVersion.get();
+    } while (version > known && !knownVersion.compareAndSet(known, version));
+  }
+
+  long getKnownVersion() {
+    return knownVersion.get();
+  }
+
+  /**
+   * It is called after this client changes the catalog. The next lookup checks the catalog version,
+   * so that entries retrieved concurrently before the change are not used.
+   */
+  void invalidate() {
+    lastValidatedTime = 0;
+    tables.clear();
+    functions.clear();
+  }
+
+  TableDescProto getTable(String canonicalName) {
+    return get(tables, canonicalName);
+  }
+
+  void putTable(String canonicalName, long version, TableDescProto table) {
+    observe(version);
+    tables.put(canonicalName, new Entry<TableDescProto>(version, table));
+  }
+
+  FunctionDescProto getFunction(GetFunctionMetaRequest request) {
+    return get(functions, request);
+  }
+
+  void putFunction(GetFunctionMetaRequest request, long version, FunctionDescProto function) {
+    observe(version);
+    functions.put(request, new Entry<FunctionDescProto>(version, function));
+  }
+
+  private <K, V> V get(ConcurrentMap<K, Entry<V>> map, K key) {
+    Entry<V> entry = map.get(key);
+    if (entry == null) {
+      return null;
+    }
+    if (entry.version < knownVersion.get()) {
+      map.remove(key, entry);
+      return null;
+    }
+    return entry.value;
+  }
+
+  private static class Entry<T> {
+    private final long version;
+    private final T value;
+
+    Entry(long version, T value) {
+      this.version = version;
+      this.value = value;
+    }
+  }
+}
@@ -18,10 +18,14 @@
 
 package org.apache.tajo.catalog;
 
+import org.apache.tajo.catalog.partition.PartitionDesc;
 import org.apache.tajo.catalog.partition.PartitionMethodDesc;
+import org.apache.tajo.catalog.statistics.TableStats;
 import org.apache.tajo.common.TajoDataTypes.DataType;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.Set;
 
 import static org.apache.tajo.catalog.proto.CatalogProtos.FunctionType;
 
@@ -126,6 +130,15 @@ public interface CatalogService {
    */
   boolean dropTable(String tableName);
 
+  /**
+   * Replace the statistics of a table
+   *
+   * @param tableName a qualified table name
+   * @param stats table statistics including column statistics
+   * @return True if the statistics are updated successfully.
+   */
+  boolean updateTableStats(String tableName, TableStats stats);
+
   boolean existsTable(String databaseName, String tableName);
 
   boolean existsTable(String tableName);
@@ -134,6 +147,32 @@ public interface CatalogService {
 
   boolean existPartitionMethod(String databaseName, String tableName);
 
+  /**
+   * Add the partitions of a column-partitioned table. Partitions which already exist are ignored.
+   *
+   * @param databaseName the database name
+   * @param tableName the table name
+   * @param partitions partitions whose names are relative paths like 'col1=value1/col2=value2'
+   * @return True if the partitions are added successfully.
+   */
+  boolean addPartitions(String databaseName, String tableName, List<PartitionDesc> partitions);
+
+  /**
+   * Get the partitions of a column-partitioned table whose values are allowed.
+   *
+   * @param databaseName the database name
+   * @param tableName the table name
+   * @param allowedValues the allowed values in the order of partition columns. A NULL element or
+   *                      a missing trailing element allows every value of the column.
+   * @return the partitions, or NULL if they cannot be retrieved.
+   */
+  List<PartitionDesc> getPartitions(String databaseName, String tableName, List<Set<String>> allowedValues);
+
+  /**
+   * @return the number of partitions of a table, or -1 if it cannot be retrieved.
+   */
+  int getNumPartitions(String databaseName, String tableName);
+
   boolean createIndex(IndexDesc index);
 
   boolean existIndexByName(String databaseName, String indexName);
@@ -157,4 +196,16 @@ public interface CatalogService {
   boolean containFunction(String signature, DataType... paramTypes);
 
   boolean containFunction(String signature, FunctionType funcType, DataType... paramTypes);
+
+  /**
+   * @return the current version of the catalog, which is increased whenever the catalog is changed,
+   * or -1 if it cannot be retrieved.
+   */
+  long getCatalogVersion();
+
+  /**
+   * Notifies a catalog version known by another component, such as one piggybacked on a request.
+   * Cached metadata older than the version are not used anymore.
+   */
+  void updateCatalogVersion(long version);
 }
\ No newline at end of file
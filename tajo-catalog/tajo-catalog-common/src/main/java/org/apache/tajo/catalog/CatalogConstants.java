@@ -24,6 +24,8 @@ public class CatalogConstants {
   public static final String CONNECTION_ID = "tajo.catalog.connection.id";
   public static final String CONNECTION_PASSWORD = "tajo.catalog.connection.password";
   public static final String CATALOG_URI="tajo.catalog.uri";
+  /** The maximum number of pooled connections of a database store. Zero means a single shared connection. */
+  public static final String CONNECTION_POOL_SIZE = "tajo.catalog.connection.pool.size";
 
   public static final String DEPRECATED_CONNECTION_ID = "tajo.catalog.jdbc.connection.id";
   public static final String DEPRECATED_CONNECTION_PASSWORD = "tajo.catalog.jdbc.connection.password";
@@ -37,6 +39,7 @@ public class CatalogConstants {
   public static final String TB_OPTIONS = "OPTIONS";
   public static final String TB_INDEXES = "INDEXES";
   public static final String TB_STATISTICS = "STATS";
+  public static final String TB_COLUMN_STATISTICS = "COLUMN_STATS";
   public static final String TB_PARTITION_METHODS = "PARTITION_METHODS";
   public static final String TB_PARTTIONS = "PARTITIONS";
 
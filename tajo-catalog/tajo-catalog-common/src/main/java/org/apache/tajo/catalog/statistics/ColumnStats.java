@@ -33,6 +33,9 @@ import org.apache.tajo.common.ProtoObject;
 import org.apache.tajo.datum.Datum;
 import org.apache.tajo.util.TUtil;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class ColumnStats implements ProtoObject<CatalogProtos.ColumnStatsProto>, Cloneable, GsonObject {
   private CatalogProtos.ColumnStatsProto.Builder builder = CatalogProtos.ColumnStatsProto.newBuilder();
 
@@ -41,6 +44,8 @@ public class ColumnStats implements ProtoObject<CatalogProtos.ColumnStatsProto>,
   @Expose private Long numNulls = null; // optional
   @Expose private Datum minValue = null; // optional
   @Expose private Datum maxValue = null; // optional
+  @Expose private Integer avgWidth = null; // optional
+  @Expose private List<Datum> histogramBounds = null; // repeated
 
   public ColumnStats(Column column) {
     this.column = column;
@@ -63,6 +68,15 @@ public class ColumnStats implements ProtoObject<CatalogProtos.ColumnStatsProto>,
     if (proto.hasMaxValue()) {
       this.maxValue = DatumFactory.createFromBytes(getColumn().getDataType(), proto.getMaxValue().toByteArray());
     }
+    if (proto.hasAvgWidth()) {
+      this.avgWidth = proto.getAvgWidth();
+    }
+    if (proto.getHistogramBoundsCount() > 0) {
+      this.histogramBounds = new ArrayList<Datum>(proto.getHistogramBoundsCount());
+      for (ByteString bound : proto.getHistogramBoundsList()) {
+        histogramBounds.add(DatumFactory.createFromBytes(getColumn().getDataType(), bound.toByteArray()));
+      }
+    }
   }
 
   public Column getColumn() {
@@ -109,6 +123,36 @@ public class ColumnStats implements ProtoObject<CatalogProtos.ColumnStatsProto>,
     this.numNulls = numNulls;
   }
 
+  /**
+   * @return the average width in bytes of non-null values, or null if it is not computed.
+   */
+  public Integer getAvgWidth() {
+    return this.avgWidth;
+  }
+
+  public void setAvgWidth(int avgWidth) {
+    this.avgWidth = avgWidth;
+  }
+
+  public boolean hasHistogram() {
+    return histogramBounds != null && histogramBounds.size() > 1;
+  }
+
+  /**
+   * The bucket bounds of an equi-depth histogram. N + 1 ascending bounds describe N buckets,
+   * and each bucket contains about the same number of rows. The first and the last bounds are
+   * the minimum and the maximum values of the sample from which the histogram is built.
+   *
+   * @return the bucket bounds, or null if no histogram is computed.
+   */
+  public List<Datum> getHistogramBounds() {
+    return this.histogramBounds;
+  }
+
+  public void setHistogramBounds(List<Datum> histogramBounds) {
+    this.histogramBounds = histogramBounds;
+  }
+
   public boolean equals(Object obj) {
     if (obj instanceof ColumnStats) {
       ColumnStats other = (ColumnStats) obj;
@@ -116,7 +160,9 @@ public class ColumnStats implements ProtoObject<CatalogProtos.ColumnStatsProto>,
           && getNumDistValues().equals(other.getNumDistValues())
           && getNumNulls().equals(other.getNumNulls())
           && TUtil.checkEquals(getMinValue(), other.getMinValue())
-          && TUtil.checkEquals(getMaxValue(), other.getMaxValue());
+          && TUtil.checkEquals(getMaxValue(), other.getMaxValue())
+          && TUtil.checkEquals(getAvgWidth(), other.getAvgWidth())
+          && TUtil.checkEquals(getHistogramBounds(), other.getHistogramBounds());
     } else {
       return false;
     }
@@ -134,6 +180,10 @@ public class ColumnStats implements ProtoObject<CatalogProtos.ColumnStatsProto>,
     stat.numNulls = numNulls;
     stat.minValue = minValue;
     stat.maxValue = maxValue;
+    stat.avgWidth = avgWidth;
+    if (histogramBounds != null) {
+      stat.histogramBounds = new ArrayList<Datum>(histogramBounds);
+    }
 
     return stat;
   }
@@ -152,6 +202,8 @@ public class ColumnStats implements ProtoObject<CatalogProtos.ColumnStatsProto>,
   public CatalogProtos.ColumnStatsProto getProto() {
     if (builder == null) {
       builder = CatalogProtos.ColumnStatsProto.newBuilder();
+    } else {
+      builder.clear();
     }
     if (this.column != null) {
       builder.setColumn(this.column.getProto());
@@ -168,6 +220,14 @@ public class ColumnStats implements ProtoObject<CatalogProtos.ColumnStatsProto>,
     if (this.maxValue != null) {
       builder.setMaxValue(ByteString.copyFrom(this.maxValue.asByteArray()));
     }
+    if (this.avgWidth != null) {
+      builder.setAvgWidth(this.avgWidth);
+    }
+    if (this.histogramBounds != null) {
+      for (Datum bound : histogramBounds) {
+        builder.addHistogramBounds(ByteString.copyFrom(bound.asByteArray()));
+      }
+    }
 
     return builder.build();
   }
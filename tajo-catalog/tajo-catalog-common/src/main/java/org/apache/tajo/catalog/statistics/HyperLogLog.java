@@ -0,0 +1,129 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.catalog.statistics;
+
+import com.google.common.base.Preconditions;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+/**
+ * HyperLogLog sketch which estimates the number of distinct values.
+ *
+ * A sketch of precision p has 2^p registers of one byte, and its standard error is
+ * about 1.04 / sqrt(2^p). Sketches of the same precision can be merged, so each task
+ * can build a sketch for its own fragment and the sketches are merged later.
+ */
+public class HyperLogLog {
+  public static final int DEFAULT_PRECISION = 12;
+  private static final int MIN_PRECISION = 4;
+  private static final int MAX_PRECISION = 16;
+
+  private static final HashFunction HASH = Hashing.murmur3_128();
+
+  private final int precision;
+  private final byte [] registers;
+
+  public HyperLogLog() {
+    this(DEFAULT_PRECISION);
+  }
+
+  public HyperLogLog(int precision) {
+    Preconditions.checkArgument(precision >= MIN_PRECISION && precision <= MAX_PRECISION,
+        "precision must be between " + MIN_PRECISION + " and " + MAX_PRECISION);
+    this.precision = precision;
+    this.registers = new byte[1 << precision];
+  }
+
+  /**
+   * Restores a sketch from the registers returned by {@link #getRegisters()}.
+   */
+  public HyperLogLog(byte [] registers) {
+    int precision = Integer.numberOfTrailingZeros(registers.length);
+    Preconditions.checkArgument(registers.length == (1 << precision)
+        && precision >= MIN_PRECISION && precision <= MAX_PRECISION, "invalid number of registers");
+    this.precision = precision;
+    this.registers = registers.clone();
+  }
+
+  public int getPrecision() {
+    return precision;
+  }
+
+  public byte [] getRegisters() {
+    return registers;
+  }
+
+  public void offer(byte [] value) {
+    offerHash(HASH.hashBytes(value).asLong());
+  }
+
+  public void offerHash(long hash) {
+    int idx = (int) (hash >>> (64 - precision));
+    // the guard bit bounds the rank when the remaining bits are all zero.
+    long remain = (hash << precision) | (1L << (precision - 1));
+    byte rank = (byte) (Long.numberOfLeadingZeros(remain) + 1);
+    if (rank > registers[idx]) {
+      registers[idx] = rank;
+    }
+  }
+
+  public void merge(HyperLogLog other) {
+    Preconditions.checkArgument(precision == other.precision, "cannot merge sketches of different precisions");
+    for (int i = 0; i < registers.length; i++) {
+      if (other.registers[i] > registers[i]) {
+        registers[i] = other.registers[i];
+      }
+    }
+  }
+
+  /**
+   * @return the estimated number of distinct values
+   */
+  public long cardinality() {
+    int m = registers.length;
+    double sum = 0;
+    int zeros = 0;
+    for (byte r : registers) {
+      sum += 1.0d / (1L << r);
+      if (r == 0) {
+        zeros++;
+      }
+    }
+
+    double estimate = alpha(m) * m * m / sum;
+    // small range correction (linear counting)
+    if (estimate <= 2.5d * m && zeros > 0) {
+      estimate = m * Math.log((double) m / zeros);
+    }
+    return Math.round(estimate);
+  }
+
+  private static double alpha(int m) {
+    switch (m) {
+      case 16:
+        return 0.673d;
+      case 32:
+        return 0.697d;
+      case 64:
+        return 0.709d;
+      default:
+        return 0.7213d / (1 + 1.079d / m);
+    }
+  }
+}
@@ -21,12 +21,40 @@ package org.apache.tajo.catalog.statistics;
 import com.google.common.collect.Lists;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.apache.tajo.datum.Datum;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public class StatisticsUtil {
   private static final Log LOG = LogFactory.getLog(StatisticsUtil.class);
 
+  /**
+   * Builds an equi-depth histogram from sorted values.
+   *
+   * @param sorted values sorted in ascending order. Usually, they are a sample of a column.
+   * @param numBuckets the maximum number of buckets
+   * @return ascending bucket bounds. The list is empty if there is no value.
+   * @see ColumnStats#getHistogramBounds()
+   */
+  public static List<Datum> buildEquiDepthHistogram(List<Datum> sorted, int numBuckets) {
+    if (numBuckets < 1) {
+      throw new IllegalArgumentException("the number of buckets must be positive: " + numBuckets);
+    }
+
+    List<Datum> bounds = new ArrayList<Datum>();
+    if (sorted.isEmpty()) {
+      return bounds;
+    }
+
+    int buckets = Math.min(numBuckets, Math.max(1, sorted.size() - 1));
+    int last = sorted.size() - 1;
+    for (int i = 0; i <= buckets; i++) {
+      bounds.add(sorted.get((int) (((long) i * last) / buckets)));
+    }
+    return bounds;
+  }
+
   public static StatSet aggregateStatSet(List<StatSet> statSets) {
     StatSet aggregated = new StatSet();
 
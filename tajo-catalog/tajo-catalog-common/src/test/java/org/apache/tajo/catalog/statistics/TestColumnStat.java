@@ -21,7 +21,9 @@ package org.apache.tajo.catalog.statistics;
 import org.apache.tajo.catalog.Column;
 import org.apache.tajo.catalog.json.CatalogGsonHelper;
 import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.datum.Datum;
 import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.util.TUtil;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
@@ -55,6 +57,29 @@ public class TestColumnStat {
     assertEquals(stat, stat2);
   }
 
+  @Test
+  public final void testHistogram() throws CloneNotSupportedException {
+    ColumnStats stat = new ColumnStats(new Column("test", Type.TEXT));
+    stat.setNumDistVals(3);
+    stat.setNumNulls(1);
+    stat.setAvgWidth(5);
+    stat.setMinValue(DatumFactory.createText("apple"));
+    stat.setMaxValue(DatumFactory.createText("melon"));
+    stat.setHistogramBounds(TUtil.<Datum>newList(DatumFactory.createText("apple"),
+        DatumFactory.createText("grape"), DatumFactory.createText("melon")));
+    assertTrue(stat.hasHistogram());
+
+    ColumnStats fromProto = new ColumnStats(stat.getProto());
+    assertEquals(stat, fromProto);
+    assertEquals(5, fromProto.getAvgWidth().intValue());
+    assertEquals(3, fromProto.getHistogramBounds().size());
+    // getProto() must not accumulate the repeated field
+    assertEquals(3, stat.getProto().getHistogramBoundsCount());
+
+    assertEquals(stat, stat.clone());
+    assertEquals(stat, CatalogGsonHelper.fromJson(stat.toJson(), ColumnStats.class));
+  }
+
   @Test
   public final void testJson() throws CloneNotSupportedException {
     ColumnStats stat = new ColumnStats(new Column("test", Type.INT8));
@@ -0,0 +1,71 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.catalog.statistics;
+
+import org.apache.tajo.util.Bytes;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestHyperLogLog {
+
+  private static void assertEstimate(long expected, long estimate) {
+    double error = Math.abs(estimate - expected) / (double) expected;
+    assertTrue("expected: " + expected + ", but estimated: " + estimate, error < 0.05);
+  }
+
+  @Test
+  public void testCardinality() {
+    HyperLogLog hll = new HyperLogLog();
+    for (int i = 0; i < 100000; i++) {
+      hll.offer(Bytes.toBytes(i));
+      // duplicated values must not change the estimation
+      hll.offer(Bytes.toBytes(i));
+    }
+    assertEstimate(100000, hll.cardinality());
+  }
+
+  @Test
+  public void testSmallCardinality() {
+    HyperLogLog hll = new HyperLogLog();
+    assertEquals(0, hll.cardinality());
+    for (int i = 0; i < 10; i++) {
+      hll.offer(Bytes.toBytes("value" + i));
+    }
+    // linear counting is almost exact for a small cardinality
+    assertTrue(Math.abs(hll.cardinality() - 10) <= 1);
+  }
+
+  @Test
+  public void testMerge() {
+    HyperLogLog hll1 = new HyperLogLog();
+    HyperLogLog hll2 = new HyperLogLog();
+    for (int i = 0; i < 60000; i++) {
+      hll1.offer(Bytes.toBytes(i));
+    }
+    for (int i = 40000; i < 100000; i++) {
+      hll2.offer(Bytes.toBytes(i));
+    }
+
+    HyperLogLog restored = new HyperLogLog(hll2.getRegisters());
+    hll1.merge(restored);
+    assertEstimate(100000, hll1.cardinality());
+  }
+}
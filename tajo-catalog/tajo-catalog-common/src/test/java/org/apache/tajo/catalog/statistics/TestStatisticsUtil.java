@@ -19,9 +19,14 @@
 package org.apache.tajo.catalog.statistics;
 
 import com.google.common.collect.Lists;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.DatumFactory;
 import org.junit.Test;
 import org.apache.tajo.catalog.proto.CatalogProtos.StatType;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 
@@ -56,6 +61,27 @@ public class TestStatisticsUtil {
     assertEquals(100, agg.getStat(StatType.TABLE_NUM_BLOCKS).getValue());
   }
 
+  @Test
+  public void testEquiDepthHistogram() {
+    List<Datum> sorted = new ArrayList<Datum>();
+    for (int i = 0; i <= 100; i++) {
+      sorted.add(DatumFactory.createInt4(i));
+    }
+
+    List<Datum> bounds = StatisticsUtil.buildEquiDepthHistogram(sorted, 4);
+    assertEquals(5, bounds.size());
+    assertEquals(DatumFactory.createInt4(0), bounds.get(0));
+    assertEquals(DatumFactory.createInt4(25), bounds.get(1));
+    assertEquals(DatumFactory.createInt4(50), bounds.get(2));
+    assertEquals(DatumFactory.createInt4(75), bounds.get(3));
+    assertEquals(DatumFactory.createInt4(100), bounds.get(4));
+
+    // the number of buckets is limited by the number of values
+    bounds = StatisticsUtil.buildEquiDepthHistogram(sorted.subList(0, 3), 10);
+    assertEquals(3, bounds.size());
+    assertEquals(0, StatisticsUtil.buildEquiDepthHistogram(new ArrayList<Datum>(), 10).size());
+  }
+
   @Test
   public void testEmptyAggregate() {
     TableStats stat1 = new TableStats();
@@ -277,6 +277,12 @@ public class HCatalogStore extends CatalogConstants implements CatalogStore {
     }
   }
 
+  @Override
+  public void updateTableStats(String databaseName, String tableName, CatalogProtos.TableStatsProto stats)
+      throws CatalogException {
+    // SKIP
+  }
+
   @Override
   public void createTablespace(String spaceName, String spaceUri) throws CatalogException {
     // SKIP
@@ -532,7 +538,8 @@ public class HCatalogStore extends CatalogConstants implements CatalogStore {
   }
 
   @Override
-  public CatalogProtos.PartitionsProto getPartitions(String tableName) throws CatalogException {
+  public CatalogProtos.PartitionsProto getPartitions(String databaseName, String tableName)
+      throws CatalogException {
     return null; // TODO - not implemented yet
   }
 
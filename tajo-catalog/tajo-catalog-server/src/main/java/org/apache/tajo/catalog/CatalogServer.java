@@ -29,6 +29,7 @@ import org.apache.tajo.annotation.ThreadSafe;
 import org.apache.tajo.catalog.CatalogProtocol.CatalogProtocolService;
 import org.apache.tajo.catalog.exception.*;
 import org.apache.tajo.catalog.proto.CatalogProtos.*;
+import org.apache.tajo.catalog.store.AbstractDBStore;
 import org.apache.tajo.catalog.store.CatalogStore;
 import org.apache.tajo.catalog.store.DerbyStore;
 import org.apache.tajo.common.TajoDataTypes.DataType;
@@ -36,6 +37,8 @@ import org.apache.tajo.conf.TajoConf;
 import org.apache.tajo.conf.TajoConf.ConfVars;
 import org.apache.tajo.rpc.BlockingRpcServer;
 import org.apache.tajo.rpc.protocolrecords.PrimitiveProtos.BoolProto;
+import org.apache.tajo.rpc.protocolrecords.PrimitiveProtos.IntProto;
+import org.apache.tajo.rpc.protocolrecords.PrimitiveProtos.LongProto;
 import org.apache.tajo.rpc.protocolrecords.PrimitiveProtos.NullProto;
 import org.apache.tajo.rpc.protocolrecords.PrimitiveProtos.StringProto;
 import org.apache.tajo.util.NetUtils;
@@ -47,6 +50,7 @@ import java.lang.reflect.Constructor;
 import java.net.InetSocketAddress;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
@@ -65,13 +69,27 @@ public class CatalogServer extends AbstractService {
 
   private final static Log LOG = LogFactory.getLog(CatalogServer.class);
   private TajoConf conf;
+  private static final int DATABASE_LOCK_STRIPES = 16;
+
+  // Operations on tablespaces and databases take the global lock. If the store allows concurrent
+  // writes, operations within a database take the read lock of the global lock and the stripe lock
+  // of the database, so that operations on different databases do not block each other.
+  // Otherwise, they take the global lock as well.
   private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
   private final Lock rlock = lock.readLock();
   private final Lock wlock = lock.writeLock();
+  // NULL if the store does not allow concurrent writes
+  private ReentrantReadWriteLock [] databaseLocks;
 
   private CatalogStore store;
   private Map<String, List<FunctionDescProto>> functions = new ConcurrentHashMap<String,
       List<FunctionDescProto>>();
+  // the partitions of tables, which are lazily loaded from the store. Keys are canonical table names.
+  private ConcurrentHashMap<String, PartitionTree> partitionCache = new ConcurrentHashMap<String, PartitionTree>();
+  // It is increased whenever databases, tables, or functions are changed. Catalog clients use it to
+  // invalidate their caches. Lookups read it before reading metadata, and changes increase it after
+  // modifying metadata, so that a cached entry never has a newer version than its content.
+  private final AtomicLong catalogVersion = new AtomicLong(0);
 
   // RPC variables
   private BlockingRpcServer rpcServer;
@@ -120,6 +138,13 @@ public class CatalogServer extends AbstractService {
           getConstructor(new Class [] {Configuration.class});
 
       this.store = (CatalogStore) cons.newInstance(this.conf);
+      // each thread uses its own connection only if connections are pooled.
+      if (store instanceof AbstractDBStore && ((AbstractDBStore) store).isConnectionPooled()) {
+        databaseLocks = new ReentrantReadWriteLock[DATABASE_LOCK_STRIPES];
+        for (int i = 0; i < databaseLocks.length; i++) {
+          databaseLocks[i] = new ReentrantReadWriteLock();
+        }
+      }
 
       initBuiltinFunctions(builtingFuncs);
     } catch (Throwable t) {
@@ -164,7 +189,7 @@ public class CatalogServer extends AbstractService {
     InetSocketAddress initIsa = NetUtils.createSocketAddr(serverAddr);
     int workerNum = conf.getIntVar(ConfVars.CATALOG_RPC_SERVER_WORKER_THREAD_NUM);
     try {
-      this.rpcServer = new BlockingRpcServer(CatalogProtocol.class, handler, initIsa, workerNum);
+      this.rpcServer = new BlockingRpcServer(CatalogProtocol.class, handler, initIsa, workerNum, conf);
       this.rpcServer.start();
 
       this.bindAddress = NetUtils.getConnectAddress(this.rpcServer.getListenAddress());
@@ -197,6 +222,60 @@ public class CatalogServer extends AbstractService {
     super.stop();
   }
 
+  private void lock(boolean exclusive) {
+    (exclusive ? wlock : rlock).lock();
+  }
+
+  private void unlock(boolean exclusive) {
+    try {
+      releaseStoreConnection();
+    } finally {
+      (exclusive ? wlock : rlock).unlock();
+    }
+  }
+
+  private ReentrantReadWriteLock getDatabaseLock(String databaseName) {
+    int hash = databaseName == null ? 0 : databaseName.hashCode();
+    return databaseLocks[(hash & Integer.MAX_VALUE) % databaseLocks.length];
+  }
+
+  private void lockDatabase(String databaseName, boolean exclusive) {
+    if (databaseLocks == null) {
+      lock(exclusive);
+      return;
+    }
+
+    rlock.lock();
+    ReentrantReadWriteLock databaseLock = getDatabaseLock(databaseName);
+    try {
+      (exclusive ? databaseLock.writeLock() : databaseLock.readLock()).lock();
+    } catch (RuntimeException e) {
+      rlock.unlock();
+      throw e;
+    }
+  }
+
+  private void unlockDatabase(String databaseName, boolean exclusive) {
+    if (databaseLocks == null) {
+      unlock(exclusive);
+      return;
+    }
+
+    ReentrantReadWriteLock databaseLock = getDatabaseLock(databaseName);
+    try {
+      releaseStoreConnection();
+    } finally {
+      (exclusive ? databaseLock.writeLock() : databaseLock.readLock()).unlock();
+      rlock.unlock();
+    }
+  }
+
+  private void releaseStoreConnection() {
+    if (store instanceof AbstractDBStore) {
+      ((AbstractDBStore) store).releaseConnection();
+    }
+  }
+
   public CatalogProtocolHandler getHandler() {
     return this.handler;
   }
@@ -207,12 +286,17 @@ public class CatalogServer extends AbstractService {
 
   public class CatalogProtocolHandler implements CatalogProtocolService.BlockingInterface {
 
+    @Override
+    public LongProto getCatalogVersion(RpcController controller, NullProto request) throws ServiceException {
+      return LongProto.newBuilder().setValue(catalogVersion.get()).build();
+    }
+
     @Override
     public BoolProto createTablespace(RpcController controller, CreateTablespaceRequest request) throws ServiceException {
       final String tablespaceName = request.getTablespaceName();
       final String uri = request.getTablespaceUri();
 
-      wlock.lock();
+      lock(true);
       try {
         if (store.existTablespace(tablespaceName)) {
           throw new AlreadyExistsDatabaseException(tablespaceName);
@@ -226,7 +310,7 @@ public class CatalogServer extends AbstractService {
         LOG.error(e);
         throw new ServiceException(e);
       } finally {
-        wlock.unlock();
+        unlock(true);
       }
     }
 
@@ -234,7 +318,7 @@ public class CatalogServer extends AbstractService {
     public BoolProto dropTablespace(RpcController controller, StringProto request) throws ServiceException {
       String tablespaceName = request.getValue();
 
-      wlock.lock();
+      lock(true);
       try {
         if (!store.existTablespace(tablespaceName)) {
           throw new NoSuchTablespaceException(tablespaceName);
@@ -247,7 +331,7 @@ public class CatalogServer extends AbstractService {
         LOG.error(e);
         throw new ServiceException(e);
       } finally {
-        wlock.unlock();
+        unlock(true);
       }
     }
 
@@ -255,7 +339,7 @@ public class CatalogServer extends AbstractService {
     public BoolProto existTablespace(RpcController controller, StringProto request) throws ServiceException {
       String tablespaceName = request.getValue();
 
-      rlock.lock();
+      lock(false);
       try {
         if (store.existTablespace(tablespaceName)) {
           return ProtoUtil.TRUE;
@@ -266,20 +350,20 @@ public class CatalogServer extends AbstractService {
         LOG.error(e);
         throw new ServiceException(e);
       } finally {
-        rlock.unlock();
+        unlock(false);
       }
     }
 
     @Override
     public StringListProto getAllTablespaceNames(RpcController controller, NullProto request) throws ServiceException {
-      rlock.lock();
+      lock(false);
       try {
         return ProtoUtil.convertStrings(store.getAllDatabaseNames());
       } catch (Exception e) {
         LOG.error(e);
         throw new ServiceException(e);
       } finally {
-        rlock.unlock();
+        unlock(false);
       }
     }
 
@@ -288,7 +372,7 @@ public class CatalogServer extends AbstractService {
       String databaseName = request.getDatabaseName();
       String tablespaceName = request.getTablespaceName();
 
-      wlock.lock();
+      lock(true);
       try {
         if (store.existDatabase(databaseName)) {
           throw new AlreadyExistsDatabaseException(databaseName);
@@ -301,7 +385,8 @@ public class CatalogServer extends AbstractService {
         LOG.error(e);
         throw new ServiceException(e);
       } finally {
-        wlock.unlock();
+        catalogVersion.incrementAndGet();
+        unlock(true);
       }
     }
 
@@ -309,20 +394,22 @@ public class CatalogServer extends AbstractService {
     public BoolProto dropDatabase(RpcController controller, StringProto request) throws ServiceException {
       String databaseName = request.getValue();
 
-      wlock.lock();
+      lock(true);
       try {
         if (!store.existDatabase(databaseName)) {
           throw new NoSuchDatabaseException(databaseName);
         }
 
         store.dropDatabase(databaseName);
+        invalidatePartitionsOfDatabase(databaseName);
         return ProtoUtil.TRUE;
 
       } catch (Exception e) {
         LOG.error(e);
         throw new ServiceException(e);
       } finally {
-        wlock.unlock();
+        catalogVersion.incrementAndGet();
+        unlock(true);
       }
     }
 
@@ -330,7 +417,7 @@ public class CatalogServer extends AbstractService {
     public BoolProto existDatabase(RpcController controller, StringProto request) throws ServiceException {
       String databaseName = request.getValue();
 
-      rlock.lock();
+      lock(false);
       try {
         if (store.existDatabase(databaseName)) {
           return ProtoUtil.TRUE;
@@ -341,31 +428,32 @@ public class CatalogServer extends AbstractService {
         LOG.error(e);
         throw new ServiceException(e);
       } finally {
-        rlock.unlock();
+        unlock(false);
       }
     }
 
     @Override
     public StringListProto getAllDatabaseNames(RpcController controller, NullProto request) throws ServiceException {
-      rlock.lock();
+      lock(false);
       try {
         return ProtoUtil.convertStrings(store.getAllDatabaseNames());
       } catch (Exception e) {
         LOG.error(e);
         throw new ServiceException(e);
       } finally {
-        rlock.unlock();
+        unlock(false);
       }
     }
 
     @Override
-    public TableDescProto getTableDesc(RpcController controller,
-                                       TableIdentifierProto request) throws ServiceException {
+    public GetTableDescResponse getTableDesc(RpcController controller,
+                                             TableIdentifierProto request) throws ServiceException {
       String databaseName = request.getDatabaseName();
       String tableName = request.getTableName();
 
-      rlock.lock();
+      lockDatabase(databaseName, false);
       try {
+        long version = catalogVersion.get();
         boolean contain;
 
         contain = store.existDatabase(databaseName);
@@ -373,7 +461,10 @@ public class CatalogServer extends AbstractService {
         if (contain) {
           contain = store.existTable(databaseName, tableName);
           if (contain) {
-            return store.getTable(databaseName, tableName);
+            return GetTableDescResponse.newBuilder()
+                .setCatalogVersion(version)
+                .setTable(store.getTable(databaseName, tableName))
+                .build();
           } else {
             throw new NoSuchTableException(tableName);
           }
@@ -384,7 +475,7 @@ public class CatalogServer extends AbstractService {
         LOG.error(e);
         throw new ServiceException(e);
       } finally {
-        rlock.unlock();
+        unlockDatabase(databaseName, false);
       }
     }
 
@@ -394,7 +485,7 @@ public class CatalogServer extends AbstractService {
 
       String databaseName = request.getValue();
 
-      rlock.lock();
+      lockDatabase(databaseName, false);
       try {
         if (store.existDatabase(databaseName)) {
           return ProtoUtil.convertStrings(store.getAllTableNames(databaseName));
@@ -405,10 +496,40 @@ public class CatalogServer extends AbstractService {
         LOG.error(e);
         throw new ServiceException(e);
       } finally {
-        rlock.unlock();
+        unlockDatabase(databaseName, false);
       }
     }
 
+    @Override
+    public BoolProto updateTableStats(RpcController controller, UpdateTableStatsRequest request)
+        throws ServiceException {
+
+      String databaseName = request.getTableIdentifier().getDatabaseName();
+      String tableName = request.getTableIdentifier().getTableName();
+
+      lockDatabase(databaseName, true);
+      try {
+        if (!store.existDatabase(databaseName)) {
+          throw new NoSuchDatabaseException(databaseName);
+        }
+        if (!store.existTable(databaseName, tableName)) {
+          throw new NoSuchTableException(databaseName, tableName);
+        }
+
+        store.updateTableStats(databaseName, tableName, request.getStats());
+        LOG.info(String.format("statistics of relation \"%s\" are updated (%s)",
+            CatalogUtil.getCanonicalTableName(databaseName, tableName), bindAddressStr));
+      } catch (Exception e) {
+        LOG.error(e.getMessage(), e);
+        return BOOL_FALSE;
+      } finally {
+        catalogVersion.incrementAndGet();
+        unlockDatabase(databaseName, true);
+      }
+
+      return BOOL_TRUE;
+    }
+
     @Override
     public GetFunctionsResponse getFunctions(RpcController controller,
                                              NullProto request)
@@ -430,7 +551,7 @@ public class CatalogServer extends AbstractService {
       String databaseName = splitted[0];
       String tableName = splitted[1];
 
-      wlock.lock();
+      lockDatabase(databaseName, true);
       try {
 
         boolean contain = store.existDatabase(databaseName);
@@ -441,6 +562,7 @@ public class CatalogServer extends AbstractService {
           }
 
           store.createTable(request);
+          partitionCache.remove(CatalogUtil.getCanonicalTableName(databaseName, tableName));
           LOG.info(String.format("relation \"%s\" is added to the catalog (%s)",
               CatalogUtil.getCanonicalTableName(databaseName, tableName), bindAddressStr));
         } else {
@@ -450,7 +572,8 @@ public class CatalogServer extends AbstractService {
         LOG.error(e.getMessage(), e);
         return ProtoUtil.FALSE;
       } finally {
-        wlock.unlock();
+        catalogVersion.incrementAndGet();
+        unlockDatabase(databaseName, true);
       }
 
       return ProtoUtil.TRUE;
@@ -462,7 +585,7 @@ public class CatalogServer extends AbstractService {
       String databaseName = request.getDatabaseName();
       String tableName = request.getTableName();
 
-      wlock.lock();
+      lockDatabase(databaseName, true);
       try {
         boolean contain = store.existDatabase(databaseName);
 
@@ -472,6 +595,7 @@ public class CatalogServer extends AbstractService {
           }
 
           store.dropTable(databaseName, tableName);
+          partitionCache.remove(CatalogUtil.getCanonicalTableName(databaseName, tableName));
           LOG.info(String.format("relation \"%s\" is deleted from the catalog (%s)",
               CatalogUtil.getCanonicalTableName(databaseName, tableName), bindAddressStr));
         } else {
@@ -481,7 +605,8 @@ public class CatalogServer extends AbstractService {
         LOG.error(e.getMessage(), e);
         return BOOL_FALSE;
       } finally {
-        wlock.unlock();
+        catalogVersion.incrementAndGet();
+        unlockDatabase(databaseName, true);
       }
 
       return BOOL_TRUE;
@@ -493,7 +618,7 @@ public class CatalogServer extends AbstractService {
       String databaseName = request.getDatabaseName();
       String tableName = request.getTableName();
 
-      rlock.lock();
+      lockDatabase(databaseName, false);
       try {
 
         boolean contain = store.existDatabase(databaseName);
@@ -511,7 +636,7 @@ public class CatalogServer extends AbstractService {
         LOG.error(e);
         throw new ServiceException(e);
       } finally {
-        rlock.unlock();
+        unlockDatabase(databaseName, false);
       }
 
     }
@@ -523,7 +648,7 @@ public class CatalogServer extends AbstractService {
       String databaseName = request.getDatabaseName();
       String tableName = request.getTableName();
 
-      rlock.lock();
+      lockDatabase(databaseName, false);
       try {
         boolean contain;
 
@@ -547,7 +672,7 @@ public class CatalogServer extends AbstractService {
         LOG.error(e);
         throw new ServiceException(e);
       } finally {
-        rlock.unlock();
+        unlockDatabase(databaseName, false);
       }
     }
 
@@ -557,7 +682,7 @@ public class CatalogServer extends AbstractService {
       String databaseName = request.getDatabaseName();
       String tableName = request.getTableName();
 
-      rlock.lock();
+      lockDatabase(databaseName, false);
       try {
         boolean contain;
 
@@ -581,7 +706,7 @@ public class CatalogServer extends AbstractService {
         LOG.error(e);
         throw new ServiceException(e);
       } finally {
-        rlock.unlock();
+        unlockDatabase(databaseName, false);
       }
     }
 
@@ -593,8 +718,44 @@ public class CatalogServer extends AbstractService {
 
     @Override
     public BoolProto addPartitions(RpcController controller, PartitionsProto request) throws ServiceException {
+      String databaseName = request.getTableIdentifier().getDatabaseName();
+      String tableName = request.getTableIdentifier().getTableName();
 
-      return ProtoUtil.TRUE;
+      lockDatabase(databaseName, true);
+      try {
+        if (!store.existDatabase(databaseName)) {
+          throw new NoSuchDatabaseException(databaseName);
+        }
+        if (!store.existTable(databaseName, tableName)) {
+          throw new NoSuchTableException(databaseName, tableName);
+        }
+
+        PartitionTree partitions = getPartitionTree(databaseName, tableName);
+        // the store does not allow duplicated partition names.
+        PartitionsProto.Builder newPartitions = PartitionsProto.newBuilder();
+        newPartitions.setTableIdentifier(request.getTableIdentifier());
+        Set<String> names = new HashSet<String>();
+        for (PartitionDescProto partition : request.getPartitionList()) {
+          if (!partitions.contains(partition.getPartitionName()) && names.add(partition.getPartitionName())) {
+            newPartitions.addPartition(partition);
+          }
+        }
+
+        if (newPartitions.getPartitionCount() > 0) {
+          store.addPartitions(newPartitions.build());
+          for (PartitionDescProto partition : newPartitions.getPartitionList()) {
+            partitions.add(partition);
+          }
+        }
+        return ProtoUtil.TRUE;
+      } catch (Exception e) {
+        LOG.error(e.getMessage(), e);
+        // the cached partitions may not be consistent with the store.
+        partitionCache.remove(CatalogUtil.getCanonicalTableName(databaseName, tableName));
+        return ProtoUtil.FALSE;
+      } finally {
+        unlockDatabase(databaseName, true);
+      }
     }
 
     @Override
@@ -609,10 +770,54 @@ public class CatalogServer extends AbstractService {
     }
 
     @Override
-    public PartitionsProto getPartitionsByTableName(RpcController controller,
-                                                    StringProto request)
+    public PartitionsProto getPartitions(RpcController controller, GetPartitionsRequest request)
         throws ServiceException {
-      return null;
+      String databaseName = request.getTableIdentifier().getDatabaseName();
+      String tableName = request.getTableIdentifier().getTableName();
+
+      lockDatabase(databaseName, false);
+      try {
+        if (!store.existDatabase(databaseName)) {
+          throw new NoSuchDatabaseException(databaseName);
+        }
+        if (!store.existTable(databaseName, tableName)) {
+          throw new NoSuchTableException(databaseName, tableName);
+        }
+
+        PartitionsProto.Builder builder = PartitionsProto.newBuilder();
+        builder.setTableIdentifier(request.getTableIdentifier());
+        builder.addAllPartition(getPartitionTree(databaseName, tableName).find(request.getKeyFiltersList()));
+        return builder.build();
+      } catch (Exception e) {
+        LOG.error(e);
+        throw new ServiceException(e);
+      } finally {
+        unlockDatabase(databaseName, false);
+      }
+    }
+
+    @Override
+    public IntProto getNumPartitions(RpcController controller, TableIdentifierProto request)
+        throws ServiceException {
+      String databaseName = request.getDatabaseName();
+      String tableName = request.getTableName();
+
+      lockDatabase(databaseName, false);
+      try {
+        if (!store.existDatabase(databaseName)) {
+          throw new NoSuchDatabaseException(databaseName);
+        }
+        if (!store.existTable(databaseName, tableName)) {
+          throw new NoSuchTableException(databaseName, tableName);
+        }
+
+        return IntProto.newBuilder().setValue(getPartitionTree(databaseName, tableName).size()).build();
+      } catch (Exception e) {
+        LOG.error(e);
+        throw new ServiceException(e);
+      } finally {
+        unlockDatabase(databaseName, false);
+      }
     }
 
     @Override
@@ -624,11 +829,10 @@ public class CatalogServer extends AbstractService {
     @Override
     public BoolProto createIndex(RpcController controller, IndexDescProto indexDesc)
         throws ServiceException {
-      rlock.lock();
+      String databaseName = indexDesc.getTableIdentifier().getDatabaseName();
+      lockDatabase(databaseName, true);
       try {
-        if (store.existIndexByName(
-            indexDesc.getTableIdentifier().getDatabaseName(),
-            indexDesc.getIndexName())) {
+        if (store.existIndexByName(databaseName, indexDesc.getIndexName())) {
           throw new AlreadyExistsIndexException(indexDesc.getIndexName());
         }
         store.createIndex(indexDesc);
@@ -637,7 +841,8 @@ public class CatalogServer extends AbstractService {
         LOG.error(indexDesc);
         throw new ServiceException(e);
       } finally {
-        rlock.unlock();
+        catalogVersion.incrementAndGet();
+        unlockDatabase(databaseName, true);
       }
 
       return BOOL_TRUE;
@@ -649,14 +854,14 @@ public class CatalogServer extends AbstractService {
       String databaseName = request.getDatabaseName();
       String indexName = request.getIndexName();
 
-      rlock.lock();
+      lockDatabase(databaseName, false);
       try {
         return store.existIndexByName(databaseName, indexName) ? ProtoUtil.TRUE : ProtoUtil.FALSE;
       } catch (Exception e) {
         LOG.error(e);
         return BoolProto.newBuilder().setValue(false).build();
       } finally {
-        rlock.unlock();
+        unlockDatabase(databaseName, false);
       }
     }
 
@@ -669,7 +874,7 @@ public class CatalogServer extends AbstractService {
       String tableName = identifier.getTableName();
       String columnName = request.getColumnName();
 
-      rlock.lock();
+      lockDatabase(databaseName, false);
       try {
         return store.existIndexByColumn(databaseName, tableName, columnName) ?
             ProtoUtil.TRUE : ProtoUtil.FALSE;
@@ -677,7 +882,7 @@ public class CatalogServer extends AbstractService {
         LOG.error(e);
         return BoolProto.newBuilder().setValue(false).build();
       } finally {
-        rlock.unlock();
+        unlockDatabase(databaseName, false);
       }
     }
 
@@ -688,7 +893,7 @@ public class CatalogServer extends AbstractService {
       String databaseName = request.getDatabaseName();
       String indexName = request.getIndexName();
 
-      rlock.lock();
+      lockDatabase(databaseName, false);
       try {
         if (!store.existIndexByName(databaseName, indexName)) {
           throw new NoSuchIndexException(databaseName, indexName);
@@ -698,7 +903,7 @@ public class CatalogServer extends AbstractService {
         LOG.error("ERROR : cannot get index " + indexName, e);
         return null;
       } finally {
-        rlock.unlock();
+        unlockDatabase(databaseName, false);
       }
     }
 
@@ -711,7 +916,7 @@ public class CatalogServer extends AbstractService {
       String tableName = identifier.getTableName();
       String columnName = request.getColumnName();
 
-      rlock.lock();
+      lockDatabase(databaseName, false);
       try {
         if (!store.existIndexByColumn(databaseName, tableName, columnName)) {
           throw new NoSuchIndexException(databaseName, columnName);
@@ -721,7 +926,7 @@ public class CatalogServer extends AbstractService {
         LOG.error("ERROR : cannot get index for " + tableName + "." + columnName, e);
         return null;
       } finally {
-        rlock.unlock();
+        unlockDatabase(databaseName, false);
       }
     }
 
@@ -732,7 +937,7 @@ public class CatalogServer extends AbstractService {
       String databaseName = request.getDatabaseName();
       String indexName = request.getIndexName();
 
-      wlock.lock();
+      lockDatabase(databaseName, true);
       try {
         if (!store.existIndexByName(databaseName, indexName)) {
           throw new NoSuchIndexException(indexName);
@@ -741,7 +946,8 @@ public class CatalogServer extends AbstractService {
       } catch (Exception e) {
         LOG.error(e);
       } finally {
-        wlock.unlock();
+        catalogVersion.incrementAndGet();
+        unlockDatabase(databaseName, true);
       }
 
       return BOOL_TRUE;
@@ -751,6 +957,39 @@ public class CatalogServer extends AbstractService {
       return type == GENERAL || type == AGGREGATION || type == DISTINCT_AGGREGATION;
     }
 
+    /**
+     * It must be called while holding the lock. Concurrent readers may load the same partitions
+     * together, but only one of them is cached.
+     */
+    private PartitionTree getPartitionTree(String databaseName, String tableName) throws CatalogException {
+      String canonicalName = CatalogUtil.getCanonicalTableName(databaseName, tableName);
+      PartitionTree partitions = partitionCache.get(canonicalName);
+      if (partitions == null) {
+        partitions = new PartitionTree();
+        PartitionsProto stored = store.getPartitions(databaseName, tableName);
+        if (stored != null) {
+          for (PartitionDescProto partition : stored.getPartitionList()) {
+            partitions.add(partition);
+          }
+        }
+        PartitionTree existing = partitionCache.putIfAbsent(canonicalName, partitions);
+        if (existing != null) {
+          partitions = existing;
+        }
+      }
+      return partitions;
+    }
+
+    private void invalidatePartitionsOfDatabase(String databaseName) {
+      String prefix = databaseName + CatalogUtil.IDENTIFIER_DELIMITER;
+      Iterator<String> it = partitionCache.keySet().iterator();
+      while (it.hasNext()) {
+        if (it.next().startsWith(prefix)) {
+          it.remove();
+        }
+      }
+    }
+
     private boolean containFunction(String signature) {
       List<FunctionDescProto> found = findFunction(signature);
       return found != null && found.size() > 0;
@@ -807,6 +1046,7 @@ public class CatalogServer extends AbstractService {
       }
 
       TUtil.putToNestedList(functions, funcDesc.getSignature(), funcDesc);
+      catalogVersion.incrementAndGet();
       if (LOG.isDebugEnabled()) {
         LOG.info("Function " + signature + " is registered.");
       }
@@ -823,14 +1063,16 @@ public class CatalogServer extends AbstractService {
       }
 
       functions.remove(request.getSignature());
+      catalogVersion.incrementAndGet();
       LOG.info(request.getSignature() + " is dropped.");
 
       return BOOL_TRUE;
     }
 
     @Override
-    public FunctionDescProto getFunctionMeta(RpcController controller, GetFunctionMetaRequest request)
+    public GetFunctionMetaResponse getFunctionMeta(RpcController controller, GetFunctionMetaRequest request)
         throws ServiceException {
+      long version = catalogVersion.get();
       FunctionDescProto function = null;
       if (request.hasFunctionType()) {
         if (containFunction(request.getSignature(), request.getFunctionType(), request.getParameterTypesList())) {
@@ -843,7 +1085,7 @@ public class CatalogServer extends AbstractService {
       if (function == null) {
         throw new NoSuchFunctionException(request.getSignature(), request.getParameterTypesList());
       } else {
-        return function;
+        return GetFunctionMetaResponse.newBuilder().setCatalogVersion(version).setFunction(function).build();
       }
     }
 
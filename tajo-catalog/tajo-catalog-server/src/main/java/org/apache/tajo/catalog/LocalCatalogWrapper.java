@@ -35,7 +35,8 @@ public class LocalCatalogWrapper extends AbstractCatalogClient {
   private CatalogProtocol.CatalogProtocolService.BlockingInterface stub;
 
   public LocalCatalogWrapper(final TajoConf conf) throws IOException {
-    super(conf, null);
+    // checking the catalog version is a local method call, so it is checked for every cached lookup.
+    super(conf, null, 0);
     this.catalog = new CatalogServer();
     this.catalog.init(conf);
     this.catalog.start();
@@ -47,7 +48,7 @@ public class LocalCatalogWrapper extends AbstractCatalogClient {
   }
 
   public LocalCatalogWrapper(final CatalogServer server, final TajoConf conf) {
-    super(conf, null);
+    super(conf, null, 0);
     this.catalog = server;
     this.stub = server.getHandler();
   }
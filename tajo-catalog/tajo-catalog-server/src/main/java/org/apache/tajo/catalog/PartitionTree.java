@@ -0,0 +1,131 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.catalog;
+
+import org.apache.tajo.catalog.proto.CatalogProtos.PartitionDescProto;
+import org.apache.tajo.catalog.proto.CatalogProtos.PartitionKeyFilterProto;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * An in-memory index of the partitions of a column-partitioned table.
+ *
+ * A partition name is a relative path like 'col1=value1/col2=value2'. Each level of the tree
+ * corresponds to a partition column in order, so the partitions matching equality conditions on
+ * leading partition columns are found without visiting the other partitions.
+ *
+ * It is not thread-safe. CatalogServer guards it with its lock.
+ */
+public class PartitionTree {
+  private final Node root = new Node();
+  private int size = 0;
+
+  /**
+   * Adds a partition if a partition of the same name does not exist.
+   *
+   * @return true if the partition is added
+   */
+  public boolean add(PartitionDescProto partition) {
+    Node node = root;
+    for (String value : getPartitionValues(partition.getPartitionName())) {
+      Node child = node.children.get(value);
+      if (child == null) {
+        child = new Node();
+        node.children.put(value, child);
+      }
+      node = child;
+    }
+
+    if (node.partition != null) {
+      return false;
+    }
+    node.partition = partition;
+    size++;
+    return true;
+  }
+
+  public boolean contains(String partitionName) {
+    Node node = root;
+    for (String value : getPartitionValues(partitionName)) {
+      node = node.children.get(value);
+      if (node == null) {
+        return false;
+      }
+    }
+    return node.partition != null;
+  }
+
+  /**
+   * Finds the partitions whose values are allowed by key filters.
+   *
+   * @param keyFilters the allowed values in the order of partition columns. Columns without
+   *                   a filter allow every value.
+   * @return the matched partitions in the order of partition values
+   */
+  public List<PartitionDescProto> find(List<PartitionKeyFilterProto> keyFilters) {
+    List<PartitionDescProto> found = new ArrayList<PartitionDescProto>();
+    find(root, 0, keyFilters, found);
+    return found;
+  }
+
+  private static void find(Node node, int level, List<PartitionKeyFilterProto> keyFilters,
+                           List<PartitionDescProto> found) {
+    if (node.partition != null) {
+      found.add(node.partition);
+    }
+
+    if (level >= keyFilters.size() || keyFilters.get(level).getAnyValue()) {
+      for (Node child : node.children.values()) {
+        find(child, level + 1, keyFilters, found);
+      }
+    } else {
+      for (String value : keyFilters.get(level).getValuesList()) {
+        Node child = node.children.get(value);
+        if (child != null) {
+          find(child, level + 1, keyFilters, found);
+        }
+      }
+    }
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @return the values of a partition name like 'col1=value1/col2=value2'
+   */
+  static String [] getPartitionValues(String partitionName) {
+    String [] levels = partitionName.split("/");
+    String [] values = new String[levels.length];
+    for (int i = 0; i < levels.length; i++) {
+      int idx = levels[i].indexOf('=');
+      values[i] = idx < 0 ? levels[i] : levels[i].substring(idx + 1);
+    }
+    return values;
+  }
+
+  private static class Node {
+    private final Map<String, Node> children = new TreeMap<String, Node>();
+    private PartitionDescProto partition;
+  }
+}
@@ -46,6 +46,7 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.*;
 
 public abstract class AbstractDBStore extends CatalogConstants implements CatalogStore {
@@ -55,7 +56,13 @@ public abstract class AbstractDBStore extends CatalogConstants implements Catalo
   protected final String connectionPassword;
   protected final String catalogUri;
 
+  private static final long CONNECTION_ACQUIRE_TIMEOUT = 60 * 1000;
+  private static final long CONNECTION_VALIDATION_INTERVAL = 30 * 1000;
+
+  // the connection shared by all threads if connections are not pooled
   private Connection conn;
+  // NULL if connections are not pooled
+  private final ConnectionPool pool;
 
   protected Map<String, Boolean> baseTableMaps = new HashMap<String, Boolean>();
 
@@ -105,9 +112,21 @@ public abstract class AbstractDBStore extends CatalogConstants implements Catalo
       throw new CatalogException("Cannot load Catalog driver " + catalogDriver, e);
     }
 
+    int poolSize = conf.getInt(CatalogConstants.CONNECTION_POOL_SIZE, 0);
+    if (poolSize > 0) {
+      LOG.info("Catalog store connections are pooled (max: " + poolSize + ")");
+      pool = new ConnectionPool(this, poolSize, CONNECTION_ACQUIRE_TIMEOUT, CONNECTION_VALIDATION_INTERVAL);
+    } else {
+      pool = null;
+    }
+
     try {
       LOG.info("Trying to connect database (" + catalogUri + ")");
-      conn = createConnection(conf);
+      if (pool != null) {
+        pool.acquire();
+      } else {
+        conn = createConnection(conf);
+      }
       LOG.info("Connected to database (" + catalogUri + ")");
     } catch (SQLException e) {
       throw new CatalogException("Cannot connect to database (" + catalogUri
@@ -133,6 +152,8 @@ public abstract class AbstractDBStore extends CatalogConstants implements Catalo
       }
     } catch (Exception se) {
       throw new CatalogException("Cannot initialize the persistent storage of Catalog", se);
+    } finally {
+      releaseConnection();
     }
   }
 
@@ -150,7 +171,19 @@ public abstract class AbstractDBStore extends CatalogConstants implements Catalo
     return catalogUri;
   }
 
+  /**
+   * @return the connection for the current thread. If connections are pooled, the same connection is
+   * returned to the thread until {@link #releaseConnection()} is called.
+   */
   public Connection getConnection() {
+    if (pool != null) {
+      try {
+        return pool.acquire();
+      } catch (SQLException e) {
+        throw new CatalogException(e);
+      }
+    }
+
     try {
       boolean isValid = conn.isValid(100);
       if (!isValid) {
@@ -163,6 +196,27 @@ public abstract class AbstractDBStore extends CatalogConstants implements Catalo
     return conn;
   }
 
+  public boolean isConnectionPooled() {
+    return pool != null;
+  }
+
+  /**
+   * Returns the connection of the current thread to the pool after a catalog operation.
+   * It does nothing if connections are not pooled.
+   */
+  public void releaseConnection() {
+    if (pool != null) {
+      pool.release();
+    }
+  }
+
+  protected void closeConnections() {
+    if (pool != null) {
+      pool.close();
+    }
+    CatalogUtil.closeQuietly(conn);
+  }
+
   private void verifySchemaVersion() throws CatalogException {
     Connection conn = null;
     PreparedStatement pstmt = null;
@@ -423,22 +477,17 @@ public abstract class AbstractDBStore extends CatalogConstants implements Catalo
 
   @Override
   public void dropDatabase(String databaseName) throws CatalogException {
-    Collection<String> tableNames = getAllTableNames(databaseName);
-
     Connection conn = null;
-    PreparedStatement pstmt = null;
     try {
+      int databaseId = getDatabaseId(databaseName);
+
       conn = getConnection();
       conn.setAutoCommit(false);
 
-      for (String tableName : tableNames) {
-        dropTableInternal(conn, databaseName, tableName);
-      }
-
-      String sql = "DELETE FROM " + TB_DATABASES + " WHERE DB_NAME = ?";
-      pstmt = conn.prepareStatement(sql);
-      pstmt.setString(1, databaseName);
-      pstmt.executeUpdate();
+      // all tables of the database are dropped in a batch.
+      List<String> statements = getDropTablesStatements(COL_DATABASES_PK + " = " + databaseId);
+      statements.add("DELETE FROM " + TB_DATABASES + " WHERE " + COL_DATABASES_PK + " = " + databaseId);
+      executeBatch(conn, statements);
       conn.commit();
     } catch (SQLException se) {
       if (conn != null) {
@@ -449,8 +498,6 @@ public abstract class AbstractDBStore extends CatalogConstants implements Catalo
         }
       }
       throw new CatalogException(String.format("Failed to drop database \"%s\"", databaseName), se);
-    } finally {
-      CatalogUtil.closeQuietly(pstmt);
     }
   }
 
@@ -682,6 +729,8 @@ public abstract class AbstractDBStore extends CatalogConstants implements Catalo
         pstmt.setLong(3, table.getStats().getNumBytes());
         pstmt.executeUpdate();
         pstmt.close();
+
+        insertColumnStats(conn, tableId, table.getStats());
       }
 
       if(table.hasPartition()) {
@@ -776,83 +825,45 @@ public abstract class AbstractDBStore extends CatalogConstants implements Catalo
 
   public void dropTableInternal(Connection conn, String databaseName, final String tableName)
       throws SQLException {
+    int databaseId = getDatabaseId(databaseName);
+    int tableId = getTableId(databaseId, databaseName, tableName);
 
-    PreparedStatement pstmt = null;
-
-    try {
-      int databaseId = getDatabaseId(databaseName);
-      int tableId = getTableId(databaseId, databaseName, tableName);
-
-      String sql = "DELETE FROM " + TB_COLUMNS + " WHERE " + COL_TABLES_PK + " = ?";
-
-      if (LOG.isDebugEnabled()) {
-        LOG.debug(sql);
-      }
-
-      pstmt = conn.prepareStatement(sql);
-      pstmt.setInt(1, tableId);
-      pstmt.executeUpdate();
-      pstmt.close();
-
-
-      sql = "DELETE FROM " + TB_OPTIONS + " WHERE " + COL_TABLES_PK + " = ? ";
-
-      if (LOG.isDebugEnabled()) {
-        LOG.debug(sql);
-      }
-
-      pstmt = conn.prepareStatement(sql);
-      pstmt.setInt(1, tableId);
-      pstmt.executeUpdate();
-      pstmt.close();
-
-
-      sql = "DELETE FROM " + TB_STATISTICS + " WHERE " + COL_TABLES_PK + " = ? ";
-
-      if (LOG.isDebugEnabled()) {
-        LOG.debug(sql);
-      }
-
-      pstmt = conn.prepareStatement(sql);
-      pstmt.setInt(1, tableId);
-      pstmt.executeUpdate();
-      pstmt.close();
-
-      sql = "DELETE FROM " + TB_PARTTIONS + " WHERE " + COL_TABLES_PK + " = ? ";
-
-      if (LOG.isDebugEnabled()) {
-        LOG.debug(sql);
-      }
-
-      pstmt = conn.prepareStatement(sql);
-      pstmt.setInt(1, tableId);
-      pstmt.executeUpdate();
-      pstmt.close();
-
-      sql = "DELETE FROM " + TB_PARTITION_METHODS + " WHERE " + COL_TABLES_PK + " = ? ";
-
-      if (LOG.isDebugEnabled()) {
-        LOG.debug(sql);
-      }
+    executeBatch(conn, getDropTablesStatements(COL_DATABASES_PK + " = " + databaseId + " AND "
+        + COL_TABLES_PK + " = " + tableId));
+  }
 
-      pstmt = conn.prepareStatement(sql);
-      pstmt.setInt(1, tableId);
-      pstmt.executeUpdate();
-      pstmt.close();
+  /**
+   * @param tablesCondition the condition on TABLES to choose the tables to be dropped
+   * @return the statements deleting the tables and all metadata belonging to them
+   */
+  private static List<String> getDropTablesStatements(String tablesCondition) {
+    String tableIds = "SELECT " + COL_TABLES_PK + " FROM " + TB_TABLES + " WHERE " + tablesCondition;
 
-      sql = "DELETE FROM TABLES WHERE DB_ID = ? AND " + COL_TABLES_PK + " = ?";
+    List<String> statements = new ArrayList<String>();
+    for (String table : new String[] {TB_COLUMNS, TB_OPTIONS, TB_STATISTICS, TB_COLUMN_STATISTICS, TB_INDEXES,
+        TB_PARTTIONS, TB_PARTITION_METHODS}) {
+      statements.add("DELETE FROM " + table + " WHERE " + COL_TABLES_PK + " IN (" + tableIds + ")");
+    }
+    statements.add("DELETE FROM " + TB_TABLES + " WHERE " + tablesCondition);
+    return statements;
+  }
 
-      if (LOG.isDebugEnabled()) {
-        LOG.debug(sql);
+  /**
+   * Executes multiple statements in a single batch, which takes one round trip to the database.
+   */
+  private void executeBatch(Connection conn, List<String> statements) throws SQLException {
+    Statement stmt = null;
+    try {
+      stmt = conn.createStatement();
+      for (String sql : statements) {
+        if (LOG.isDebugEnabled()) {
+          LOG.debug(sql);
+        }
+        stmt.addBatch(sql);
       }
-
-      pstmt = conn.prepareStatement(sql);
-      pstmt.setInt(1, databaseId);
-      pstmt.setInt(2, tableId);
-      pstmt.executeUpdate();
-
+      stmt.executeBatch();
     } finally {
-      CatalogUtil.closeQuietly(pstmt);
+      CatalogUtil.closeQuietly(stmt);
     }
   }
 
@@ -865,13 +876,14 @@ public abstract class AbstractDBStore extends CatalogConstants implements Catalo
       dropTableInternal(conn, databaseName, tableName);
       conn.commit();
     } catch (SQLException se) {
-      try {
-        conn.rollback();
-      } catch (SQLException e) {
-        LOG.error(e);
+      if (conn != null) {
+        try {
+          conn.rollback();
+        } catch (SQLException e) {
+          LOG.error(e);
+        }
       }
-    } finally {
-      CatalogUtil.closeQuietly(conn);
+      throw new CatalogException(se);
     }
   }
 
@@ -1016,6 +1028,19 @@ public abstract class AbstractDBStore extends CatalogConstants implements Catalo
         TableStatsProto.Builder statBuilder = TableStatsProto.newBuilder();
         statBuilder.setNumRows(res.getLong("num_rows"));
         statBuilder.setNumBytes(res.getLong("num_bytes"));
+        res.close();
+        pstmt.close();
+
+        sql = "SELECT stats FROM " + TB_COLUMN_STATISTICS + " WHERE " + COL_TABLES_PK + " = ?";
+        if (LOG.isDebugEnabled()) {
+          LOG.debug(sql);
+        }
+        pstmt = conn.prepareStatement(sql);
+        pstmt.setInt(1, tableId);
+        res = pstmt.executeQuery();
+        while (res.next()) {
+          statBuilder.addColStat(ColumnStatsProto.parseFrom(res.getBytes("stats")));
+        }
         tableBuilder.setStats(statBuilder);
       }
       res.close();
@@ -1050,6 +1075,85 @@ public abstract class AbstractDBStore extends CatalogConstants implements Catalo
     return tableBuilder.build();
   }
 
+  @Override
+  public void updateTableStats(String databaseName, String tableName, TableStatsProto stats)
+      throws CatalogException {
+    Connection conn = null;
+    PreparedStatement pstmt = null;
+
+    try {
+      int databaseId = getDatabaseId(databaseName);
+      int tableId = getTableId(databaseId, databaseName, tableName);
+
+      conn = getConnection();
+      conn.setAutoCommit(false);
+
+      List<String> statements = new ArrayList<String>();
+      statements.add("DELETE FROM " + TB_STATISTICS + " WHERE " + COL_TABLES_PK + " = " + tableId);
+      statements.add("DELETE FROM " + TB_COLUMN_STATISTICS + " WHERE " + COL_TABLES_PK + " = " + tableId);
+      executeBatch(conn, statements);
+
+      String sql = "INSERT INTO " + TB_STATISTICS + " (TID, NUM_ROWS, NUM_BYTES) VALUES(?, ?, ?)";
+
+      if (LOG.isDebugEnabled()) {
+        LOG.debug(sql);
+      }
+
+      pstmt = conn.prepareStatement(sql);
+      pstmt.setInt(1, tableId);
+      pstmt.setLong(2, stats.getNumRows());
+      pstmt.setLong(3, stats.getNumBytes());
+      pstmt.executeUpdate();
+      pstmt.close();
+
+      insertColumnStats(conn, tableId, stats);
+
+      conn.commit();
+    } catch (SQLException se) {
+      if (conn != null) {
+        try {
+          conn.rollback();
+        } catch (SQLException e) {
+          LOG.error(e);
+        }
+      }
+      throw new CatalogException(se);
+    } finally {
+      CatalogUtil.closeQuietly(pstmt);
+    }
+  }
+
+  /**
+   * Each column statistics is stored as a serialized ColumnStatsProto, because the number of
+   * histogram buckets varies from column to column.
+   */
+  private void insertColumnStats(Connection conn, int tableId, TableStatsProto stats) throws SQLException {
+    if (stats.getColStatCount() == 0) {
+      return;
+    }
+
+    String sql = "INSERT INTO " + TB_COLUMN_STATISTICS + " (TID, COLUMN_NAME, STATS) VALUES(?, ?, ?)";
+
+    if (LOG.isDebugEnabled()) {
+      LOG.debug(sql);
+    }
+
+    PreparedStatement pstmt = null;
+    try {
+      pstmt = conn.prepareStatement(sql);
+      for (ColumnStatsProto colStat : stats.getColStatList()) {
+        pstmt.setInt(1, tableId);
+        pstmt.setString(2, CatalogUtil.extractSimpleName(colStat.getColumn().getName()));
+        pstmt.setBytes(3, colStat.toByteArray());
+        pstmt.addBatch();
+        pstmt.clearParameters();
+      }
+      pstmt.executeBatch();
+    } finally {
+      CatalogUtil.closeQuietly(pstmt);
+    }
+  }
+
   private Type getDataType(final String typeStr) {
     try {
       return Enum.valueOf(Type.class, typeStr);
@@ -1113,6 +1217,7 @@ public abstract class AbstractDBStore extends CatalogConstants implements Catalo
       int tableId = getTableId(databaseId, databaseName, tableName);
 
       conn = getConnection();
+      conn.setAutoCommit(false);
       pstmt = conn.prepareStatement(ADD_PARTITION_SQL);
 
       for (CatalogProtos.PartitionDescProto partition : partitionsProto.getPartitionList()) {
@@ -1279,7 +1384,7 @@ public abstract class AbstractDBStore extends CatalogConstants implements Catalo
       conn = getConnection();
       pstmt = conn.prepareStatement(ADD_PARTITION_SQL);
       addPartitionInternal(pstmt, tableId, partition);
-      pstmt.executeUpdate();
+      pstmt.executeBatch();
     } catch (SQLException se) {
       throw new CatalogException(se);
     } finally {
@@ -1295,9 +1400,51 @@ public abstract class AbstractDBStore extends CatalogConstants implements Catalo
 
 
   @Override
-  public CatalogProtos.PartitionsProto getPartitions(String tableName) throws CatalogException {
-    // TODO
-    throw new UnimplementedException("getPartitions is not implemented");
+  public CatalogProtos.PartitionsProto getPartitions(String databaseName, String tableName)
+      throws CatalogException {
+    Connection conn = null;
+    ResultSet res = null;
+    PreparedStatement pstmt = null;
+
+    try {
+      String sql = "SELECT PARTITION_NAME, ORDINAL_POSITION, PARTITION_VALUE, PATH FROM " + TB_PARTTIONS +
+          " WHERE " + COL_TABLES_PK + " = ?";
+
+      if (LOG.isDebugEnabled()) {
+        LOG.debug(sql);
+      }
+
+      int databaseId = getDatabaseId(databaseName);
+      int tableId = getTableId(databaseId, databaseName, tableName);
+
+      conn = getConnection();
+      pstmt = conn.prepareStatement(sql);
+      pstmt.setInt(1, tableId);
+      res = pstmt.executeQuery();
+
+      CatalogProtos.PartitionsProto.Builder builder = CatalogProtos.PartitionsProto.newBuilder();
+      builder.setTableIdentifier(CatalogProtos.TableIdentifierProto.newBuilder()
+          .setDatabaseName(databaseName).setTableName(tableName));
+      while (res.next()) {
+        PartitionDescProto.Builder partition = PartitionDescProto.newBuilder();
+        partition.setPartitionName(res.getString("PARTITION_NAME"));
+        partition.setOrdinalPosition(res.getInt("ORDINAL_POSITION"));
+        String value = res.getString("PARTITION_VALUE");
+        if (value != null) {
+          partition.setPartitionValue(value);
+        }
+        String path = res.getString("PATH");
+        if (path != null) {
+          partition.setPath(path);
+        }
+        builder.addPartition(partition);
+      }
+      return builder.build();
+    } catch (SQLException se) {
+      throw new CatalogException(se);
+    } finally {
+      CatalogUtil.closeQuietly(pstmt, res);
+    }
   }
 
 
@@ -1488,8 +1635,9 @@ public abstract class AbstractDBStore extends CatalogConstants implements Catalo
 
     try {
       int databaseId = getDatabaseId(databaseName);
+      int tableId = getTableId(databaseId, databaseName, tableName);
 
-      String sql = GET_INDEXES_SQL + " WHERE " + COL_DATABASES_PK + "=? AND COLUMN_NAME=?";
+      String sql = GET_INDEXES_SQL + " WHERE " + COL_DATABASES_PK + "=? AND " + COL_TABLES_PK + "=? AND COLUMN_NAME=?";
 
       if (LOG.isDebugEnabled()) {
         LOG.debug(sql);
@@ -1497,8 +1645,9 @@ public abstract class AbstractDBStore extends CatalogConstants implements Catalo
 
       conn = getConnection();
       pstmt = conn.prepareStatement(sql);
-      pstmt.setInt(1, databaseId);;
-      pstmt.setString(2, columnName);
+      pstmt.setInt(1, databaseId);
+      pstmt.setInt(2, tableId);
+      pstmt.setString(3, columnName);
       res = pstmt.executeQuery();
       if (!res.next()) {
         throw new CatalogException("ERROR: there is no index matched to " + columnName);
@@ -1560,9 +1709,10 @@ public abstract class AbstractDBStore extends CatalogConstants implements Catalo
 
     try {
       int databaseId = getDatabaseId(databaseName);
+      int tableId = getTableId(databaseId, databaseName, tableName);
 
-      String sql =
-          "SELECT INDEX_NAME FROM " + TB_INDEXES + " WHERE " + COL_DATABASES_PK + "=? AND COLUMN_NAME=?";
+      String sql = "SELECT INDEX_NAME FROM " + TB_INDEXES +
+          " WHERE " + COL_DATABASES_PK + "=? AND " + COL_TABLES_PK + "=? AND COLUMN_NAME=?";
 
       if (LOG.isDebugEnabled()) {
         LOG.debug(sql);
@@ -1571,7 +1721,8 @@ public abstract class AbstractDBStore extends CatalogConstants implements Catalo
       conn = getConnection();
       pstmt = conn.prepareStatement(sql);
       pstmt.setInt(1, databaseId);
-      pstmt.setString(2, columnName);
+      pstmt.setInt(2, tableId);
+      pstmt.setString(3, columnName);
       res = pstmt.executeQuery();
       exist = res.next();
     } catch (SQLException se) {
@@ -1698,7 +1849,7 @@ public abstract class AbstractDBStore extends CatalogConstants implements Catalo
 
   @Override
   public void close() {
-    CatalogUtil.closeQuietly(conn);
+    closeConnections();
     LOG.info("Shutdown database (" + catalogUri + ")");
   }
 
@@ -60,6 +60,12 @@ public interface CatalogStore extends Closeable {
   
   List<String> getAllTableNames(String databaseName) throws CatalogException;
 
+  /**
+   * Replaces the statistics of a table, including its column statistics.
+   */
+  void updateTableStats(String databaseName, String tableName, CatalogProtos.TableStatsProto stats)
+      throws CatalogException;
+
 
   /************************ PARTITION METHOD **************************/
   void addPartitionMethod(PartitionMethodProto partitionMethodProto) throws CatalogException;
@@ -80,11 +86,12 @@ public interface CatalogStore extends Closeable {
 
   /**
    * Get all partitions of a table
+   * @param databaseName the database name
    * @param tableName the table name
-   * @return
+   * @return all partitions of the table
    * @throws CatalogException
    */
-  CatalogProtos.PartitionsProto getPartitions(String tableName) throws CatalogException;
+  CatalogProtos.PartitionsProto getPartitions(String databaseName, String tableName) throws CatalogException;
 
   CatalogProtos.PartitionDescProto getPartition(String partitionName) throws CatalogException;
 
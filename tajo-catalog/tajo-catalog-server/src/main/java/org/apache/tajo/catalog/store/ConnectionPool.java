@@ -0,0 +1,181 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.catalog.store;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.tajo.catalog.CatalogUtil;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A bounded pool of JDBC connections for {@link AbstractDBStore}.
+ *
+ * A connection acquired by a thread is bound to the thread until the thread releases it, so that the
+ * nested calls of a store operation share a connection and its transaction. A connection is validated
+ * only when it is acquired after being idle for the validation interval.
+ */
+class ConnectionPool {
+  private static final Log LOG = LogFactory.getLog(ConnectionPool.class);
+
+  private final AbstractDBStore store;
+  private final Semaphore available;
+  private final long acquireTimeout;
+  private final long validationInterval;
+
+  /** idle connections, the most recently used one first */
+  private final LinkedList<IdleConnection> idle = new LinkedList<IdleConnection>();
+  private final ThreadLocal<Connection> bound = new ThreadLocal<Connection>();
+  private volatile boolean closed = false;
+
+  /**
+   * @param maxSize the maximum number of connections
+   * @param acquireTimeout the maximum time in milliseconds to wait for an available connection
+   * @param validationInterval the idle time in milliseconds after which a connection is validated
+   */
+  ConnectionPool(AbstractDBStore store, int maxSize, long acquireTimeout, long validationInterval) {
+    this.store = store;
+    this.available = new Semaphore(maxSize, true);
+    this.acquireTimeout = acquireTimeout;
+    this.validationInterval = validationInterval;
+  }
+
+  /**
+   * @return the connection bound to the current thread. If there is no one, a connection is taken
+   * from the pool and bound to the thread.
+   */
+  Connection acquire() throws SQLException {
+    Connection conn = bound.get();
+    if (conn != null) {
+      return conn;
+    }
+    if (closed) {
+      throw new SQLException("The connection pool is already closed");
+    }
+
+    try {
+      if (!available.tryAcquire(acquireTimeout, TimeUnit.MILLISECONDS)) {
+        throw new SQLException("Timed out while waiting for a catalog store connection");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SQLException("Interrupted while waiting for a catalog store connection");
+    }
+
+    try {
+      conn = takeIdleConnection();
+      if (conn == null) {
+        conn = store.createConnection(store.conf);
+      }
+    } catch (SQLException e) {
+      available.release();
+      throw e;
+    } catch (RuntimeException e) {
+      available.release();
+      throw e;
+    }
+    bound.set(conn);
+    return conn;
+  }
+
+  private Connection takeIdleConnection() {
+    while (true) {
+      IdleConnection candidate;
+      synchronized (idle) {
+        candidate = idle.pollFirst();
+      }
+      if (candidate == null) {
+        return null;
+      }
+      if (System.currentTimeMillis() - candidate.releasedTime < validationInterval || isValid(candidate.conn)) {
+        return candidate.conn;
+      }
+      CatalogUtil.closeQuietly(candidate.conn);
+    }
+  }
+
+  private static boolean isValid(Connection conn) {
+    try {
+      return conn.isValid(1);
+    } catch (SQLException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Returns the connection bound to the current thread to the pool. A transaction left open, which
+   * only can be one of read operations, is rolled back.
+   */
+  void release() {
+    Connection conn = bound.get();
+    if (conn == null) {
+      return;
+    }
+    bound.remove();
+
+    try {
+      if (!closed && !conn.isClosed()) {
+        if (!conn.getAutoCommit()) {
+          conn.rollback();
+          conn.setAutoCommit(true);
+        }
+        synchronized (idle) {
+          idle.addFirst(new IdleConnection(conn, System.currentTimeMillis()));
+        }
+        conn = null;
+      }
+    } catch (SQLException e) {
+      LOG.warn("Discard a catalog store connection: " + e.getMessage());
+    } finally {
+      CatalogUtil.closeQuietly(conn);
+      available.release();
+    }
+  }
+
+  /**
+   * Closes idle connections. Connections in use are closed when they are released.
+   */
+  void close() {
+    closed = true;
+    List<IdleConnection> toClose;
+    synchronized (idle) {
+      toClose = new ArrayList<IdleConnection>(idle);
+      idle.clear();
+    }
+    for (IdleConnection candidate : toClose) {
+      CatalogUtil.closeQuietly(candidate.conn);
+    }
+  }
+
+  private static class IdleConnection {
+    private final Connection conn;
+    private final long releasedTime;
+
+    IdleConnection(Connection conn, long releasedTime) {
+      this.conn = conn;
+      this.releasedTime = releasedTime;
+    }
+  }
+}
@@ -42,6 +42,7 @@ public class MemStore implements CatalogStore {
   private final Map<String, CatalogProtos.FunctionDescProto> functions = Maps.newHashMap();
   private final Map<String, Map<String, IndexDescProto>> indexes = Maps.newHashMap();
   private final Map<String, Map<String, IndexDescProto>> indexesByColumn = Maps.newHashMap();
+  private final Map<String, Map<String, List<CatalogProtos.PartitionDescProto>>> partitions = Maps.newHashMap();
   
   public MemStore(Configuration conf) {
   }
@@ -51,6 +52,7 @@ public class MemStore implements CatalogStore {
     databases.clear();
     functions.clear();
     indexes.clear();
+    partitions.clear();
   }
 
   @Override
@@ -87,6 +89,9 @@ public class MemStore implements CatalogStore {
     }
 
     databases.put(databaseName, new HashMap<String, CatalogProtos.TableDescProto>());
+    indexes.put(databaseName, new HashMap<String, IndexDescProto>());
+    indexesByColumn.put(databaseName, new HashMap<String, IndexDescProto>());
+    partitions.put(databaseName, new HashMap<String, List<CatalogProtos.PartitionDescProto>>());
   }
 
   @Override
@@ -100,6 +105,9 @@ public class MemStore implements CatalogStore {
       throw new NoSuchDatabaseException(databaseName);
     }
     databases.remove(databaseName);
+    indexes.remove(databaseName);
+    indexesByColumn.remove(databaseName);
+    partitions.remove(databaseName);
   }
 
   @Override
@@ -151,6 +159,14 @@ public class MemStore implements CatalogStore {
 
     if (database.containsKey(tbName)) {
       database.remove(tbName);
+
+      Map<String, IndexDescProto> index = checkAndGetDatabaseNS(indexes, dbName);
+      for (IndexDescProto proto : getIndexes(dbName, tbName)) {
+        index.remove(proto.getIndexName());
+        checkAndGetDatabaseNS(indexesByColumn, dbName).remove(
+            getIndexKeyByColumn(tbName, proto.getColumn().getName()));
+      }
+      checkAndGetDatabaseNS(partitions, dbName).remove(tbName);
     } else {
       throw new NoSuchTableException(tbName);
     }
@@ -186,6 +202,20 @@ public class MemStore implements CatalogStore {
     return new ArrayList<String>(database.keySet());
   }
 
+  @Override
+  public void updateTableStats(String databaseName, String tableName, CatalogProtos.TableStatsProto stats)
+      throws CatalogException {
+    Map<String, CatalogProtos.TableDescProto> database = checkAndGetDatabaseNS(databases, databaseName);
+
+    if (database.containsKey(tableName)) {
+      CatalogProtos.TableDescProto.Builder builder = CatalogProtos.TableDescProto.newBuilder(database.get(tableName));
+      builder.setStats(stats);
+      database.put(tableName, builder.build());
+    } else {
+      throw new NoSuchTableException(tableName);
+    }
+  }
+
   @Override
   public void addPartitionMethod(CatalogProtos.PartitionMethodProto partitionMethodProto) throws CatalogException {
     throw new RuntimeException("not supported!");
@@ -224,18 +254,46 @@ public class MemStore implements CatalogStore {
 
   @Override
   public void addPartitions(CatalogProtos.PartitionsProto partitionDescList) throws CatalogException {
-    throw new RuntimeException("not supported!");
+    String databaseName = partitionDescList.getTableIdentifier().getDatabaseName();
+    String tableName = partitionDescList.getTableIdentifier().getTableName();
+    for (CatalogProtos.PartitionDescProto partition : partitionDescList.getPartitionList()) {
+      addPartition(databaseName, tableName, partition);
+    }
   }
 
   @Override
   public void addPartition(String databaseName, String tableName, CatalogProtos.PartitionDescProto
       partitionDescProto) throws CatalogException {
-    throw new RuntimeException("not supported!");
+    Map<String, CatalogProtos.TableDescProto> database = checkAndGetDatabaseNS(databases, databaseName);
+    if (!database.containsKey(tableName)) {
+      throw new NoSuchTableException(tableName);
+    }
+
+    Map<String, List<CatalogProtos.PartitionDescProto>> partitionsOfDB =
+        checkAndGetDatabaseNS(partitions, databaseName);
+    if (!partitionsOfDB.containsKey(tableName)) {
+      partitionsOfDB.put(tableName, new ArrayList<CatalogProtos.PartitionDescProto>());
+    }
+    partitionsOfDB.get(tableName).add(partitionDescProto);
   }
 
   @Override
-  public CatalogProtos.PartitionsProto getPartitions(String tableName) throws CatalogException {
-    throw new RuntimeException("not supported!");
+  public CatalogProtos.PartitionsProto getPartitions(String databaseName, String tableName)
+      throws CatalogException {
+    Map<String, CatalogProtos.TableDescProto> database = checkAndGetDatabaseNS(databases, databaseName);
+    if (!database.containsKey(tableName)) {
+      throw new NoSuchTableException(tableName);
+    }
+
+    CatalogProtos.PartitionsProto.Builder builder = CatalogProtos.PartitionsProto.newBuilder();
+    builder.setTableIdentifier(CatalogProtos.TableIdentifierProto.newBuilder()
+        .setDatabaseName(databaseName).setTableName(tableName));
+    Map<String, List<CatalogProtos.PartitionDescProto>> partitionsOfDB =
+        checkAndGetDatabaseNS(partitions, databaseName);
+    if (partitionsOfDB.containsKey(tableName)) {
+      builder.addAllPartition(partitionsOfDB.get(tableName));
+    }
+    return builder.build();
   }
 
   @Override
@@ -268,8 +326,12 @@ public class MemStore implements CatalogStore {
     }
 
     index.put(proto.getIndexName(), proto);
-    indexByColumn.put(proto.getTableIdentifier().getTableName() + "."
-        + CatalogUtil.extractSimpleName(proto.getColumn().getName()), proto);
+    indexByColumn.put(getIndexKeyByColumn(proto.getTableIdentifier().getTableName(), proto.getColumn().getName()),
+        proto);
+  }
+
+  private static String getIndexKeyByColumn(String tableName, String columnName) {
+    return tableName + "." + CatalogUtil.extractSimpleName(columnName);
   }
 
   /* (non-Javadoc)
@@ -281,7 +343,9 @@ public class MemStore implements CatalogStore {
     if (!index.containsKey(indexName)) {
       throw new NoSuchIndexException(indexName);
     }
-    index.remove(indexName);
+    IndexDescProto proto = index.remove(indexName);
+    checkAndGetDatabaseNS(indexesByColumn, databaseName).remove(
+        getIndexKeyByColumn(proto.getTableIdentifier().getTableName(), proto.getColumn().getName()));
   }
 
   /* (non-Javadoc)
@@ -305,11 +369,12 @@ public class MemStore implements CatalogStore {
       throws CatalogException {
 
     Map<String, IndexDescProto> indexByColumn = checkAndGetDatabaseNS(indexesByColumn, databaseName);
-    if (!indexByColumn.containsKey(columnName)) {
+    String key = getIndexKeyByColumn(tableName, columnName);
+    if (!indexByColumn.containsKey(key)) {
       throw new NoSuchIndexException(columnName);
     }
 
-    return indexByColumn.get(columnName);
+    return indexByColumn.get(key);
   }
 
   @Override
@@ -322,7 +387,7 @@ public class MemStore implements CatalogStore {
   public boolean existIndexByColumn(String databaseName, String tableName, String columnName)
       throws CatalogException {
     Map<String, IndexDescProto> indexByColumn = checkAndGetDatabaseNS(indexesByColumn, databaseName);
-    return indexByColumn.containsKey(columnName);
+    return indexByColumn.containsKey(getIndexKeyByColumn(tableName, columnName));
   }
 
   @Override
@@ -330,7 +395,7 @@ public class MemStore implements CatalogStore {
     List<IndexDescProto> protos = new ArrayList<IndexDescProto>();
     Map<String, IndexDescProto> indexByColumn = checkAndGetDatabaseNS(indexesByColumn, databaseName);
     for (IndexDescProto proto : indexByColumn.values()) {
-      if (proto.equals(tableName)) {
+      if (proto.getTableIdentifier().getTableName().equals(tableName)) {
         protos.add(proto);
       }
     }
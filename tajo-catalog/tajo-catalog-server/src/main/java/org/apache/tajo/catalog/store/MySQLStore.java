@@ -172,6 +172,19 @@ public class MySQLStore extends AbstractDBStore  {
         baseTableMaps.put(TB_STATISTICS, true);
       }
 
+      // COLUMN_STATS
+      if (!baseTableMaps.get(TB_COLUMN_STATISTICS)) {
+        String sql = readSchemaFile("column_stats.sql");
+
+        if (LOG.isDebugEnabled()) {
+          LOG.debug(sql);
+        }
+
+        stmt.executeUpdate(sql);
+        LOG.info("Table '" + TB_COLUMN_STATISTICS + "' is created.");
+        baseTableMaps.put(TB_COLUMN_STATISTICS, true);
+      }
+
       // PARTITION_METHODS
       if (!baseTableMaps.get(TB_PARTITION_METHODS)) {
         String sql = readSchemaFile("partition_methods.sql");
@@ -261,6 +274,7 @@ public class MySQLStore extends AbstractDBStore  {
       baseTableMaps.put(TB_COLUMNS, false);
       baseTableMaps.put(TB_OPTIONS, false);
       baseTableMaps.put(TB_STATISTICS, false);
+      baseTableMaps.put(TB_COLUMN_STATISTICS, false);
       baseTableMaps.put(TB_INDEXES, false);
       baseTableMaps.put(TB_PARTITION_METHODS, false);
       baseTableMaps.put(TB_PARTTIONS, false);
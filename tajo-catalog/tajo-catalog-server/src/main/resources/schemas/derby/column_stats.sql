@@ -0,0 +1,6 @@
+CREATE TABLE COLUMN_STATS (
+  TID INT NOT NULL REFERENCES TABLES (TID) ON DELETE CASCADE,
+  COLUMN_NAME VARCHAR(128) NOT NULL,
+  STATS BLOB NOT NULL,
+  CONSTRAINT COLUMN_STATS_PK PRIMARY KEY (TID, COLUMN_NAME)
+)
\ No newline at end of file
@@ -1,5 +1,5 @@
 CREATE TABLE PARTITIONS (
-  PID INT NOT NULL PRIMARY KEY,
+  PID INT NOT NULL PRIMARY KEY AUTO_INCREMENT,
   TID INT NOT NULL,
   PARTITION_NAME VARCHAR(128),
   ORDINAL_POSITION INT NOT NULL,
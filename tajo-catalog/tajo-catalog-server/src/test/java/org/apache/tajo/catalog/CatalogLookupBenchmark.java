@@ -0,0 +1,173 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.catalog;
+
+import org.apache.hadoop.fs.Path;
+import org.apache.tajo.TajoConstants;
+import org.apache.tajo.catalog.proto.CatalogProtos.StoreType;
+import org.apache.tajo.catalog.store.DerbyStore;
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.util.CommonTestingUtil;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A benchmark harness which drives concurrent catalog lookups against an embedded Derby store.
+ * Lookups are issued to the catalog server without the client cache, while a writer thread keeps
+ * creating and dropping tables in another database.
+ *
+ * Usage: CatalogLookupBenchmark [threads] [lookups per thread] [databases] [tables per database] [pool size]
+ *
+ * A pool size of zero uses a single shared connection and the global lock.
+ */
+public class CatalogLookupBenchmark {
+  private static final String WRITER_DATABASE = "bench_writer";
+
+  public static void main(String [] args) throws Exception {
+    int threadNum = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+    int lookupNum = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+    int databaseNum = args.length > 2 ? Integer.parseInt(args[2]) : 8;
+    int tableNum = args.length > 3 ? Integer.parseInt(args[3]) : 20;
+    int poolSize = args.length > 4 ? Integer.parseInt(args[4]) : 16;
+
+    System.out.println(String.format("threads=%d, lookups/thread=%d, databases=%d, tables/database=%d, pool=%d",
+        threadNum, lookupNum, databaseNum, tableNum, poolSize));
+    run(threadNum, lookupNum, databaseNum, tableNum, poolSize);
+    System.exit(0);
+  }
+
+  private static void run(int threadNum, final int lookupNum, final int databaseNum, final int tableNum,
+                          int poolSize) throws Exception {
+    Path testDir = CommonTestingUtil.getTestDir();
+    TajoConf conf = new TajoConf();
+    conf.set(CatalogConstants.STORE_CLASS, DerbyStore.class.getCanonicalName());
+    conf.set(CatalogConstants.CATALOG_URI,
+        String.format("jdbc:derby:%s/db;create=true", testDir.toUri().getPath()));
+    conf.setInt(CatalogConstants.CONNECTION_POOL_SIZE, poolSize);
+    conf.setVar(TajoConf.ConfVars.CATALOG_ADDRESS, "127.0.0.1:0");
+    conf.setBoolVar(TajoConf.ConfVars.CATALOG_CLIENT_CACHE_ENABLED, false);
+
+    CatalogServer server = new CatalogServer();
+    server.init(conf);
+    server.start();
+    final CatalogService catalog = new LocalCatalogWrapper(server);
+
+    try {
+      catalog.createTablespace(TajoConstants.DEFAULT_TABLESPACE_NAME, testDir.toUri().toString());
+      final Schema schema = new Schema();
+      schema.addColumn("id", Type.INT4);
+      schema.addColumn("name", Type.TEXT);
+      final TableMeta meta = CatalogUtil.newTableMeta(StoreType.CSV);
+
+      for (int i = 0; i < databaseNum; i++) {
+        catalog.createDatabase(getDatabaseName(i), TajoConstants.DEFAULT_TABLESPACE_NAME);
+        for (int j = 0; j < tableNum; j++) {
+          String tableName = CatalogUtil.buildFQName(getDatabaseName(i), getTableName(i, j));
+          catalog.createTable(new TableDesc(tableName, schema, meta, new Path(testDir, tableName)));
+        }
+      }
+      catalog.createDatabase(WRITER_DATABASE, TajoConstants.DEFAULT_TABLESPACE_NAME);
+
+      final AtomicBoolean stopped = new AtomicBoolean(false);
+      final AtomicLong writes = new AtomicLong(0);
+      Thread writer = new Thread() {
+        public void run() {
+          long i = 0;
+          while (!stopped.get()) {
+            String tableName = CatalogUtil.buildFQName(WRITER_DATABASE, WRITER_DATABASE + "_" + (i++));
+            catalog.createTable(new TableDesc(tableName, schema, meta, new Path("/tmp", tableName)));
+            catalog.dropTable(tableName);
+            writes.addAndGet(2);
+          }
+        }
+      };
+
+      final long [][] latencies = new long[threadNum][lookupNum];
+      final AtomicLong failures = new AtomicLong(0);
+      final CountDownLatch startSignal = new CountDownLatch(1);
+      Thread [] readers = new Thread[threadNum];
+      for (int t = 0; t < threadNum; t++) {
+        final int threadId = t;
+        readers[t] = new Thread() {
+          public void run() {
+            try {
+              startSignal.await();
+            } catch (InterruptedException e) {
+              return;
+            }
+            for (int k = 0; k < lookupNum; k++) {
+              int db = (threadId + k) % databaseNum;
+              int table = k % tableNum;
+              long begin = System.nanoTime();
+              if (catalog.getTableDesc(getDatabaseName(db), getTableName(db, table)) == null) {
+                failures.incrementAndGet();
+              }
+              latencies[threadId][k] = System.nanoTime() - begin;
+            }
+          }
+        };
+        readers[t].start();
+      }
+
+      writer.start();
+      long begin = System.currentTimeMillis();
+      startSignal.countDown();
+      for (Thread reader : readers) {
+        reader.join();
+      }
+      long elapsed = Math.max(1, System.currentTimeMillis() - begin);
+      stopped.set(true);
+      writer.join();
+
+      long [] merged = new long[threadNum * lookupNum];
+      for (int t = 0; t < threadNum; t++) {
+        System.arraycopy(latencies[t], 0, merged, t * lookupNum, lookupNum);
+      }
+      Arrays.sort(merged);
+
+      System.out.println(String.format("lookups: %d in %d ms (%.1f lookups/sec), failures: %d",
+          merged.length, elapsed, merged.length * 1000.0 / elapsed, failures.get()));
+      System.out.println(String.format("latency (us): p50=%d, p90=%d, p99=%d, max=%d",
+          percentile(merged, 0.5), percentile(merged, 0.9), percentile(merged, 0.99),
+          merged[merged.length - 1] / 1000));
+      System.out.println(String.format("concurrent writes: %d (%.1f writes/sec)",
+          writes.get(), writes.get() * 1000.0 / elapsed));
+    } finally {
+      server.stop();
+    }
+  }
+
+  private static String getDatabaseName(int i) {
+    return "bench_db" + i;
+  }
+
+  private static String getTableName(int database, int table) {
+    // table names are unique across databases in some stores.
+    return "bench_db" + database + "_table" + table;
+  }
+
+  private static long percentile(long [] sorted, double ratio) {
+    int idx = Math.min(sorted.length - 1, (int) (sorted.length * ratio));
+    return sorted[idx] / 1000;
+  }
+}
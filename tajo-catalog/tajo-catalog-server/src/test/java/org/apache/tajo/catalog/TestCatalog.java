@@ -24,16 +24,21 @@ import org.apache.tajo.TajoConstants;
 import org.apache.tajo.catalog.exception.CatalogException;
 import org.apache.tajo.catalog.exception.NoSuchFunctionException;
 import org.apache.tajo.catalog.function.Function;
+import org.apache.tajo.catalog.partition.PartitionDesc;
 import org.apache.tajo.catalog.partition.PartitionMethodDesc;
 import org.apache.tajo.catalog.proto.CatalogProtos;
 import org.apache.tajo.catalog.proto.CatalogProtos.FunctionType;
 import org.apache.tajo.catalog.proto.CatalogProtos.IndexMethod;
 import org.apache.tajo.catalog.proto.CatalogProtos.StoreType;
+import org.apache.tajo.catalog.statistics.ColumnStats;
+import org.apache.tajo.catalog.statistics.TableStats;
 import org.apache.tajo.catalog.store.DerbyStore;
 import org.apache.tajo.catalog.store.MySQLStore;
 import org.apache.tajo.common.TajoDataTypes;
 import org.apache.tajo.common.TajoDataTypes.Type;
 import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.DatumFactory;
 import org.apache.tajo.util.CommonTestingUtil;
 import org.apache.tajo.util.TUtil;
 import org.junit.AfterClass;
@@ -41,6 +46,7 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.net.InetSocketAddress;
 import java.util.*;
 
 import static org.apache.tajo.TajoConstants.DEFAULT_DATABASE_NAME;
@@ -79,6 +85,7 @@ public class TestCatalog {
     conf.set(CatalogConstants.STORE_CLASS, driverClass);
     conf.set(CATALOG_URI, catalogURI);
     conf.setVar(TajoConf.ConfVars.CATALOG_ADDRESS, "127.0.0.1:0");
+    conf.setInt(CatalogConstants.CONNECTION_POOL_SIZE, 8);
 
     // MySQLStore requires password
     if (driverClass.equals(MySQLStore.class.getCanonicalName())) {
@@ -291,6 +298,62 @@ public class TestCatalog {
     assertFalse(catalog.existsTable(DEFAULT_DATABASE_NAME, "getTable"));
 	}
 
+  @Test
+  public void testUpdateTableStats() throws Exception {
+    Schema schema = new Schema();
+    schema.addColumn("id", Type.INT4);
+    schema.addColumn("name", Type.TEXT);
+    String tableName = CatalogUtil.buildFQName(DEFAULT_DATABASE_NAME, "updatestats");
+    TableDesc desc = new TableDesc(tableName, schema, StoreType.CSV, new Options(),
+        new Path(CommonTestingUtil.getTestDir(), "updatestats"));
+    assertTrue(catalog.createTable(desc));
+
+    TableStats stats = new TableStats();
+    stats.setNumRows(1000);
+    stats.setNumBytes(4096);
+
+    ColumnStats idStats = new ColumnStats(new Column("id", Type.INT4));
+    idStats.setNumDistVals(1000);
+    idStats.setNumNulls(0);
+    idStats.setAvgWidth(4);
+    idStats.setMinValue(DatumFactory.createInt4(1));
+    idStats.setMaxValue(DatumFactory.createInt4(1000));
+    idStats.setHistogramBounds(TUtil.<Datum>newList(DatumFactory.createInt4(1), DatumFactory.createInt4(500),
+        DatumFactory.createInt4(1000)));
+    stats.addColumnStat(idStats);
+
+    ColumnStats nameStats = new ColumnStats(new Column("name", Type.TEXT));
+    nameStats.setNumDistVals(10);
+    nameStats.setNumNulls(5);
+    nameStats.setAvgWidth(12);
+    stats.addColumnStat(nameStats);
+
+    assertTrue(catalog.updateTableStats(tableName, stats));
+
+    TableStats updated = catalog.getTableDesc(tableName).getStats();
+    assertEquals(1000, updated.getNumRows().longValue());
+    assertEquals(4096, updated.getNumBytes().longValue());
+    assertEquals(2, updated.getColumnStats().size());
+
+    Map<String, ColumnStats> colStatsMap = new HashMap<String, ColumnStats>();
+    for (ColumnStats colStats : updated.getColumnStats()) {
+      colStatsMap.put(colStats.getColumn().getSimpleName(), colStats);
+    }
+    assertEquals(idStats, colStatsMap.get("id"));
+    assertEquals(nameStats, colStatsMap.get("name"));
+
+    // statistics are replaced as a whole
+    TableStats newStats = new TableStats();
+    newStats.setNumRows(10);
+    newStats.setNumBytes(40);
+    assertTrue(catalog.updateTableStats(tableName, newStats));
+    updated = catalog.getTableDesc(tableName).getStats();
+    assertEquals(10, updated.getNumRows().longValue());
+    assertEquals(0, updated.getColumnStats().size());
+
+    assertTrue(catalog.dropTable(tableName));
+  }
+
   static IndexDesc desc1;
   static IndexDesc desc2;
   static IndexDesc desc3;
@@ -350,7 +413,40 @@ public class TestCatalog {
 	  catalog.dropTable(desc.getName());
     assertFalse(catalog.existsTable(desc.getName()));
   }
-	
+
+  @Test
+  public void testIndexesAreDroppedWithTable() throws Exception {
+    TableDesc desc = prepareTable();
+    assertTrue(catalog.createTable(desc));
+
+    catalog.createIndex(desc1);
+    assertTrue(catalog.existIndexByColumn(DEFAULT_DATABASE_NAME, "indexed", "id"));
+    // an index is bound to the table as well as the column
+    assertFalse(catalog.existIndexByColumn(DEFAULT_DATABASE_NAME, "employee", "id"));
+    assertEquals(desc1.getIndexName(),
+        catalog.getIndexByColumn(DEFAULT_DATABASE_NAME, "indexed", "id").getIndexName());
+
+    catalog.dropTable(desc.getName());
+    assertFalse(catalog.existIndexByName(DEFAULT_DATABASE_NAME, desc1.getIndexName()));
+  }
+
+  @Test
+  public void testIndexChangesCatalogVersion() throws Exception {
+    TableDesc desc = prepareTable();
+    assertTrue(catalog.createTable(desc));
+
+    // cached plans and table descriptors must not outlive an index change.
+    long version = catalog.getCatalogVersion();
+    catalog.createIndex(desc1);
+    assertTrue(catalog.getCatalogVersion() > version);
+
+    version = catalog.getCatalogVersion();
+    catalog.dropIndex(DEFAULT_DATABASE_NAME, desc1.getIndexName());
+    assertTrue(catalog.getCatalogVersion() > version);
+
+    catalog.dropTable(desc.getName());
+  }
+
 	public static class TestFunc1 extends Function {
 		public TestFunc1() {
 			super(					
@@ -635,4 +731,183 @@ public class TestCatalog {
     catalog.dropTable(tableName);
     assertFalse(catalog.existsTable(tableName));
   }
-}
+
+  private static PartitionDesc newPartition(Path tablePath, String name) {
+    PartitionDesc partition = new PartitionDesc();
+    partition.setName(name);
+    partition.setPath(new Path(tablePath, name).toString());
+    return partition;
+  }
+
+  @Test
+  public void testAddAndGetPartitions() throws Exception {
+    Schema schema = new Schema();
+    schema.addColumn("id", Type.INT4)
+        .addColumn("name", Type.TEXT)
+        .addColumn("key1", Type.TEXT)
+        .addColumn("key2", Type.INT4);
+
+    String simpleName = "partitionedtable";
+    String tableName = CatalogUtil.buildFQName(DEFAULT_DATABASE_NAME, simpleName);
+    TableMeta meta = CatalogUtil.newTableMeta(StoreType.CSV, new Options());
+
+    Schema partSchema = new Schema();
+    partSchema.addColumn("key1", Type.TEXT);
+    partSchema.addColumn("key2", Type.INT4);
+    PartitionMethodDesc partitionMethod =
+        new PartitionMethodDesc(DEFAULT_DATABASE_NAME, tableName,
+            CatalogProtos.PartitionType.COLUMN, "key1,key2", partSchema);
+
+    Path tablePath = new Path(CommonTestingUtil.getTestDir(), simpleName);
+    TableDesc desc = new TableDesc(tableName, schema, meta, tablePath);
+    desc.setPartitionMethod(partitionMethod);
+    assertTrue(catalog.createTable(desc));
+    assertEquals(0, catalog.getNumPartitions(DEFAULT_DATABASE_NAME, simpleName));
+
+    List<PartitionDesc> partitions = TUtil.newList(
+        newPartition(tablePath, "key1=a/key2=1"),
+        newPartition(tablePath, "key1=a/key2=2"),
+        newPartition(tablePath, "key1=b/key2=1"),
+        newPartition(tablePath, "key1=c/key2=3"));
+    assertTrue(catalog.addPartitions(DEFAULT_DATABASE_NAME, simpleName, partitions));
+    // existing partitions are ignored.
+    assertTrue(catalog.addPartitions(DEFAULT_DATABASE_NAME, simpleName,
+        TUtil.newList(newPartition(tablePath, "key1=a/key2=1"), newPartition(tablePath, "key1=d/key2=4"))));
+    assertEquals(5, catalog.getNumPartitions(DEFAULT_DATABASE_NAME, simpleName));
+
+    // every partition
+    assertEquals(5, catalog.getPartitions(DEFAULT_DATABASE_NAME, simpleName, null).size());
+
+    // key1 = 'a'
+    List<Set<String>> allowedValues = new ArrayList<Set<String>>();
+    allowedValues.add(Sets.newHashSet("a"));
+    Set<String> names = new HashSet<String>();
+    for (PartitionDesc partition : catalog.getPartitions(DEFAULT_DATABASE_NAME, simpleName, allowedValues)) {
+      names.add(partition.getName());
+      assertEquals(new Path(tablePath, partition.getName()).toString(), partition.getPath());
+    }
+    assertEquals(Sets.newHashSet("key1=a/key2=1", "key1=a/key2=2"), names);
+
+    // key2 in (1, 3)
+    allowedValues.clear();
+    allowedValues.add(null);
+    allowedValues.add(Sets.newHashSet("1", "3"));
+    names.clear();
+    for (PartitionDesc partition : catalog.getPartitions(DEFAULT_DATABASE_NAME, simpleName, allowedValues)) {
+      names.add(partition.getName());
+    }
+    assertEquals(Sets.newHashSet("key1=a/key2=1", "key1=b/key2=1", "key1=c/key2=3"), names);
+
+    // no matched partition
+    allowedValues.clear();
+    allowedValues.add(Sets.newHashSet("z"));
+    assertEquals(0, catalog.getPartitions(DEFAULT_DATABASE_NAME, simpleName, allowedValues).size());
+
+    // partitions are dropped with the table.
+    assertTrue(catalog.dropTable(tableName));
+    assertTrue(catalog.createTable(desc));
+    assertEquals(0, catalog.getNumPartitions(DEFAULT_DATABASE_NAME, simpleName));
+    assertTrue(catalog.dropTable(tableName));
+  }
+
+  @Test
+  public void testCatalogVersionAndClientCache() throws Exception {
+    String tableName = CatalogUtil.buildFQName(DEFAULT_DATABASE_NAME, "cachedtable");
+    TableMeta meta = CatalogUtil.newTableMeta(StoreType.CSV, new Options());
+    Path tablePath = new Path(CommonTestingUtil.getTestDir(), "cachedtable");
+
+    Schema schema = new Schema();
+    schema.addColumn("id", Type.INT4);
+
+    long version = catalog.getCatalogVersion();
+    assertTrue(catalog.createTable(new TableDesc(tableName, schema, meta, tablePath)));
+    assertTrue(catalog.getCatalogVersion() > version);
+
+    // a remote client which does not check the catalog version by itself for a while
+    TajoConf conf = new TajoConf(server.getConf());
+    conf.setLongVar(TajoConf.ConfVars.CATALOG_CLIENT_CACHE_VALIDATION_INTERVAL, 3600 * 1000);
+    InetSocketAddress addr = server.getBindAddress();
+    CatalogClient remote = new CatalogClient(conf, addr.getHostName(), addr.getPort());
+    try {
+      assertEquals(1, remote.getTableDesc(tableName).getSchema().size());
+      assertTrue(remote.existsTable(tableName));
+
+      Schema newSchema = new Schema();
+      newSchema.addColumn("id", Type.INT4);
+      newSchema.addColumn("name", Type.TEXT);
+      assertTrue(catalog.dropTable(tableName));
+      assertTrue(catalog.createTable(new TableDesc(tableName, newSchema, meta, tablePath)));
+
+      // a local client checks the version for every lookup.
+      assertEquals(2, catalog.getTableDesc(tableName).getSchema().size());
+
+      // a piggybacked version invalidates older entries.
+      remote.updateCatalogVersion(catalog.getCatalogVersion());
+      assertEquals(2, remote.getTableDesc(tableName).getSchema().size());
+
+      // changes made by a client itself are visible immediately.
+      TableStats stats = new TableStats();
+      stats.setNumRows(10L);
+      stats.setNumBytes(100L);
+      assertTrue(remote.updateTableStats(tableName, stats));
+      assertEquals(10L, remote.getTableDesc(tableName).getStats().getNumRows().longValue());
+
+      assertTrue(remote.dropTable(tableName));
+      assertFalse(remote.existsTable(tableName));
+      assertNull(remote.getTableDesc(tableName));
+    } finally {
+      remote.close();
+    }
+  }
+
+  @Test
+  public void testConcurrentOperationsOnDatabases() throws Exception {
+    final int threadNum = 8;
+    final int tableNum = 10;
+    final List<Throwable> errors = Collections.synchronizedList(new ArrayList<Throwable>());
+    Thread [] threads = new Thread[threadNum];
+
+    for (int i = 0; i < threadNum; i++) {
+      final String databaseName = "concurrentdb" + i;
+      threads[i] = new Thread() {
+        public void run() {
+          try {
+            assertTrue(catalog.createDatabase(databaseName, TajoConstants.DEFAULT_TABLESPACE_NAME));
+            Schema schema = new Schema();
+            schema.addColumn("id", Type.INT4);
+            TableMeta meta = CatalogUtil.newTableMeta(StoreType.CSV);
+
+            for (int j = 0; j < tableNum; j++) {
+              // table names are unique across databases in some stores.
+              String tableName = CatalogUtil.buildFQName(databaseName, databaseName + "_table" + j);
+              Path path = new Path(CommonTestingUtil.getTestDir(), tableName);
+              assertTrue(catalog.createTable(new TableDesc(tableName, schema, meta, path)));
+              assertTrue(catalog.existsTable(tableName));
+              assertEquals(tableName, catalog.getTableDesc(tableName).getName());
+            }
+            assertEquals(tableNum, catalog.getAllTableNames(databaseName).size());
+
+            assertTrue(catalog.dropTable(CatalogUtil.buildFQName(databaseName, databaseName + "_table0")));
+            assertEquals(tableNum - 1, catalog.getAllTableNames(databaseName).size());
+            // the remaining tables are dropped with the database.
+            assertTrue(catalog.dropDatabase(databaseName));
+            assertFalse(catalog.existDatabase(databaseName));
+          } catch (Throwable t) {
+            errors.add(t);
+          }
+        }
+      };
+    }
+
+    for (Thread thread : threads) {
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    if (!errors.isEmpty()) {
+      throw new AssertionError(errors.get(0));
+    }
+  }
+}
\ No newline at end of file
@@ -21,6 +21,7 @@ package org.apache.tajo.cli;
 import org.apache.tajo.catalog.Column;
 import org.apache.tajo.catalog.TableDesc;
 import org.apache.tajo.catalog.partition.PartitionMethodDesc;
+import org.apache.tajo.catalog.statistics.ColumnStats;
 import org.apache.tajo.util.FileUtil;
 import org.apache.tajo.util.TUtil;
 
@@ -98,6 +99,22 @@ public class DescTableCommand extends TajoShellCommand {
     }
 
     sb.append("\n");
+    if (desc.getStats() != null && desc.getStats().getColumnStats().size() > 0) {
+      sb.append("column statistics: \n");
+      sb.append("name\tdistinct\tnulls\tavg width\tmin\tmax\thistogram buckets\n");
+      for (ColumnStats stats : desc.getStats().getColumnStats()) {
+        sb.append(stats.getColumn().getSimpleName());
+        sb.append("\t").append(stats.getNumDistValues());
+        sb.append("\t").append(stats.getNumNulls());
+        sb.append("\t").append(stats.getAvgWidth() != null ? stats.getAvgWidth() : "");
+        sb.append("\t").append(stats.minIsNotSet() ? "" : stats.getMinValue());
+        sb.append("\t").append(stats.maxIsNotSet() ? "" : stats.getMaxValue());
+        sb.append("\t").append(stats.hasHistogram() ? stats.getHistogramBounds().size() - 1 : 0);
+        sb.append("\n");
+      }
+      sb.append("\n");
+    }
+
     if (desc.getPartitionMethod() != null) {
       PartitionMethodDesc partition = desc.getPartitionMethod();
       sb.append("Partitions: \n");
@@ -43,6 +43,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.regex.Pattern;
 
 import static org.apache.tajo.cli.ParsedResult.StatementType.META;
 import static org.apache.tajo.cli.ParsedResult.StatementType.STATEMENT;
@@ -81,6 +82,8 @@ public class TajoCli {
   private static final Options options;
   private static final String HOME_DIR = System.getProperty("user.home");
   private static final String HISTORY_FILE = ".tajo_history";
+  private static final Pattern EXPLAIN_ANALYZE_PATTERN =
+      Pattern.compile("^\\s*explain\\s+analyze\\s+", Pattern.CASE_INSENSITIVE);
 
   static {
     options = new Options();
@@ -313,7 +316,7 @@ public class TajoCli {
         if (queryId.equals(QueryIdFactory.NULL_QUERY_ID)) {
           sout.println("OK");
         } else {
-          waitForQueryCompleted(queryId);
+          waitForQueryCompleted(queryId, EXPLAIN_ANALYZE_PATTERN.matcher(statement).find());
         }
       } finally {
         if(queryId != null) {
@@ -327,7 +330,10 @@ public class TajoCli {
     }
   }
 
-  private void waitForQueryCompleted(QueryId queryId) {
+  /**
+   * @param profiled If true, it prints the operator profiles of the query instead of its result rows.
+   */
+  private void waitForQueryCompleted(QueryId queryId, boolean profiled) {
     // if query is empty string
     if (queryId.equals(QueryIdFactory.NULL_QUERY_ID)) {
       return;
@@ -375,7 +381,10 @@ public class TajoCli {
           sout.println("final state: " + status.getState()
               + ", response time: " + (((float)(status.getFinishTime() - status.getSubmitTime()) / 1000.0)
               + " sec"));
-          if (status.hasResult()) {
+          if (profiled) {
+            String profile = client.getQueryProfile(queryId);
+            sout.println(profile != null ? profile : "No profile is available.");
+          } else if (status.hasResult()) {
             ResultSet res = null;
             TableDesc desc = null;
             if (queryId.equals(QueryIdFactory.NULL_QUERY_ID)) {
@@ -150,6 +150,21 @@ public class TajoClient implements Closeable {
         connPool.closeConnection(qmClient);
         queryMasterMap.remove(queryId);
       }
+    } else if (!queryId.equals(QueryIdFactory.NULL_QUERY_ID) && sessionId != null) {
+      // the result of a query answered from the result cache of the master is fetched from the master.
+      NettyClientBase tmClient = null;
+      try {
+        tmClient = connPool.getConnection(tajoMasterAddr, TajoMasterClientProtocol.class, false);
+        TajoMasterClientProtocolService.BlockingInterface tajoMasterService = tmClient.getStub();
+        GetQueryResultRequest.Builder builder = GetQueryResultRequest.newBuilder();
+        builder.setSessionId(sessionId);
+        builder.setQueryId(queryId.getProto());
+        tajoMasterService.closeQueryResult(null, builder.build());
+      } catch (Exception e) {
+        LOG.warn("Fail to close the query result (qid=" + queryId + ", msg=" + e.getMessage() + ")", e);
+      } finally {
+        connPool.releaseConnection(tmClient);
+      }
     }
   }
 
@@ -333,6 +348,9 @@ public class TajoClient implements Closeable {
     QueryId queryId = new QueryId(response.getQueryId());
     if (queryId.equals(QueryIdFactory.NULL_QUERY_ID)) {
       return this.createNullResultSet(queryId);
+    } else if (response.hasResultDesc()) {
+      // the query is answered from the result cache of the master.
+      return new TajoResultSet(this, queryId, conf, CatalogUtil.newTableDesc(response.getResultDesc()));
     } else {
       return this.getQueryResultAndWait(queryId);
     }
@@ -456,8 +474,8 @@ public class TajoClient implements Closeable {
     try {
       InetSocketAddress queryMasterAddr = queryMasterMap.get(queryId);
       if(queryMasterAddr == null) {
-        LOG.warn("No Connection to QueryMaster for " + queryId);
-        return null;
+        // a query answered from the result cache of the master does not have a query master.
+        return getResultResponseFromMaster(queryId);
       }
       client = connPool.getConnection(queryMasterAddr, QueryMasterClientProtocol.class, false);
       QueryMasterClientProtocolService.BlockingInterface queryMasterService = client.getStub();
@@ -474,6 +492,92 @@ public class TajoClient implements Closeable {
     }
   }
 
+  /**
+   * Fetches the next rows of a query result from the QueryMaster of the query, or from the master
+   * if the query is answered from its result cache.
+   *
+   * @param fetchHandle The handle returned by the previous fetch of the same result set. If it is 0,
+   *                    a new cursor is opened, and its handle is returned with the rows.
+   * @param fetchRowNum The max number of rows to be fetched
+   * @param reset If true, the rows are fetched again from the first row
+   */
+  public FetchResultResponse fetchNextRows(final QueryId queryId, final long fetchHandle, final int fetchRowNum,
+                                           final boolean reset) throws ServiceException {
+    FetchResultRequest.Builder builder = FetchResultRequest.newBuilder();
+    builder.setQueryId(queryId.getProto());
+    builder.setFetchHandle(fetchHandle);
+    builder.setFetchRowNum(fetchRowNum);
+    builder.setReset(reset);
+    return fetchResult(queryId, builder);
+  }
+
+  /**
+   * Closes the cursor of a result set which is not read to the end.
+   */
+  public void closeFetchHandle(final QueryId queryId, final long fetchHandle) throws ServiceException {
+    FetchResultRequest.Builder builder = FetchResultRequest.newBuilder();
+    builder.setQueryId(queryId.getProto());
+    builder.setFetchHandle(fetchHandle);
+    builder.setFetchRowNum(0);
+    builder.setClose(true);
+    fetchResult(queryId, builder);
+  }
+
+  private FetchResultResponse fetchResult(final QueryId queryId, final FetchResultRequest.Builder builder)
+      throws ServiceException {
+    InetSocketAddress queryMasterAddr = queryMasterMap.get(queryId);
+    if (queryMasterAddr == null) {
+      return new ServerCallable<FetchResultResponse>(connPool, tajoMasterAddr,
+          TajoMasterClientProtocol.class, false, true) {
+        public FetchResultResponse call(NettyClientBase client) throws ServiceException {
+          checkSessionAndGet(client);
+          builder.setSessionId(sessionId);
+          TajoMasterClientProtocolService.BlockingInterface tajoMasterService = client.getStub();
+          return tajoMasterService.fetchNextRows(null, builder.build());
+        }
+      }.withRetries();
+    }
+
+    NettyClientBase client = null;
+    try {
+      client = connPool.getConnection(queryMasterAddr, QueryMasterClientProtocol.class, false);
+      QueryMasterClientProtocolService.BlockingInterface queryMasterService = client.getStub();
+      return queryMasterService.fetchNextRows(null, builder.build());
+    } catch (Exception e) {
+      throw new ServiceException(e.getMessage(), e);
+    } finally {
+      connPool.releaseConnection(client);
+    }
+  }
+
+  /**
+   * Returns the operator profiles of a query executed by EXPLAIN ANALYZE.
+   *
+   * @return NULL if the query is not profiled or it is not completed yet
+   */
+  public String getQueryProfile(QueryId queryId) throws ServiceException {
+    GetQueryResultResponse response = getResultResponse(queryId);
+    if (response == null || !response.hasProfile()) {
+      return null;
+    }
+    return response.getProfile();
+  }
+
+  private GetQueryResultResponse getResultResponseFromMaster(final QueryId queryId) throws ServiceException {
+    return new ServerCallable<GetQueryResultResponse>(connPool, tajoMasterAddr,
+        TajoMasterClientProtocol.class, false, true) {
+      public GetQueryResultResponse call(NettyClientBase client) throws ServiceException {
+        checkSessionAndGet(client);
+
+        GetQueryResultRequest.Builder builder = GetQueryResultRequest.newBuilder();
+        builder.setSessionId(sessionId);
+        builder.setQueryId(queryId.getProto());
+        TajoMasterClientProtocolService.BlockingInterface tajoMasterService = client.getStub();
+        return tajoMasterService.getQueryResult(null, builder.build());
+      }
+    }.withRetries();
+  }
+
   public boolean updateQuery(final String sql) throws ServiceException {
     return new ServerCallable<Boolean>(connPool, tajoMasterAddr,
         TajoMasterClientProtocol.class, false, true) {
@@ -0,0 +1,167 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.jdbc;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.protobuf.ByteString;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.tajo.QueryId;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.client.TajoClient;
+import org.apache.tajo.ipc.ClientProtos.FetchResultResponse;
+import org.apache.tajo.ipc.ClientProtos.ResultCode;
+import org.apache.tajo.storage.BinaryTupleBuilder;
+import org.apache.tajo.storage.Tuple;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * RemoteResultFetcher reads the rows of a query result page by page through rpc.
+ * While the rows of a page are consumed, the next page is fetched in background.
+ *
+ * The first fetch opens a cursor on the server, and the following fetches use its fetch handle. The cursor is
+ * closed by the server when all rows are fetched. Otherwise, it is closed by {@link #close()}.
+ */
+class RemoteResultFetcher {
+  private static final Log LOG = LogFactory.getLog(RemoteResultFetcher.class);
+  private static final ExecutorService prefetchExecutor = Executors.newCachedThreadPool(
+      new ThreadFactoryBuilder().setNameFormat("Result Prefetcher-%d").setDaemon(true).build());
+
+  private final TajoClient client;
+  private final QueryId queryId;
+  private final int fetchRowNum;
+  private final BinaryTupleBuilder builder;
+
+  private List<ByteString> rows;
+  private int rowIdx;
+  private boolean eos;
+  private Future<FetchResultResponse> nextPage;
+  // the cursor of this result set on the server. It is 0 until the first page is received.
+  private long fetchHandle = 0;
+  // true if the server keeps the cursor of fetchHandle
+  private boolean cursorOpen = false;
+
+  RemoteResultFetcher(TajoClient client, QueryId queryId, Schema schema, int fetchRowNum) {
+    this.client = client;
+    this.queryId = queryId;
+    this.fetchRowNum = fetchRowNum;
+    this.builder = new BinaryTupleBuilder(schema);
+    init();
+  }
+
+  private void init() {
+    rows = null;
+    rowIdx = 0;
+    eos = false;
+    // an open cursor is rewound. Otherwise, a new cursor is opened.
+    nextPage = cursorOpen ? prefetch(fetchHandle, true) : prefetch(0, false);
+  }
+
+  private Future<FetchResultResponse> prefetch(final long handle, final boolean reset) {
+    return prefetchExecutor.submit(new Callable<FetchResultResponse>() {
+      @Override
+      public FetchResultResponse call() throws Exception {
+        return client.fetchNextRows(queryId, handle, fetchRowNum, reset);
+      }
+    });
+  }
+
+  /**
+   * @return The next row, or NULL if there is no more row
+   */
+  public Tuple next() throws IOException {
+    while (rows == null || rowIdx >= rows.size()) {
+      if (eos || nextPage == null) {
+        return null;
+      }
+      FetchResultResponse response = waitForNextPage();
+      if (response.getResultCode() == ResultCode.ERROR) {
+        eos = true;
+        throw new IOException(response.getErrorMessage());
+      }
+      rows = response.getRowsList();
+      rowIdx = 0;
+      eos = response.getEos();
+      nextPage = eos ? null : prefetch(fetchHandle, false);
+    }
+    return builder.wrap(rows.get(rowIdx++).toByteArray());
+  }
+
+  private FetchResultResponse waitForNextPage() throws IOException {
+    try {
+      FetchResultResponse response = nextPage.get();
+      if (response.hasFetchHandle()) {
+        fetchHandle = response.getFetchHandle();
+      }
+      // the server closes the cursor after the last page or an error.
+      cursorOpen = response.getResultCode() == ResultCode.OK && !response.getEos();
+      return response;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException(e.getMessage(), e);
+    } catch (ExecutionException e) {
+      throw new IOException(e.getCause().getMessage(), e.getCause());
+    } finally {
+      nextPage = null;
+    }
+  }
+
+  /**
+   * A pending page must be received before the next request of the same cursor so that they are not reordered.
+   */
+  private void waitForPendingPage() {
+    if (nextPage != null) {
+      try {
+        waitForNextPage();
+      } catch (IOException e) {
+        // the rows of the pending page are discarded.
+        LOG.warn("Cannot fetch the result of " + queryId + ": " + e.getMessage());
+      }
+    }
+  }
+
+  /**
+   * Fetches the rows again from the first row.
+   */
+  public void reset() {
+    waitForPendingPage();
+    init();
+  }
+
+  /**
+   * Closes the cursor on the server if it is not read to the end.
+   */
+  public void close() {
+    waitForPendingPage();
+    if (cursorOpen) {
+      try {
+        client.closeFetchHandle(queryId, fetchHandle);
+      } catch (Throwable t) {
+        // the cursor is closed by the server after its idle timeout.
+        LOG.warn("Cannot close the fetch handle " + fetchHandle + " of " + queryId + ": " + t.getMessage());
+      }
+      cursorOpen = false;
+    }
+    rows = null;
+    eos = true;
+  }
+}
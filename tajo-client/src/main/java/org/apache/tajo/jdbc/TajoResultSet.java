@@ -44,6 +44,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 public class TajoResultSet extends TajoResultSetBase {
   private FileSystem fs;
   private Scanner scanner;
+  private RemoteResultFetcher fetcher;
   private TajoClient tajoClient;
   private TajoConf conf;
   private TableDesc desc;
@@ -70,12 +71,17 @@ public class TajoResultSet extends TajoResultSetBase {
   private void initScanner() throws IOException {
     if(desc != null) {
       this.schema = desc.getSchema();
-
-      fs = FileScanner.getFileSystem(conf, desc.getPath());
       this.totalRow = desc.getStats() != null ? desc.getStats().getNumRows() : 0;
 
-      List<FileFragment> frags = getFragments(desc.getPath());
-      scanner = new MergeScanner(conf, schema, desc.getMeta(), frags);
+      if (tajoClient != null && conf.getBoolVar(TajoConf.ConfVars.CLIENT_RESULT_FETCH_RPC_ENABLED)) {
+        // the rows are fetched through the server which has the result
+        fetcher = new RemoteResultFetcher(tajoClient, queryId, schema,
+            conf.getIntVar(TajoConf.ConfVars.CLIENT_RESULT_FETCH_ROW_NUM));
+      } else {
+        fs = FileScanner.getFileSystem(conf, desc.getPath());
+        List<FileFragment> frags = getFragments(fs, desc.getPath());
+        scanner = new MergeScanner(conf, schema, desc.getMeta(), frags);
+      }
     }
   }
 
@@ -93,7 +99,10 @@ public class TajoResultSet extends TajoResultSetBase {
     }
   }
 
-  private List<FileFragment> getFragments(Path tablePath)
+  /**
+   * Returns the fragments of the files of a query result, which are sorted in the order of the file names.
+   */
+  public static List<FileFragment> getFragments(FileSystem fs, Path tablePath)
       throws IOException {
     List<FileFragment> fragments = Lists.newArrayList();
     FileStatus[] files = fs.listStatus(tablePath, new PathFilter() {
@@ -127,6 +136,11 @@ public class TajoResultSet extends TajoResultSetBase {
       return;
     }
 
+    // the cursor of this result set is closed before the query is closed.
+    if(fetcher != null) {
+      fetcher.close();
+      fetcher = null;
+    }
     try {
       if(tajoClient != null) {
         this.tajoClient.closeQuery(queryId);
@@ -149,7 +163,9 @@ public class TajoResultSet extends TajoResultSetBase {
   @Override
   public void beforeFirst() throws SQLException {
     try {
-      if(scanner != null) {
+      if(fetcher != null) {
+        fetcher.reset();
+      } else if(scanner != null) {
         scanner.reset();
       } else {
         initScanner();
@@ -162,6 +178,9 @@ public class TajoResultSet extends TajoResultSetBase {
 
   @Override
   protected Tuple nextTuple() throws IOException {
+    if(fetcher != null) {
+      return fetcher.next();
+    }
     if(scanner == null) {
       return null;
     }
@@ -176,6 +195,6 @@ public class TajoResultSet extends TajoResultSetBase {
   }
 
   public boolean hasResult() {
-    return scanner != null;
+    return fetcher != null || scanner != null;
   }
 }
@@ -89,6 +89,10 @@ public class TajoConf extends Configuration {
     TAJO_QUERYMASTER_DISK_SLOT("tajo.qm.resource.disk.slots", 0.0f),
     TAJO_QUERYMASTER_MEMORY_MB("tajo.qm.resource.memory-mb", 512),
 
+    // the number of threads which handle the events of the tasks of a query.
+    // The events of the same task or execution block are handled by the same thread in order.
+    QUERYMASTER_DISPATCHER_THREADS("tajo.qm.dispatcher.threads", 4),
+
     // Tajo Worker Service Addresses
     WORKER_INFO_ADDRESS("tajo.worker.info-http.address", "0.0.0.0:28080"),
     WORKER_QM_INFO_ADDRESS("tajo.worker.qm-info-http.address", "0.0.0.0:28081"),
@@ -105,6 +109,10 @@ public class TajoConf extends Configuration {
     WORKER_RESOURCE_AVAILABLE_MEMORY_MB("tajo.worker.resource.memory-mb", 1024),
     WORKER_RESOURCE_AVAILABLE_DISKS("tajo.worker.resource.disks", 1.0f),
     WORKER_EXECUTION_MAX_SLOTS("tajo.worker.parallel-execution.max-num", 2),
+    // the ratio of the max heap which all operators of concurrent tasks can reserve
+    WORKER_EXECUTION_MEMORY_RATIO("tajo.worker.execution.memory-ratio", 0.7f),
+    // the number of threads shared by the pipelines of all morsel-driven tasks
+    WORKER_EXECUTION_POOL_THREADS("tajo.worker.execution.pool-threads", Runtime.getRuntime().availableProcessors()),
 
     // Tajo Worker Dedicated Resources
     WORKER_RESOURCE_DEDICATED("tajo.worker.resource.dedicated", false),
@@ -115,11 +123,20 @@ public class TajoConf extends Configuration {
 
     WORKER_HEARTBEAT_TIMEOUT("tajo.worker.heartbeat.timeout", 120 * 1000),  // 120 sec
 
+    // Tajo Worker Task Status Report
+    // if enabled, the statuses of all running tasks are sent to each QueryMaster in one report
+    WORKER_TASK_STATUS_AGGREGATION_ENABLED("tajo.worker.task-status.aggregation.enabled", true),
+    WORKER_TASK_STATUS_REPORT_INTERVAL("tajo.worker.task-status.report-interval-ms", 3000),
+
     // Resource Manager
     RESOURCE_MANAGER_CLASS("tajo.resource.manager", "org.apache.tajo.master.rm.TajoWorkerResourceManager"),
 
     // Catalog
     CATALOG_ADDRESS("tajo.catalog.client-rpc.address", "localhost:26005"),
+    // catalog clients cache tables and functions, which are invalidated by the catalog version.
+    CATALOG_CLIENT_CACHE_ENABLED("tajo.catalog.client.cache.enabled", true),
+    // the catalog version is checked at most once in this interval for cached lookups.
+    CATALOG_CLIENT_CACHE_VALIDATION_INTERVAL("tajo.catalog.client.cache.validation-interval-ms", 1000L),
 
     //////////////////////////////////
     // for Yarn Resource Manager
@@ -134,6 +151,12 @@ public class TajoConf extends Configuration {
     // Query Configuration
     //////////////////////////////////
     QUERY_SESSION_TIMEOUT("tajo.query.session.timeout-sec", 60),
+    // the maximum number of query plans cached in the master. Zero disables the plan cache.
+    QUERY_PLAN_CACHE_SIZE("tajo.query.plan-cache.size", 256),
+    // the results of identical read-only queries over unchanged tables are reused if it is enabled.
+    QUERY_RESULT_CACHE_ENABLED("tajo.query.result-cache.enabled", false),
+    QUERY_RESULT_CACHE_SIZE("tajo.query.result-cache.size", 64),
+    QUERY_RESULT_CACHE_MAX_BYTES("tajo.query.result-cache.max-bytes", 1024L * 1024 * 1024),
 
     //////////////////////////////////
     // Shuffle Configuration
@@ -170,6 +193,14 @@ public class TajoConf extends Configuration {
     DIST_QUERY_SORT_PARTITION_VOLUME("tajo.dist-query.sort.partition-volume-mb", 256),
     DIST_QUERY_GROUPBY_PARTITION_VOLUME("tajo.dist-query.groupby.partition-volume-mb", 256),
 
+    //////////////////////////////////
+    // Query Optimizer
+    //////////////////////////////////
+    // join orders of blocks having more relations than this are found by the greedy heuristic.
+    OPTIMIZER_JOIN_DP_MAX_RELATIONS("tajo.optimizer.join.dp.max-relations", 10),
+    // an index scan is chosen if the estimated selectivity of its key range is less than this.
+    OPTIMIZER_INDEX_SCAN_SELECTIVITY_THRESHOLD("tajo.optimizer.index-scan.selectivity-threshold", 0.05f),
+
     //////////////////////////////////
     // Physical Executors
     //////////////////////////////////
@@ -177,11 +208,17 @@ public class TajoConf extends Configuration {
     EXECUTOR_EXTERNAL_SORT_BUFFER_SIZE("tajo.executor.external-sort.buffer-mb", 200L),
     EXECUTOR_EXTERNAL_SORT_FANOUT("tajo.executor.external-sort.fanout-num", 8),
 
+    // the number of pipelines which process the morsels of a task in parallel. 1 disables morsel-driven execution.
+    EXECUTOR_MORSEL_PARALLELISM("tajo.executor.morsel.parallelism", 1),
+    EXECUTOR_MORSEL_SIZE("tajo.executor.morsel.size-bytes", (long)16 * 1048576),
+
     EXECUTOR_INNER_JOIN_INMEMORY_HASH_TABLE_SIZE("tajo.executor.join.inner.in-memory-table-num", (long)1000000),
     EXECUTOR_INNER_JOIN_INMEMORY_HASH_THRESHOLD("tajo.executor.join.inner.in-memory-hash-threshold-bytes",
         (long)256 * 1048576),
     EXECUTOR_OUTER_JOIN_INMEMORY_HASH_THRESHOLD("tajo.executor.join.outer.in-memory-hash-threshold-bytes",
         (long)256 * 1048576),
+    // if true, the tasks of an execution block in a worker share the hash tables built from broadcast tables.
+    EXECUTOR_BROADCAST_TABLE_CACHE_ENABLED("tajo.executor.join.broadcast-table-cache.enabled", true),
     EXECUTOR_GROUPBY_INMEMORY_HASH_THRESHOLD("tajo.executor.groupby.in-memory-hash-threshold-bytes",
         (long)256 * 1048576),
 
@@ -189,6 +226,10 @@ public class TajoConf extends Configuration {
     // RPC
     //////////////////////////////////
     RPC_POOL_MAX_IDLE("tajo.rpc.pool.idle.max", 10),
+    // the max bytes of a message. Clients and servers should have the same value.
+    RPC_MAX_FRAME_SIZE("tajo.rpc.max-frame-size-bytes", 2 * 1048576),
+    // if true, requests issued while a client is writing are written together in the next write.
+    RPC_CLIENT_WRITE_COALESCING_ENABLED("tajo.rpc.client.write-coalescing.enabled", true),
 
     //Internal RPC Client
     INTERNAL_RPC_CLIENT_WORKER_THREAD_NUM("tajo.internal.rpc.client.worker-thread-num",
@@ -232,6 +273,8 @@ public class TajoConf extends Configuration {
     TASK_DEFAULT_MEMORY("tajo.task.memory-slot-mb.default", 512),
     TASK_DEFAULT_DISK("tajo.task.disk-slot.default", 1.0f),
     TASK_DEFAULT_SIZE("tajo.task.size-mb", 128),
+    // the number of tasks that a task runner receives and prepares in advance while running another one
+    TASK_RUNNER_PREFETCH_NUM("tajo.task-runner.prefetch-num", 0),
     //////////////////////////////////
 
     //////////////////////////////////
@@ -239,6 +282,14 @@ public class TajoConf extends Configuration {
     //////////////////////////////////
     CLIENT_SESSION_EXPIRY_TIME("tajo.client.session.expiry-time-sec", 3600), // default time is one hour.
 
+    // if true, a client fetches the rows of a query result through rpc from the server which holds the result.
+    // Otherwise, it reads the result files directly from HDFS.
+    CLIENT_RESULT_FETCH_RPC_ENABLED("tajo.client.result.fetch-rpc.enabled", true),
+    // the number of rows which a client fetches at once
+    CLIENT_RESULT_FETCH_ROW_NUM("tajo.client.result.fetch-row-num", 1000),
+    // the cursor of a query result is closed if a client does not fetch rows from it for this time.
+    CLIENT_RESULT_FETCH_IDLE_TIMEOUT("tajo.client.result.fetch-idle-timeout-sec", 600),
+
     // Metrics
     METRICS_PROPERTY_FILENAME("tajo.metrics.property.file", "tajo-metrics.properties"),
 
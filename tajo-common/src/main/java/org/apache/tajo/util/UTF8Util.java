@@ -0,0 +1,204 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.util;
+
+import org.apache.tajo.datum.TextDatum;
+
+/**
+ * String operations on UTF-8 encoded byte arrays.
+ *
+ * They work directly on the bytes of a TextDatum, so they do not decode bytes into java.lang.String.
+ * Character positions and lengths are counted in code points.
+ */
+public class UTF8Util {
+
+  private static boolean isContinuation(byte b) {
+    return (b & 0xC0) == 0x80;
+  }
+
+  private static boolean isAscii(byte [] bytes) {
+    for (byte b : bytes) {
+      if (b < 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Compares two UTF-8 byte arrays. The byte-wise unsigned order is the same as the code point order.
+   */
+  public static int compare(byte [] left, byte [] right) {
+    return TextDatum.COMPARATOR.compare(left, right);
+  }
+
+  /**
+   * @return the number of characters in a UTF-8 byte array
+   */
+  public static int numChars(byte [] bytes) {
+    int num = 0;
+    for (byte b : bytes) {
+      if (!isContinuation(b)) {
+        num++;
+      }
+    }
+    return num;
+  }
+
+  /**
+   * @return the byte offset of the given character index. If the index exceeds the string,
+   * it returns the length of the bytes.
+   */
+  private static int byteOffset(byte [] bytes, int charIdx) {
+    int chars = 0;
+    for (int i = 0; i < bytes.length; i++) {
+      if (!isContinuation(bytes[i])) {
+        if (chars == charIdx) {
+          return i;
+        }
+        chars++;
+      }
+    }
+    return bytes.length;
+  }
+
+  public static boolean startsWith(byte [] bytes, byte [] prefix) {
+    if (prefix.length > bytes.length) {
+      return false;
+    }
+    for (int i = 0; i < prefix.length; i++) {
+      if (bytes[i] != prefix[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  public static boolean endsWith(byte [] bytes, byte [] suffix) {
+    int start = bytes.length - suffix.length;
+    if (start < 0) {
+      return false;
+    }
+    for (int i = 0; i < suffix.length; i++) {
+      if (bytes[start + i] != suffix[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return the byte offset of the first occurrence of the pattern, or -1 if it does not occur
+   */
+  public static int indexOf(byte [] bytes, byte [] pattern) {
+    if (pattern.length == 0) {
+      return 0;
+    }
+
+    byte first = pattern[0];
+    int max = bytes.length - pattern.length;
+    for (int i = 0; i <= max; i++) {
+      if (bytes[i] != first) {
+        continue;
+      }
+      int j = 1;
+      while (j < pattern.length && bytes[i + j] == pattern[j]) {
+        j++;
+      }
+      if (j == pattern.length) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  public static boolean contains(byte [] bytes, byte [] pattern) {
+    return indexOf(bytes, pattern) >= 0;
+  }
+
+  /**
+   * Extracts a substring.
+   *
+   * @param bytes UTF-8 bytes
+   * @param from the character index at which the substring starts (zero-based)
+   * @param length the number of characters to be extracted
+   * @return the UTF-8 bytes of the substring
+   */
+  public static byte [] substr(byte [] bytes, int from, int length) {
+    if (from < 0) {
+      from = 0;
+    }
+    if (length <= 0) {
+      return new byte[0];
+    }
+    int start = byteOffset(bytes, from);
+    int end = start;
+    int chars = 0;
+    while (end < bytes.length) {
+      if (!isContinuation(bytes[end])) {
+        if (chars == length) {
+          break;
+        }
+        chars++;
+      }
+      end++;
+    }
+
+    byte [] result = new byte[end - start];
+    System.arraycopy(bytes, start, result, 0, result.length);
+    return result;
+  }
+
+  public static byte [] concat(byte [] left, byte [] right) {
+    byte [] result = new byte[left.length + right.length];
+    System.arraycopy(left, 0, result, 0, left.length);
+    System.arraycopy(right, 0, result, left.length, right.length);
+    return result;
+  }
+
+  /**
+   * Converts a string to upper case. Only a string containing non-ASCII characters is decoded.
+   */
+  public static byte [] toUpperCase(byte [] bytes) {
+    if (!isAscii(bytes)) {
+      return new String(bytes).toUpperCase().getBytes();
+    }
+    byte [] result = new byte[bytes.length];
+    for (int i = 0; i < bytes.length; i++) {
+      byte b = bytes[i];
+      result[i] = (b >= 'a' && b <= 'z') ? (byte) (b - 32) : b;
+    }
+    return result;
+  }
+
+  /**
+   * Converts a string to lower case. Only a string containing non-ASCII characters is decoded.
+   */
+  public static byte [] toLowerCase(byte [] bytes) {
+    if (!isAscii(bytes)) {
+      return new String(bytes).toLowerCase().getBytes();
+    }
+    byte [] result = new byte[bytes.length];
+    for (int i = 0; i < bytes.length; i++) {
+      byte b = bytes[i];
+      result[i] = (b >= 'A' && b <= 'Z') ? (byte) (b + 32) : b;
+    }
+    return result;
+  }
+}
@@ -0,0 +1,67 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.util;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TestUTF8Util {
+
+  @Test
+  public void testNumChars() {
+    assertEquals(0, UTF8Util.numChars("".getBytes()));
+    assertEquals(5, UTF8Util.numChars("hello".getBytes()));
+    assertEquals(3, UTF8Util.numChars("가나다".getBytes()));
+    assertEquals(4, UTF8Util.numChars("a가b나".getBytes()));
+  }
+
+  @Test
+  public void testMatching() {
+    byte [] text = "abc가나다".getBytes();
+    assertTrue(UTF8Util.startsWith(text, "abc".getBytes()));
+    assertFalse(UTF8Util.startsWith(text, "bc".getBytes()));
+    assertTrue(UTF8Util.endsWith(text, "나다".getBytes()));
+    assertFalse(UTF8Util.endsWith(text, "가나".getBytes()));
+    assertTrue(UTF8Util.contains(text, "c가".getBytes()));
+    assertFalse(UTF8Util.contains(text, "cb".getBytes()));
+    assertEquals(2, UTF8Util.indexOf(text, "c".getBytes()));
+    assertEquals(-1, UTF8Util.indexOf("ab".getBytes(), "abc".getBytes()));
+    assertEquals(0, UTF8Util.indexOf(text, new byte[0]));
+  }
+
+  @Test
+  public void testSubstr() {
+    byte [] text = "abc가나다".getBytes();
+    assertArrayEquals("c가".getBytes(), UTF8Util.substr(text, 2, 2));
+    assertArrayEquals("나다".getBytes(), UTF8Util.substr(text, 4, 10));
+    assertArrayEquals(new byte[0], UTF8Util.substr(text, 10, 2));
+    assertArrayEquals(new byte[0], UTF8Util.substr(text, 1, 0));
+  }
+
+  @Test
+  public void testCaseConversionAndConcat() {
+    assertArrayEquals("TAJO 1".getBytes(), UTF8Util.toUpperCase("tajo 1".getBytes()));
+    assertArrayEquals("tajo 1".getBytes(), UTF8Util.toLowerCase("TaJo 1".getBytes()));
+    assertArrayEquals("ÉCOLE".getBytes(), UTF8Util.toUpperCase("école".getBytes()));
+    assertArrayEquals("ab가".getBytes(), UTF8Util.concat("ab".getBytes(), "가".getBytes()));
+    assertTrue(UTF8Util.compare("abc".getBytes(), "abd".getBytes()) < 0);
+    assertTrue(UTF8Util.compare("가".getBytes(), "z".getBytes()) > 0);
+  }
+}
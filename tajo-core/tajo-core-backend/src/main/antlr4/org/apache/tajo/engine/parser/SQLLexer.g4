@@ -188,6 +188,7 @@ WITH : W I T H;
   Non Reserved Keywords
 ===============================================================================
 */
+ANALYZE : A N A L Y Z E;
 AVG : A V G;
 
 BETWEEN : B E T W E E N;
@@ -43,6 +43,7 @@ statement
   | data_change_statement
   | schema_statement
   | index_statement
+  | analyze_statement
   ;
 
 data_statement
@@ -60,6 +61,10 @@ schema_statement
   | drop_table_statement
   ;
 
+analyze_statement
+  : ANALYZE TABLE table_name
+  ;
+
 index_statement
   : CREATE (u=UNIQUE)? INDEX n=identifier ON t=table_name (m=method_specifier)?
     LEFT_PAREN s=sort_specifier_list RIGHT_PAREN p=param_clause?
@@ -204,7 +209,8 @@ identifier
   ;
 
 nonreserved_keywords
-  : AVG
+  : ANALYZE
+  | AVG
   | BETWEEN
   | BY
   | CENTURY
@@ -60,6 +60,14 @@ public class AggregationFunctionCallEval extends FunctionEval implements Cloneab
     }
   }
 
+  /**
+   * Merges the intermediate result of a source context into a target context. Both contexts should be created by
+   * this function, and they can be in either phase.
+   */
+  public void mergeContext(FunctionContext target, FunctionContext source) {
+    instance.merge(target, new VTuple(new Datum[] {instance.getPartialResult(source)}));
+  }
+
   @Override
   public Datum eval(Schema schema, Tuple tuple) {
     throw new UnsupportedOperationException("Cannot execute eval() of aggregation function");
@@ -83,7 +91,10 @@ public class AggregationFunctionCallEval extends FunctionEval implements Cloneab
   }
 
   public Object clone() throws CloneNotSupportedException {
-    return super.clone();
+    AggregationFunctionCallEval eval = (AggregationFunctionCallEval) super.clone();
+    // a copy has its own buffer of parameters, so copies can be evaluated concurrently.
+    eval.params = null;
+    return eval;
   }
 
   public void setFirstPhase() {
@@ -24,10 +24,12 @@ import com.google.gson.annotations.Expose;
 import org.apache.tajo.catalog.CatalogUtil;
 import org.apache.tajo.catalog.Schema;
 import org.apache.tajo.common.TajoDataTypes.DataType;
+import org.apache.tajo.datum.BooleanDatum;
 import org.apache.tajo.datum.Datum;
 import org.apache.tajo.datum.DatumFactory;
 import org.apache.tajo.datum.NullDatum;
 import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.util.UTF8Util;
 
 import static org.apache.tajo.common.TajoDataTypes.Type;
 
@@ -122,6 +124,15 @@ public class BinaryEval extends EvalNode implements Cloneable {
   @Override
   public Datum eval(Schema schema, Tuple tuple) {
     Datum lhs = leftExpr.eval(schema, tuple);
+
+    // short-circuit evaluation: the right operand is skipped if the left one determines the result.
+    // Conjuncts are ordered by their selectivities and costs in PredicateReorderRule.
+    if (type == EvalType.AND && lhs.type() == Type.BOOLEAN && !lhs.asBool()) {
+      return BooleanDatum.FALSE;
+    } else if (type == EvalType.OR && lhs.type() == Type.BOOLEAN && lhs.asBool()) {
+      return BooleanDatum.TRUE;
+    }
+
     Datum rhs = rightExpr.eval(schema, tuple);
 
     switch(type) {
@@ -158,6 +169,9 @@ public class BinaryEval extends EvalNode implements Cloneable {
       if (lhs.type() == Type.NULL_TYPE || rhs.type() == Type.NULL_TYPE) {
         return NullDatum.get();
       }
+      if (lhs.type() == Type.TEXT && rhs.type() == Type.TEXT) {
+        return DatumFactory.createText(UTF8Util.concat(lhs.asByteArray(), rhs.asByteArray()));
+      }
       return DatumFactory.createText(lhs.asChars() + rhs.asChars());
     default:
       throw new InvalidEvalException("We does not support " + type + " expression yet");
@@ -40,6 +40,10 @@ public class CastEval extends EvalNode {
     return operand;
   }
 
+  public void setOperand(EvalNode operand) {
+    this.operand = operand;
+  }
+
   @Override
   public DataType getValueType() {
     return target;
@@ -84,4 +88,11 @@ public class CastEval extends EvalNode {
     operand.postOrder(visitor);
     visitor.visit(this);
   }
+
+  @Override
+  public Object clone() throws CloneNotSupportedException {
+    CastEval eval = (CastEval) super.clone();
+    eval.operand = (EvalNode) operand.clone();
+    return eval;
+  }
 }
@@ -61,6 +61,10 @@ public abstract class FunctionEval extends EvalNode implements Cloneable {
     return paramTypes;
   }
 
+  public FunctionDesc getFuncDesc() {
+    return funcDesc;
+  }
+
   public boolean isDistinct() {
     return funcDesc.getFuncType() == DISTINCT_AGGREGATION || funcDesc.getFuncType() == DISTINCT_UDA;
   }
@@ -55,6 +55,10 @@ public class GeneralFunctionEval extends FunctionEval {
 
     return instance.eval(params);
 	}
+
+  public boolean isDeterministic() {
+    return instance.isDeterministic();
+  }
 	
 	@Override
 	public boolean equals(Object obj) {
@@ -76,6 +80,8 @@ public class GeneralFunctionEval extends FunctionEval {
   public Object clone() throws CloneNotSupportedException {
     GeneralFunctionEval eval = (GeneralFunctionEval) super.clone();
     eval.instance = (GeneralFunction) instance.clone();
+    // a copy has its own buffer of parameters, so copies can be evaluated concurrently.
+    eval.params = null;
     return eval;
   }
 }
\ No newline at end of file
@@ -32,7 +32,7 @@ public class InEval extends BinaryEval {
 
   @Expose private boolean not;
   private Integer fieldId = null;
-  Datum [] values;
+  private InValueSet valueSet;
 
   public InEval(FieldEval columnRef, RowConstantEval valueList, boolean not) {
     super(EvalType.IN, columnRef, valueList);
@@ -53,11 +53,25 @@ public class InEval extends BinaryEval {
     return "?";
   }
 
+  /**
+   * @return the lookup strategy chosen for the constant value list
+   */
+  public InValueSet.Strategy getStrategy() {
+    return getValueSet().getStrategy();
+  }
+
+  private InValueSet getValueSet() {
+    if (valueSet == null) {
+      valueSet = InValueSet.create(leftExpr.getValueType(), ((RowConstantEval)rightExpr).getValues());
+    }
+    return valueSet;
+  }
+
   @Override
   public Datum eval(Schema schema, Tuple tuple) {
     if (fieldId == null) {
       fieldId = schema.getColumnId(((FieldEval)leftExpr).getColumnRef().getQualifiedName());
-      values = ((RowConstantEval)rightExpr).getValues();
+      getValueSet();
     }
 
     Datum value = tuple.get(fieldId);
@@ -66,15 +80,7 @@ public class InEval extends BinaryEval {
       return value;
     }
 
-    boolean isIncluded = false;
-    for (Datum datum : values) {
-      if (value.equalsTo(datum).asBool()) {
-        isIncluded = true;
-        break;
-      }
-    }
-
-    return DatumFactory.createBool(not ^ isIncluded);
+    return DatumFactory.createBool(not ^ valueSet.contains(value));
   }
 
   @Override
@@ -87,6 +93,11 @@ public class InEval extends BinaryEval {
   }
 
   public String toString() {
-    return leftExpr + " IN (" + rightExpr + ")";
+    InValueSet.Strategy strategy = getStrategy();
+    if (strategy == InValueSet.Strategy.LINEAR) {
+      return leftExpr + " IN (" + rightExpr + ")";
+    } else {
+      return leftExpr + " IN (" + rightExpr + ") (lookup: " + strategy.name() + ")";
+    }
   }
 }
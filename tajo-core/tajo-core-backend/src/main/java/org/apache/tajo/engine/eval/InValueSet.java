@@ -0,0 +1,344 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.eval;
+
+import org.apache.tajo.common.TajoDataTypes.DataType;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.TextDatum;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A lookup structure precomputed from the constant values of an IN predicate.
+ *
+ * Integral and floating point columns are looked up as primitive long keys, and TEXT or CHAR columns
+ * are looked up as byte arrays, so that no Datum is created per comparison. Short value lists are
+ * scanned linearly, medium ones are binary searched and large ones are kept in an open-addressing hash set.
+ */
+public abstract class InValueSet {
+  public static final int SORTED_THRESHOLD = 8;
+  public static final int HASH_THRESHOLD = 64;
+
+  public enum Strategy {
+    LINEAR,
+    SORTED,
+    HASH
+  }
+
+  enum KeyDomain {
+    LONG,
+    DOUBLE,
+    BYTES,
+    NONE
+  }
+
+  public abstract Strategy getStrategy();
+
+  /**
+   * @param value a non-null datum
+   * @return true if the value is one of the constants
+   */
+  public abstract boolean contains(Datum value);
+
+  public static InValueSet create(DataType columnType, Datum [] values) {
+    KeyDomain domain = getKeyDomain(columnType, values);
+    int num = countNonNull(values);
+
+    if (domain == KeyDomain.NONE || num < SORTED_THRESHOLD) {
+      return new LinearSet(values);
+    }
+
+    if (domain == KeyDomain.BYTES) {
+      byte [][] keys = new byte[num][];
+      int i = 0;
+      for (Datum value : values) {
+        if (!value.isNull()) {
+          keys[i++] = value.asByteArray();
+        }
+      }
+      return num < HASH_THRESHOLD ? new SortedBytesSet(keys) : new HashBytesSet(keys);
+    } else {
+      boolean isReal = domain == KeyDomain.DOUBLE;
+      long [] keys = new long[num];
+      int i = 0;
+      for (Datum value : values) {
+        if (!value.isNull()) {
+          keys[i++] = isReal ? toLongKey(value.asFloat8()) : value.asInt8();
+        }
+      }
+      return num < HASH_THRESHOLD ? new SortedLongSet(keys, isReal) : new HashLongSet(keys, isReal);
+    }
+  }
+
+  private static KeyDomain getKeyDomain(DataType columnType, Datum [] values) {
+    KeyDomain domain;
+    switch (columnType.getType()) {
+      case INT1:
+      case INT2:
+      case INT4:
+      case INT8:
+        domain = KeyDomain.LONG;
+        break;
+      case FLOAT4:
+      case FLOAT8:
+        domain = KeyDomain.DOUBLE;
+        break;
+      case CHAR:
+      case TEXT:
+        domain = KeyDomain.BYTES;
+        break;
+      default:
+        return KeyDomain.NONE;
+    }
+
+    // every constant must be comparable in the chosen key domain without changing the comparison semantic.
+    for (Datum value : values) {
+      if (value.isNull()) {
+        continue;
+      }
+      switch (domain) {
+        case LONG:
+          if (!value.isNumber()) {
+            return KeyDomain.NONE;
+          }
+          break;
+        case DOUBLE:
+          if (!value.isNumeric()) {
+            return KeyDomain.NONE;
+          }
+          break;
+        case BYTES:
+          switch (value.type()) {
+            case CHAR:
+            case TEXT:
+              break;
+            default:
+              return KeyDomain.NONE;
+          }
+      }
+    }
+    return domain;
+  }
+
+  private static int countNonNull(Datum [] values) {
+    int num = 0;
+    for (Datum value : values) {
+      if (!value.isNull()) {
+        num++;
+      }
+    }
+    return num;
+  }
+
+  /**
+   * Maps a double to a long key so that 0.0 and -0.0 become the same key.
+   */
+  private static long toLongKey(double value) {
+    return value == 0.0d ? 0L : Double.doubleToLongBits(value);
+  }
+
+  private static long [] distinct(long [] keys) {
+    long [] sorted = Arrays.copyOf(keys, keys.length);
+    Arrays.sort(sorted);
+    int num = 0;
+    for (int i = 0; i < sorted.length; i++) {
+      if (i == 0 || sorted[i] != sorted[num - 1]) {
+        sorted[num++] = sorted[i];
+      }
+    }
+    return Arrays.copyOf(sorted, num);
+  }
+
+  private static byte [][] distinct(byte [][] keys) {
+    byte [][] sorted = Arrays.copyOf(keys, keys.length);
+    Arrays.sort(sorted, TextDatum.COMPARATOR);
+    List<byte []> unique = new ArrayList<byte[]>(sorted.length);
+    for (int i = 0; i < sorted.length; i++) {
+      if (i == 0 || TextDatum.COMPARATOR.compare(sorted[i], sorted[i - 1]) != 0) {
+        unique.add(sorted[i]);
+      }
+    }
+    return unique.toArray(new byte[unique.size()][]);
+  }
+
+  private static int tableSize(int num) {
+    // keep the load factor at or below 0.5
+    int size = 2;
+    while (size < num * 2) {
+      size <<= 1;
+    }
+    return size;
+  }
+
+  private static int mix(int hash) {
+    int h = hash * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+
+  private static int hash(long key) {
+    return mix((int) (key ^ (key >>> 32)));
+  }
+
+  private static int hash(byte [] key) {
+    return mix(Arrays.hashCode(key));
+  }
+
+  static class LinearSet extends InValueSet {
+    private final Datum [] values;
+
+    LinearSet(Datum [] values) {
+      this.values = values;
+    }
+
+    @Override
+    public Strategy getStrategy() {
+      return Strategy.LINEAR;
+    }
+
+    @Override
+    public boolean contains(Datum value) {
+      for (Datum datum : values) {
+        if (value.equalsTo(datum).asBool()) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
+  static class SortedLongSet extends InValueSet {
+    private final long [] keys;
+    private final boolean isReal;
+
+    SortedLongSet(long [] keys, boolean isReal) {
+      this.keys = distinct(keys);
+      this.isReal = isReal;
+    }
+
+    @Override
+    public Strategy getStrategy() {
+      return Strategy.SORTED;
+    }
+
+    @Override
+    public boolean contains(Datum value) {
+      long key = isReal ? toLongKey(value.asFloat8()) : value.asInt8();
+      return Arrays.binarySearch(keys, key) >= 0;
+    }
+  }
+
+  static class HashLongSet extends InValueSet {
+    private final long [] table;
+    private final boolean [] used;
+    private final int mask;
+    private final boolean isReal;
+
+    HashLongSet(long [] keys, boolean isReal) {
+      this.isReal = isReal;
+      int size = tableSize(keys.length);
+      this.table = new long[size];
+      this.used = new boolean[size];
+      this.mask = size - 1;
+
+      for (long key : keys) {
+        int pos = hash(key) & mask;
+        while (used[pos] && table[pos] != key) {
+          pos = (pos + 1) & mask;
+        }
+        table[pos] = key;
+        used[pos] = true;
+      }
+    }
+
+    @Override
+    public Strategy getStrategy() {
+      return Strategy.HASH;
+    }
+
+    @Override
+    public boolean contains(Datum value) {
+      long key = isReal ? toLongKey(value.asFloat8()) : value.asInt8();
+      int pos = hash(key) & mask;
+      while (used[pos]) {
+        if (table[pos] == key) {
+          return true;
+        }
+        pos = (pos + 1) & mask;
+      }
+      return false;
+    }
+  }
+
+  static class SortedBytesSet extends InValueSet {
+    private final byte [][] keys;
+
+    SortedBytesSet(byte [][] keys) {
+      this.keys = distinct(keys);
+    }
+
+    @Override
+    public Strategy getStrategy() {
+      return Strategy.SORTED;
+    }
+
+    @Override
+    public boolean contains(Datum value) {
+      return Arrays.binarySearch(keys, value.asByteArray(), TextDatum.COMPARATOR) >= 0;
+    }
+  }
+
+  static class HashBytesSet extends InValueSet {
+    private final byte [][] table;
+    private final int mask;
+
+    HashBytesSet(byte [][] keys) {
+      int size = tableSize(keys.length);
+      this.table = new byte[size][];
+      this.mask = size - 1;
+
+      for (byte [] key : keys) {
+        int pos = hash(key) & mask;
+        while (table[pos] != null && !Arrays.equals(table[pos], key)) {
+          pos = (pos + 1) & mask;
+        }
+        table[pos] = key;
+      }
+    }
+
+    @Override
+    public Strategy getStrategy() {
+      return Strategy.HASH;
+    }
+
+    @Override
+    public boolean contains(Datum value) {
+      byte [] key = value.asByteArray();
+      int pos = hash(key) & mask;
+      while (table[pos] != null) {
+        if (Arrays.equals(table[pos], key)) {
+          return true;
+        }
+        pos = (pos + 1) & mask;
+      }
+      return false;
+    }
+  }
+}
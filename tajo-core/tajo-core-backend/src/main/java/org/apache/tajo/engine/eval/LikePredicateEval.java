@@ -18,12 +18,31 @@
 
 package org.apache.tajo.engine.eval;
 
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.util.UTF8Util;
+
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
 public class LikePredicateEval extends PatternMatchPredicateEval {
   private static final String LIKE_ESCAPE_SPATIAL_CHARACTERS = "([.*${}?|\\^\\-\\[\\]])";
 
+  /**
+   * How a pattern without any wildcard in the middle is matched against the bytes of a TEXT value.
+   */
+  enum ByteMatchType {
+    EXACT,    // 'abc'
+    PREFIX,   // 'abc%'
+    SUFFIX,   // '%abc'
+    CONTAINS, // '%abc%'
+    ANY       // '%'
+  }
+
+  // transient variables
+  private ByteMatchType byteMatchType;
+  private byte [] literal;
+
   public LikePredicateEval(boolean not, EvalNode field, ConstEval pattern, boolean caseSensitive) {
     super(EvalType.LIKE, not, field, pattern, caseSensitive);
   }
@@ -40,6 +59,66 @@ public class LikePredicateEval extends PatternMatchPredicateEval {
       flags |= Pattern.CASE_INSENSITIVE;
     }
     this.compiled = Pattern.compile(regex, flags);
+
+    compileByteMatch(pattern);
+  }
+
+  /**
+   * If a case-sensitive pattern has no '_' and '%' occurs only at its start or end,
+   * the pattern can be matched on UTF-8 bytes without any regular expression.
+   */
+  private void compileByteMatch(String pattern) {
+    byteMatchType = null;
+    literal = null;
+
+    if (caseInsensitive || pattern.indexOf('_') >= 0) {
+      return;
+    }
+
+    boolean leading = pattern.startsWith("%");
+    String body = leading ? pattern.substring(1) : pattern;
+    boolean trailing = body.endsWith("%");
+    if (trailing) {
+      body = body.substring(0, body.length() - 1);
+    }
+
+    if (body.indexOf('%') >= 0) {
+      return;
+    }
+
+    if (body.isEmpty() && (leading || trailing)) {
+      byteMatchType = ByteMatchType.ANY;
+    } else if (leading && trailing) {
+      byteMatchType = ByteMatchType.CONTAINS;
+    } else if (leading) {
+      byteMatchType = ByteMatchType.SUFFIX;
+    } else if (trailing) {
+      byteMatchType = ByteMatchType.PREFIX;
+    } else {
+      byteMatchType = ByteMatchType.EXACT;
+    }
+    literal = body.getBytes();
+  }
+
+  @Override
+  protected boolean matches(Datum predicand) {
+    if (byteMatchType == null || predicand.type() != Type.TEXT) {
+      return super.matches(predicand);
+    }
+
+    byte [] bytes = predicand.asByteArray();
+    switch (byteMatchType) {
+      case EXACT:
+        return UTF8Util.compare(bytes, literal) == 0;
+      case PREFIX:
+        return UTF8Util.startsWith(bytes, literal);
+      case SUFFIX:
+        return UTF8Util.endsWith(bytes, literal);
+      case CONTAINS:
+        return UTF8Util.contains(bytes, literal);
+      default:
+        return true;
+    }
   }
 
   public boolean isLeadingWildCard() {
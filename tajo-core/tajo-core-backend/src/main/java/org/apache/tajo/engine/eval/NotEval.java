@@ -40,6 +40,10 @@ public class NotEval extends EvalNode implements Cloneable {
     return childEval;
   }
 
+  public void setChild(EvalNode childEval) {
+    this.childEval = childEval;
+  }
+
   @Override
   public DataType getValueType() {
     return RES_TYPE;
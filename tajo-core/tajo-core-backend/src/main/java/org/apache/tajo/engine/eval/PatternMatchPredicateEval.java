@@ -76,7 +76,14 @@ public abstract class PatternMatchPredicateEval extends BinaryEval {
       return NullDatum.get();
     }
 
-    boolean matched = compiled.matcher(predicand.asChars()).matches();
-    return DatumFactory.createBool(matched ^ not);
+    return DatumFactory.createBool(matches(predicand) ^ not);
+  }
+
+  /**
+   * @param predicand a non-null datum
+   * @return true if the predicand matches the compiled pattern
+   */
+  protected boolean matches(Datum predicand) {
+    return compiled.matcher(predicand.asChars()).matches();
   }
 }
\ No newline at end of file
@@ -43,6 +43,10 @@ public class SignedEval extends EvalNode implements Cloneable {
     return childEval;
   }
 
+  public void setChild(EvalNode childEval) {
+    this.childEval = childEval;
+  }
+
   @Override
   public DataType getValueType() {
     return childEval.getValueType();
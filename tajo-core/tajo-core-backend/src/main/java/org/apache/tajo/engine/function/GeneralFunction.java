@@ -39,6 +39,16 @@ public abstract class GeneralFunction extends Function implements GsonObject {
 
   public abstract Datum eval(Tuple params);
 
+  /**
+   * If a function always returns the same result for the same arguments, it is deterministic.
+   * The planner can evaluate a deterministic function with constant arguments only once.
+   *
+   * @return True if this function is deterministic
+   */
+  public boolean isDeterministic() {
+    return true;
+  }
+
 	public enum Type {
 	  AGG,
 	  GENERAL
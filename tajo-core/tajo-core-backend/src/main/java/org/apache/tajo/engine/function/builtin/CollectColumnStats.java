@@ -0,0 +1,246 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.function.builtin;
+
+import com.google.protobuf.ByteString;
+import org.apache.tajo.catalog.CatalogUtil;
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.catalog.statistics.ColumnStats;
+import org.apache.tajo.catalog.statistics.HyperLogLog;
+import org.apache.tajo.catalog.statistics.StatisticsUtil;
+import org.apache.tajo.common.TajoDataTypes.DataType;
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.datum.ProtobufDatum;
+import org.apache.tajo.engine.function.AggFunction;
+import org.apache.tajo.engine.function.FunctionContext;
+import org.apache.tajo.engine.function.annotation.Description;
+import org.apache.tajo.engine.function.annotation.ParamTypes;
+import org.apache.tajo.storage.Tuple;
+
+import java.util.*;
+
+import static org.apache.tajo.InternalTypes.ColumnStatsSketchProto;
+
+/**
+ * It computes the statistics of a column for ANALYZE. The number of distinct values is estimated
+ * by HyperLogLog, and an equi-depth histogram is built from a uniform random sample of the column.
+ *
+ * Each row gets a random key, and a sample keeps the rows of the smallest keys. So, the samples
+ * of partial aggregations can be merged into a uniform sample without any weight.
+ */
+@Description(
+  functionName = CollectColumnStats.NAME,
+  description = "Statistics of a column, serialized as ColumnStatsProto",
+  example = "> SELECT collect_column_stats(expr);",
+  returnType = Type.BLOB,
+  paramTypes = {@ParamTypes(paramTypes = {Type.ANY})}
+)
+public class CollectColumnStats extends AggFunction<Datum> {
+  public static final String NAME = "collect_column_stats";
+  public static final int SAMPLE_SIZE = 4096;
+  public static final int HISTOGRAM_BUCKETS = 64;
+
+  public CollectColumnStats() {
+    super(new Column[] {
+        new Column("expr", Type.ANY)
+    });
+  }
+
+  @Override
+  public FunctionContext newContext() {
+    return new ColumnStatsContext();
+  }
+
+  @Override
+  public void eval(FunctionContext ctx, Tuple params) {
+    ColumnStatsContext statsCtx = (ColumnStatsContext) ctx;
+    Datum datum = params.get(0);
+
+    if (datum.isNull()) {
+      statsCtx.numNulls++;
+      return;
+    }
+
+    if (statsCtx.type == null) {
+      statsCtx.type = datum.type();
+    }
+    statsCtx.numValues++;
+    statsCtx.totalWidth += datum.size();
+    statsCtx.hll.offer(datum.asByteArray());
+    if (isOrdered(datum.type())) {
+      statsCtx.updateMinMax(datum, datum);
+      statsCtx.offerSample(statsCtx.random.nextDouble(), datum);
+    }
+  }
+
+  @Override
+  public void merge(FunctionContext ctx, Tuple part) {
+    ColumnStatsContext statsCtx = (ColumnStatsContext) ctx;
+    ProtobufDatum datum = (ProtobufDatum) part.get(0);
+    ColumnStatsSketchProto proto = (ColumnStatsSketchProto) datum.get();
+
+    statsCtx.numNulls += proto.getNumNulls();
+    if (proto.getNumValues() == 0) {
+      return;
+    }
+
+    Type type = Type.valueOf(proto.getType());
+    DataType dataType = CatalogUtil.newSimpleDataType(type);
+    if (statsCtx.type == null) {
+      statsCtx.type = type;
+    }
+    statsCtx.numValues += proto.getNumValues();
+    statsCtx.totalWidth += proto.getTotalWidth();
+    statsCtx.hll.merge(new HyperLogLog(proto.getHllRegisters().toByteArray()));
+
+    if (proto.hasMinValue()) {
+      statsCtx.updateMinMax(DatumFactory.createFromBytes(dataType, proto.getMinValue().toByteArray()),
+          DatumFactory.createFromBytes(dataType, proto.getMaxValue().toByteArray()));
+    }
+    for (int i = 0; i < proto.getSampleKeysCount(); i++) {
+      statsCtx.offerSample(proto.getSampleKeys(i),
+          DatumFactory.createFromBytes(dataType, proto.getSampleValues(i).toByteArray()));
+    }
+  }
+
+  @Override
+  public Datum getPartialResult(FunctionContext ctx) {
+    ColumnStatsContext statsCtx = (ColumnStatsContext) ctx;
+    ColumnStatsSketchProto.Builder builder = ColumnStatsSketchProto.newBuilder();
+    builder.setType(statsCtx.type == null ? Type.NULL_TYPE.getNumber() : statsCtx.type.getNumber());
+    builder.setNumValues(statsCtx.numValues);
+    builder.setNumNulls(statsCtx.numNulls);
+    builder.setTotalWidth(statsCtx.totalWidth);
+
+    if (statsCtx.numValues > 0) {
+      builder.setHllRegisters(ByteString.copyFrom(statsCtx.hll.getRegisters()));
+      if (statsCtx.min != null) {
+        builder.setMinValue(ByteString.copyFrom(statsCtx.min.asByteArray()));
+        builder.setMaxValue(ByteString.copyFrom(statsCtx.max.asByteArray()));
+      }
+      for (SampleEntry entry : statsCtx.sample) {
+        builder.addSampleKeys(entry.key);
+        builder.addSampleValues(ByteString.copyFrom(entry.value.asByteArray()));
+      }
+    }
+    return new ProtobufDatum(builder.build());
+  }
+
+  @Override
+  public DataType getPartialResultType() {
+    return CatalogUtil.newDataType(Type.PROTOBUF, ColumnStatsSketchProto.class.getName());
+  }
+
+  @Override
+  public Datum terminate(FunctionContext ctx) {
+    ColumnStatsContext statsCtx = (ColumnStatsContext) ctx;
+    Type type = statsCtx.type == null ? Type.NULL_TYPE : statsCtx.type;
+
+    ColumnStats stats = new ColumnStats(new Column("expr", type));
+    stats.setNumNulls(statsCtx.numNulls);
+    stats.setNumDistVals(statsCtx.numValues > 0 ? Math.min(statsCtx.hll.cardinality(), statsCtx.numValues) : 0);
+
+    if (statsCtx.numValues > 0) {
+      stats.setAvgWidth((int) Math.round((double) statsCtx.totalWidth / statsCtx.numValues));
+      if (statsCtx.min != null) {
+        stats.setMinValue(statsCtx.min);
+        stats.setMaxValue(statsCtx.max);
+
+        List<Datum> sorted = new ArrayList<Datum>(statsCtx.sample.size());
+        for (SampleEntry entry : statsCtx.sample) {
+          sorted.add(entry.value);
+        }
+        Collections.sort(sorted);
+        stats.setHistogramBounds(StatisticsUtil.buildEquiDepthHistogram(sorted, HISTOGRAM_BUCKETS));
+      }
+    }
+
+    return DatumFactory.createBlob(stats.getProto().toByteArray());
+  }
+
+  /**
+   * @return True if the values of a type have a meaningful order for range predicates.
+   */
+  private static boolean isOrdered(Type type) {
+    switch (type) {
+      case INT2:
+      case INT4:
+      case INT8:
+      case FLOAT4:
+      case FLOAT8:
+      case CHAR:
+      case TEXT:
+      case DATE:
+      case TIME:
+      case TIMESTAMP:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  private static class SampleEntry {
+    final double key;
+    final Datum value;
+
+    SampleEntry(double key, Datum value) {
+      this.key = key;
+      this.value = value;
+    }
+  }
+
+  private static final Comparator<SampleEntry> LARGEST_KEY_FIRST = new Comparator<SampleEntry>() {
+    @Override
+    public int compare(SampleEntry o1, SampleEntry o2) {
+      return Double.compare(o2.key, o1.key);
+    }
+  };
+
+  protected class ColumnStatsContext implements FunctionContext {
+    Type type;
+    long numValues;
+    long numNulls;
+    long totalWidth;
+    HyperLogLog hll = new HyperLogLog();
+    Datum min;
+    Datum max;
+    PriorityQueue<SampleEntry> sample = new PriorityQueue<SampleEntry>(SAMPLE_SIZE, LARGEST_KEY_FIRST);
+    Random random = new Random();
+
+    void updateMinMax(Datum minCandidate, Datum maxCandidate) {
+      if (min == null || min.compareTo(minCandidate) > 0) {
+        min = minCandidate;
+      }
+      if (max == null || max.compareTo(maxCandidate) < 0) {
+        max = maxCandidate;
+      }
+    }
+
+    void offerSample(double key, Datum value) {
+      if (sample.size() < SAMPLE_SIZE) {
+        sample.add(new SampleEntry(key, value));
+      } else if (key < sample.peek().key) {
+        sample.poll();
+        sample.add(new SampleEntry(key, value));
+      }
+    }
+  }
+}
@@ -54,4 +54,8 @@ public class RandomInt extends GeneralFunction {
     return DatumFactory.createInt4(random.nextInt(params.get(0).asInt4()));
   }
 
+  @Override
+  public boolean isDeterministic() {
+    return false;
+  }
 }
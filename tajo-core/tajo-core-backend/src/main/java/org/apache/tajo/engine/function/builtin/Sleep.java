@@ -49,4 +49,9 @@ public class Sleep extends GeneralFunction {
 
     return DatumFactory.createInt4(params.getInt4(0));
   }
+
+  @Override
+  public boolean isDeterministic() {
+    return false;
+  }
 }
@@ -43,4 +43,9 @@ public class Today extends GeneralFunction {
   public Datum eval(Tuple params) {
     return DatumFactory.createInt8(System.currentTimeMillis());
   }
+
+  @Override
+  public boolean isDeterministic() {
+    return false;
+  }
 }
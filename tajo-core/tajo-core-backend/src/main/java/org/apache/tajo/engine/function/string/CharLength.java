@@ -27,6 +27,7 @@ import org.apache.tajo.engine.function.GeneralFunction;
 import org.apache.tajo.engine.function.annotation.Description;
 import org.apache.tajo.engine.function.annotation.ParamTypes;
 import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.util.UTF8Util;
 
 /**
  * Function definition
@@ -54,6 +55,6 @@ public class CharLength extends GeneralFunction {
     Datum datum = params.get(0);
     if(datum instanceof NullDatum) return NullDatum.get();
 
-    return DatumFactory.createInt4(datum.asChars().length());
+    return DatumFactory.createInt4(UTF8Util.numChars(datum.asTextBytes()));
   }
 }
@@ -27,6 +27,7 @@ import org.apache.tajo.engine.function.GeneralFunction;
 import org.apache.tajo.engine.function.annotation.Description;
 import org.apache.tajo.engine.function.annotation.ParamTypes;
 import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.util.UTF8Util;
 
 /**
  * Function definition
@@ -56,6 +57,6 @@ public class Length  extends GeneralFunction {
       return NullDatum.get();
     }
 
-    return DatumFactory.createInt4(datum.asChars().length());
+    return DatumFactory.createInt4(UTF8Util.numChars(datum.asTextBytes()));
   }
 }
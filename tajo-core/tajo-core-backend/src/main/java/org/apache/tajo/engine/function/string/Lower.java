@@ -27,6 +27,7 @@ import org.apache.tajo.engine.function.GeneralFunction;
 import org.apache.tajo.engine.function.annotation.Description;
 import org.apache.tajo.engine.function.annotation.ParamTypes;
 import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.util.UTF8Util;
 
 /**
  * Function definition
@@ -53,6 +54,6 @@ public class Lower extends GeneralFunction {
     Datum datum = params.get(0);
     if(datum instanceof NullDatum) return NullDatum.get();
 
-    return DatumFactory.createText(datum.asChars().toLowerCase());
+    return DatumFactory.createText(UTF8Util.toLowerCase(datum.asTextBytes()));
   }
 }
@@ -27,6 +27,7 @@ import org.apache.tajo.engine.function.GeneralFunction;
 import org.apache.tajo.engine.function.annotation.Description;
 import org.apache.tajo.engine.function.annotation.ParamTypes;
 import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.util.UTF8Util;
 
 /**
  * Function definition
@@ -64,9 +65,9 @@ public class Substr extends GeneralFunction {
       return NullDatum.get();
     }
 
-    String value = valueDatum.asChars();
+    byte [] value = valueDatum.asTextBytes();
     int from = fromDatum.asInt4();
-    int strLength = value.length();
+    int strLength = UTF8Util.numChars(value);
     int count;
 
     if (countDatum == null) {
@@ -89,6 +90,6 @@ public class Substr extends GeneralFunction {
       return DatumFactory.createText("");
     }
 
-    return DatumFactory.createText(value.substring(from, count));
+    return DatumFactory.createText(UTF8Util.substr(value, from, count - from));
   }
 }
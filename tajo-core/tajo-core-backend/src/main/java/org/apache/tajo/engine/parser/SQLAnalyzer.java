@@ -306,10 +306,14 @@ public class SQLAnalyzer extends SQLParserBaseVisitor<Expr> {
 
   @Override
   public Sort visitOrderby_clause(SQLParser.Orderby_clauseContext ctx) {
-    int size = ctx.sort_specifier_list().sort_specifier().size();
+    return new Sort(buildSortSpecs(ctx.sort_specifier_list()));
+  }
+
+  private Sort.SortSpec [] buildSortSpecs(SQLParser.Sort_specifier_listContext ctx) {
+    int size = ctx.sort_specifier().size();
     Sort.SortSpec specs [] = new Sort.SortSpec[size];
     for (int i = 0; i < size; i++) {
-      SQLParser.Sort_specifierContext specContext = ctx.sort_specifier_list().sort_specifier(i);
+      SQLParser.Sort_specifierContext specContext = ctx.sort_specifier(i);
       Expr column = visitRow_value_predicand(specContext.key);
       specs[i] = new Sort.SortSpec(column);
       if (specContext.order_specification() != null) {
@@ -325,7 +329,7 @@ public class SQLAnalyzer extends SQLParserBaseVisitor<Expr> {
       }
     }
 
-    return new Sort(specs);
+    return specs;
   }
 
   @Override
@@ -1278,6 +1282,27 @@ public class SQLAnalyzer extends SQLParserBaseVisitor<Expr> {
     return new DropTable(ctx.table_name().getText(), checkIfExist(ctx.if_exists()), checkIfExist(ctx.PURGE()));
   }
 
+  @Override
+  public Expr visitIndex_statement(SQLParser.Index_statementContext ctx) {
+    CreateIndex createIndex = new CreateIndex(ctx.n.getText(), buildSortSpecs(ctx.s));
+    createIndex.setChild(new Relation(ctx.t.getText()));
+    if (checkIfExist(ctx.u)) {
+      createIndex.setUnique();
+    }
+    if (checkIfExist(ctx.m)) {
+      createIndex.setMethodName(ctx.m.m.getText());
+    }
+    if (checkIfExist(ctx.p)) {
+      createIndex.setParams(getParams(ctx.p));
+    }
+    return createIndex;
+  }
+
+  @Override
+  public Expr visitAnalyze_statement(SQLParser.Analyze_statementContext ctx) {
+    return new AnalyzeTable(ctx.table_name().getText());
+  }
+
 
   private Map<String, String> getParams(SQLParser.Param_clauseContext ctx) {
     Map<String, String> params = new HashMap<String, String>();
@@ -0,0 +1,511 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.planner;
+
+import org.apache.tajo.algebra.JoinType;
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.catalog.statistics.ColumnStats;
+import org.apache.tajo.catalog.statistics.TableStats;
+import org.apache.tajo.common.TajoDataTypes.DataType;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.engine.eval.*;
+import org.apache.tajo.engine.planner.logical.*;
+import org.apache.tajo.util.TUtil;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * It estimates the number of rows produced by logical operators and the selectivities of predicates.
+ *
+ * Estimations are based on the statistics of tables ({@link TableStats}) and columns ({@link ColumnStats})
+ * stored in the catalog. The number of distinct values, min/max values and histograms of columns are used
+ * if they are available. Otherwise, it falls back to default selectivities.
+ */
+public class CardinalityEstimator {
+  /** the selectivity of a predicate which cannot be estimated from statistics */
+  public static final double DEFAULT_SELECTIVITY = 0.1;
+  /** the selectivity of a range predicate which cannot be estimated from statistics */
+  public static final double DEFAULT_RANGE_SELECTIVITY = 1.0d / 3;
+  /** the number of rows of a relation without any statistics */
+  public static final double UNKNOWN_NUM_ROWS = 1000000;
+  /** the width of a variable length value without any statistics */
+  public static final int DEFAULT_VARIABLE_WIDTH = 32;
+
+  private final Map<String, RelationNode> relations = TUtil.newHashMap();
+
+  /**
+   * @param block a query block whose relations are used to find column statistics
+   */
+  public CardinalityEstimator(LogicalPlan.QueryBlock block) {
+    for (RelationNode relation : block.getRelations()) {
+      relations.put(relation.getCanonicalName(), relation);
+    }
+  }
+
+  /**
+   * @return the estimated number of rows produced by a logical node. It is always larger than or equal to one.
+   */
+  public double estimateRows(LogicalNode node) {
+    double rows;
+
+    switch (node.getType()) {
+    case SCAN:
+    case PARTITIONS_SCAN:
+    case BST_INDEX_SCAN:
+      ScanNode scanNode = (ScanNode) node;
+      rows = getTableRows(scanNode);
+      if (scanNode.hasQual()) {
+        rows *= estimateSelectivity(scanNode.getQual());
+      }
+      break;
+
+    case TABLE_SUBQUERY:
+      rows = estimateRows(((TableSubQueryNode) node).getSubQuery());
+      break;
+
+    case SELECTION:
+      SelectionNode selectionNode = (SelectionNode) node;
+      rows = estimateRows(selectionNode.getChild()) * estimateSelectivity(selectionNode.getQual());
+      break;
+
+    case JOIN:
+      JoinNode joinNode = (JoinNode) node;
+      EvalNode [] joinQuals = joinNode.hasJoinQual() ?
+          AlgebraicUtil.toConjunctiveNormalFormArray(joinNode.getJoinQual()) : new EvalNode[0];
+      rows = estimateJoinRows(joinNode.getJoinType(), estimateRows(joinNode.getLeftChild()),
+          estimateRows(joinNode.getRightChild()), joinQuals);
+      break;
+
+    case GROUP_BY:
+      GroupbyNode groupbyNode = (GroupbyNode) node;
+      rows = estimateRows(groupbyNode.getChild());
+      if (groupbyNode.isEmptyGrouping()) {
+        rows = 1;
+      } else {
+        double numGroups = 1;
+        for (Column column : groupbyNode.getGroupingColumns()) {
+          long ndv = getNumDistinctValues(column);
+          if (ndv <= 0) {
+            numGroups = rows;
+            break;
+          }
+          numGroups *= ndv;
+        }
+        rows = Math.min(rows, numGroups);
+      }
+      break;
+
+    case LIMIT:
+      LimitNode limitNode = (LimitNode) node;
+      rows = Math.min(estimateRows(limitNode.getChild()), limitNode.getFetchFirstNum());
+      break;
+
+    case UNION:
+      UnionNode unionNode = (UnionNode) node;
+      rows = estimateRows(unionNode.getLeftChild()) + estimateRows(unionNode.getRightChild());
+      break;
+
+    case EXCEPT:
+    case INTERSECT:
+      rows = estimateRows(((BinaryNode) node).getLeftChild());
+      break;
+
+    default:
+      if (node instanceof UnaryNode) {
+        rows = estimateRows(((UnaryNode) node).getChild());
+      } else {
+        rows = UNKNOWN_NUM_ROWS;
+      }
+    }
+
+    return Math.max(1, rows);
+  }
+
+  /**
+   * Estimates the number of rows of a join.
+   *
+   * @param joinType join type
+   * @param leftRows the number of rows of the left relation
+   * @param rightRows the number of rows of the right relation
+   * @param joinQuals join conditions in conjunctive normal form
+   * @return the estimated number of rows
+   */
+  public double estimateJoinRows(JoinType joinType, double leftRows, double rightRows, EvalNode [] joinQuals) {
+    double selectivity = 1;
+    for (EvalNode qual : joinQuals) {
+      selectivity *= estimateConjunctSelectivity(qual);
+    }
+    double innerRows = leftRows * rightRows * selectivity;
+
+    double rows;
+    switch (joinType) {
+    case LEFT_OUTER:
+      rows = Math.max(innerRows, leftRows);
+      break;
+    case RIGHT_OUTER:
+      rows = Math.max(innerRows, rightRows);
+      break;
+    case FULL_OUTER:
+      rows = Math.max(innerRows, Math.max(leftRows, rightRows));
+      break;
+    case LEFT_SEMI:
+      rows = leftRows * Math.min(1, rightRows * selectivity);
+      break;
+    case RIGHT_SEMI:
+      rows = rightRows * Math.min(1, leftRows * selectivity);
+      break;
+    case LEFT_ANTI:
+      rows = leftRows * (1 - Math.min(1, rightRows * selectivity));
+      break;
+    case RIGHT_ANTI:
+      rows = rightRows * (1 - Math.min(1, leftRows * selectivity));
+      break;
+    default:
+      rows = innerRows;
+    }
+    return Math.max(1, rows);
+  }
+
+  /**
+   * @return the estimated fraction of rows satisfying a predicate
+   */
+  public double estimateSelectivity(EvalNode qual) {
+    double selectivity = 1;
+    for (EvalNode conjunct : AlgebraicUtil.toConjunctiveNormalFormArray(qual)) {
+      selectivity *= estimateConjunctSelectivity(conjunct);
+    }
+    return selectivity;
+  }
+
+  private double estimateConjunctSelectivity(EvalNode eval) {
+    switch (eval.getType()) {
+    case AND:
+      return estimateSelectivity(eval);
+
+    case OR:
+      double left = estimateSelectivity(eval.getLeftExpr());
+      double right = estimateSelectivity(eval.getRightExpr());
+      return Math.min(1, left + right - left * right);
+
+    case NOT:
+      return 1 - estimateSelectivity(((NotEval) eval).getChild());
+
+    case EQUAL:
+      return estimateEqualSelectivity(eval.getLeftExpr(), eval.getRightExpr());
+
+    case NOT_EQUAL:
+      return 1 - estimateEqualSelectivity(eval.getLeftExpr(), eval.getRightExpr());
+
+    case LTH:
+    case LEQ:
+    case GTH:
+    case GEQ:
+      return estimateRangeSelectivity(eval);
+
+    case IS_NULL:
+      IsNullEval isNullEval = (IsNullEval) eval;
+      double nullFraction = estimateNullFraction(isNullEval.getLeftExpr());
+      return isNullEval.isNot() ? 1 - nullFraction : nullFraction;
+
+    case IN:
+      InEval inEval = (InEval) eval;
+      double inSelectivity = DEFAULT_SELECTIVITY;
+      if (inEval.getLeftExpr().getType() == EvalType.FIELD && inEval.getRightExpr().getType() == EvalType.ROW_CONSTANT) {
+        long ndv = getNumDistinctValues(((FieldEval) inEval.getLeftExpr()).getColumnRef());
+        if (ndv > 0) {
+          inSelectivity = Math.min(1, (double) ((RowConstantEval) inEval.getRightExpr()).getValues().length / ndv);
+        }
+      }
+      return inEval.isNot() ? 1 - inSelectivity : inSelectivity;
+
+    default:
+      return DEFAULT_SELECTIVITY;
+    }
+  }
+
+  private double estimateEqualSelectivity(EvalNode left, EvalNode right) {
+    if (left.getType() == EvalType.FIELD && right.getType() == EvalType.FIELD) {
+      // equi-join condition: 1 / max(ndv(left), ndv(right))
+      long leftNdv = getJoinKeyDistinctValues(((FieldEval) left).getColumnRef());
+      long rightNdv = getJoinKeyDistinctValues(((FieldEval) right).getColumnRef());
+      long ndv = Math.max(leftNdv, rightNdv);
+      return ndv > 0 ? 1.0d / ndv : DEFAULT_SELECTIVITY;
+    }
+
+    FieldEval field = null;
+    if (left.getType() == EvalType.FIELD && right.getType() == EvalType.CONST) {
+      field = (FieldEval) left;
+    } else if (left.getType() == EvalType.CONST && right.getType() == EvalType.FIELD) {
+      field = (FieldEval) right;
+    }
+
+    if (field != null) {
+      long ndv = getNumDistinctValues(field.getColumnRef());
+      if (ndv > 0) {
+        return 1.0d / ndv;
+      }
+    }
+    return DEFAULT_SELECTIVITY;
+  }
+
+  private double estimateRangeSelectivity(EvalNode eval) {
+    EvalType type = eval.getType();
+    EvalNode left = eval.getLeftExpr();
+    EvalNode right = eval.getRightExpr();
+
+    FieldEval field;
+    Datum value;
+    if (left.getType() == EvalType.FIELD && right.getType() == EvalType.CONST) {
+      field = (FieldEval) left;
+      value = ((ConstEval) right).getValue();
+    } else if (left.getType() == EvalType.CONST && right.getType() == EvalType.FIELD) {
+      // normalize 'const op column' into 'column op const'
+      field = (FieldEval) right;
+      value = ((ConstEval) left).getValue();
+      type = (type == EvalType.LTH || type == EvalType.LEQ) ?
+          (type == EvalType.LTH ? EvalType.GTH : EvalType.GEQ) : (type == EvalType.GTH ? EvalType.LTH : EvalType.LEQ);
+    } else {
+      return DEFAULT_RANGE_SELECTIVITY;
+    }
+
+    ColumnStats stats = getColumnStats(field.getColumnRef());
+    if (stats == null || value.isNull()) {
+      return DEFAULT_RANGE_SELECTIVITY;
+    }
+
+    double fractionBelow = estimateFractionBelow(stats, value);
+    if (fractionBelow < 0) {
+      return DEFAULT_RANGE_SELECTIVITY;
+    }
+    return (type == EvalType.LTH || type == EvalType.LEQ) ? fractionBelow : 1 - fractionBelow;
+  }
+
+  /**
+   * @return the estimated fraction of values less than a given value, or -1 if it cannot be estimated.
+   */
+  static double estimateFractionBelow(ColumnStats stats, Datum value) {
+    if (stats.hasHistogram()) {
+      List<Datum> bounds = stats.getHistogramBounds();
+      if (!isComparable(bounds.get(0), value)) {
+        return -1;
+      }
+
+      int buckets = bounds.size() - 1;
+      if (value.compareTo(bounds.get(0)) <= 0) {
+        return 0;
+      }
+      if (value.compareTo(bounds.get(buckets)) >= 0) {
+        return 1;
+      }
+
+      // each bucket has the same number of values
+      for (int i = 0; i < buckets; i++) {
+        Datum lower = bounds.get(i);
+        Datum upper = bounds.get(i + 1);
+        if (value.compareTo(upper) < 0) {
+          double withinBucket = 0.5;
+          if (value.isNumeric() && lower.isNumeric() && upper.asFloat8() > lower.asFloat8()) {
+            withinBucket = (value.asFloat8() - lower.asFloat8()) / (upper.asFloat8() - lower.asFloat8());
+          }
+          return (i + withinBucket) / buckets;
+        }
+      }
+      return 1;
+    }
+
+    if (!stats.minIsNotSet() && !stats.maxIsNotSet()) {
+      Datum min = stats.getMinValue();
+      Datum max = stats.getMaxValue();
+      if (value.isNumeric() && min.isNumeric() && max.isNumeric()) {
+        if (max.asFloat8() <= min.asFloat8()) {
+          return value.asFloat8() <= min.asFloat8() ? 0 : 1;
+        }
+        double fraction = (value.asFloat8() - min.asFloat8()) / (max.asFloat8() - min.asFloat8());
+        return Math.max(0, Math.min(1, fraction));
+      }
+    }
+
+    return -1;
+  }
+
+  private static boolean isComparable(Datum datum, Datum value) {
+    return datum.type() == value.type() || (datum.isNumeric() && value.isNumeric());
+  }
+
+  private double estimateNullFraction(EvalNode predicand) {
+    if (predicand.getType() == EvalType.FIELD) {
+      Column column = ((FieldEval) predicand).getColumnRef();
+      ColumnStats stats = getColumnStats(column);
+      RelationNode relation = getRelation(column);
+      if (stats != null && stats.getNumNulls() != null && relation instanceof ScanNode) {
+        return Math.min(1, stats.getNumNulls() / getTableRows((ScanNode) relation));
+      }
+    }
+    return DEFAULT_SELECTIVITY;
+  }
+
+  /**
+   * @return the number of distinct values of a column, or -1 if it is unknown.
+   */
+  public long getNumDistinctValues(Column column) {
+    ColumnStats stats = getColumnStats(column);
+    if (stats != null && stats.getNumDistValues() != null && stats.getNumDistValues() > 0) {
+      return stats.getNumDistValues();
+    }
+    return -1;
+  }
+
+  /**
+   * If the number of distinct values of a join key is unknown, the join key is assumed to be unique.
+   * This is a usual case of joins between a primary key and a foreign key.
+   */
+  private long getJoinKeyDistinctValues(Column column) {
+    long ndv = getNumDistinctValues(column);
+    if (ndv <= 0) {
+      RelationNode relation = getRelation(column);
+      if (relation instanceof ScanNode && hasStats((ScanNode) relation)) {
+        ndv = (long) getTableRows((ScanNode) relation);
+      }
+    }
+    return ndv;
+  }
+
+  private RelationNode getRelation(Column column) {
+    return column.hasQualifier() ? relations.get(column.getQualifier()) : null;
+  }
+
+  /**
+   * @return the statistics of a column, or NULL if the column does not have any statistics.
+   */
+  public ColumnStats getColumnStats(Column column) {
+    RelationNode relation = getRelation(column);
+    if (!(relation instanceof ScanNode)) {
+      return null;
+    }
+
+    TableStats tableStats = ((ScanNode) relation).getTableDesc().getStats();
+    if (tableStats == null || tableStats.getColumnStats() == null) {
+      return null;
+    }
+    for (ColumnStats stats : tableStats.getColumnStats()) {
+      if (stats.getColumn().getSimpleName().equals(column.getSimpleName())) {
+        return stats;
+      }
+    }
+    return null;
+  }
+
+  private static boolean hasStats(ScanNode scanNode) {
+    TableStats stats = scanNode.getTableDesc().getStats();
+    return stats != null && ((stats.getNumRows() != null && stats.getNumRows() > 0) ||
+        (stats.getNumBytes() != null && stats.getNumBytes() > 0));
+  }
+
+  /**
+   * @return the number of rows of a table. If only the volume is known, it is estimated from the volume.
+   */
+  public double getTableRows(ScanNode scanNode) {
+    TableStats stats = scanNode.getTableDesc().getStats();
+    if (stats == null) {
+      return UNKNOWN_NUM_ROWS;
+    }
+
+    if (stats.getNumRows() != null && stats.getNumRows() > 0) {
+      return stats.getNumRows();
+    } else if (stats.getNumBytes() != null && stats.getNumBytes() > 0) {
+      return Math.max(1, stats.getNumBytes() / estimateRowWidth(scanNode.getTableSchema(), stats));
+    } else if (stats.getNumBytes() != null) {
+      // an empty table
+      return 1;
+    } else {
+      return UNKNOWN_NUM_ROWS;
+    }
+  }
+
+  /**
+   * @return the volume of a table in bytes, or Long.MAX_VALUE if it is unknown.
+   */
+  public static long getTableVolume(ScanNode scanNode) {
+    TableStats stats = scanNode.getTableDesc().getStats();
+    if (stats == null || stats.getNumBytes() == null) {
+      return Long.MAX_VALUE;
+    }
+    return stats.getNumBytes();
+  }
+
+  /**
+   * @return the estimated width of a row of a relation in bytes
+   */
+  public double estimateRowWidth(RelationNode relation) {
+    if (relation instanceof ScanNode) {
+      ScanNode scanNode = (ScanNode) relation;
+      TableStats stats = scanNode.getTableDesc().getStats();
+      if (stats != null && stats.getNumRows() != null && stats.getNumRows() > 0
+          && stats.getNumBytes() != null && stats.getNumBytes() > 0) {
+        return (double) stats.getNumBytes() / stats.getNumRows();
+      }
+      return estimateRowWidth(scanNode.getTableSchema(), stats);
+    }
+    return estimateRowWidth(relation.getOutSchema(), null);
+  }
+
+  private static double estimateRowWidth(Schema schema, TableStats stats) {
+    double width = 0;
+    for (Column column : schema.getColumns()) {
+      Integer avgWidth = null;
+      if (stats != null && stats.getColumnStats() != null) {
+        for (ColumnStats columnStats : stats.getColumnStats()) {
+          if (columnStats.getColumn().getSimpleName().equals(column.getSimpleName())) {
+            avgWidth = columnStats.getAvgWidth();
+            break;
+          }
+        }
+      }
+      width += avgWidth != null ? avgWidth : getTypeWidth(column.getDataType());
+    }
+    return Math.max(1, width);
+  }
+
+  private static int getTypeWidth(DataType dataType) {
+    switch (dataType.getType()) {
+    case BOOLEAN:
+    case BIT:
+    case INT1:
+      return 1;
+    case INT2:
+      return 2;
+    case INT4:
+    case FLOAT4:
+    case DATE:
+    case INET4:
+      return 4;
+    case INT8:
+    case FLOAT8:
+    case TIME:
+    case TIMESTAMP:
+      return 8;
+    case CHAR:
+      return dataType.hasLength() ? dataType.getLength() : 1;
+    default:
+      return DEFAULT_VARIABLE_WIDTH;
+    }
+  }
+}
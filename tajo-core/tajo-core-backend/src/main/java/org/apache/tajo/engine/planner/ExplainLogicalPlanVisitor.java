@@ -114,7 +114,7 @@ public class ExplainLogicalPlanVisitor extends BasicLogicalPlanVisitor<ExplainLo
     stack.push(node);
     visit(context, plan, block, node.getChild(), stack);
     context.depth--;
-    context.add(context.depth, node.getPlanString());
+    context.add(context.depth, getPlanString(node));
     return node;
   }
 
@@ -127,7 +127,7 @@ public class ExplainLogicalPlanVisitor extends BasicLogicalPlanVisitor<ExplainLo
     visit(context, plan, block, node.getRightChild(), stack);
     stack.pop();
     context.depth--;
-    context.add(context.depth, node.getPlanString());
+    context.add(context.depth, getPlanString(node));
     return node;
   }
 
@@ -169,7 +169,7 @@ public class ExplainLogicalPlanVisitor extends BasicLogicalPlanVisitor<ExplainLo
     visit(context, plan, block, node.getSubQuery(), new Stack<LogicalNode>());
     stack.pop();
     context.depth--;
-    context.add(context.depth, node.getPlanString());
+    context.add(context.depth, getPlanString(node));
 
     return node;
   }
@@ -177,7 +177,7 @@ public class ExplainLogicalPlanVisitor extends BasicLogicalPlanVisitor<ExplainLo
   @Override
   public LogicalNode visitScan(Context context, LogicalPlan plan, LogicalPlan.QueryBlock block, ScanNode node,
                                Stack<LogicalNode> stack) throws PlanningException {
-    context.add(context.depth, node.getPlanString());
+    context.add(context.depth, getPlanString(node));
     return node;
   }
 
@@ -185,7 +185,14 @@ public class ExplainLogicalPlanVisitor extends BasicLogicalPlanVisitor<ExplainLo
   public LogicalNode visitPartitionedTableScan(Context context, LogicalPlan plan, LogicalPlan.QueryBlock block,
                                           PartitionedTableScanNode node, Stack<LogicalNode> stack)
       throws PlanningException {
-    context.add(context.depth, node.getPlanString());
+    context.add(context.depth, getPlanString(node));
+    return node;
+  }
+
+  @Override
+  public LogicalNode visitIndexScan(Context context, LogicalPlan plan, LogicalPlan.QueryBlock block,
+                                    IndexScanNode node, Stack<LogicalNode> stack) throws PlanningException {
+    context.add(context.depth, getPlanString(node));
     return node;
   }
 
@@ -197,16 +204,22 @@ public class ExplainLogicalPlanVisitor extends BasicLogicalPlanVisitor<ExplainLo
 
   public LogicalNode visitCreateDatabase(Context context, LogicalPlan plan, LogicalPlan.QueryBlock block,
                                          CreateDatabaseNode node, Stack<LogicalNode> stack) throws PlanningException {
-    context.add(context.depth, node.getPlanString());
+    context.add(context.depth, getPlanString(node));
     return node;
   }
 
   public LogicalNode visitDropDatabase(Context context, LogicalPlan plan, LogicalPlan.QueryBlock block,
                                          DropDatabaseNode node, Stack<LogicalNode> stack) throws PlanningException {
-    context.add(context.depth, node.getPlanString());
+    context.add(context.depth, getPlanString(node));
     return node;
   }
 
+  @Override
+  public LogicalNode visitCreateIndex(Context context, LogicalPlan plan, LogicalPlan.QueryBlock block,
+                                      CreateIndexNode node, Stack<LogicalNode> stack) throws PlanningException {
+    return visitUnaryNode(context, plan, block, node, stack);
+  }
+
   @Override
   public LogicalNode visitInsert(Context context, LogicalPlan plan, LogicalPlan.QueryBlock block, InsertNode node,
                                  Stack<LogicalNode> stack) throws PlanningException {
@@ -215,10 +228,18 @@ public class ExplainLogicalPlanVisitor extends BasicLogicalPlanVisitor<ExplainLo
     super.visitInsert(context, plan, block, node, stack);
     stack.pop();
     context.depth--;
-    context.add(context.depth, node.getPlanString());
+    context.add(context.depth, getPlanString(node));
     return node;
   }
 
+  private static PlanString getPlanString(LogicalNode node) {
+    PlanString planString = node.getPlanString();
+    if (node.hasEstimatedRows()) {
+      planString.addDetail("estimated rows: " + Math.round(node.getEstimatedRows()));
+    }
+    return planString;
+  }
+
   public static String printDepthString(int maxDepth, DepthString planStr) {
     StringBuilder output = new StringBuilder();
     String pad = new String(new char[planStr.getDepth() * 3]).replace('\0', ' ');
@@ -211,6 +211,10 @@ public class ExprAnnotator extends BaseAlgebraVisitor<ExprAnnotator.Context, Eva
 
   @Override
   public EvalNode visitInPredicate(Context ctx, Stack<Expr> stack, InPredicate expr) throws PlanningException {
+    // IN subqueries in WHERE clauses are already rewritten into semi joins.
+    if (expr.getInValue().getType() == OpType.SimpleTableSubQuery) {
+      throw new PlanningException("IN subquery is only supported as a conjunct of WHERE clause");
+    }
     stack.push(expr);
     Column predicandColumn = ctx.plan.resolveColumn(ctx.currentBlock, (ColumnReferenceExpr) expr.getPredicand());
     FieldEval predicand = new FieldEval(predicandColumn);
@@ -232,7 +236,8 @@ public class ExprAnnotator extends BaseAlgebraVisitor<ExprAnnotator.Context, Eva
 
   @Override
   public EvalNode visitExistsPredicate(Context ctx, Stack<Expr> stack, ExistsPredicate expr) throws PlanningException {
-    throw new PlanningException("Cannot support EXISTS clause yet");
+    // EXISTS predicates in WHERE clauses are already rewritten into semi or anti joins.
+    throw new PlanningException("EXISTS subquery is only supported as a conjunct of WHERE clause");
   }
 
   ///////////////////////////////////////////////////////////////////////////////////////////////////////////
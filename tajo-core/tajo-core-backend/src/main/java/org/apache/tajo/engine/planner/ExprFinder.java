@@ -51,7 +51,24 @@ class ExprFinder extends SimpleAlgebraVisitor<ExprFinder.Context, Object> {
   }
 
   public Object visit(Context ctx, Stack<Expr> stack, Expr expr) throws PlanningException {
-    if (expr instanceof UnaryOperator) {
+    if (expr == null) { // e.g., a cross join without any join condition
+      return null;
+    }
+
+    // relational operators have expressions besides their children, such as targets and search conditions.
+    if (expr.getType() == OpType.Projection) {
+      visitProjection(ctx, stack, (Projection) expr);
+    } else if (expr.getType() == OpType.Filter) {
+      visitFilter(ctx, stack, (Selection) expr);
+    } else if (expr.getType() == OpType.Having) {
+      visitHaving(ctx, stack, (Having) expr);
+    } else if (expr.getType() == OpType.Aggregation) {
+      visitGroupBy(ctx, stack, (Aggregation) expr);
+    } else if (expr.getType() == OpType.Sort) {
+      visitSort(ctx, stack, (Sort) expr);
+    } else if (expr.getType() == OpType.Join) {
+      visitJoin(ctx, stack, (Join) expr);
+    } else if (expr instanceof UnaryOperator) {
       preHook(ctx, stack, expr);
       visitUnaryOperator(ctx, stack, (UnaryOperator) expr);
       postHook(ctx, stack, expr, null);
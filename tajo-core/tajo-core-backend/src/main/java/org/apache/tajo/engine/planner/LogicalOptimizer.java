@@ -22,18 +22,19 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import org.apache.hadoop.classification.InterfaceStability;
 import org.apache.tajo.algebra.JoinType;
+import org.apache.tajo.catalog.CatalogService;
 import org.apache.tajo.conf.TajoConf;
 import org.apache.tajo.engine.eval.AlgebraicUtil;
 import org.apache.tajo.engine.eval.EvalNode;
 import org.apache.tajo.engine.planner.graph.DirectedGraphCursor;
 import org.apache.tajo.engine.planner.logical.*;
-import org.apache.tajo.engine.planner.logical.join.FoundJoinOrder;
-import org.apache.tajo.engine.planner.logical.join.GreedyHeuristicJoinOrderAlgorithm;
-import org.apache.tajo.engine.planner.logical.join.JoinGraph;
-import org.apache.tajo.engine.planner.logical.join.JoinOrderAlgorithm;
+import org.apache.tajo.engine.planner.logical.join.*;
 import org.apache.tajo.engine.planner.rewrite.BasicQueryRewriteEngine;
+import org.apache.tajo.engine.planner.rewrite.CommonSubExprEliminationRule;
 import org.apache.tajo.engine.planner.rewrite.FilterPushDownRule;
+import org.apache.tajo.engine.planner.rewrite.IndexScanRule;
 import org.apache.tajo.engine.planner.rewrite.PartitionedTableRewriter;
+import org.apache.tajo.engine.planner.rewrite.PredicateReorderRule;
 import org.apache.tajo.engine.planner.rewrite.ProjectionPushDownRule;
 
 import java.util.LinkedHashSet;
@@ -41,7 +42,6 @@ import java.util.Set;
 import java.util.Stack;
 
 import static org.apache.tajo.engine.planner.LogicalPlan.BlockEdge;
-import static org.apache.tajo.engine.planner.logical.join.GreedyHeuristicJoinOrderAlgorithm.getCost;
 
 /**
  * This class optimizes a logical plan.
@@ -50,15 +50,33 @@ import static org.apache.tajo.engine.planner.logical.join.GreedyHeuristicJoinOrd
 public class LogicalOptimizer {
   private BasicQueryRewriteEngine rulesBeforeJoinOpt;
   private BasicQueryRewriteEngine rulesAfterToJoinOpt;
-  private JoinOrderAlgorithm joinOrderAlgorithm = new GreedyHeuristicJoinOrderAlgorithm();
+  private final TajoConf systemConf;
+  private JoinOrderAlgorithm joinOrderAlgorithm;
 
   public LogicalOptimizer(TajoConf systemConf) {
+    this(systemConf, null);
+  }
+
+  /**
+   * @param systemConf system configuration
+   * @param catalog catalog service to look up indexes and partitions. If it is NULL, index scans are not used,
+   *                and partition directories are listed to prune partitions.
+   */
+  public LogicalOptimizer(TajoConf systemConf, CatalogService catalog) {
+    this.systemConf = systemConf;
+    joinOrderAlgorithm = new DynamicProgrammingJoinOrderAlgorithm(systemConf);
+
     rulesBeforeJoinOpt = new BasicQueryRewriteEngine();
     rulesBeforeJoinOpt.addRewriteRule(new FilterPushDownRule());
 
     rulesAfterToJoinOpt = new BasicQueryRewriteEngine();
     rulesAfterToJoinOpt.addRewriteRule(new ProjectionPushDownRule());
-    rulesAfterToJoinOpt.addRewriteRule(new PartitionedTableRewriter(systemConf));
+    rulesAfterToJoinOpt.addRewriteRule(new PartitionedTableRewriter(systemConf, catalog));
+    rulesAfterToJoinOpt.addRewriteRule(new PredicateReorderRule());
+    rulesAfterToJoinOpt.addRewriteRule(new CommonSubExprEliminationRule());
+    if (catalog != null) {
+      rulesAfterToJoinOpt.addRewriteRule(new IndexScanRule(systemConf, catalog));
+    }
   }
 
   public LogicalNode optimize(LogicalPlan plan) throws PlanningException {
@@ -80,7 +98,8 @@ public class LogicalOptimizer {
 
     if (block.hasNode(NodeType.JOIN)) {
       String originalOrder = JoinOrderStringBuilder.buildJoinOrderString(plan, block);
-      double nonOptimizedJoinCost = JoinCostComputer.computeCost(plan, block);
+      JoinCostModel costModel = new JoinCostModel(systemConf, new CardinalityEstimator(block));
+      double nonOptimizedJoinCost = costModel.computeCost(PlannerUtil.findTopNode(block.getRoot(), NodeType.JOIN));
 
       // finding relations and filter expressions
       JoinGraphContext joinGraphContext = JoinGraphBuilder.buildJoinGraph(plan, block);
@@ -236,45 +255,4 @@ public class LogicalOptimizer {
       return node;
     }
   }
-
-  private static class CostContext {
-    double accumulatedCost = 0;
-  }
-
-  public static class JoinCostComputer extends BasicLogicalPlanVisitor<CostContext, LogicalNode> {
-    private static final JoinCostComputer instance;
-
-    static {
-      instance = new JoinCostComputer();
-    }
-
-    public static double computeCost(LogicalPlan plan, LogicalPlan.QueryBlock block) throws PlanningException {
-      CostContext costContext = new CostContext();
-      instance.visit(costContext, plan, block);
-      return costContext.accumulatedCost;
-    }
-
-    @Override
-    public LogicalNode visitJoin(CostContext joinGraphContext, LogicalPlan plan, LogicalPlan.QueryBlock block,
-                                 JoinNode joinNode, Stack<LogicalNode> stack)
-        throws PlanningException {
-      super.visitJoin(joinGraphContext, plan, block, joinNode, stack);
-
-      double filterFactor = 1;
-      if (joinNode.hasJoinQual()) {
-        EvalNode [] quals = AlgebraicUtil.toConjunctiveNormalFormArray(joinNode.getJoinQual());
-        filterFactor = Math.pow(GreedyHeuristicJoinOrderAlgorithm.DEFAULT_SELECTION_FACTOR, quals.length);
-      }
-
-      if (joinNode.getLeftChild() instanceof RelationNode) {
-        joinGraphContext.accumulatedCost = getCost(joinNode.getLeftChild()) * getCost(joinNode.getRightChild())
-            * filterFactor;
-      } else {
-        joinGraphContext.accumulatedCost = joinGraphContext.accumulatedCost +
-            (joinGraphContext.accumulatedCost * getCost(joinNode.getRightChild()) * filterFactor);
-      }
-
-      return joinNode;
-    }
-  }
-}
\ No newline at end of file
+}
@@ -131,6 +131,10 @@ class LogicalPlanPreprocessor extends BaseAlgebraVisitor<LogicalPlanPreprocessor
 
       while (iterator.hasNext()) {
         relationOp = iterator.next();
+        // subqueries of IN and EXISTS predicates are not visible to the select list.
+        if (SubQueryRewriter.isRewrittenSubQuery(relationOp)) {
+          continue;
+        }
         schema = relationOp.getTableSchema();
         resolvedColumns.addAll(schema.getColumns());
       }
@@ -413,6 +417,19 @@ class LogicalPlanPreprocessor extends BaseAlgebraVisitor<LogicalPlanPreprocessor
     return dropTable;
   }
 
+  @Override
+  public LogicalNode visitCreateIndex(PreprocessContext ctx, Stack<Expr> stack, CreateIndex expr)
+      throws PlanningException {
+    stack.push(expr);
+    LogicalNode child = visit(ctx, stack, expr.getChild());
+    stack.pop();
+
+    CreateIndexNode createIndexNode = ctx.plan.createNode(CreateIndexNode.class);
+    createIndexNode.setInSchema(child.getOutSchema());
+    createIndexNode.setOutSchema(new Schema());
+    return createIndexNode;
+  }
+
   ///////////////////////////////////////////////////////////////////////////////////////////////////////////
   // Insert or Update Section
   ///////////////////////////////////////////////////////////////////////////////////////////////////////////
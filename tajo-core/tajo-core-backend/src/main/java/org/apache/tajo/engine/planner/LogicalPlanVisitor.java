@@ -65,6 +65,9 @@ public interface LogicalPlanVisitor<CONTEXT, RESULT> {
   RESULT visitPartitionedTableScan(CONTEXT context, LogicalPlan plan, LogicalPlan.QueryBlock block,
                                    PartitionedTableScanNode node, Stack<LogicalNode> stack) throws PlanningException;
 
+  RESULT visitIndexScan(CONTEXT context, LogicalPlan plan, LogicalPlan.QueryBlock block, IndexScanNode node,
+                        Stack<LogicalNode> stack) throws PlanningException;
+
   RESULT visitStoreTable(CONTEXT context, LogicalPlan plan, LogicalPlan.QueryBlock block, StoreTableNode node,
                          Stack<LogicalNode> stack) throws PlanningException;
 
@@ -82,4 +85,7 @@ public interface LogicalPlanVisitor<CONTEXT, RESULT> {
 
   RESULT visitDropTable(CONTEXT context, LogicalPlan plan, LogicalPlan.QueryBlock block, DropTableNode node,
                         Stack<LogicalNode> stack) throws PlanningException;
+
+  RESULT visitCreateIndex(CONTEXT context, LogicalPlan plan, LogicalPlan.QueryBlock block, CreateIndexNode node,
+                          Stack<LogicalNode> stack) throws PlanningException;
 }
@@ -43,6 +43,7 @@ import org.apache.tajo.engine.planner.logical.*;
 import org.apache.tajo.engine.planner.rewrite.ProjectionPushDownRule;
 import org.apache.tajo.engine.utils.SchemaUtil;
 import org.apache.tajo.master.session.Session;
+import org.apache.tajo.util.IndexUtil;
 import org.apache.tajo.util.TUtil;
 
 import java.util.*;
@@ -61,12 +62,14 @@ public class LogicalPlanner extends BaseAlgebraVisitor<LogicalPlanner.PlanContex
   private final LogicalPlanPreprocessor preprocessor;
   private final ExprAnnotator exprAnnotator;
   private final ExprNormalizer normalizer;
+  private final SubQueryRewriter subQueryRewriter;
 
   public LogicalPlanner(CatalogService catalog) {
     this.catalog = catalog;
     this.exprAnnotator = new ExprAnnotator(catalog);
     this.preprocessor = new LogicalPlanPreprocessor(catalog, exprAnnotator);
     this.normalizer = new ExprNormalizer();
+    this.subQueryRewriter = new SubQueryRewriter(catalog);
   }
 
   public class PlanContext {
@@ -113,6 +116,9 @@ public class LogicalPlanner extends BaseAlgebraVisitor<LogicalPlanner.PlanContex
 
     LogicalPlan plan = new LogicalPlan(session.getCurrentDatabase(), this);
 
+    // IN and EXISTS predicates over subqueries are rewritten into semi and anti joins.
+    expr = subQueryRewriter.rewrite(session, expr);
+
     QueryBlock rootBlock = plan.newAndGetBlock(LogicalPlan.ROOT_BLOCK);
     PreprocessContext preProcessorCtx = new PreprocessContext(session, plan, rootBlock);
     preprocessor.visit(preProcessorCtx, new Stack<Expr>(), expr);
@@ -1463,6 +1469,37 @@ public class LogicalPlanner extends BaseAlgebraVisitor<LogicalPlanner.PlanContex
     return dropTableNode;
   }
 
+  @Override
+  public LogicalNode visitCreateIndex(PlanContext context, Stack<Expr> stack, CreateIndex expr)
+      throws PlanningException {
+    QueryBlock block = context.queryBlock;
+
+    stack.push(expr);
+    LogicalNode child = visit(context, stack, expr.getChild());
+    stack.pop();
+    ScanNode scanNode = (ScanNode) child;
+
+    // Building index keys
+    Sort.SortSpec [] sortSpecs = expr.getSortSpecs();
+    SortSpec [] annotatedSortSpecs = new SortSpec[sortSpecs.length];
+    for (int i = 0; i < sortSpecs.length; i++) {
+      if (sortSpecs[i].getKey().getType() != OpType.Column) {
+        throw new PlanningException("An index key must be a column: " + sortSpecs[i].getKey());
+      }
+      Column column = context.plan.resolveColumn(block, (ColumnReferenceExpr) sortSpecs[i].getKey());
+      annotatedSortSpecs[i] = new SortSpec(column, sortSpecs[i].isAscending(), sortSpecs[i].isNullFirst());
+    }
+
+    CreateIndexNode createIndexNode = block.getNodeFromExpr(expr);
+    createIndexNode.setIndexName(expr.getIndexName());
+    createIndexNode.setUnique(expr.isUnique());
+    createIndexNode.setSortSpecs(annotatedSortSpecs);
+    createIndexNode.setIndexPath(IndexUtil.getIndexPath(scanNode.getTableDesc().getPath(), expr.getIndexName()));
+    createIndexNode.setChild(child);
+    createIndexNode.setInSchema(child.getOutSchema());
+    return createIndexNode;
+  }
+
   /*===============================================================================================
     Util SECTION
   ===============================================================================================*/
@@ -27,7 +27,9 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.ObjectArrays;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
+import org.apache.tajo.algebra.JoinType;
 import org.apache.tajo.catalog.Column;
 import org.apache.tajo.catalog.SortSpec;
 import org.apache.tajo.catalog.proto.CatalogProtos;
@@ -39,6 +41,7 @@ import org.apache.tajo.engine.planner.physical.*;
 import org.apache.tajo.exception.InternalException;
 import org.apache.tajo.ipc.TajoWorkerProtocol;
 import org.apache.tajo.storage.AbstractStorageManager;
+import org.apache.tajo.storage.MorselScanner;
 import org.apache.tajo.storage.TupleComparator;
 import org.apache.tajo.storage.fragment.FileFragment;
 import org.apache.tajo.storage.fragment.FragmentConvertor;
@@ -48,8 +51,11 @@ import org.apache.tajo.util.TUtil;
 import org.apache.tajo.worker.TaskAttemptContext;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Queue;
 import java.util.Stack;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import static org.apache.tajo.catalog.proto.CatalogProtos.FragmentProto;
 import static org.apache.tajo.catalog.proto.CatalogProtos.PartitionType;
@@ -65,6 +71,8 @@ public class PhysicalPlannerImpl implements PhysicalPlanner {
   private static final Log LOG = LogFactory.getLog(PhysicalPlannerImpl.class);
   private static final int UNGENERATED_PID = -1;
   private final long INNER_JOIN_INMEMORY_HASH_THRESHOLD;
+  private final int MORSEL_PARALLELISM;
+  private final long MORSEL_SIZE;
 
   protected final TajoConf conf;
   protected final AbstractStorageManager sm;
@@ -74,6 +82,8 @@ public class PhysicalPlannerImpl implements PhysicalPlanner {
     this.sm = sm;
 
     this.INNER_JOIN_INMEMORY_HASH_THRESHOLD = conf.getLongVar(ConfVars.EXECUTOR_INNER_JOIN_INMEMORY_HASH_THRESHOLD);
+    this.MORSEL_PARALLELISM = conf.getIntVar(ConfVars.EXECUTOR_MORSEL_PARALLELISM);
+    this.MORSEL_SIZE = conf.getLongVar(ConfVars.EXECUTOR_MORSEL_SIZE);
   }
 
   public PhysicalExec createPlan(final TaskAttemptContext context, final LogicalNode logicalPlan)
@@ -117,6 +127,13 @@ public class PhysicalPlannerImpl implements PhysicalPlanner {
     PhysicalExec leftExec;
     PhysicalExec rightExec;
 
+    if (MORSEL_PARALLELISM > 1 && isOnLeftmostPath(logicalNode, stack)) {
+      PhysicalExec morselDrivenExec = createMorselDrivenPlan(ctx, logicalNode, stack);
+      if (morselDrivenExec != null) {
+        return morselDrivenExec;
+      }
+    }
+
     switch (logicalNode.getType()) {
 
       case ROOT:
@@ -214,9 +231,183 @@ public class PhysicalPlannerImpl implements PhysicalPlanner {
 
       case BST_INDEX_SCAN:
         IndexScanNode indexScanNode = (IndexScanNode) logicalNode;
-        leftExec = createIndexScanExec(ctx, indexScanNode);
+        leftExec = createIndexScanExec(ctx, indexScanNode, stack);
         return leftExec;
 
+      case CREATE_INDEX:
+        return createIndexBuildExec(ctx, (CreateIndexNode) logicalNode);
+
+      default:
+        return null;
+    }
+  }
+
+  /**
+   * Operators on the leftmost path from the root are never rescanned, so they can consume morsels.
+   */
+  private static boolean isOnLeftmostPath(LogicalNode node, Stack<LogicalNode> stack) {
+    LogicalNode child = node;
+    for (int i = stack.size() - 1; i >= 0; i--) {
+      LogicalNode parent = stack.get(i);
+      if (parent instanceof BinaryNode && ((BinaryNode) parent).getRightChild() == child) {
+        return false;
+      }
+      child = parent;
+    }
+    return true;
+  }
+
+  /**
+   * Finds the scan of a pipeline which can be processed by morsels. A pipeline starts from a group-by or
+   * an operator below it, and it consists of selections, projections and the left sides of inner, semi and anti
+   * joins down to a scan.
+   *
+   * @return The scan of the pipeline, or NULL if the given node does not start such a pipeline.
+   */
+  private ScanNode findMorselScan(TaskAttemptContext ctx, LogicalNode node, Stack<LogicalNode> stack) {
+    LogicalNode current = node;
+    if (current.getType() == NodeType.GROUP_BY) {
+      // aggregations of distinct values cannot be merged
+      if (((GroupbyNode) current).isDistinct()) {
+        return null;
+      }
+      current = ((GroupbyNode) current).getChild();
+    }
+
+    while (true) {
+      switch (current.getType()) {
+        case SELECTION:
+        case PROJECTION:
+          current = ((UnaryNode) current).getChild();
+          break;
+
+        case JOIN:
+          JoinNode joinNode = (JoinNode) current;
+          if (joinNode.getJoinType() != JoinType.INNER && joinNode.getJoinType() != JoinType.LEFT_SEMI
+              && joinNode.getJoinType() != JoinType.LEFT_ANTI) {
+            return null;
+          }
+          current = joinNode.getLeftChild();
+          break;
+
+        case SCAN:
+          ScanNode scanNode = (ScanNode) current;
+          if (!ctx.getInputTables().contains(scanNode.getCanonicalName())) {
+            return null;
+          }
+          if (scanNode == node && !stack.isEmpty() && checkIfSortEquivalance(ctx, scanNode, stack)) {
+            return null;
+          }
+          return scanNode;
+
+        default:
+          return null;
+      }
+    }
+  }
+
+  /**
+   * Creates copies of a pipeline, which process the morsels of the scan in parallel.
+   *
+   * @return A morsel-driven operator, or NULL if the plan is not a pipeline or its input is too small to split.
+   */
+  private PhysicalExec createMorselDrivenPlan(TaskAttemptContext ctx, LogicalNode node, Stack<LogicalNode> stack)
+      throws IOException {
+    ScanNode scanNode = findMorselScan(ctx, node, stack);
+    if (scanNode == null) {
+      return null;
+    }
+
+    CatalogProtos.StoreType storeType = scanNode.getTableDesc().getMeta().getStoreType();
+    List<FileFragment> fragments = FragmentConvertor.convert(ctx.getConf(), storeType,
+        ctx.getTables(scanNode.getCanonicalName()));
+    List<FileFragment> morsels = MorselScanner.split(ctx.getConf(), scanNode.getPhysicalSchema(),
+        scanNode.getTableDesc().getMeta(), fragments, MORSEL_SIZE);
+    if (morsels.size() < 2) {
+      return null;
+    }
+
+    int parallelism = Math.min(MORSEL_PARALLELISM, morsels.size());
+    Queue<FileFragment> morselQueue = new ConcurrentLinkedQueue<FileFragment>(morsels);
+    List<PhysicalExec> pipelines = new ArrayList<PhysicalExec>();
+    for (int i = 0; i < parallelism; i++) {
+      LogicalNode copy;
+      try {
+        // evaluation trees are not thread-safe, so each pipeline has its own copy of the plan.
+        copy = (LogicalNode) node.clone();
+      } catch (CloneNotSupportedException e) {
+        throw new PhysicalPlanningException(e);
+      }
+
+      PhysicalExec pipeline = createPipeline(ctx, copy, stack, morselQueue);
+      if (pipeline == null) {
+        return null;
+      }
+      pipelines.add(pipeline);
+    }
+
+    LOG.info(String.format("[%s] %d pipelines process %d morsels of %s",
+        ctx.getTaskId().toString(), parallelism, morsels.size(), scanNode.getCanonicalName()));
+    return new MorselDrivenExec(ctx, pipelines, morselQueue);
+  }
+
+  /**
+   * @return The physical operators of a pipeline, or NULL if the chosen algorithms cannot run as a pipeline.
+   */
+  private PhysicalExec createPipeline(TaskAttemptContext ctx, LogicalNode node, Stack<LogicalNode> stack,
+                                      Queue<FileFragment> morsels) throws IOException {
+    PhysicalExec child;
+
+    switch (node.getType()) {
+      case GROUP_BY:
+        GroupbyNode grpNode = (GroupbyNode) node;
+        stack.push(grpNode);
+        child = createPipeline(ctx, grpNode.getChild(), stack, morsels);
+        stack.pop();
+        if (child == null) {
+          return null;
+        }
+        PhysicalExec aggregation = createGroupByPlan(ctx, grpNode, child);
+        return aggregation instanceof HashAggregateExec ? aggregation : null;
+
+      case SELECTION:
+        SelectionNode selNode = (SelectionNode) node;
+        stack.push(selNode);
+        child = createPipeline(ctx, selNode.getChild(), stack, morsels);
+        stack.pop();
+        return child == null ? null : new SelectionExec(ctx, selNode, child);
+
+      case PROJECTION:
+        ProjectionNode prjNode = (ProjectionNode) node;
+        stack.push(prjNode);
+        child = createPipeline(ctx, prjNode.getChild(), stack, morsels);
+        stack.pop();
+        return child == null ? null : new ProjectionExec(ctx, prjNode, child);
+
+      case JOIN:
+        JoinNode joinNode = (JoinNode) node;
+        stack.push(joinNode);
+        child = createPipeline(ctx, joinNode.getLeftChild(), stack, morsels);
+        PhysicalExec buildExec = createPlanRecursive(ctx, joinNode.getRightChild(), stack);
+        stack.pop();
+        if (child == null) {
+          return null;
+        }
+        PhysicalExec join = createJoinPlan(ctx, joinNode, child, buildExec);
+        // the pipeline should probe a hash table built from the right side
+        if (join instanceof HashJoinExec && ((HashJoinExec) join).getLeftChild() == child) {
+          return join;
+        }
+        return null;
+
+      case SCAN:
+        PhysicalExec scan = createScanPlan(ctx, (ScanNode) node, stack);
+        if (!(scan instanceof SeqScanExec)) {
+          return null;
+        }
+        ((SeqScanExec) scan).setMorsels(morsels);
+        return scan;
+
       default:
         return null;
     }
@@ -846,13 +1037,7 @@ public class PhysicalPlannerImpl implements PhysicalPlanner {
       Enforcer enforcer = ctx.getEnforcer();
 
       // check if this table is broadcasted one or not.
-      boolean broadcastFlag = false;
-      if (enforcer != null && enforcer.hasEnforceProperty(EnforceType.BROADCAST)) {
-        List<EnforceProperty> properties = enforcer.getEnforceProperties(EnforceType.BROADCAST);
-        for (EnforceProperty property : properties) {
-          broadcastFlag |= scanNode.getCanonicalName().equals(property.getBroadcast().getTableName());
-        }
-      }
+      boolean broadcastFlag = enforcer != null && enforcer.isBroadcastTable(scanNode.getCanonicalName());
 
       if (scanNode instanceof PartitionedTableScanNode
           && ((PartitionedTableScanNode)scanNode).getInputPaths() != null &&
@@ -991,25 +1176,58 @@ public class PhysicalPlannerImpl implements PhysicalPlanner {
     return new ExternalSortExec(context, sm, sortNode, child);
   }
 
-  public PhysicalExec createIndexScanExec(TaskAttemptContext ctx,
-                                          IndexScanNode annotation)
-      throws IOException {
-    //TODO-general Type Index
+  /**
+   * It creates an index scan if the index file of the fragment is available and up to date.
+   * Otherwise, it falls back to a sequential scan because the index scan is only an optimization.
+   */
+  public PhysicalExec createIndexScanExec(TaskAttemptContext ctx, IndexScanNode annotation,
+                                          Stack<LogicalNode> stack) throws IOException {
     Preconditions.checkNotNull(ctx.getTable(annotation.getCanonicalName()),
         "Error: There is no table matched to %s", annotation.getCanonicalName());
 
-    FragmentProto [] fragmentProtos = ctx.getTables(annotation.getTableName());
-    List<FileFragment> fragments =
-        FragmentConvertor.convert(ctx.getConf(), ctx.getDataChannel().getStoreType(), fragmentProtos);
-
-    String indexName = IndexUtil.getIndexNameOfFrag(fragments.get(0), annotation.getSortKeys());
-    Path indexPath = new Path(sm.getTablePath(annotation.getTableName()), "index");
+    FragmentProto [] fragmentProtos = ctx.getTables(annotation.getCanonicalName());
+    if (fragmentProtos.length != 1) {
+      LOG.info("Index scan on " + annotation.getCanonicalName() + " is replaced by sequential scan because "
+          + fragmentProtos.length + " fragments are given to a task");
+      return createScanPlan(ctx, annotation, stack);
+    }
+    FileFragment fragment = FragmentConvertor.convert(ctx.getConf(),
+        annotation.getTableDesc().getMeta().getStoreType(), fragmentProtos).get(0);
+
+    String indexName = IndexUtil.getIndexNameOfFrag(fragment, annotation.getSortKeys());
+    Path indexPath = annotation.hasIndexPath() ?
+        annotation.getIndexPath() : new Path(sm.getTablePath(annotation.getTableName()), "index");
+    Path indexFile = new Path(indexPath, indexName);
+
+    FileSystem fs = indexFile.getFileSystem(ctx.getConf());
+    if (!fs.exists(indexFile) ||
+        fs.getFileStatus(fragment.getPath()).getModificationTime() >
+            fs.getFileStatus(indexFile).getModificationTime()) {
+      LOG.info("Index scan on " + annotation.getCanonicalName() + " is replaced by sequential scan because "
+          + "the index file " + indexFile + " does not exist or is older than the data file");
+      return createScanPlan(ctx, annotation, stack);
+    }
 
     TupleComparator comp = new TupleComparator(annotation.getKeySchema(),
         annotation.getSortKeys());
-    return new BSTIndexScanExec(ctx, sm, annotation, fragments.get(0), new Path(indexPath, indexName),
-        annotation.getKeySchema(), comp, annotation.getDatum());
+    return new BSTIndexScanExec(ctx, sm, annotation, fragment, indexFile, annotation.getKeySchema(), comp,
+        annotation.getLowerKey(), annotation.isLowerInclusive(), annotation.getUpperKey(),
+        annotation.isUpperInclusive());
+  }
+
+  /**
+   * It creates an executor building the index files of the fragments given to this task.
+   */
+  public PhysicalExec createIndexBuildExec(TaskAttemptContext ctx, CreateIndexNode createIndexNode)
+      throws IOException {
+    ScanNode scanNode = PlannerUtil.findTopNode(createIndexNode, NodeType.SCAN);
+    Preconditions.checkNotNull(scanNode, "CREATE INDEX requires a table scan");
+    Preconditions.checkNotNull(ctx.getTable(scanNode.getCanonicalName()),
+        "Error: There is no table matched to %s", scanNode.getCanonicalName());
 
+    List<FileFragment> fragments = FragmentConvertor.convert(ctx.getConf(),
+        scanNode.getTableDesc().getMeta().getStoreType(), ctx.getTables(scanNode.getCanonicalName()));
+    return new BSTIndexBuildExec(ctx, createIndexNode, scanNode, fragments);
   }
 
   private EnforceProperty getAlgorithmEnforceProperty(Enforcer enforcer, LogicalNode node) {
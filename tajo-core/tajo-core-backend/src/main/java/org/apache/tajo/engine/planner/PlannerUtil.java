@@ -61,7 +61,7 @@ public class PlannerUtil {
    * @return an array of all descendant RelationNode of LogicalNode.
    */
   public static String [] getRelationLineage(LogicalNode from) {
-    LogicalNode [] scans = findAllNodes(from, NodeType.SCAN, NodeType.PARTITIONS_SCAN);
+    LogicalNode [] scans = findAllNodes(from, NodeType.SCAN, NodeType.PARTITIONS_SCAN, NodeType.BST_INDEX_SCAN);
     String [] tableNames = new String[scans.length];
     ScanNode scan;
     for (int i = 0; i < scans.length; i++) {
@@ -238,6 +238,12 @@ public class PlannerUtil {
         throws PlanningException {
       return node;
     }
+
+    @Override
+    public LogicalNode visitIndexScan(ReplacerContext context, LogicalPlan plan, LogicalPlan.QueryBlock block,
+                                      IndexScanNode node, Stack<LogicalNode> stack) throws PlanningException {
+      return node;
+    }
   }
   
   public static void replaceNode(LogicalNode plan, LogicalNode newNode, NodeType type) {
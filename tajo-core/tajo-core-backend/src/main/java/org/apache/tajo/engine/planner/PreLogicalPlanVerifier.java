@@ -22,7 +22,9 @@ import com.google.common.collect.ObjectArrays;
 import org.apache.tajo.algebra.*;
 import org.apache.tajo.catalog.CatalogService;
 import org.apache.tajo.catalog.CatalogUtil;
+import org.apache.tajo.catalog.TableDesc;
 import org.apache.tajo.catalog.proto.CatalogProtos;
+import org.apache.tajo.engine.planner.rewrite.IndexScanRule;
 import org.apache.tajo.master.session.Session;
 import org.apache.tajo.util.TUtil;
 
@@ -240,6 +242,38 @@ public class PreLogicalPlanVerifier extends BaseAlgebraVisitor <PreLogicalPlanVe
     return expr;
   }
 
+  @Override
+  public Expr visitCreateIndex(Context context, Stack<Expr> stack, CreateIndex expr) throws PlanningException {
+    super.visitCreateIndex(context, stack, expr);
+
+    String databaseName = context.session.getCurrentDatabase();
+    if (catalog.existIndexByName(databaseName, expr.getIndexName())) {
+      context.state.addVerification(String.format("index \"%s\" already exists", expr.getIndexName()));
+    }
+    if (expr.getSortSpecs().length != 1) {
+      context.state.addVerification("multi-column index is not supported yet");
+    }
+    if (expr.hasMethodName()) {
+      String methodName = expr.getMethodName();
+      if (!methodName.equalsIgnoreCase("bst") &&
+          !methodName.equalsIgnoreCase(CatalogProtos.IndexMethod.TWO_LEVEL_BIN_TREE.name())) {
+        context.state.addVerification(String.format("Unsupported index method :%s", methodName));
+      }
+    }
+
+    Relation relation = (Relation) expr.getChild();
+    String qualifiedName = CatalogUtil.isFQTableName(relation.getName()) ?
+        relation.getName() : CatalogUtil.buildFQName(databaseName, relation.getName());
+    if (catalog.existsTable(qualifiedName)) {
+      TableDesc desc = catalog.getTableDesc(qualifiedName);
+      if (desc.hasPartition() || !IndexScanRule.isIndexable(desc.getMeta())) {
+        context.state.addVerification(
+            String.format("relation \"%s\" cannot be indexed due to its partitions or storage type", qualifiedName));
+      }
+    }
+    return expr;
+  }
+
   ///////////////////////////////////////////////////////////////////////////////////////////////////////////
   // Insert or Update Section
   ///////////////////////////////////////////////////////////////////////////////////////////////////////////
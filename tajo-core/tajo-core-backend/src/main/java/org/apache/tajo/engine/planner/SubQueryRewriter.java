@@ -0,0 +1,424 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.planner;
+
+import org.apache.tajo.algebra.*;
+import org.apache.tajo.catalog.CatalogService;
+import org.apache.tajo.catalog.CatalogUtil;
+import org.apache.tajo.catalog.TableDesc;
+import org.apache.tajo.engine.planner.logical.RelationNode;
+import org.apache.tajo.engine.planner.logical.TableSubQueryNode;
+import org.apache.tajo.master.session.Session;
+import org.apache.tajo.util.TUtil;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * SubQueryRewriter rewrites IN and EXISTS predicates over subqueries into semi and anti joins.
+ *
+ * A predicate is rewritten only if it is one of conjuncts of a WHERE clause. For example,
+ * <pre>
+ *   SELECT n_name FROM nation WHERE n_nationkey IN (SELECT c_nationkey FROM customer)
+ * </pre>
+ * is rewritten as follows:
+ * <pre>
+ *   SELECT n_name FROM nation LEFT SEMI JOIN (SELECT c_nationkey AS ?c FROM customer) #sq ON n_nationkey = #sq.?c
+ * </pre>
+ *
+ * EXISTS and NOT EXISTS are rewritten into a left semi join and a left anti join respectively.
+ * Equality predicates which refer to the outer query in the WHERE clause of a subquery are pulled up
+ * into the join condition, and the inner sides of them are added to the select list of the subquery.
+ * Other correlated predicates and NOT IN, whose result depends on NULL values of the subquery, are not
+ * supported.
+ *
+ * It works on the algebraic expression before the logical planning because a subquery in a predicate
+ * cannot be planned at all. Relations made from subqueries are excluded from the expansion of asterisks.
+ */
+class SubQueryRewriter {
+  /** the prefix of relation names given to rewritten subqueries */
+  static final String SUBQUERY_RELATION_PREFIX = LogicalPlan.VIRTUAL_TABLE_PREFIX + "subquery_";
+
+  private final CatalogService catalog;
+
+  SubQueryRewriter(CatalogService catalog) {
+    this.catalog = catalog;
+  }
+
+  private static class Context {
+    Session session;
+    int subQueryId = 0;
+
+    Context(Session session) {
+      this.session = session;
+    }
+  }
+
+  /**
+   * @return true if the relation was a subquery of an IN or EXISTS predicate
+   */
+  static boolean isRewrittenSubQuery(RelationNode relation) {
+    return relation instanceof TableSubQueryNode &&
+        CatalogUtil.extractSimpleName(relation.getCanonicalName()).startsWith(SUBQUERY_RELATION_PREFIX);
+  }
+
+  /**
+   * Rewrites all IN and EXISTS predicates over subqueries in a statement. The given expression is modified.
+   */
+  public Expr rewrite(Session session, Expr expr) throws PlanningException {
+    if (ExprFinder.finds(expr, OpType.SimpleTableSubQuery).size() == 0) {
+      return expr;
+    }
+    return visit(new Context(session), expr);
+  }
+
+  /**
+   * Visits relational operators, and it returns an expression which replaces the given one.
+   */
+  private Expr visit(Context ctx, Expr expr) throws PlanningException {
+    if (expr == null) {
+      return null;
+    }
+
+    switch (expr.getType()) {
+    case Filter:
+      Selection selection = (Selection) expr;
+      selection.setChild(visit(ctx, selection.getChild()));
+      return rewriteSelection(ctx, selection);
+    case Projection:
+    case Limit:
+    case Sort:
+    case Having:
+    case Aggregation:
+      UnaryOperator unary = (UnaryOperator) expr;
+      unary.setChild(visit(ctx, unary.getChild()));
+      return expr;
+    case Join:
+    case Union:
+    case Except:
+    case Intersect:
+      BinaryOperator binary = (BinaryOperator) expr;
+      binary.setLeft(visit(ctx, binary.getLeft()));
+      binary.setRight(visit(ctx, binary.getRight()));
+      return expr;
+    case RelationList:
+      Expr [] relations = ((RelationList) expr).getRelations();
+      for (int i = 0; i < relations.length; i++) {
+        relations[i] = visit(ctx, relations[i]);
+      }
+      return expr;
+    case TablePrimaryTableSubQuery:
+      // the root of a subquery is never a selection, so it is not replaced.
+      visit(ctx, ((TablePrimarySubQuery) expr).getSubQuery());
+      return expr;
+    case Insert:
+      Insert insert = (Insert) expr;
+      insert.setSubQuery(visit(ctx, insert.getSubQuery()));
+      return expr;
+    case CreateTable:
+      CreateTable createTable = (CreateTable) expr;
+      if (createTable.hasSubQuery()) {
+        createTable.setSubQuery(visit(ctx, createTable.getSubQuery()));
+      }
+      return expr;
+    default:
+      return expr;
+    }
+  }
+
+  /**
+   * Replaces the child of a selection with semi or anti joins for IN and EXISTS conjuncts.
+   *
+   * @return the selection, or its new child if all conjuncts are rewritten
+   */
+  private Expr rewriteSelection(Context ctx, Selection selection) throws PlanningException {
+    Expr from = selection.getChild();
+    List<Expr> remains = new ArrayList<Expr>();
+
+    for (Expr conjunct : toConjuncts(selection.getQual())) {
+      if (conjunct.getType() == OpType.InPredicate &&
+          ((InPredicate) conjunct).getInValue().getType() == OpType.SimpleTableSubQuery) {
+        InPredicate in = (InPredicate) conjunct;
+        if (in.isNot()) {
+          throw new PlanningException("NOT IN subquery is not supported yet");
+        }
+        from = createSemiJoin(ctx, from, JoinType.LEFT_SEMI, in.getPredicand(),
+            (SimpleTableSubQuery) in.getInValue());
+      } else if (conjunct.getType() == OpType.ExistsPredicate) {
+        ExistsPredicate exists = (ExistsPredicate) conjunct;
+        from = createSemiJoin(ctx, from, exists.isNot() ? JoinType.LEFT_ANTI : JoinType.LEFT_SEMI, null,
+            exists.getSubQuery());
+      } else {
+        remains.add(conjunct);
+      }
+    }
+
+    if (remains.size() == 0) {
+      return from;
+    }
+    selection.setChild(from);
+    selection.setQual(toConjunction(remains));
+    return selection;
+  }
+
+  private Join createSemiJoin(Context ctx, Expr outer, JoinType joinType, Expr predicand,
+                              SimpleTableSubQuery subQuery) throws PlanningException {
+    if (outer == null) {
+      throw new PlanningException("IN or EXISTS subquery requires FROM clause");
+    }
+
+    // subqueries within the subquery are rewritten first.
+    Expr inner = visit(ctx, subQuery.getSubQuery());
+    if (inner.getType() != OpType.Projection) {
+      throw new PlanningException("IN or EXISTS subquery with " + inner.getType() + " is not supported yet");
+    }
+    Projection projection = (Projection) inner;
+
+    // find the selection and the relations of the subquery
+    UnaryOperator selectionParent = projection;
+    Selection innerSelection = null;
+    boolean aggregatedOrLimited = false;
+    Expr current = projection.getChild();
+    while (current != null && current instanceof UnaryOperator) {
+      if (current.getType() == OpType.Filter) {
+        innerSelection = (Selection) current;
+        break;
+      }
+      if (current.getType() == OpType.Aggregation || current.getType() == OpType.Having ||
+          current.getType() == OpType.Limit) {
+        aggregatedOrLimited = true;
+      }
+      selectionParent = (UnaryOperator) current;
+      current = selectionParent.getChild();
+    }
+    Expr innerFrom = innerSelection != null ? innerSelection.getChild() : current;
+    if (innerFrom == null) {
+      throw new PlanningException("IN or EXISTS subquery requires FROM clause");
+    }
+
+    Map<String, Expr> outerRelations = TUtil.newHashMap();
+    collectRelations(outer, outerRelations);
+    Map<String, Expr> innerRelations = TUtil.newHashMap();
+    collectRelations(innerFrom, innerRelations);
+
+    // pull up correlated equality predicates
+    List<Expr []> correlations = new ArrayList<Expr[]>();
+    if (innerSelection != null) {
+      List<Expr> remains = new ArrayList<Expr>();
+      for (Expr conjunct : toConjuncts(innerSelection.getQual())) {
+        if (!refersTo(ctx, conjunct, outerRelations, innerRelations)) {
+          remains.add(conjunct);
+          continue;
+        }
+
+        Expr [] pair = null;
+        if (conjunct.getType() == OpType.Equals) {
+          Expr left = ((BinaryOperator) conjunct).getLeft();
+          Expr right = ((BinaryOperator) conjunct).getRight();
+          if (isOuterOnly(ctx, left, outerRelations, innerRelations) &&
+              isInnerOnly(ctx, right, outerRelations, innerRelations)) {
+            pair = new Expr[] {left, right};
+          } else if (isOuterOnly(ctx, right, outerRelations, innerRelations) &&
+              isInnerOnly(ctx, left, outerRelations, innerRelations)) {
+            pair = new Expr[] {right, left};
+          }
+        }
+        if (pair == null) {
+          throw new PlanningException("Correlated predicate in subquery is not supported yet: " + conjunct);
+        }
+        correlations.add(pair);
+      }
+
+      if (remains.size() == 0) {
+        selectionParent.setChild(innerFrom);
+      } else {
+        innerSelection.setQual(toConjunction(remains));
+      }
+    }
+
+    if (correlations.size() > 0 && aggregatedOrLimited) {
+      throw new PlanningException("Correlated subquery with aggregation or limit is not supported yet");
+    }
+    if (correlations.size() == 0 && predicand == null) {
+      throw new PlanningException("Uncorrelated EXISTS subquery is not supported yet");
+    }
+
+    // build new targets of the subquery and the join condition
+    String alias = SUBQUERY_RELATION_PREFIX + (ctx.subQueryId++);
+    List<NamedExpr> targets = new ArrayList<NamedExpr>();
+    List<Expr> joinQuals = new ArrayList<Expr>();
+
+    if (predicand != null) {
+      NamedExpr [] namedExprs = projection.getNamedExprs();
+      if (namedExprs.length != 1 || namedExprs[0].getExpr().getType() == OpType.Asterisk) {
+        throw new PlanningException("IN subquery must return only one column");
+      }
+      if (refersTo(ctx, namedExprs[0].getExpr(), outerRelations, innerRelations)) {
+        throw new PlanningException("Correlated column in the select list of subquery is not supported yet");
+      }
+      if (ExprFinder.finds(predicand, OpType.Column).size() != 1) {
+        throw new PlanningException("The left side of IN subquery must refer to one column");
+      }
+      addJoinColumn(alias, predicand, namedExprs[0].getExpr(), targets, joinQuals);
+    }
+    for (Expr [] pair : correlations) {
+      addJoinColumn(alias, pair[0], pair[1], targets, joinQuals);
+    }
+    projection.setNamedExprs(targets.toArray(new NamedExpr[targets.size()]));
+
+    Join join = new Join(joinType);
+    join.setLeft(outer);
+    join.setRight(new TablePrimarySubQuery(alias, projection));
+    join.setQual(toConjunction(joinQuals));
+    return join;
+  }
+
+  private static void addJoinColumn(String alias, Expr outerExpr, Expr innerExpr,
+                                    List<NamedExpr> targets, List<Expr> joinQuals) {
+    String columnName = LogicalPlan.NONAMED_COLUMN_PREFIX + alias.substring(1) + "_" + targets.size();
+    targets.add(new NamedExpr(innerExpr, columnName));
+    joinQuals.add(new BinaryOperator(OpType.Equals, outerExpr, new ColumnReferenceExpr(alias, columnName)));
+  }
+
+  /**
+   * Collects relations by their reference names, which are aliases if given.
+   */
+  private static void collectRelations(Expr expr, Map<String, Expr> relations) {
+    switch (expr.getType()) {
+    case Relation:
+    case TablePrimaryTableSubQuery:
+      Relation relation = (Relation) expr;
+      relations.put(relation.getCanonicalName(), relation);
+      break;
+    case Join:
+      collectRelations(((Join) expr).getLeft(), relations);
+      collectRelations(((Join) expr).getRight(), relations);
+      break;
+    case RelationList:
+      for (Expr each : ((RelationList) expr).getRelations()) {
+        collectRelations(each, relations);
+      }
+      break;
+    default:
+    }
+  }
+
+  private static boolean matchRelation(String qualifier, Map<String, Expr> relations) {
+    for (String name : relations.keySet()) {
+      if (name.equals(qualifier) || name.equals(CatalogUtil.extractSimpleName(qualifier))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private boolean hasColumn(Context ctx, String columnName, Map<String, Expr> relations) {
+    for (Expr relation : relations.values()) {
+      if (relation.getType() == OpType.Relation) {
+        String tableName = ((Relation) relation).getName();
+        if (!CatalogUtil.isFQTableName(tableName)) {
+          tableName = CatalogUtil.buildFQName(ctx.session.getCurrentDatabase(), tableName);
+        }
+        if (catalog.existsTable(tableName)) {
+          TableDesc desc = catalog.getTableDesc(tableName);
+          if (desc.getSchema().containsByName(columnName)) {
+            return true;
+          }
+        }
+      } else {
+        TablePrimarySubQuery subQuery = (TablePrimarySubQuery) relation;
+        if (subQuery.hasColumnNames()) {
+          for (String name : subQuery.getColumnNames()) {
+            if (name.equals(columnName)) {
+              return true;
+            }
+          }
+        } else if (subQuery.getSubQuery().getType() == OpType.Projection) {
+          for (NamedExpr namedExpr : ((Projection) subQuery.getSubQuery()).getNamedExprs()) {
+            String name = namedExpr.hasAlias() ? namedExpr.getAlias() :
+                namedExpr.getExpr().getType() == OpType.Column ?
+                    ((ColumnReferenceExpr) namedExpr.getExpr()).getName() : null;
+            if (columnName.equals(name)) {
+              return true;
+            }
+          }
+        }
+      }
+    }
+    return false;
+  }
+
+  /**
+   * A column is regarded as one of the outer query only if it cannot be found in the subquery.
+   */
+  private boolean isOuterColumn(Context ctx, ColumnReferenceExpr column,
+                                Map<String, Expr> outerRelations, Map<String, Expr> innerRelations) {
+    if (column.hasQualifier()) {
+      return !matchRelation(column.getQualifier(), innerRelations) &&
+          matchRelation(column.getQualifier(), outerRelations);
+    } else {
+      return !hasColumn(ctx, column.getName(), innerRelations) && hasColumn(ctx, column.getName(), outerRelations);
+    }
+  }
+
+  private boolean refersTo(Context ctx, Expr expr, Map<String, Expr> outerRelations,
+                           Map<String, Expr> innerRelations) {
+    Set<ColumnReferenceExpr> columns = ExprFinder.finds(expr, OpType.Column);
+    for (ColumnReferenceExpr column : columns) {
+      if (isOuterColumn(ctx, column, outerRelations, innerRelations)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private boolean isOuterOnly(Context ctx, Expr expr, Map<String, Expr> outerRelations,
+                              Map<String, Expr> innerRelations) {
+    // a join condition is used as a join key only if each side refers to one column.
+    Set<ColumnReferenceExpr> columns = ExprFinder.finds(expr, OpType.Column);
+    return columns.size() == 1 && isOuterColumn(ctx, columns.iterator().next(), outerRelations, innerRelations);
+  }
+
+  private boolean isInnerOnly(Context ctx, Expr expr, Map<String, Expr> outerRelations,
+                              Map<String, Expr> innerRelations) {
+    Set<ColumnReferenceExpr> columns = ExprFinder.finds(expr, OpType.Column);
+    return columns.size() > 0 && !refersTo(ctx, expr, outerRelations, innerRelations);
+  }
+
+  private static List<Expr> toConjuncts(Expr expr) {
+    List<Expr> conjuncts = new ArrayList<Expr>();
+    if (expr.getType() == OpType.And) {
+      conjuncts.addAll(toConjuncts(((BinaryOperator) expr).getLeft()));
+      conjuncts.addAll(toConjuncts(((BinaryOperator) expr).getRight()));
+    } else {
+      conjuncts.add(expr);
+    }
+    return conjuncts;
+  }
+
+  private static Expr toConjunction(List<Expr> conjuncts) {
+    Expr conjunction = conjuncts.get(0);
+    for (int i = 1; i < conjuncts.size(); i++) {
+      conjunction = new BinaryOperator(OpType.And, conjunction, conjuncts.get(i));
+    }
+    return conjunction;
+  }
+}
@@ -151,6 +151,17 @@ public class Enforcer implements ProtoObject<EnforcerProto> {
     TUtil.putToNestedList(properties, builder.getType(), builder.build());
   }
 
+  public boolean isBroadcastTable(String tableName) {
+    if (hasEnforceProperty(EnforceType.BROADCAST)) {
+      for (EnforceProperty property : getEnforceProperties(EnforceType.BROADCAST)) {
+        if (property.getBroadcast().getTableName().equals(tableName)) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
   public void enforceColumnPartitionAlgorithm(int pid, ColumnPartitionAlgorithm algorithm) {
     EnforceProperty.Builder builder = newProperty();
     ColumnPartitionEnforcer.Builder enforce = ColumnPartitionEnforcer.newBuilder();
@@ -177,6 +177,7 @@ public class GlobalPlanner {
       switch (node.getType()) {
       case SCAN:
       case PARTITIONS_SCAN:
+      case BST_INDEX_SCAN:
         ScanNode scanNode = (ScanNode) node;
         if (scanNode.getTableDesc().getStats() == null) {
           // TODO - this case means that data is not located in HDFS. So, we need additional
@@ -201,7 +202,30 @@ public class GlobalPlanner {
   }
 
   private static boolean checkIfCanBeOneOfBroadcastJoin(LogicalNode node) {
-    return node.getType() == NodeType.SCAN || node.getType() == NodeType.PARTITIONS_SCAN;
+    return getBroadcastCandidate(node) != null;
+  }
+
+  /**
+   * A relation can be broadcasted if it is a table or a table subquery which only filters and projects
+   * a table, like subqueries rewritten from IN or EXISTS predicates.
+   *
+   * @return the scan node of the table to be broadcasted, or NULL if the relation cannot be broadcasted
+   */
+  private static ScanNode getBroadcastCandidate(LogicalNode node) {
+    LogicalNode current = node;
+    if (current.getType() == NodeType.TABLE_SUBQUERY) {
+      current = ((TableSubQueryNode) current).getSubQuery();
+      while (current.getType() == NodeType.PROJECTION || current.getType() == NodeType.SELECTION) {
+        current = ((UnaryNode) current).getChild();
+      }
+    }
+
+    if (current.getType() == NodeType.SCAN || current.getType() == NodeType.PARTITIONS_SCAN ||
+        current.getType() == NodeType.BST_INDEX_SCAN) {
+      return (ScanNode) current;
+    } else {
+      return null;
+    }
   }
 
   private ExecutionBlock buildJoinPlan(GlobalPlanContext context, JoinNode joinNode,
@@ -217,36 +241,45 @@ public class GlobalPlanner {
     boolean rightBroadcasted = false;
 
     if (checkIfCanBeOneOfBroadcastJoin(leftNode) && checkIfCanBeOneOfBroadcastJoin(rightNode)) {
-      ScanNode leftScan = (ScanNode) leftNode;
-      ScanNode rightScan = (ScanNode) rightNode;
+      ScanNode leftScan = getBroadcastCandidate(leftNode);
+      ScanNode rightScan = getBroadcastCandidate(rightNode);
 
-      TableDesc leftDesc = leftScan.getTableDesc();
-      TableDesc rightDesc = rightScan.getTableDesc();
+      long leftVolume = computeDescendentVolume(leftScan);
+      long rightVolume = computeDescendentVolume(rightScan);
       long broadcastThreshold = conf.getLongVar(TajoConf.ConfVars.DIST_QUERY_BROADCAST_JOIN_THRESHOLD);
 
-      if (leftDesc.getStats().getNumBytes() < broadcastThreshold) {
+      if (leftVolume < broadcastThreshold) {
         leftBroadcasted = true;
       }
-      if (rightDesc.getStats().getNumBytes() < broadcastThreshold) {
+      if (rightVolume < broadcastThreshold) {
         rightBroadcasted = true;
       }
 
+      // Only the inner side of a semi or anti join can be broadcasted alone. Otherwise, each task sees
+      // a part of the inner side, and it emits duplicated or wrong rows.
+      JoinType joinType = joinNode.getJoinType();
+      if (joinType == JoinType.LEFT_SEMI || joinType == JoinType.LEFT_ANTI) {
+        leftBroadcasted &= rightBroadcasted;
+      } else if (joinType == JoinType.RIGHT_SEMI || joinType == JoinType.RIGHT_ANTI) {
+        rightBroadcasted &= leftBroadcasted;
+      }
+
       if (leftBroadcasted || rightBroadcasted) {
         currentBlock = masterPlan.newExecutionBlock();
         currentBlock.setPlan(joinNode);
         if (leftBroadcasted) {
           currentBlock.addBroadcastTable(leftScan.getCanonicalName());
-          LOG.info("The left table " + rightScan.getCanonicalName() + " ("
-              + rightScan.getTableDesc().getStats().getNumBytes() + ") is marked a broadcasted table");
+          LOG.info("The left table " + leftScan.getCanonicalName() + " ("
+              + leftVolume + ") is marked a broadcasted table");
         }
         if (rightBroadcasted) {
           currentBlock.addBroadcastTable(rightScan.getCanonicalName());
           LOG.info("The right table " + rightScan.getCanonicalName() + " ("
-              + rightScan.getTableDesc().getStats().getNumBytes() + ") is marked a broadcasted table");
+              + rightVolume + ") is marked a broadcasted table");
         }
 
-        context.execBlockMap.remove(leftScan.getPID());
-        context.execBlockMap.remove(rightScan.getPID());
+        context.execBlockMap.remove(leftNode.getPID());
+        context.execBlockMap.remove(rightNode.getPID());
         return currentBlock;
       }
     }
@@ -1123,6 +1156,30 @@ public class GlobalPlanner {
       return node;
     }
 
+    @Override
+    public LogicalNode visitIndexScan(GlobalPlanContext context, LogicalPlan plan, LogicalPlan.QueryBlock block,
+                                      IndexScanNode node, Stack<LogicalNode> stack) throws PlanningException {
+      ExecutionBlock newExecBlock = context.plan.newExecutionBlock();
+      newExecBlock.setPlan(node);
+      context.execBlockMap.put(node.getPID(), newExecBlock);
+      return node;
+    }
+
+    @Override
+    public LogicalNode visitCreateIndex(GlobalPlanContext context, LogicalPlan plan, LogicalPlan.QueryBlock block,
+                                        CreateIndexNode node, Stack<LogicalNode> stack) throws PlanningException {
+      LogicalNode child = super.visitCreateIndex(context, plan, block, node, stack);
+
+      // Each index file is built for a fragment. So, CreateIndexNode is executed in the scan execution block.
+      ExecutionBlock execBlock = context.execBlockMap.remove(child.getPID());
+      node.setChild(execBlock.getPlan());
+      node.setInSchema(execBlock.getPlan().getOutSchema());
+      execBlock.setPlan(node);
+      context.execBlockMap.put(node.getPID(), execBlock);
+
+      return node;
+    }
+
     @Override
     public LogicalNode visitStoreTable(GlobalPlanContext context, LogicalPlan plan, LogicalPlan.QueryBlock queryBlock,
                                        StoreTableNode node, Stack<LogicalNode> stack) throws PlanningException {
@@ -0,0 +1,127 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.planner.logical;
+
+import com.google.common.base.Objects;
+import com.google.gson.annotations.Expose;
+import org.apache.hadoop.fs.Path;
+import org.apache.tajo.catalog.SortSpec;
+import org.apache.tajo.engine.planner.PlanString;
+import org.apache.tajo.util.TUtil;
+
+/**
+ * CreateIndexNode builds an index file for each fragment of the child relation.
+ * Index files are stored in the index path with the names given by
+ * {@link org.apache.tajo.util.IndexUtil#getIndexNameOfFrag}.
+ */
+public class CreateIndexNode extends UnaryNode implements Cloneable {
+  @Expose private String indexName;
+  @Expose private boolean unique = false;
+  @Expose private SortSpec [] sortSpecs;
+  @Expose private Path indexPath;
+
+  public CreateIndexNode(int pid) {
+    super(pid, NodeType.CREATE_INDEX);
+  }
+
+  public void setIndexName(String indexName) {
+    this.indexName = indexName;
+  }
+
+  public String getIndexName() {
+    return indexName;
+  }
+
+  public void setUnique(boolean unique) {
+    this.unique = unique;
+  }
+
+  public boolean isUnique() {
+    return unique;
+  }
+
+  public void setSortSpecs(SortSpec[] sortSpecs) {
+    this.sortSpecs = sortSpecs;
+  }
+
+  public SortSpec[] getSortSpecs() {
+    return sortSpecs;
+  }
+
+  public void setIndexPath(Path indexPath) {
+    this.indexPath = indexPath;
+  }
+
+  public Path getIndexPath() {
+    return indexPath;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hashCode(indexName, unique, indexPath);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (obj instanceof CreateIndexNode) {
+      CreateIndexNode other = (CreateIndexNode) obj;
+      return super.equals(other)
+          && TUtil.checkEquals(indexName, other.indexName)
+          && unique == other.unique
+          && TUtil.checkEquals(sortSpecs, other.sortSpecs)
+          && TUtil.checkEquals(indexPath, other.indexPath);
+    } else {
+      return false;
+    }
+  }
+
+  @Override
+  public Object clone() throws CloneNotSupportedException {
+    CreateIndexNode createIndexNode = (CreateIndexNode) super.clone();
+    createIndexNode.indexName = indexName;
+    createIndexNode.unique = unique;
+    createIndexNode.sortSpecs = sortSpecs.clone();
+    createIndexNode.indexPath = indexPath;
+    return createIndexNode;
+  }
+
+  @Override
+  public PlanString getPlanString() {
+    PlanString planStr = new PlanString(this).appendTitle(" " + indexName);
+    StringBuilder sb = new StringBuilder("Index Keys: ");
+    for (int i = 0; i < sortSpecs.length; i++) {
+      sb.append(sortSpecs[i].getSortKey().getSimpleName()).append(" ")
+          .append(sortSpecs[i].isAscending() ? "asc" : "desc");
+      if (i < sortSpecs.length - 1) {
+        sb.append(",");
+      }
+    }
+    planStr.addExplan(sb.toString());
+    if (unique) {
+      planStr.addExplan("Unique");
+    }
+    planStr.addExplan("Index Path: " + indexPath);
+    return planStr;
+  }
+
+  public String toString() {
+    return "CreateIndex (name=" + indexName + ", unique=" + unique + ", path=" + indexPath + ")\n"
+        + getChild().toString();
+  }
+}
@@ -20,27 +20,61 @@ package org.apache.tajo.engine.planner.logical;
 
 import com.google.gson.Gson;
 import com.google.gson.annotations.Expose;
+import org.apache.hadoop.fs.Path;
 import org.apache.tajo.catalog.Schema;
 import org.apache.tajo.catalog.SortSpec;
 import org.apache.tajo.datum.Datum;
 import org.apache.tajo.engine.json.CoreGsonHelper;
+import org.apache.tajo.engine.planner.PlanString;
+import org.apache.tajo.util.TUtil;
 
+/**
+ * IndexScanNode reads the rows whose index keys are within a key range. The lower or upper key is NULL
+ * if the range is not bounded on that side. An equality condition is represented as a range whose lower and
+ * upper keys are the same.
+ */
 public class IndexScanNode extends ScanNode {
   @Expose private SortSpec [] sortKeys;
   @Expose private Schema keySchema = null;
-  @Expose private Datum[] datum = null;
-  
-  public IndexScanNode(int pid, ScanNode scanNode ,
-      Schema keySchema , Datum[] datum, SortSpec[] sortKeys ) {
+  @Expose private Datum[] lowerKey = null;
+  @Expose private boolean lowerInclusive = true;
+  @Expose private Datum[] upperKey = null;
+  @Expose private boolean upperInclusive = true;
+  @Expose private Path indexPath = null;
+
+  public IndexScanNode(int pid, ScanNode scanNode, Schema keySchema, SortSpec[] sortKeys) {
     super(pid);
-    init(scanNode.getTableDesc());
-    setQual(scanNode.getQual());
+    this.tableDesc = scanNode.tableDesc;
+    this.alias = scanNode.alias;
+    this.logicalSchema = scanNode.logicalSchema;
+    this.qual = scanNode.qual;
+    this.targets = scanNode.targets;
     setInSchema(scanNode.getInSchema());
-    setTargets(scanNode.getTargets());
+    setOutSchema(scanNode.getOutSchema());
     setType(NodeType.BST_INDEX_SCAN);
     this.sortKeys = sortKeys;
     this.keySchema = keySchema;
-    this.datum = datum;
+  }
+  
+  public IndexScanNode(int pid, ScanNode scanNode ,
+      Schema keySchema , Datum[] datum, SortSpec[] sortKeys ) {
+    this(pid, scanNode, keySchema, sortKeys);
+    setRange(datum, true, datum, true);
+  }
+
+  /**
+   * Sets the key range to be read.
+   *
+   * @param lowerKey the lower key, or NULL if there is no lower bound
+   * @param lowerInclusive true if the rows of the lower key are included
+   * @param upperKey the upper key, or NULL if there is no upper bound
+   * @param upperInclusive true if the rows of the upper key are included
+   */
+  public void setRange(Datum[] lowerKey, boolean lowerInclusive, Datum[] upperKey, boolean upperInclusive) {
+    this.lowerKey = lowerKey;
+    this.lowerInclusive = lowerInclusive;
+    this.upperKey = upperKey;
+    this.upperInclusive = upperInclusive;
   }
   
   public SortSpec[] getSortKeys() {
@@ -50,9 +84,44 @@ public class IndexScanNode extends ScanNode {
   public Schema getKeySchema() {
     return this.keySchema;
   }
-  
-  public Datum[] getDatum() {
-    return this.datum;
+
+  public boolean hasLowerKey() {
+    return lowerKey != null;
+  }
+
+  public Datum[] getLowerKey() {
+    return lowerKey;
+  }
+
+  public boolean isLowerInclusive() {
+    return lowerInclusive;
+  }
+
+  public boolean hasUpperKey() {
+    return upperKey != null;
+  }
+
+  public Datum[] getUpperKey() {
+    return upperKey;
+  }
+
+  public boolean isUpperInclusive() {
+    return upperInclusive;
+  }
+
+  public boolean hasIndexPath() {
+    return indexPath != null;
+  }
+
+  /**
+   * @param indexPath the directory which contains the index files of all fragments
+   */
+  public void setIndexPath(Path indexPath) {
+    this.indexPath = indexPath;
+  }
+
+  public Path getIndexPath() {
+    return indexPath;
   }
   
   public void setSortKeys(SortSpec[] sortKeys) {
@@ -63,6 +132,17 @@ public class IndexScanNode extends ScanNode {
     this.keySchema = keySchema;
   }
 
+  @Override
+  public PlanString getPlanString() {
+    PlanString planStr = super.getPlanString();
+    StringBuilder sb = new StringBuilder("index range: ");
+    sb.append(hasLowerKey() ? (lowerInclusive ? "[" : "(") + TUtil.arrayToString(lowerKey) : "(-inf");
+    sb.append(", ");
+    sb.append(hasUpperKey() ? TUtil.arrayToString(upperKey) + (upperInclusive ? "]" : ")") : "+inf)");
+    planStr.addExplan(sb.toString());
+    return planStr;
+  }
+
   @Override
   public String toString() {
     Gson gson = CoreGsonHelper.getInstance();
@@ -70,7 +150,8 @@ public class IndexScanNode extends ScanNode {
     builder.append("IndexScanNode : {\n");
     builder.append("  \"keySchema\" : \"" + gson.toJson(this.keySchema) + "\"\n");
     builder.append("  \"sortKeys\" : \"" + gson.toJson(this.sortKeys) + " \"\n");
-    builder.append("  \"datums\" : \"" + gson.toJson(this.datum) + "\"\n");
+    builder.append("  \"lowerKey\" : \"" + gson.toJson(this.lowerKey) + "\"\n");
+    builder.append("  \"upperKey\" : \"" + gson.toJson(this.upperKey) + "\"\n");
     builder.append("      <<\"superClass\" : " + super.toString());
     builder.append(">>}");
     builder.append("}");
@@ -94,11 +175,9 @@ public class IndexScanNode extends ScanNode {
               == other.sortKeys[i].isNullFirst();
         }
       }
-      if(eq) {
-        for(int i = 0 ; i < this.datum.length ; i ++ ) {
-          eq = eq && this.datum[i].equals(other.datum[i]);
-        }
-      }
+      eq = eq && TUtil.checkEquals(lowerKey, other.lowerKey) && lowerInclusive == other.lowerInclusive;
+      eq = eq && TUtil.checkEquals(upperKey, other.upperKey) && upperInclusive == other.upperInclusive;
+      eq = eq && TUtil.checkEquals(indexPath, other.indexPath);
      return eq;
     }   
     return false;
@@ -111,12 +190,13 @@ public class IndexScanNode extends ScanNode {
     indexNode.sortKeys = new SortSpec[this.sortKeys.length];
     for(int i = 0 ; i < sortKeys.length ; i ++ )
       indexNode.sortKeys[i] = (SortSpec) this.sortKeys[i].clone();
-    indexNode.datum = new Datum[this.datum.length];
-    for(int i = 0 ; i < datum.length ; i ++ ) {
-      indexNode.datum[i] = this.datum[i];
+    if (lowerKey != null) {
+      indexNode.lowerKey = lowerKey.clone();
+    }
+    if (upperKey != null) {
+      indexNode.upperKey = upperKey.clone();
     }
+    indexNode.indexPath = indexPath;
     return indexNode;
   }
 }
-
-
@@ -36,6 +36,7 @@ public abstract class LogicalNode implements Cloneable, GsonObject {
 	@Expose	private Schema outputSchema;
 
 	@Expose	private double cost = 0;
+  @Expose private double estimatedRows = -1;
 
 	protected LogicalNode(int pid, NodeType type) {
     this.pid = pid;
@@ -66,6 +67,21 @@ public abstract class LogicalNode implements Cloneable, GsonObject {
 		this.cost = cost;
 	}
 	
+  /**
+   * @return True if the number of output rows is estimated by the optimizer.
+   */
+  public boolean hasEstimatedRows() {
+    return estimatedRows >= 0;
+  }
+
+  public double getEstimatedRows() {
+    return estimatedRows;
+  }
+
+  public void setEstimatedRows(double estimatedRows) {
+    this.estimatedRows = estimatedRows;
+  }
+
 	public void setInSchema(Schema inSchema) {
 	  this.inputSchema = inSchema;
 	}
@@ -47,7 +47,8 @@ public enum NodeType {
   CREATE_DATABASE(CreateDatabaseNode.class),
   DROP_DATABASE(DropDatabaseNode.class),
   CREATE_TABLE(CreateTableNode.class),
-  DROP_TABLE(DropTableNode.class)
+  DROP_TABLE(DropTableNode.class),
+  CREATE_INDEX(CreateIndexNode.class)
   ;
 
   private final Class<? extends LogicalNode> baseClass;
@@ -76,7 +76,10 @@ public class ProjectionNode extends UnaryNode implements Projectable {
 	@Override
   public Object clone() throws CloneNotSupportedException {
 	  ProjectionNode projNode = (ProjectionNode) super.clone();
-	  projNode.targets = targets.clone();
+	  projNode.targets = new Target[targets.length];
+	  for (int i = 0; i < targets.length; i++) {
+	    projNode.targets[i] = (Target) targets[i].clone();
+	  }
 	  
 	  return projNode;
 	}
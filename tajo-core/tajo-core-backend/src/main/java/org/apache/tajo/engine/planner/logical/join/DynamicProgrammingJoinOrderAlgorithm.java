@@ -0,0 +1,303 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.planner.logical.join;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.tajo.algebra.JoinType;
+import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.engine.eval.EvalNode;
+import org.apache.tajo.engine.planner.CardinalityEstimator;
+import org.apache.tajo.engine.planner.LogicalPlan;
+import org.apache.tajo.engine.planner.PlanningException;
+import org.apache.tajo.engine.planner.logical.JoinNode;
+import org.apache.tajo.engine.planner.logical.LogicalNode;
+import org.apache.tajo.engine.planner.logical.NodeType;
+import org.apache.tajo.engine.planner.logical.RelationNode;
+import org.apache.tajo.util.TUtil;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.apache.tajo.engine.planner.logical.join.JoinCostModel.JoinInput;
+
+/**
+ * It finds the join order of the minimum cost by dynamic programming over subsets of relations (DPsub).
+ *
+ * The best plan of every subset of relations is built from the best plans of its two disjoint subsets, so
+ * bushy join trees are also considered. Like the greedy heuristic, a join having join conditions is always
+ * preferred to a cross join. The costs are computed by {@link JoinCostModel} with the cardinalities estimated
+ * from catalog statistics.
+ *
+ * Since the enumeration takes O(3^n) time, the greedy heuristic is used if a query block has more relations
+ * than {@link TajoConf.ConfVars#OPTIMIZER_JOIN_DP_MAX_RELATIONS}.
+ */
+public class DynamicProgrammingJoinOrderAlgorithm implements JoinOrderAlgorithm {
+  private static final Log LOG = LogFactory.getLog(DynamicProgrammingJoinOrderAlgorithm.class);
+
+  /** the upper bound of the number of relations, which keeps the enumeration tractable */
+  private static final int MAX_DP_RELATIONS = 16;
+
+  private final TajoConf conf;
+  private final int maxRelations;
+  private final GreedyHeuristicJoinOrderAlgorithm greedyAlgorithm = new GreedyHeuristicJoinOrderAlgorithm();
+
+  public DynamicProgrammingJoinOrderAlgorithm(TajoConf conf) {
+    this.conf = conf;
+    this.maxRelations = Math.min(conf.getIntVar(TajoConf.ConfVars.OPTIMIZER_JOIN_DP_MAX_RELATIONS), MAX_DP_RELATIONS);
+  }
+
+  @Override
+  public FoundJoinOrder findBestOrder(LogicalPlan plan, LogicalPlan.QueryBlock block, JoinGraph joinGraph,
+                                      Set<String> relationsWithoutQual) throws PlanningException {
+    JoinCostModel costModel = new JoinCostModel(conf, new CardinalityEstimator(block));
+    List<RelationNode> relations = new ArrayList<RelationNode>(block.getRelations());
+
+    JoinNode joinTree = null;
+    if (relations.size() <= maxRelations) {
+      JoinPlan best = enumerate(costModel, relations, joinGraph);
+      if (best != null) {
+        joinTree = (JoinNode) buildJoinTree(plan, block, best);
+      } else {
+        LOG.info("No valid join order is found by dynamic programming in " + block.getName());
+      }
+    }
+
+    if (joinTree == null) {
+      joinTree = greedyAlgorithm.findBestOrder(plan, block, joinGraph, relationsWithoutQual).getOrderedJoin();
+    }
+
+    annotateEstimatedRows(costModel.getEstimator(), joinTree);
+    return new FoundJoinOrder(joinTree, costModel.computeCost(joinTree));
+  }
+
+  /**
+   * Each relation is represented as a bit, and each subset of relations is represented as a bit set.
+   *
+   * @return the best plan joining all relations, or NULL if there is no valid plan.
+   */
+  private static JoinPlan enumerate(JoinCostModel costModel, List<RelationNode> relations, JoinGraph joinGraph) {
+    int num = relations.size();
+    Map<String, Integer> relationBits = TUtil.newHashMap();
+    JoinPlan [] bestPlans = new JoinPlan[1 << num];
+
+    for (int i = 0; i < num; i++) {
+      RelationNode relation = relations.get(i);
+      relationBits.put(relation.getCanonicalName(), 1 << i);
+      bestPlans[1 << i] = new JoinPlan(1 << i, relation, JoinInput.forRelation(costModel.getEstimator(), relation));
+    }
+
+    List<EdgeBits> edges = new ArrayList<EdgeBits>();
+    for (JoinEdge edge : joinGraph.getEdgesAll()) {
+      Integer left = relationBits.get(((RelationNode) edge.getLeftRelation()).getCanonicalName());
+      Integer right = relationBits.get(((RelationNode) edge.getRightRelation()).getCanonicalName());
+      if (left != null && right != null) {
+        edges.add(new EdgeBits(left, right, edge));
+      }
+    }
+
+    for (int set = 1; set < (1 << num); set++) {
+      if (Integer.bitCount(set) < 2) {
+        continue;
+      }
+
+      JoinPlan bestJoin = null;
+      JoinPlan bestCrossJoin = null;
+      // enumerate all pairs of non-empty disjoint subsets, which compose the set.
+      for (int left = (set - 1) & set; left > 0; left = (left - 1) & set) {
+        JoinPlan leftPlan = bestPlans[left];
+        JoinPlan rightPlan = bestPlans[set ^ left];
+        if (leftPlan == null || rightPlan == null) {
+          continue;
+        }
+
+        JoinPlan candidate = createJoinPlan(costModel, edges, leftPlan, rightPlan);
+        if (candidate == null) {
+          continue;
+        }
+
+        // a qualified join must be chosen rather than cross join regardless of cost.
+        if (candidate.joinQuals.length > 0) {
+          if (bestJoin == null || candidate.getCost() < bestJoin.getCost()) {
+            bestJoin = candidate;
+          }
+        } else {
+          if (bestCrossJoin == null || candidate.getCost() < bestCrossJoin.getCost()) {
+            bestCrossJoin = candidate;
+          }
+        }
+      }
+      bestPlans[set] = bestJoin != null ? bestJoin : bestCrossJoin;
+    }
+
+    return bestPlans[(1 << num) - 1];
+  }
+
+  /**
+   * @return a plan joining two plans, or NULL if two plans cannot be joined in this order.
+   */
+  private static JoinPlan createJoinPlan(JoinCostModel costModel, List<EdgeBits> edges,
+                                         JoinPlan left, JoinPlan right) {
+    List<EdgeBits> connected = new ArrayList<EdgeBits>();
+    boolean hasNonInnerJoin = false;
+
+    for (EdgeBits edge : edges) {
+      boolean forward = (edge.left & left.relations) != 0 && (edge.right & right.relations) != 0;
+      boolean backward = (edge.left & right.relations) != 0 && (edge.right & left.relations) != 0;
+      if (!forward && !backward) {
+        continue;
+      }
+
+      if (edge.getJoinType() != JoinType.INNER) {
+        if (!forward || !canBeReordered(edge, left.relations, right.relations)) {
+          return null;
+        }
+        hasNonInnerJoin = true;
+      }
+      connected.add(edge);
+    }
+
+    // a non-inner join cannot be merged with other join conditions.
+    if (hasNonInnerJoin && connected.size() > 1) {
+      return null;
+    }
+
+    JoinType joinType;
+    List<EvalNode> joinQuals = new ArrayList<EvalNode>();
+    if (connected.isEmpty()) {
+      joinType = JoinType.CROSS;
+    } else {
+      joinType = connected.get(0).getJoinType();
+      for (EdgeBits edge : connected) {
+        Collections.addAll(joinQuals, edge.edge.getJoinQual());
+      }
+    }
+
+    EvalNode [] quals = joinQuals.toArray(new EvalNode[joinQuals.size()]);
+    double rows = costModel.getEstimator().estimateJoinRows(joinType, left.input.getRows(), right.input.getRows(),
+        quals);
+    double cost = left.getCost() + right.getCost() +
+        costModel.computeJoinCost(joinType, quals.length > 0, left.input, right.input, rows);
+
+    return new JoinPlan(left, right, joinType, quals, JoinInput.forJoin(left.input, right.input, rows, cost));
+  }
+
+  /**
+   * Non-inner joins are not associative in general. So, the null-supplying side of an outer join and
+   * the filtered side of a semi or anti join should be a single relation as written in the query.
+   */
+  private static boolean canBeReordered(EdgeBits edge, int leftRelations, int rightRelations) {
+    switch (edge.getJoinType()) {
+    case LEFT_OUTER:
+    case LEFT_SEMI:
+    case LEFT_ANTI:
+      return rightRelations == edge.right;
+    case RIGHT_OUTER:
+    case RIGHT_SEMI:
+    case RIGHT_ANTI:
+      return leftRelations == edge.left;
+    case FULL_OUTER:
+      return leftRelations == edge.left && rightRelations == edge.right;
+    default:
+      return false;
+    }
+  }
+
+  private static LogicalNode buildJoinTree(LogicalPlan plan, LogicalPlan.QueryBlock block, JoinPlan joinPlan) {
+    if (joinPlan.relation != null) {
+      return joinPlan.relation;
+    }
+
+    LogicalNode left = buildJoinTree(plan, block, joinPlan.left);
+    LogicalNode right = buildJoinTree(plan, block, joinPlan.right);
+    JoinNode joinNode = GreedyHeuristicJoinOrderAlgorithm.createJoinNode(plan,
+        new JoinEdge(joinPlan.joinType, left, right, joinPlan.joinQuals));
+    // all generated nodes should be registered to corresponding blocks
+    block.registerNode(joinNode);
+    return joinNode;
+  }
+
+  private static void annotateEstimatedRows(CardinalityEstimator estimator, LogicalNode node) {
+    if (node.getType() == NodeType.JOIN) {
+      JoinNode joinNode = (JoinNode) node;
+      annotateEstimatedRows(estimator, joinNode.getLeftChild());
+      annotateEstimatedRows(estimator, joinNode.getRightChild());
+    }
+    node.setEstimatedRows(estimator.estimateRows(node));
+  }
+
+  /**
+   * A join edge whose relations are represented as bits.
+   */
+  private static class EdgeBits {
+    final int left;
+    final int right;
+    final JoinEdge edge;
+
+    EdgeBits(int left, int right, JoinEdge edge) {
+      this.left = left;
+      this.right = right;
+      this.edge = edge;
+    }
+
+    JoinType getJoinType() {
+      return edge.getJoinType();
+    }
+  }
+
+  /**
+   * The best plan found for a set of relations. It is either a relation or a join of two plans.
+   */
+  private static class JoinPlan {
+    final int relations;
+    final LogicalNode relation;
+    final JoinPlan left;
+    final JoinPlan right;
+    final JoinType joinType;
+    final EvalNode [] joinQuals;
+    final JoinInput input;
+
+    JoinPlan(int relations, LogicalNode relation, JoinInput input) {
+      this.relations = relations;
+      this.relation = relation;
+      this.left = null;
+      this.right = null;
+      this.joinType = null;
+      this.joinQuals = new EvalNode[0];
+      this.input = input;
+    }
+
+    JoinPlan(JoinPlan left, JoinPlan right, JoinType joinType, EvalNode [] joinQuals, JoinInput input) {
+      this.relations = left.relations | right.relations;
+      this.relation = null;
+      this.left = left;
+      this.right = right;
+      this.joinType = joinType;
+      this.joinQuals = joinQuals;
+      this.input = input;
+    }
+
+    double getCost() {
+      return input.getCost();
+    }
+  }
+}
@@ -73,7 +73,7 @@ public class GreedyHeuristicJoinOrderAlgorithm implements JoinOrderAlgorithm {
     return new FoundJoinOrder(joinTree, getCost(joinTree));
   }
 
-  private static JoinNode createJoinNode(LogicalPlan plan, JoinEdge joinEdge) {
+  static JoinNode createJoinNode(LogicalPlan plan, JoinEdge joinEdge) {
     LogicalNode left = joinEdge.getLeftRelation();
     LogicalNode right = joinEdge.getRightRelation();
 
@@ -0,0 +1,214 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.planner.logical.join;
+
+import org.apache.tajo.algebra.JoinType;
+import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.engine.eval.AlgebraicUtil;
+import org.apache.tajo.engine.eval.EvalNode;
+import org.apache.tajo.engine.planner.CardinalityEstimator;
+import org.apache.tajo.engine.planner.logical.*;
+
+/**
+ * Cost model of distributed joins.
+ *
+ * A cost is the number of bytes to be processed, where a byte transmitted over the network is weighted more
+ * than a byte processed locally. Costs are relative, so they are only meaningful to compare join orders
+ * with each other. The model follows the decisions of the global and physical planners:
+ *
+ * <ul>
+ *   <li>A join between two base relations broadcasts the smaller relation if its volume is less than
+ *   {@link TajoConf.ConfVars#DIST_QUERY_BROADCAST_JOIN_THRESHOLD}. Otherwise, both inputs are shuffled.</li>
+ *   <li>An in-memory hash join is used if the smaller input fits in the in-memory hash threshold.
+ *   Otherwise, both inputs are sorted and merge-joined.</li>
+ * </ul>
+ */
+public class JoinCostModel {
+  /** the weight of a byte which is written to shuffle files and fetched by another node */
+  static final double NETWORK_COST_PER_BYTE = 3.0;
+  /** the weight of a byte of a hash table build side */
+  static final double HASH_BUILD_COST_PER_BYTE = 2.0;
+  /** the weight of a byte of a hash table probe side */
+  static final double HASH_PROBE_COST_PER_BYTE = 1.0;
+  /** the weight of a byte for each comparison level of a sort */
+  static final double SORT_COST_PER_BYTE = 0.1;
+
+  private final CardinalityEstimator estimator;
+  private final long broadcastThreshold;
+  private final long innerHashThreshold;
+  private final long outerHashThreshold;
+  private final long joinTaskVolume;
+
+  public JoinCostModel(TajoConf conf, CardinalityEstimator estimator) {
+    this.estimator = estimator;
+    this.broadcastThreshold = conf.getLongVar(TajoConf.ConfVars.DIST_QUERY_BROADCAST_JOIN_THRESHOLD);
+    this.innerHashThreshold = conf.getLongVar(TajoConf.ConfVars.EXECUTOR_INNER_JOIN_INMEMORY_HASH_THRESHOLD);
+    this.outerHashThreshold = conf.getLongVar(TajoConf.ConfVars.EXECUTOR_OUTER_JOIN_INMEMORY_HASH_THRESHOLD);
+    this.joinTaskVolume = conf.getIntVar(TajoConf.ConfVars.DIST_QUERY_JOIN_TASK_VOLUME) * 1048576L;
+  }
+
+  public CardinalityEstimator getEstimator() {
+    return estimator;
+  }
+
+  /**
+   * Computes the cost of a single join, excluding the costs of its inputs.
+   *
+   * @param joinType join type
+   * @param hasJoinQual true if the join has any join condition
+   * @param left the left input
+   * @param right the right input
+   * @param outputRows the estimated number of output rows
+   * @return the cost of the join
+   */
+  public double computeJoinCost(JoinType joinType, boolean hasJoinQual, JoinInput left, JoinInput right,
+                                double outputRows) {
+    double leftBytes = left.getBytes();
+    double rightBytes = right.getBytes();
+    double smallerBytes = Math.min(leftBytes, rightBytes);
+    double largerBytes = Math.max(leftBytes, rightBytes);
+
+    // data transfer
+    double networkCost;
+    if (left.isBaseRelation() && right.isBaseRelation() &&
+        Math.min(left.getVolume(), right.getVolume()) < broadcastThreshold) {
+      // the smaller relation is sent to every task of the larger relation.
+      double numTasks = Math.max(1, Math.ceil(largerBytes / joinTaskVolume));
+      networkCost = smallerBytes * numTasks * NETWORK_COST_PER_BYTE;
+    } else {
+      networkCost = (leftBytes + rightBytes) * NETWORK_COST_PER_BYTE;
+    }
+
+    // local join
+    double localCost;
+    if (!hasJoinQual) {
+      // every pair of rows should be evaluated.
+      localCost = leftBytes * right.getRows() + rightBytes;
+    } else {
+      long hashThreshold = joinType == JoinType.INNER ? innerHashThreshold : outerHashThreshold;
+      if (smallerBytes <= hashThreshold) {
+        localCost = smallerBytes * HASH_BUILD_COST_PER_BYTE + largerBytes * HASH_PROBE_COST_PER_BYTE;
+      } else {
+        localCost = getSortCost(left) + getSortCost(right) + leftBytes + rightBytes;
+      }
+    }
+
+    // materialization of the join result
+    double outputCost = outputRows * (left.getWidth() + right.getWidth());
+
+    return networkCost + localCost + outputCost;
+  }
+
+  private static double getSortCost(JoinInput input) {
+    return input.getBytes() * (Math.log(Math.max(2, input.getRows())) / Math.log(2)) * SORT_COST_PER_BYTE;
+  }
+
+  /**
+   * Computes the cost of an existing join tree.
+   *
+   * @param node the root of a join tree
+   * @return the sum of the costs of all joins in the join tree
+   */
+  public double computeCost(LogicalNode node) {
+    return computeInput(node).getCost();
+  }
+
+  private JoinInput computeInput(LogicalNode node) {
+    if (node.getType() != NodeType.JOIN) {
+      return JoinInput.forRelation(estimator, node);
+    }
+
+    JoinNode joinNode = (JoinNode) node;
+    JoinInput left = computeInput(joinNode.getLeftChild());
+    JoinInput right = computeInput(joinNode.getRightChild());
+    EvalNode [] joinQuals = joinNode.hasJoinQual() ?
+        AlgebraicUtil.toConjunctiveNormalFormArray(joinNode.getJoinQual()) : new EvalNode[0];
+
+    double rows = estimator.estimateJoinRows(joinNode.getJoinType(), left.getRows(), right.getRows(), joinQuals);
+    double cost = left.getCost() + right.getCost() +
+        computeJoinCost(joinNode.getJoinType(), joinQuals.length > 0, left, right, rows);
+    return JoinInput.forJoin(left, right, rows, cost);
+  }
+
+  /**
+   * Estimated properties of a join input, which is either a relation or an intermediate join result.
+   */
+  public static class JoinInput {
+    private final double rows;
+    private final double width;
+    private final long volume;
+    private final double cost;
+
+    JoinInput(double rows, double width, long volume, double cost) {
+      this.rows = rows;
+      this.width = width;
+      this.volume = volume;
+      this.cost = cost;
+    }
+
+    public static JoinInput forRelation(CardinalityEstimator estimator, LogicalNode relation) {
+      double width = relation instanceof RelationNode ?
+          estimator.estimateRowWidth((RelationNode) relation) : CardinalityEstimator.DEFAULT_VARIABLE_WIDTH;
+      // only a join between base tables can broadcast one of them.
+      long volume = relation instanceof ScanNode ?
+          CardinalityEstimator.getTableVolume((ScanNode) relation) : Long.MAX_VALUE;
+      return new JoinInput(estimator.estimateRows(relation), width, volume, 0);
+    }
+
+    public static JoinInput forJoin(JoinInput left, JoinInput right, double rows, double cost) {
+      return new JoinInput(rows, left.width + right.width, Long.MAX_VALUE, cost);
+    }
+
+    /**
+     * @return the estimated number of rows
+     */
+    public double getRows() {
+      return rows;
+    }
+
+    /**
+     * @return the estimated width of a row in bytes
+     */
+    public double getWidth() {
+      return width;
+    }
+
+    public double getBytes() {
+      return rows * width;
+    }
+
+    public boolean isBaseRelation() {
+      return volume != Long.MAX_VALUE;
+    }
+
+    /**
+     * @return the volume of a base table, or Long.MAX_VALUE for an intermediate result
+     */
+    public long getVolume() {
+      return volume;
+    }
+
+    /**
+     * @return the accumulated cost to produce this input
+     */
+    public double getCost() {
+      return cost;
+    }
+  }
+}
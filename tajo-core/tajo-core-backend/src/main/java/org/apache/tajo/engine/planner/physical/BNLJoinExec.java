@@ -99,7 +99,7 @@ public class BNLJoinExec extends BinaryPhysicalExec {
           leftEnd = true;
           break;
         }
-        leftTupleSlots.add(t);
+        leftTupleSlots.add(new VTuple(t));
       }
       leftIterator = leftTupleSlots.iterator();
       leftTuple = leftIterator.next();
@@ -112,7 +112,7 @@ public class BNLJoinExec extends BinaryPhysicalExec {
           rightEnd = true;
           break;
         }
-        rightTupleSlots.add(t);
+        rightTupleSlots.add(new VTuple(t));
       }
       rightIterator = rightTupleSlots.iterator();
     }
@@ -141,7 +141,7 @@ public class BNLJoinExec extends BinaryPhysicalExec {
                 leftEnd = true;
                 break;
               }
-              leftTupleSlots.add(t);
+              leftTupleSlots.add(new VTuple(t));
             }
             if (leftTupleSlots.isEmpty()) {
               return null;
@@ -156,14 +156,14 @@ public class BNLJoinExec extends BinaryPhysicalExec {
           
           rightTupleSlots.clear();
           if (rightNext != null) {
-            rightTupleSlots.add(rightNext);
+            rightTupleSlots.add(new VTuple(rightNext));
             for (int k = 1; k < TUPLE_SLOT_SIZE; k++) { // fill right
               Tuple t = rightChild.next();
               if (t == null) {
                 rightEnd = true;
                 break;
               }
-              rightTupleSlots.add(t);
+              rightTupleSlots.add(new VTuple(t));
             }
           } else {
             for (int k = 0; k < TUPLE_SLOT_SIZE; k++) { // fill right
@@ -172,7 +172,7 @@ public class BNLJoinExec extends BinaryPhysicalExec {
                 rightEnd = true;
                 break;
               }
-              rightTupleSlots.add(t);
+              rightTupleSlots.add(new VTuple(t));
             }
           }
           
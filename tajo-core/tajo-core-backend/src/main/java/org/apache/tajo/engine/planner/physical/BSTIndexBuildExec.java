@@ -0,0 +1,144 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.planner.physical;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.io.IOUtils;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.catalog.SortSpec;
+import org.apache.tajo.engine.planner.logical.CreateIndexNode;
+import org.apache.tajo.engine.planner.logical.ScanNode;
+import org.apache.tajo.storage.*;
+import org.apache.tajo.storage.fragment.FileFragment;
+import org.apache.tajo.storage.index.bst.BSTIndex;
+import org.apache.tajo.util.IndexUtil;
+import org.apache.tajo.worker.TaskAttemptContext;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * It builds a two-level BST index file for each fragment of a table. Each index entry maps a key to
+ * the offset of a row in the fragment. The entries are sorted while the index is written, so a task
+ * does not need an additional sort. It does not produce any row.
+ */
+public class BSTIndexBuildExec extends PhysicalExec {
+  private static final Log LOG = LogFactory.getLog(BSTIndexBuildExec.class);
+
+  private final CreateIndexNode plan;
+  private final ScanNode scanNode;
+  private final List<FileFragment> fragments;
+  private final Schema keySchema;
+  private final int [] keyIds;
+  private final TupleComparator comparator;
+
+  private boolean built = false;
+  private float progress;
+
+  public BSTIndexBuildExec(TaskAttemptContext context, CreateIndexNode plan, ScanNode scanNode,
+                           List<FileFragment> fragments) {
+    super(context, scanNode.getInSchema(), plan.getOutSchema());
+    this.plan = plan;
+    this.scanNode = scanNode;
+    this.fragments = fragments;
+
+    SortSpec [] sortSpecs = plan.getSortSpecs();
+    this.keySchema = new Schema();
+    this.keyIds = new int[sortSpecs.length];
+    for (int i = 0; i < sortSpecs.length; i++) {
+      keySchema.addColumn(sortSpecs[i].getSortKey());
+      keyIds[i] = inSchema.getColumnId(sortSpecs[i].getSortKey().getQualifiedName());
+    }
+    this.comparator = new TupleComparator(keySchema, sortSpecs);
+  }
+
+  @Override
+  public void init() throws IOException {
+    progress = 0.0f;
+  }
+
+  @Override
+  public Tuple next() throws IOException {
+    if (!built) {
+      for (int i = 0; i < fragments.size(); i++) {
+        buildIndex(fragments.get(i));
+        progress = (float) (i + 1) / fragments.size();
+      }
+      built = true;
+    }
+    return null;
+  }
+
+  private void buildIndex(FileFragment fragment) throws IOException {
+    Path indexFile = new Path(plan.getIndexPath(), IndexUtil.getIndexNameOfFrag(fragment, plan.getSortSpecs()));
+    FileSystem fs = indexFile.getFileSystem(context.getConf());
+    // an index file of the same fragment is replaced, e.g., by a retried task.
+    fs.delete(indexFile, false);
+    fs.delete(new Path(indexFile + ".root"), false);
+
+    BSTIndex.BSTIndexWriter writer = new BSTIndex(context.getConf()).getIndexWriter(indexFile,
+        BSTIndex.TWO_LEVEL_INDEX, keySchema, comparator);
+    SeekableScanner scanner = StorageManagerFactory.getSeekableScanner(context.getConf(),
+        scanNode.getTableDesc().getMeta(), inSchema, fragment, keySchema);
+    try {
+      writer.open();
+      scanner.init();
+
+      Tuple tuple;
+      Tuple key;
+      long offset;
+      while (true) {
+        offset = scanner.getNextOffset();
+        tuple = scanner.next();
+        if (tuple == null) {
+          break;
+        }
+
+        key = new VTuple(keyIds.length);
+        for (int i = 0; i < keyIds.length; i++) {
+          key.put(i, tuple.get(keyIds[i]));
+        }
+        writer.write(key, offset);
+      }
+      writer.close();
+    } finally {
+      IOUtils.cleanup(LOG, scanner);
+    }
+
+    LOG.info("Index " + plan.getIndexName() + " of " + fragment.getPath() + " (" + fragment.getStartKey() + ", "
+        + fragment.getEndKey() + ") is written to " + indexFile);
+  }
+
+  @Override
+  public void rescan() throws IOException {
+  }
+
+  @Override
+  public void close() throws IOException {
+    progress = 1.0f;
+  }
+
+  @Override
+  public float getProgress() {
+    return progress;
+  }
+}
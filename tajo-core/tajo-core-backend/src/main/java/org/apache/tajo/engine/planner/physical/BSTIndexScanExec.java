@@ -20,10 +20,13 @@ package org.apache.tajo.engine.planner.physical;
 
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.io.IOUtils;
+import org.apache.tajo.catalog.Column;
 import org.apache.tajo.catalog.Schema;
 import org.apache.tajo.datum.Datum;
 import org.apache.tajo.engine.eval.EvalNode;
+import org.apache.tajo.engine.eval.EvalTreeUtil;
 import org.apache.tajo.engine.planner.Projector;
+import org.apache.tajo.engine.planner.Target;
 import org.apache.tajo.engine.planner.logical.ScanNode;
 import org.apache.tajo.storage.*;
 import org.apache.tajo.storage.fragment.FileFragment;
@@ -31,19 +34,34 @@ import org.apache.tajo.storage.index.bst.BSTIndex;
 import org.apache.tajo.worker.TaskAttemptContext;
 
 import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
 
+/**
+ * It reads the rows whose keys are within a key range by following the offsets stored in a BST index.
+ * Rows are read in the order of the index keys, and the search condition of the scan is still applied to
+ * each row.
+ */
 public class BSTIndexScanExec extends PhysicalExec {
   private ScanNode scanNode;
+  private FileFragment fragment;
   private SeekableScanner fileScanner;
   
   private EvalNode qual;
   private BSTIndex.BSTIndexReader reader;
+  private TupleComparator comparator;
   
   private Projector projector;
-  
-  private Datum[] datum = null;
+  private Tuple outTuple;
+
+  private Tuple lowerKey = null;
+  private boolean lowerInclusive;
+  private Tuple upperKey = null;
+  private boolean upperInclusive;
   
   private boolean initialize = true;
+  // the offset of the next row to be read, or -1 if there is no more row
+  private long nextOffset = -1;
 
   private float progress;
 
@@ -51,78 +69,132 @@ public class BSTIndexScanExec extends PhysicalExec {
                           AbstractStorageManager sm , ScanNode scanNode ,
        FileFragment fragment, Path fileName , Schema keySchema,
        TupleComparator comparator , Datum[] datum) throws IOException {
+    this(context, sm, scanNode, fragment, fileName, keySchema, comparator, datum, true, datum, true);
+  }
+
+  /**
+   * @param lowerKey the lower key in the order of the index, or NULL if there is no lower bound
+   * @param upperKey the upper key in the order of the index, or NULL if there is no upper bound
+   */
+  public BSTIndexScanExec(TaskAttemptContext context, AbstractStorageManager sm, ScanNode scanNode,
+                          FileFragment fragment, Path fileName, Schema keySchema, TupleComparator comparator,
+                          Datum[] lowerKey, boolean lowerInclusive, Datum[] upperKey, boolean upperInclusive)
+      throws IOException {
     super(context, scanNode.getInSchema(), scanNode.getOutSchema());
     this.scanNode = scanNode;
+    this.fragment = fragment;
     this.qual = scanNode.getQual();
-    this.datum = datum;
+    this.comparator = comparator;
 
-    this.fileScanner = StorageManagerFactory.getSeekableScanner(context.getConf(),
-        scanNode.getTableDesc().getMeta(), scanNode.getInSchema(), fragment, outSchema);
-    this.fileScanner.init();
-    this.projector = new Projector(inSchema, outSchema, scanNode.getTargets());
+    if (lowerKey != null) {
+      this.lowerKey = new VTuple(lowerKey.length);
+      this.lowerKey.put(lowerKey);
+    }
+    this.lowerInclusive = lowerInclusive;
+    if (upperKey != null) {
+      this.upperKey = new VTuple(upperKey.length);
+      this.upperKey.put(upperKey);
+    }
+    this.upperInclusive = upperInclusive;
 
     this.reader = new BSTIndex(sm.getFileSystem().getConf()).
         getIndexReader(fileName, keySchema, comparator);
-    this.reader.open();
   }
 
   @Override
   public void init() throws IOException {
+    Schema projected;
+    if (scanNode.hasTargets()) {
+      Set<Column> columnSet = new HashSet<Column>();
+      if (scanNode.hasQual()) {
+        columnSet.addAll(EvalTreeUtil.findUniqueColumns(qual));
+      }
+      for (Target t : scanNode.getTargets()) {
+        columnSet.addAll(EvalTreeUtil.findUniqueColumns(t.getEvalTree()));
+      }
+
+      projected = new Schema();
+      for (Column column : inSchema.getColumns()) {
+        if (columnSet.contains(column)) {
+          projected.addColumn(column);
+        }
+      }
+    } else {
+      projected = outSchema;
+    }
+
+    this.fileScanner = StorageManagerFactory.getSeekableScanner(context.getConf(),
+        scanNode.getTableDesc().getMeta(), inSchema, fragment, projected);
+    this.fileScanner.init();
+    this.projector = new Projector(inSchema, outSchema, scanNode.getTargets());
+    this.outTuple = new VTuple(outSchema.size());
+
+    this.reader.open();
     progress = 0.0f;
   }
 
+  /**
+   * @return the offset of the first row within the key range, or -1 if there is no such row.
+   */
+  private long findLowerBound() throws IOException {
+    if (reader.getFirstKey() == null) { // the index is empty
+      return -1;
+    }
+
+    if (lowerKey == null) {
+      return reader.find(reader.getFirstKey());
+    }
+
+    long offset = -1;
+    if (lowerInclusive) {
+      offset = reader.find(lowerKey);
+    }
+    if (offset == -1) {
+      offset = reader.find(lowerKey, true);
+    }
+    return offset;
+  }
+
+  private boolean isBeyondUpperBound(Tuple key) {
+    if (upperKey == null) {
+      return false;
+    }
+    int cmp = comparator.compare(key, upperKey);
+    return upperInclusive ? cmp > 0 : cmp >= 0;
+  }
+
   @Override
   public Tuple next() throws IOException {
-    if(initialize) {
-      //TODO : more complicated condition
-      Tuple key = new VTuple(datum.length);
-      key.put(datum);
-      long offset = reader.find(key);
-      if (offset == -1) {
-        reader.close();
-        fileScanner.close();
-        return null;
-      }else {
-        fileScanner.seek(offset);
-      }
+    if (initialize) {
+      nextOffset = findLowerBound();
       initialize = false;
-    } else {
-      if(!reader.isCurInMemory()) {
-        return null;
-      }
-      long offset = reader.next();
-      if(offset == -1 ) {
-        reader.close();
-        fileScanner.close();
-        return null;
-      } else { 
-      fileScanner.seek(offset);
-      }
     }
+
     Tuple tuple;
-    Tuple outTuple = new VTuple(this.outSchema.size());
-    if (!scanNode.hasQual()) {
-      if ((tuple = fileScanner.next()) != null) {
+    while (nextOffset != -1) {
+      if (isBeyondUpperBound(reader.getCurrentKey())) {
+        nextOffset = -1;
+        break;
+      }
+
+      fileScanner.seek(nextOffset);
+      tuple = fileScanner.next();
+      nextOffset = reader.next();
+
+      if (tuple != null && (qual == null || qual.eval(inSchema, tuple).isTrue())) {
         projector.eval(tuple, outTuple);
         return outTuple;
-      } else {
-        return null;
       }
-    } else {
-       while(reader.isCurInMemory() && (tuple = fileScanner.next()) != null) {
-         if (qual.eval(inSchema, tuple).isTrue()) {
-           projector.eval(tuple, outTuple);
-           return outTuple;
-         } else {
-           fileScanner.seek(reader.next());
-         }
-       }
-     }
+    }
 
+    progress = 1.0f;
     return null;
   }
+
   @Override
   public void rescan() throws IOException {
+    initialize = true;
+    nextOffset = -1;
     fileScanner.reset();
   }
 
@@ -61,6 +61,8 @@ public class BasicPhysicalExecutorVisitor<CONTEXT, RESULT> implements PhysicalEx
       return visitMergeFullOuterJoin(context, (MergeFullOuterJoinExec) exec, stack);
     } else if (exec instanceof MergeJoinExec) {
       return visitMergeJoin(context, (MergeJoinExec) exec, stack);
+    } else if (exec instanceof MorselDrivenExec) {
+      return visitMorselDriven(context, (MorselDrivenExec) exec, stack);
     } else if (exec instanceof NLJoinExec) {
       return visitNLJoin(context, (NLJoinExec) exec, stack);
     } else if (exec instanceof NLLeftOuterJoinExec) {
@@ -205,6 +207,15 @@ public class BasicPhysicalExecutorVisitor<CONTEXT, RESULT> implements PhysicalEx
     return visitBinaryExecutor(context, exec, stack);
   }
 
+  @Override
+  public RESULT visitMorselDriven(CONTEXT context, MorselDrivenExec exec, Stack<PhysicalExec> stack)
+      throws PhysicalPlanningException {
+    stack.push(exec);
+    RESULT r = visit(exec.getPipelines().get(0), stack, context);
+    stack.pop();
+    return r;
+  }
+
   @Override
   public RESULT visitNLJoin(CONTEXT context, NLJoinExec exec, Stack<PhysicalExec> stack) throws
       PhysicalPlanningException {
@@ -46,6 +46,14 @@ public abstract class BinaryPhysicalExec extends PhysicalExec {
     return rightChild;
   }
 
+  public void setLeftChild(PhysicalExec leftChild) {
+    this.leftChild = leftChild;
+  }
+
+  public void setRightChild(PhysicalExec rightChild) {
+    this.rightChild = rightChild;
+  }
+
   @Override
   public void init() throws IOException {
     leftChild.init();
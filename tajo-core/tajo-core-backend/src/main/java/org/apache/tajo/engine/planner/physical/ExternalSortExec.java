@@ -40,6 +40,8 @@ import org.apache.tajo.storage.fragment.FileFragment;
 import org.apache.tajo.storage.fragment.FragmentConvertor;
 import org.apache.tajo.util.FileUtil;
 import org.apache.tajo.util.TUtil;
+import org.apache.tajo.worker.MemoryConsumer;
+import org.apache.tajo.worker.MemoryReservation;
 import org.apache.tajo.worker.TaskAttemptContext;
 
 import java.io.IOException;
@@ -60,7 +62,7 @@ import static org.apache.tajo.storage.RawFile.RawFileScanner;
  *   <li>Unbalance merge if needed</li>
  * </ul>
  */
-public class ExternalSortExec extends SortExec {
+public class ExternalSortExec extends SortExec implements MemoryConsumer {
   /** Class logger */
   private static final Log LOG = LogFactory.getLog(ExternalSortExec.class);
 
@@ -98,6 +100,18 @@ public class ExternalSortExec extends SortExec {
   private Scanner result;
   /** total bytes of input data */
   private long sortAndStoredBytes;
+  /** total bytes of sorted chunks written to disk */
+  private long spilledBytes;
+  /** the largest amount of tuples kept in memory at once */
+  private long peakMemoryBytes;
+
+  /** the memory reserved from the worker for the in-memory table */
+  private final MemoryReservation memory;
+  /** a chunk smaller than it is not spilled by the memory pressure of the worker */
+  private static final long MIN_SPILL_BYTES = 4 * MemoryReservation.RESERVATION_UNIT;
+  /** true while input tuples are loaded into the in-memory table */
+  private volatile boolean loading = false;
+  private volatile boolean spillRequested = false;
 
   private ExternalSortExec(final TaskAttemptContext context, final AbstractStorageManager sm, final SortNode plan)
       throws PhysicalPlanningException {
@@ -115,6 +129,7 @@ public class ExternalSortExec extends SortExec {
     this.allocatedCoreNum = context.getConf().getIntVar(ConfVars.EXECUTOR_EXTERNAL_SORT_THREAD_NUM);
     this.executorService = Executors.newFixedThreadPool(this.allocatedCoreNum);
     this.inMemoryTable = new ArrayList<Tuple>(100000);
+    this.memory = new MemoryReservation(context, this);
 
     this.sortTmpDir = getExecutorTmpDir();
     localDirAllocator = new LocalDirAllocator(ConfVars.WORKER_TEMPORAL_DIR.varname);
@@ -175,6 +190,7 @@ public class ExternalSortExec extends SortExec {
     }
     appender.close();
     tupleBlock.clear();
+    spilledBytes += appender.getOffset();
     long chunkWriteEnd = System.currentTimeMillis();
 
 
@@ -198,20 +214,31 @@ public class ExternalSortExec extends SortExec {
 
     int chunkId = 0;
     long runStartTime = System.currentTimeMillis();
+    loading = true;
     while ((tuple = child.next()) != null) { // partition sort start
       Tuple vtuple = new VTuple(tuple);
       inMemoryTable.add(vtuple);
-      memoryConsumption += MemoryUtil.calculateMemorySize(vtuple);
+      long tupleSize = MemoryUtil.calculateMemorySize(vtuple);
+      memoryConsumption += tupleSize;
 
-      if (memoryConsumption > sortBufferBytesNum) {
+      // the sort buffer is also limited by the memory shared with other operators in the same worker.
+      boolean underPressure = !memory.tryAdd(tupleSize) || spillRequested;
+      if (memoryConsumption > sortBufferBytesNum || (underPressure && memoryConsumption >= MIN_SPILL_BYTES)) {
         long runEndTime = System.currentTimeMillis();
         info(LOG, chunkId + " run loading time: " + (runEndTime - runStartTime) + " msec");
         runStartTime = runEndTime;
 
-        info(LOG, "Memory consumption exceeds " + sortBufferBytesNum + " bytes");
+        if (memoryConsumption > sortBufferBytesNum) {
+          info(LOG, "Memory consumption exceeds " + sortBufferBytesNum + " bytes");
+        } else {
+          info(LOG, "Worker memory is short, so " + memoryConsumption + " bytes are spilled");
+        }
         memoryResident = false;
+        peakMemoryBytes = Math.max(peakMemoryBytes, memoryConsumption);
 
         chunkPaths.add(sortAndStoreChunk(chunkId, inMemoryTable));
+        memory.release();
+        spillRequested = false;
 
         memoryConsumption = 0;
         chunkId++;
@@ -231,12 +258,16 @@ public class ExternalSortExec extends SortExec {
       }
     }
 
+    loading = false;
+    peakMemoryBytes = Math.max(peakMemoryBytes, memoryConsumption);
+
     if (inMemoryTable.size() > 0) { // if there are at least one or more input tuples
       if (!memoryResident) { // check if data exceeds a sort buffer. If so, it store the remain data into a chunk.
         if (inMemoryTable.size() > 0) {
           long start = System.currentTimeMillis();
           int rowNum = inMemoryTable.size();
           chunkPaths.add(sortAndStoreChunk(chunkId, inMemoryTable));
+          memory.release();
           long end = System.currentTimeMillis();
           info(LOG, "Last Chunk #" + chunkId + " " + rowNum + " rows written (" + (end - start) + " msec)");
         }
@@ -599,6 +630,10 @@ public class ExternalSortExec extends SortExec {
     private Tuple leftTuple;
     private Tuple rightTuple;
 
+    // Each source may reuse its tuple for the next row,
+    // so the selected row is copied before its source is advanced.
+    private final Tuple outTuple = new VTuple(inSchema.size());
+
     private final Comparator<Tuple> comparator = getComparator();
 
     private float mergerProgress;
@@ -622,23 +657,25 @@ public class ExternalSortExec extends SortExec {
     }
 
     public Tuple next() throws IOException {
-      Tuple outTuple;
       if (leftTuple != null && rightTuple != null) {
         if (comparator.compare(leftTuple, rightTuple) < 0) {
-          outTuple = leftTuple;
+          outTuple.put(leftTuple.getValues());
           leftTuple = leftScan.next();
         } else {
-          outTuple = rightTuple;
+          outTuple.put(rightTuple.getValues());
           rightTuple = rightScan.next();
         }
         return outTuple;
       }
 
       if (leftTuple == null) {
-        outTuple = rightTuple;
+        if (rightTuple == null) {
+          return null;
+        }
+        outTuple.put(rightTuple.getValues());
         rightTuple = rightScan.next();
       } else {
-        outTuple = leftTuple;
+        outTuple.put(leftTuple.getValues());
         leftTuple = leftScan.next();
       }
       return outTuple;
@@ -722,6 +759,22 @@ public class ExternalSortExec extends SortExec {
     }
   }
 
+  @Override
+  public boolean requestSpill() {
+    // only the tuples being loaded can be spilled.
+    if (loading) {
+      spillRequested = true;
+      return true;
+    }
+    return false;
+  }
+
+  @Override
+  public void profile(OperatorProfile profile) {
+    profile.setSpilledBytes(spilledBytes);
+    profile.setPeakMemoryBytes(peakMemoryBytes);
+  }
+
   @Override
   public void close() throws IOException {
     if (result != null) {
@@ -744,6 +797,7 @@ public class ExternalSortExec extends SortExec {
       inMemoryTable.clear();
       inMemoryTable = null;
     }
+    memory.release();
 
     if(executorService != null){
       executorService.shutdown();
@@ -18,16 +18,18 @@
 
 package org.apache.tajo.engine.planner.physical;
 
+import com.google.common.collect.Iterators;
 import org.apache.tajo.engine.function.FunctionContext;
 import org.apache.tajo.engine.planner.logical.GroupbyNode;
+import org.apache.tajo.storage.MemoryUtil;
 import org.apache.tajo.storage.Tuple;
 import org.apache.tajo.storage.VTuple;
+import org.apache.tajo.util.ClassSize;
+import org.apache.tajo.worker.MemoryReservation;
 import org.apache.tajo.worker.TaskAttemptContext;
 
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.Map;
+import java.util.*;
 import java.util.Map.Entry;
 
 /**
@@ -37,24 +39,31 @@ public class HashAggregateExec extends AggregationExec {
   private Tuple tuple = null;
   private Map<Tuple, FunctionContext[]> hashTable;
   private boolean computed = false;
+  private long hashProbes;
+  // set by another thread to stop the aggregation of a morsel-driven pipeline
+  private volatile boolean cancelled = false;
+  // the memory of the hash table, which cannot be spilled
+  private final MemoryReservation memory;
   private Iterator<Entry<Tuple, FunctionContext []>> iterator = null;
 
   public HashAggregateExec(TaskAttemptContext ctx, GroupbyNode plan, PhysicalExec subOp) throws IOException {
     super(ctx, plan, subOp);
     hashTable = new HashMap<Tuple, FunctionContext []>(100000);
+    this.memory = new MemoryReservation(ctx);
     this.tuple = new VTuple(plan.getOutSchema().size());
   }
 
   private void compute() throws IOException {
     Tuple tuple;
     Tuple keyTuple;
-    while((tuple = child.next()) != null && !context.isStopped()) {
+    while(!cancelled && (tuple = child.next()) != null && !context.isStopped()) {
       keyTuple = new VTuple(groupingKeyIds.length);
       // build one key tuple
       for(int i = 0; i < groupingKeyIds.length; i++) {
         keyTuple.put(i, tuple.get(groupingKeyIds[i]));
       }
       
+      hashProbes++;
       if(hashTable.containsKey(keyTuple)) {
         FunctionContext [] contexts = hashTable.get(keyTuple);
         for(int i = 0; i < aggFunctions.length; i++) {
@@ -67,17 +76,74 @@ public class HashAggregateExec extends AggregationExec {
           aggFunctions[i].merge(contexts[i], inSchema, tuple);
         }
         hashTable.put(keyTuple, contexts);
+        memory.add(MemoryUtil.calculateMemorySize(keyTuple) + aggFunctionsNum * ClassSize.OBJECT);
       }
     }
   }
 
-  @Override
-  public Tuple next() throws IOException {
+  /**
+   * Aggregates all input tuples. In a morsel-driven task, it is called in the thread of each pipeline, and then
+   * the groups of all pipelines are merged by {@link #mergePartition(List, int, int)}.
+   */
+  public void aggregate() throws IOException {
     if(!computed) {
       compute();
       iterator = hashTable.entrySet().iterator();
       computed = true;
     }
+  }
+
+  /**
+   * Stops {@link #aggregate()} running in another thread. The groups aggregated so far are kept.
+   */
+  public void cancel() {
+    cancelled = true;
+  }
+
+  /**
+   * Merges the groups of a partition from the given operators, which aggregate copies of the same plan.
+   * A group belongs to only one partition, so each partition can be merged in a different thread.
+   *
+   * @return The merged groups of the partition
+   */
+  public Map<Tuple, FunctionContext []> mergePartition(List<HashAggregateExec> aggregations, int partition,
+                                                       int numPartitions) {
+    Map<Tuple, FunctionContext []> merged = new HashMap<Tuple, FunctionContext []>();
+    for (HashAggregateExec aggregation : aggregations) {
+      for (Entry<Tuple, FunctionContext []> entry : aggregation.hashTable.entrySet()) {
+        if ((entry.getKey().hashCode() & Integer.MAX_VALUE) % numPartitions != partition) {
+          continue;
+        }
+
+        FunctionContext [] contexts = merged.get(entry.getKey());
+        if (contexts == null) {
+          merged.put(entry.getKey(), entry.getValue());
+        } else {
+          for (int i = 0; i < aggFunctionsNum; i++) {
+            aggFunctions[i].mergeContext(contexts[i], entry.getValue()[i]);
+          }
+        }
+      }
+    }
+    return merged;
+  }
+
+  /**
+   * Makes this operator return the merged groups of all partitions instead of its own groups.
+   */
+  public void setMergedPartitions(List<Map<Tuple, FunctionContext []>> partitions) {
+    List<Iterator<Entry<Tuple, FunctionContext []>>> iterators =
+        new ArrayList<Iterator<Entry<Tuple, FunctionContext []>>>();
+    for (Map<Tuple, FunctionContext []> partition : partitions) {
+      iterators.add(partition.entrySet().iterator());
+    }
+    iterator = Iterators.concat(iterators.iterator());
+    computed = true;
+  }
+
+  @Override
+  public Tuple next() throws IOException {
+    aggregate();
 
     FunctionContext [] contexts;
 
@@ -105,9 +171,16 @@ public class HashAggregateExec extends AggregationExec {
     iterator = hashTable.entrySet().iterator();
   }
 
+  @Override
+  public void profile(OperatorProfile profile) {
+    profile.setHashProbes(hashProbes);
+    profile.setHashTable(hashTable.keySet());
+  }
+
   @Override
   public void close() throws IOException {
     super.close();
+    memory.release();
     hashTable.clear();
     hashTable = null;
     iterator = null;
@@ -78,6 +78,7 @@ public class HashBasedColPartitionStoreExec extends ColPartitionStoreExec {
       appender = StorageManagerFactory.getStorageManager(context.getConf()).getAppender(meta, outSchema, dataFile);
       appender.enableStats();
       appender.init();
+      context.addPartition(partition);
       appenderMap.put(partition, appender);
     } else {
       appender = appenderMap.get(partition);
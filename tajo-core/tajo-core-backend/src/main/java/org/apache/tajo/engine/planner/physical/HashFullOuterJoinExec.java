@@ -25,9 +25,12 @@ import org.apache.tajo.engine.planner.Projector;
 import org.apache.tajo.engine.planner.logical.JoinNode;
 import org.apache.tajo.engine.utils.SchemaUtil;
 import org.apache.tajo.engine.utils.TupleUtil;
+import org.apache.tajo.storage.BinaryTupleBuilder;
 import org.apache.tajo.storage.FrameTuple;
+import org.apache.tajo.storage.MemoryUtil;
 import org.apache.tajo.storage.Tuple;
 import org.apache.tajo.storage.VTuple;
+import org.apache.tajo.worker.MemoryReservation;
 import org.apache.tajo.worker.TaskAttemptContext;
 
 import java.io.IOException;
@@ -46,6 +49,9 @@ public class HashFullOuterJoinExec extends BinaryPhysicalExec {
   protected FrameTuple frameTuple;
   protected Tuple outTuple = null;
   protected Map<Tuple, List<Tuple>> tupleSlots;
+  protected long hashProbes;
+  // the memory of the hash table, which cannot be spilled
+  protected final MemoryReservation memory;
   protected Iterator<Tuple> iterator = null;
   protected Tuple leftTuple;
   protected Tuple leftKeyTuple;
@@ -58,6 +64,8 @@ public class HashFullOuterJoinExec extends BinaryPhysicalExec {
 
   // projection
   protected final Projector projector;
+  // the rows of the build side are packed if all their types are supported. Otherwise, it is NULL.
+  protected final BinaryTupleBuilder rightTupleBuilder;
 
   private int rightNumCols;
   private int leftNumCols;
@@ -70,6 +78,7 @@ public class HashFullOuterJoinExec extends BinaryPhysicalExec {
     this.plan = plan;
     this.joinQual = plan.getJoinQual();
     this.tupleSlots = new HashMap<Tuple, List<Tuple>>(10000);
+    this.memory = new MemoryReservation(context);
 
     // this hashmap mirrors the evolution of the tupleSlots, with the same keys. For each join key,
     // we have a boolean flag, initially false (whether this join key had at least one match on the left operand)
@@ -91,6 +100,8 @@ public class HashFullOuterJoinExec extends BinaryPhysicalExec {
 
     // for projection
     this.projector = new Projector(inSchema, outSchema, plan.getTargets());
+    this.rightTupleBuilder = BinaryTupleBuilder.isSupported(inner.getSchema()) ?
+        new BinaryTupleBuilder(inner.getSchema()) : null;
 
     // for join
     frameTuple = new FrameTuple();
@@ -159,6 +170,7 @@ public class HashFullOuterJoinExec extends BinaryPhysicalExec {
 
         // getting corresponding right
         getKeyLeftTuple(leftTuple, leftKeyTuple); // get a left key tuple
+        hashProbes++;
         if (tupleSlots.containsKey(leftKeyTuple)) { // finds right tuples on in-memory hash table.
           iterator = tupleSlots.get(leftKeyTuple).iterator();
           shouldGetLeftTuple = false;
@@ -207,6 +219,10 @@ public class HashFullOuterJoinExec extends BinaryPhysicalExec {
         keyTuple.put(i, tuple.get(rightKeyList[i]));
       }
 
+      // the child may reuse the tuple for the next row. A packed row has fewer objects and its exact size.
+      tuple = rightTupleBuilder != null ? rightTupleBuilder.build(tuple) : new VTuple(tuple);
+      memory.add(MemoryUtil.calculateMemorySize(tuple));
+
       if (tupleSlots.containsKey(keyTuple)) {
         newValue = tupleSlots.get(keyTuple);
         newValue.add(tuple);
@@ -226,6 +242,7 @@ public class HashFullOuterJoinExec extends BinaryPhysicalExec {
     super.rescan();
 
     tupleSlots.clear();
+    memory.release();
     first = true;
 
     finished = false;
@@ -233,9 +250,16 @@ public class HashFullOuterJoinExec extends BinaryPhysicalExec {
     shouldGetLeftTuple = true;
   }
 
+  @Override
+  public void profile(OperatorProfile profile) {
+    profile.setHashProbes(hashProbes);
+    profile.setHashTable(tupleSlots.keySet());
+  }
+
   @Override
   public void close() throws IOException {
     super.close();
+    memory.release();
     tupleSlots.clear();
     matched.clear();
     tupleSlots = null;
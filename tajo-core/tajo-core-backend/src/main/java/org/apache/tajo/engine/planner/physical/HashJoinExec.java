@@ -19,14 +19,21 @@
 package org.apache.tajo.engine.planner.physical;
 
 import org.apache.tajo.catalog.Column;
+import org.apache.tajo.catalog.statistics.TableStats;
+import org.apache.tajo.conf.TajoConf.ConfVars;
 import org.apache.tajo.engine.eval.EvalNode;
 import org.apache.tajo.engine.planner.PlannerUtil;
 import org.apache.tajo.engine.planner.Projector;
+import org.apache.tajo.engine.planner.enforce.Enforcer;
 import org.apache.tajo.engine.planner.logical.JoinNode;
 import org.apache.tajo.engine.utils.SchemaUtil;
+import org.apache.tajo.storage.BinaryTupleBuilder;
 import org.apache.tajo.storage.FrameTuple;
+import org.apache.tajo.storage.MemoryUtil;
 import org.apache.tajo.storage.Tuple;
 import org.apache.tajo.storage.VTuple;
+import org.apache.tajo.worker.BroadcastTableCache;
+import org.apache.tajo.worker.MemoryReservation;
 import org.apache.tajo.worker.TaskAttemptContext;
 
 import java.io.IOException;
@@ -44,6 +51,15 @@ public class HashJoinExec extends BinaryPhysicalExec {
   protected FrameTuple frameTuple;
   protected Tuple outTuple = null;
   protected Map<Tuple, List<Tuple>> tupleSlots;
+  protected long hashProbes;
+  // the memory of the hash table, which cannot be spilled
+  protected final MemoryReservation memory;
+  // true if the hash table is built by another operator in a morsel-driven task
+  protected boolean sharedHashTable = false;
+  // the key of the hash table in the broadcast table cache. NULL if the right child does not scan a broadcast table.
+  protected final BroadcastTableCache.Key broadcastKey;
+  // true if the hash table is taken from the broadcast table cache
+  protected boolean cachedHashTable = false;
   protected Iterator<Tuple> iterator = null;
   protected Tuple leftTuple;
   protected Tuple leftKeyTuple;
@@ -56,6 +72,8 @@ public class HashJoinExec extends BinaryPhysicalExec {
 
   // projection
   protected final Projector projector;
+  // the rows of the build side are packed if all their types are supported. Otherwise, it is NULL.
+  protected final BinaryTupleBuilder rightTupleBuilder;
 
   public HashJoinExec(TaskAttemptContext context, JoinNode plan, PhysicalExec leftExec,
       PhysicalExec rightExec) {
@@ -64,6 +82,7 @@ public class HashJoinExec extends BinaryPhysicalExec {
     this.plan = plan;
     this.joinQual = plan.getJoinQual();
     this.tupleSlots = new HashMap<Tuple, List<Tuple>>(10000);
+    this.memory = new MemoryReservation(context);
 
     this.joinKeyPairs = PlannerUtil.getJoinKeyPairs(joinQual,
         leftExec.getSchema(), rightExec.getSchema());
@@ -81,11 +100,85 @@ public class HashJoinExec extends BinaryPhysicalExec {
 
     // for projection
     this.projector = new Projector(inSchema, outSchema, plan.getTargets());
+    this.rightTupleBuilder = BinaryTupleBuilder.isSupported(rightExec.getSchema()) ?
+        new BinaryTupleBuilder(rightExec.getSchema()) : null;
 
     // for join
     frameTuple = new FrameTuple();
     outTuple = new VTuple(outSchema.size());
     leftKeyTuple = new VTuple(leftKeyList.length);
+
+    broadcastKey = getBroadcastKey(context, plan, rightExec);
+  }
+
+  private static BroadcastTableCache.Key getBroadcastKey(TaskAttemptContext context, JoinNode plan,
+                                                         PhysicalExec rightExec) {
+    if (!context.getConf().getBoolVar(ConfVars.EXECUTOR_BROADCAST_TABLE_CACHE_ENABLED)
+        || !(rightExec instanceof SeqScanExec)) {
+      return null;
+    }
+
+    SeqScanExec scan = (SeqScanExec) rightExec;
+    Enforcer enforcer = context.getEnforcer();
+    if (enforcer == null || !enforcer.isBroadcastTable(scan.getCanonicalName())) {
+      return null;
+    }
+    return new BroadcastTableCache.Key(context.getTaskId().getQueryUnitId().getExecutionBlockId(), plan.getPID(),
+        Arrays.asList(scan.getFragments()));
+  }
+
+  /**
+   * Builds the hash table from the right child before this operator is shared by other pipelines.
+   */
+  public void buildHashTable() throws IOException {
+    if (first) {
+      loadRightToHashTable();
+    }
+  }
+
+  /**
+   * Makes this operator probe the hash table built by another operator of the same plan. It should be called
+   * before {@link #init()}. Since the hash table is only read after it is built, pipelines running in different
+   * threads can probe it at the same time. The right child of this operator is never executed.
+   */
+  public void shareHashTable(HashJoinExec builder) {
+    this.tupleSlots = builder.tupleSlots;
+    this.sharedHashTable = true;
+    this.first = false;
+  }
+
+  @Override
+  public void init() throws IOException {
+    if (sharedHashTable) {
+      leftChild.init();
+      inputStats = new TableStats();
+    } else {
+      super.init();
+      if (broadcastKey != null) {
+        acquireCachedHashTable();
+      }
+    }
+  }
+
+  /**
+   * Takes the hash table of the broadcast table from the cache of the worker. This operator builds it
+   * only if no other task of the same execution block has built it.
+   */
+  private void acquireCachedHashTable() throws IOException {
+    tupleSlots = BroadcastTableCache.getInstance(context.getConf()).acquire(broadcastKey,
+        new BroadcastTableCache.Loader() {
+          @Override
+          public long load(Map<Tuple, List<Tuple>> table) throws IOException {
+            tupleSlots = table;
+            loadRightToHashTable();
+            long bytes = memory.getUsed();
+            // the memory is reserved by the cache from now on
+            memory.release();
+            return bytes;
+          }
+        });
+    cachedHashTable = true;
+    first = false;
   }
 
   protected void getKeyLeftTuple(final Tuple outerTuple, Tuple keyTuple) {
@@ -114,6 +207,7 @@ public class HashJoinExec extends BinaryPhysicalExec {
 
         // getting corresponding right
         getKeyLeftTuple(leftTuple, leftKeyTuple); // get a left key tuple
+        hashProbes++;
         if (tupleSlots.containsKey(leftKeyTuple)) { // finds right tuples on in-memory hash table.
           iterator = tupleSlots.get(leftKeyTuple).iterator();
           shouldGetLeftTuple = false;
@@ -154,6 +248,10 @@ public class HashJoinExec extends BinaryPhysicalExec {
         keyTuple.put(i, tuple.get(rightKeyList[i]));
       }
 
+      // the child may reuse the tuple for the next row. A packed row has fewer objects and its exact size.
+      tuple = rightTupleBuilder != null ? rightTupleBuilder.build(tuple) : new VTuple(tuple);
+      memory.add(MemoryUtil.calculateMemorySize(tuple));
+
       if (tupleSlots.containsKey(keyTuple)) {
         newValue = tupleSlots.get(keyTuple);
         newValue.add(tuple);
@@ -171,20 +269,45 @@ public class HashJoinExec extends BinaryPhysicalExec {
   public void rescan() throws IOException {
     super.rescan();
 
-    tupleSlots.clear();
-    first = true;
+    // the cached hash table is not rebuilt
+    if (!cachedHashTable) {
+      tupleSlots.clear();
+      memory.release();
+      first = true;
+    }
 
     finished = false;
     iterator = null;
     shouldGetLeftTuple = true;
   }
 
+  @Override
+  public void profile(OperatorProfile profile) {
+    profile.setHashProbes(hashProbes);
+    profile.setHashTable(tupleSlots.keySet());
+  }
+
   @Override
   public void close() throws IOException {
-    super.close();
-    if (tupleSlots != null) {
-      tupleSlots.clear();
+    if (sharedHashTable) {
+      // the hash table is cleared by the operator which has built it.
+      leftChild.close();
+      inputStats = leftChild.getInputStats();
+      leftChild = null;
+      rightChild = null;
+      progress = 1.0f;
       tupleSlots = null;
+    } else {
+      super.close();
+      memory.release();
+      if (cachedHashTable) {
+        // the cached hash table is shared by other tasks
+        BroadcastTableCache.getInstance(context.getConf()).release(broadcastKey);
+        tupleSlots = null;
+      } else if (tupleSlots != null) {
+        tupleSlots.clear();
+        tupleSlots = null;
+      }
     }
 
     iterator = null;
@@ -192,6 +315,22 @@ public class HashJoinExec extends BinaryPhysicalExec {
     joinQual = null;
   }
 
+  @Override
+  public float getProgress() {
+    if (sharedHashTable) {
+      return leftChild == null ? progress : leftChild.getProgress();
+    }
+    return super.getProgress();
+  }
+
+  @Override
+  public TableStats getInputStats() {
+    if (sharedHashTable) {
+      return leftChild == null ? inputStats : leftChild.getInputStats();
+    }
+    return super.getInputStats();
+  }
+
   public JoinNode getPlan() {
     return this.plan;
   }
@@ -38,8 +38,8 @@ public class HashLeftAntiJoinExec extends HashJoinExec {
                               PhysicalExec notInSideChild) {
     super(context, plan, fromSideChild, notInSideChild);
     // NUll Tuple
-    rightNullTuple = new VTuple(leftChild.outColumnNum);
-    for (int i = 0; i < leftChild.outColumnNum; i++) {
+    rightNullTuple = new VTuple(rightChild.outColumnNum);
+    for (int i = 0; i < rightChild.outColumnNum; i++) {
       rightNullTuple.put(i, NullDatum.get());
     }
   }
@@ -74,6 +74,7 @@ public class HashLeftAntiJoinExec extends HashJoinExec {
 
       // Try to find a hash bucket in in-memory hash table
       getKeyLeftTuple(leftTuple, leftKeyTuple);
+      hashProbes++;
       if (tupleSlots.containsKey(leftKeyTuple)) {
         // if found, it gets a hash bucket from the hash table.
         iterator = tupleSlots.get(leftKeyTuple).iterator();
@@ -27,9 +27,12 @@ import org.apache.tajo.engine.planner.Projector;
 import org.apache.tajo.engine.planner.logical.JoinNode;
 import org.apache.tajo.engine.utils.SchemaUtil;
 import org.apache.tajo.engine.utils.TupleUtil;
+import org.apache.tajo.storage.BinaryTupleBuilder;
 import org.apache.tajo.storage.FrameTuple;
+import org.apache.tajo.storage.MemoryUtil;
 import org.apache.tajo.storage.Tuple;
 import org.apache.tajo.storage.VTuple;
+import org.apache.tajo.worker.MemoryReservation;
 import org.apache.tajo.worker.TaskAttemptContext;
 
 import java.io.IOException;
@@ -48,6 +51,9 @@ public class HashLeftOuterJoinExec extends BinaryPhysicalExec {
   protected FrameTuple frameTuple;
   protected Tuple outTuple = null;
   protected Map<Tuple, List<Tuple>> tupleSlots;
+  protected long hashProbes;
+  // the memory of the hash table, which cannot be spilled
+  protected final MemoryReservation memory;
   protected Iterator<Tuple> iterator = null;
   protected Tuple leftTuple;
   protected Tuple leftKeyTuple;
@@ -60,6 +66,8 @@ public class HashLeftOuterJoinExec extends BinaryPhysicalExec {
 
   // projection
   protected Projector projector;
+  // the rows of the build side are packed if all their types are supported. Otherwise, it is NULL.
+  protected BinaryTupleBuilder rightTupleBuilder;
 
   private int rightNumCols;
   private static final Log LOG = LogFactory.getLog(HashLeftOuterJoinExec.class);
@@ -71,6 +79,7 @@ public class HashLeftOuterJoinExec extends BinaryPhysicalExec {
     this.plan = plan;
     this.joinQual = plan.getJoinQual();
     this.tupleSlots = new HashMap<Tuple, List<Tuple>>(10000);
+    this.memory = new MemoryReservation(context);
 
     this.joinKeyPairs = PlannerUtil.getJoinKeyPairs(joinQual, leftChild.getSchema(), rightChild.getSchema());
 
@@ -87,6 +96,8 @@ public class HashLeftOuterJoinExec extends BinaryPhysicalExec {
 
     // for projection
     this.projector = new Projector(inSchema, outSchema, plan.getTargets());
+    this.rightTupleBuilder = BinaryTupleBuilder.isSupported(rightChild.getSchema()) ?
+        new BinaryTupleBuilder(rightChild.getSchema()) : null;
 
     // for join
     frameTuple = new FrameTuple();
@@ -122,6 +133,7 @@ public class HashLeftOuterJoinExec extends BinaryPhysicalExec {
 
         // getting corresponding right
         getKeyLeftTuple(leftTuple, leftKeyTuple); // get a left key tuple
+        hashProbes++;
         if (tupleSlots.containsKey(leftKeyTuple)) { // finds right tuples on in-memory hash table.
           iterator = tupleSlots.get(leftKeyTuple).iterator();
           shouldGetLeftTuple = false;
@@ -167,6 +179,10 @@ public class HashLeftOuterJoinExec extends BinaryPhysicalExec {
         keyTuple.put(i, tuple.get(rightKeyList[i]));
       }
 
+      // the child may reuse the tuple for the next row. A packed row has fewer objects and its exact size.
+      tuple = rightTupleBuilder != null ? rightTupleBuilder.build(tuple) : new VTuple(tuple);
+      memory.add(MemoryUtil.calculateMemorySize(tuple));
+
       if (tupleSlots.containsKey(keyTuple)) {
         newValue = tupleSlots.get(keyTuple);
         newValue.add(tuple);
@@ -185,6 +201,7 @@ public class HashLeftOuterJoinExec extends BinaryPhysicalExec {
     super.rescan();
 
     tupleSlots.clear();
+    memory.release();
     first = true;
 
     finished = false;
@@ -193,9 +210,16 @@ public class HashLeftOuterJoinExec extends BinaryPhysicalExec {
   }
 
 
+  @Override
+  public void profile(OperatorProfile profile) {
+    profile.setHashProbes(hashProbes);
+    profile.setHashTable(tupleSlots.keySet());
+  }
+
   @Override
   public void close() throws IOException {
     super.close();
+    memory.release();
     tupleSlots.clear();
     tupleSlots = null;
     iterator = null;
@@ -76,6 +76,7 @@ public class HashLeftSemiJoinExec extends HashJoinExec {
 
       // Try to find a hash bucket in in-memory hash table
       getKeyLeftTuple(leftTuple, leftKeyTuple);
+      hashProbes++;
       if (tupleSlots.containsKey(leftKeyTuple)) {
         // if found, it gets a hash bucket from the hash table.
         iterator = tupleSlots.get(leftKeyTuple).iterator();
@@ -20,6 +20,7 @@ package org.apache.tajo.engine.planner.physical;
 
 import org.apache.tajo.worker.TaskAttemptContext;
 import org.apache.tajo.engine.planner.logical.SortNode;
+import org.apache.tajo.storage.MemoryUtil;
 import org.apache.tajo.storage.Tuple;
 import org.apache.tajo.storage.VTuple;
 
@@ -74,6 +75,15 @@ public class MemSortExec extends SortExec {
     sorted = true;
   }
 
+  @Override
+  public void profile(OperatorProfile profile) {
+    long memoryBytes = 0;
+    for (Tuple tuple : tupleSlots) {
+      memoryBytes += MemoryUtil.calculateMemorySize(tuple);
+    }
+    profile.setPeakMemoryBytes(memoryBytes);
+  }
+
   @Override
   public void close() throws IOException {
     super.close();
@@ -0,0 +1,335 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.planner.physical;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.tajo.catalog.statistics.TableStats;
+import org.apache.tajo.engine.function.FunctionContext;
+import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.storage.VTuple;
+import org.apache.tajo.storage.fragment.FileFragment;
+import org.apache.tajo.worker.PipelineExecutor;
+import org.apache.tajo.worker.TaskAttemptContext;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * MorselDrivenExec runs copies of a pipeline in the threads of {@link PipelineExecutor}. A pipeline consists of
+ * a scan, selections, projections and the probe sides of hash joins, and it may end with a hash aggregation.
+ * The scan of each pipeline takes morsels, which are small ranges of the fragments of a task, from a shared queue.
+ *
+ * <ul>
+ *   <li>The hash tables of joins are built once by the first pipeline, and other pipelines probe them.</li>
+ *   <li>If pipelines end with hash aggregations, their groups are merged by partitions in parallel at the end.
+ *   Otherwise, the output tuples of pipelines are passed to this operator in batches.</li>
+ * </ul>
+ */
+public class MorselDrivenExec extends PhysicalExec {
+  private static final Log LOG = LogFactory.getLog(MorselDrivenExec.class);
+  private static final int BATCH_SIZE = 1024;
+  private static final long POLL_INTERVAL_MS = 100;
+
+  private final List<PhysicalExec> pipelines;
+  private final Queue<FileFragment> morsels;
+  private final int morselNum;
+  private final boolean aggregation;
+
+  private final BlockingQueue<List<Tuple>> batches;
+  private final List<Future<Object>> futures = new ArrayList<Future<Object>>();
+  private final AtomicInteger runningPipelines = new AtomicInteger(0);
+  private final AtomicReference<Throwable> error = new AtomicReference<Throwable>();
+  private volatile boolean cancelled = false;
+
+  private List<Tuple> currentBatch;
+  private int batchIdx;
+  private boolean merged = false;
+  private TableStats inputStats;
+
+  /**
+   * @param pipelines The copies of a pipeline whose scans read the given morsels
+   * @param morsels The morsels shared by all pipelines
+   */
+  public MorselDrivenExec(TaskAttemptContext context, List<PhysicalExec> pipelines, Queue<FileFragment> morsels) {
+    super(context, pipelines.get(0).inSchema, pipelines.get(0).getSchema());
+    this.pipelines = pipelines;
+    this.morsels = morsels;
+    this.morselNum = morsels.size();
+    this.aggregation = pipelines.get(0) instanceof HashAggregateExec;
+    this.batches = new ArrayBlockingQueue<List<Tuple>>(pipelines.size() * 4);
+  }
+
+  public List<PhysicalExec> getPipelines() {
+    return pipelines;
+  }
+
+  @Override
+  public void init() throws IOException {
+    PhysicalExec first = pipelines.get(0);
+    first.init();
+
+    List<HashJoinExec> builders = findHashJoins(first);
+    for (HashJoinExec builder : builders) {
+      builder.buildHashTable();
+    }
+    for (int i = 1; i < pipelines.size(); i++) {
+      List<HashJoinExec> joins = findHashJoins(pipelines.get(i));
+      for (int j = 0; j < joins.size(); j++) {
+        joins.get(j).shareHashTable(builders.get(j));
+      }
+      pipelines.get(i).init();
+    }
+
+    PipelineExecutor executor = PipelineExecutor.getInstance(context.getConf());
+    runningPipelines.set(pipelines.size());
+    for (PhysicalExec pipeline : pipelines) {
+      futures.add(executor.submit(new PipelineRunner(pipeline)));
+    }
+  }
+
+  /**
+   * @return The hash joins on the path from the root of a pipeline to its scan
+   */
+  private static List<HashJoinExec> findHashJoins(PhysicalExec pipeline) {
+    List<HashJoinExec> joins = new ArrayList<HashJoinExec>();
+    PhysicalExec exec = pipeline;
+    while (exec != null) {
+      if (exec instanceof HashJoinExec) {
+        joins.add((HashJoinExec) exec);
+        exec = ((HashJoinExec) exec).getLeftChild();
+      } else if (exec instanceof UnaryPhysicalExec) {
+        exec = ((UnaryPhysicalExec) exec).getChild();
+      } else {
+        break;
+      }
+    }
+    return joins;
+  }
+
+  private class PipelineRunner implements Callable<Object> {
+    private final PhysicalExec pipeline;
+
+    PipelineRunner(PhysicalExec pipeline) {
+      this.pipeline = pipeline;
+    }
+
+    @Override
+    public Object call() throws Exception {
+      try {
+        if (aggregation) {
+          ((HashAggregateExec) pipeline).aggregate();
+        } else {
+          List<Tuple> batch = new ArrayList<Tuple>(BATCH_SIZE);
+          Tuple tuple;
+          while (!cancelled && !context.isStopped() && (tuple = pipeline.next()) != null) {
+            // operators reuse their output tuple
+            batch.add(new VTuple(tuple));
+            if (batch.size() == BATCH_SIZE) {
+              emit(batch);
+              batch = new ArrayList<Tuple>(BATCH_SIZE);
+            }
+          }
+          if (!batch.isEmpty()) {
+            emit(batch);
+          }
+        }
+      } catch (Throwable t) {
+        error.compareAndSet(null, t);
+        cancel();
+      } finally {
+        runningPipelines.decrementAndGet();
+      }
+      return null;
+    }
+
+    private void emit(List<Tuple> batch) throws InterruptedException {
+      while (!cancelled && !batches.offer(batch, POLL_INTERVAL_MS, TimeUnit.MILLISECONDS)) {
+      }
+    }
+  }
+
+  /**
+   * Stops all pipelines. Scans do not take more morsels, and aggregations stop at the next tuple.
+   */
+  private void cancel() {
+    cancelled = true;
+    morsels.clear();
+    if (aggregation) {
+      for (PhysicalExec pipeline : pipelines) {
+        ((HashAggregateExec) pipeline).cancel();
+      }
+    }
+  }
+
+  @Override
+  public Tuple next() throws IOException {
+    if (aggregation) {
+      if (!merged) {
+        mergeAggregations();
+        merged = true;
+      }
+      return pipelines.get(0).next();
+    }
+
+    while (currentBatch == null || batchIdx >= currentBatch.size()) {
+      currentBatch = takeBatch();
+      batchIdx = 0;
+      if (currentBatch == null) {
+        return null;
+      }
+    }
+    return currentBatch.get(batchIdx++);
+  }
+
+  private List<Tuple> takeBatch() throws IOException {
+    try {
+      while (true) {
+        checkError();
+        // a pipeline adds its last batch before it finishes, so the batch is visible if no pipeline is running.
+        boolean finished = runningPipelines.get() == 0;
+        List<Tuple> batch = batches.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        if (batch != null) {
+          return batch;
+        } else if (finished) {
+          return null;
+        }
+      }
+    } catch (InterruptedException e) {
+      throw new IOException(e);
+    }
+  }
+
+  /**
+   * Merges the groups of all pipelines. Each partition of groups is merged in a different thread.
+   */
+  private void mergeAggregations() throws IOException {
+    for (Future<Object> future : futures) {
+      waitFor(future);
+    }
+    checkError();
+
+    final List<HashAggregateExec> aggregations = new ArrayList<HashAggregateExec>();
+    for (PhysicalExec pipeline : pipelines) {
+      aggregations.add((HashAggregateExec) pipeline);
+    }
+
+    PipelineExecutor executor = PipelineExecutor.getInstance(context.getConf());
+    List<Future<Map<Tuple, FunctionContext []>>> merges = new ArrayList<Future<Map<Tuple, FunctionContext []>>>();
+    for (int i = 0; i < aggregations.size(); i++) {
+      final int partition = i;
+      merges.add(executor.submit(new Callable<Map<Tuple, FunctionContext []>>() {
+        @Override
+        public Map<Tuple, FunctionContext []> call() throws Exception {
+          return aggregations.get(partition).mergePartition(aggregations, partition, aggregations.size());
+        }
+      }));
+    }
+
+    List<Map<Tuple, FunctionContext []>> partitions = new ArrayList<Map<Tuple, FunctionContext []>>();
+    for (Future<Map<Tuple, FunctionContext []>> merge : merges) {
+      partitions.add(waitFor(merge));
+    }
+    aggregations.get(0).setMergedPartitions(partitions);
+  }
+
+  private static <T> T waitFor(Future<T> future) throws IOException {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      throw new IOException(e);
+    } catch (ExecutionException e) {
+      throw new IOException(e.getCause());
+    }
+  }
+
+  private void checkError() throws IOException {
+    Throwable t = error.get();
+    if (t != null) {
+      if (t instanceof IOException) {
+        throw (IOException) t;
+      }
+      throw new IOException(t);
+    }
+  }
+
+  /**
+   * Morsels consumed by pipelines cannot be read again.
+   */
+  @Override
+  public void rescan() throws IOException {
+    throw new UnsupportedOperationException("MorselDrivenExec cannot be rescanned");
+  }
+
+  @Override
+  public void close() throws IOException {
+    // pipelines stop soon, so it does not wait for all morsels to be processed.
+    cancel();
+    for (Future<Object> future : futures) {
+      try {
+        waitFor(future);
+      } catch (IOException e) {
+        LOG.warn(e.getMessage(), e);
+      }
+    }
+    batches.clear();
+    currentBatch = null;
+
+    // the first pipeline should be closed last because it owns the hash tables shared by other pipelines.
+    for (int i = pipelines.size() - 1; i >= 0; i--) {
+      pipelines.get(i).close();
+    }
+    inputStats = sumInputStats();
+  }
+
+  @Override
+  public float getProgress() {
+    if (morselNum == 0) {
+      return 1.0f;
+    }
+    return (float) (morselNum - morsels.size()) / morselNum;
+  }
+
+  @Override
+  public TableStats getInputStats() {
+    if (inputStats != null) {
+      return inputStats;
+    }
+    return sumInputStats();
+  }
+
+  private TableStats sumInputStats() {
+    TableStats sum = new TableStats();
+    for (PhysicalExec pipeline : pipelines) {
+      TableStats stats = pipeline.getInputStats();
+      if (stats != null) {
+        sum.setNumBytes(sum.getNumBytes() + stats.getNumBytes());
+        sum.setReadBytes(sum.getReadBytes() + stats.getReadBytes());
+        sum.setNumRows(sum.getNumRows() + stats.getNumRows());
+      }
+    }
+    return sum;
+  }
+}
@@ -0,0 +1,238 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.planner.physical;
+
+import org.apache.tajo.common.ProtoObject;
+import org.apache.tajo.util.FileUtil;
+
+import java.util.*;
+
+import static org.apache.tajo.ipc.TajoWorkerProtocol.OperatorProfileProto;
+
+/**
+ * The runtime statistics of a physical operator in a profiled query. The profiles of the same operator in
+ * several tasks can be merged into one.
+ */
+public class OperatorProfile implements ProtoObject<OperatorProfileProto> {
+  private final int id;
+  private final int depth;
+  private final String name;
+  private int numTasks = 1;
+
+  private long inputRows;
+  private long outputRows;
+  private long elapsedNanos;
+  private long spilledBytes;
+  private long peakMemoryBytes;
+  private long hashProbes;
+  private long hashEntries;
+  private long hashCollisions;
+
+  public OperatorProfile(int id, int depth, String name) {
+    this.id = id;
+    this.depth = depth;
+    this.name = name;
+  }
+
+  public OperatorProfile(OperatorProfileProto proto) {
+    this(proto.getId(), proto.getDepth(), proto.getName());
+    this.numTasks = proto.getNumTasks();
+    this.inputRows = proto.getInputRows();
+    this.outputRows = proto.getOutputRows();
+    this.elapsedNanos = proto.getElapsedNanos();
+    this.spilledBytes = proto.getSpilledBytes();
+    this.peakMemoryBytes = proto.getPeakMemoryBytes();
+    this.hashProbes = proto.getHashProbes();
+    this.hashEntries = proto.getHashEntries();
+    this.hashCollisions = proto.getHashCollisions();
+  }
+
+  public int getId() {
+    return id;
+  }
+
+  public int getDepth() {
+    return depth;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public int getNumTasks() {
+    return numTasks;
+  }
+
+  public long getInputRows() {
+    return inputRows;
+  }
+
+  public void setInputRows(long inputRows) {
+    this.inputRows = inputRows;
+  }
+
+  public long getOutputRows() {
+    return outputRows;
+  }
+
+  public void setOutputRows(long outputRows) {
+    this.outputRows = outputRows;
+  }
+
+  public long getElapsedNanos() {
+    return elapsedNanos;
+  }
+
+  public void setElapsedNanos(long elapsedNanos) {
+    this.elapsedNanos = elapsedNanos;
+  }
+
+  public long getSpilledBytes() {
+    return spilledBytes;
+  }
+
+  public void setSpilledBytes(long spilledBytes) {
+    this.spilledBytes = spilledBytes;
+  }
+
+  public long getPeakMemoryBytes() {
+    return peakMemoryBytes;
+  }
+
+  public void setPeakMemoryBytes(long peakMemoryBytes) {
+    this.peakMemoryBytes = peakMemoryBytes;
+  }
+
+  public long getHashProbes() {
+    return hashProbes;
+  }
+
+  public void setHashProbes(long hashProbes) {
+    this.hashProbes = hashProbes;
+  }
+
+  public long getHashEntries() {
+    return hashEntries;
+  }
+
+  public long getHashCollisions() {
+    return hashCollisions;
+  }
+
+  /**
+   * Sets the number of entries and the number of hash code collisions of a hash table.
+   *
+   * @param keys The keys of a hash table
+   */
+  public void setHashTable(Collection<?> keys) {
+    Set<Integer> hashCodes = new HashSet<Integer>(keys.size());
+    for (Object key : keys) {
+      hashCodes.add(key.hashCode());
+    }
+    this.hashEntries = keys.size();
+    this.hashCollisions = keys.size() - hashCodes.size();
+  }
+
+  /**
+   * Adds the statistics of the same operator in another task.
+   */
+  public void merge(OperatorProfile other) {
+    numTasks += other.numTasks;
+    inputRows += other.inputRows;
+    outputRows += other.outputRows;
+    elapsedNanos += other.elapsedNanos;
+    spilledBytes += other.spilledBytes;
+    peakMemoryBytes = Math.max(peakMemoryBytes, other.peakMemoryBytes);
+    hashProbes += other.hashProbes;
+    hashEntries += other.hashEntries;
+    hashCollisions += other.hashCollisions;
+  }
+
+  /**
+   * Merges the operator profiles of tasks. The tasks of an execution block may choose different physical
+   * operators for the same logical plan, so an operator is identified by both its position and its name.
+   *
+   * @return The merged profiles in the pre-order of the physical plan
+   */
+  public static List<OperatorProfile> aggregate(Collection<List<OperatorProfileProto>> taskProfiles) {
+    Map<String, OperatorProfile> merged = new LinkedHashMap<String, OperatorProfile>();
+    for (List<OperatorProfileProto> eachTask : taskProfiles) {
+      for (OperatorProfileProto proto : eachTask) {
+        String key = proto.getId() + "_" + proto.getName();
+        OperatorProfile profile = merged.get(key);
+        if (profile == null) {
+          merged.put(key, new OperatorProfile(proto));
+        } else {
+          profile.merge(new OperatorProfile(proto));
+        }
+      }
+    }
+
+    List<OperatorProfile> profiles = new ArrayList<OperatorProfile>(merged.values());
+    Collections.sort(profiles, new Comparator<OperatorProfile>() {
+      @Override
+      public int compare(OperatorProfile p1, OperatorProfile p2) {
+        return p1.id - p2.id;
+      }
+    });
+    return profiles;
+  }
+
+  @Override
+  public OperatorProfileProto getProto() {
+    OperatorProfileProto.Builder builder = OperatorProfileProto.newBuilder();
+    builder.setId(id);
+    builder.setDepth(depth);
+    builder.setName(name);
+    builder.setNumTasks(numTasks);
+    builder.setInputRows(inputRows);
+    builder.setOutputRows(outputRows);
+    builder.setElapsedNanos(elapsedNanos);
+    builder.setSpilledBytes(spilledBytes);
+    builder.setPeakMemoryBytes(peakMemoryBytes);
+    builder.setHashProbes(hashProbes);
+    builder.setHashEntries(hashEntries);
+    builder.setHashCollisions(hashCollisions);
+    return builder.build();
+  }
+
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < depth; i++) {
+      sb.append("  ");
+    }
+    sb.append(name).append(" (tasks: ").append(numTasks);
+    sb.append(", in: ").append(inputRows).append(" rows");
+    sb.append(", out: ").append(outputRows).append(" rows");
+    sb.append(", time: ").append(elapsedNanos / 1000000).append(" msec");
+    if (spilledBytes > 0) {
+      sb.append(", spilled: ").append(FileUtil.humanReadableByteCount(spilledBytes, false));
+    }
+    if (peakMemoryBytes > 0) {
+      sb.append(", peak memory: ").append(FileUtil.humanReadableByteCount(peakMemoryBytes, false));
+    }
+    if (hashProbes > 0 || hashEntries > 0) {
+      sb.append(", hash probes: ").append(hashProbes);
+      sb.append(", hash entries: ").append(hashEntries);
+      sb.append(", hash collisions: ").append(hashCollisions);
+    }
+    sb.append(")");
+    return sb.toString();
+  }
+}
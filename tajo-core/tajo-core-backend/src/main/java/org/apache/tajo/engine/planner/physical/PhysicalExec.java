@@ -76,4 +76,11 @@ public abstract class PhysicalExec implements SchemaObject {
   public TableStats getInputStats() {
     return null;
   }
+
+  /**
+   * Fills the operator specific statistics, such as spilled bytes or hash table statistics. It is only called
+   * for a profiled query right before {@link #close()}.
+   */
+  public void profile(OperatorProfile profile) {
+  }
 }
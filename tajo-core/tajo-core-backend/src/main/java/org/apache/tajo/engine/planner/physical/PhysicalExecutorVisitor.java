@@ -74,6 +74,9 @@ public interface PhysicalExecutorVisitor<CONTEXT, RESULT> {
   RESULT visitMergeJoin(CONTEXT context, MergeJoinExec exec, Stack<PhysicalExec> stack)
       throws PhysicalPlanningException;
 
+  RESULT visitMorselDriven(CONTEXT context, MorselDrivenExec exec, Stack<PhysicalExec> stack)
+      throws PhysicalPlanningException;
+
   RESULT visitNLJoin(CONTEXT context, NLJoinExec exec, Stack<PhysicalExec> stack)
       throws PhysicalPlanningException;
 
@@ -0,0 +1,165 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.planner.physical;
+
+import org.apache.tajo.catalog.statistics.TableStats;
+import org.apache.tajo.storage.Tuple;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * It wraps a physical operator to measure the rows and the time spent in the operator. The operators of a plan
+ * are only wrapped for a profiled query, so a normal query does not pay for the measurement.
+ */
+public class ProfiledExec extends PhysicalExec {
+  private final PhysicalExec exec;
+  private final OperatorProfile profile;
+  private final List<ProfiledExec> children = new ArrayList<ProfiledExec>();
+
+  // including the time spent in the child operators
+  private long elapsedNanos;
+  private long outputRows;
+  private boolean closed = false;
+
+  private ProfiledExec(PhysicalExec exec, int id, int depth) {
+    super(exec.context, exec.inSchema, exec.getSchema());
+    this.exec = exec;
+    this.profile = new OperatorProfile(id, depth, exec.getClass().getSimpleName());
+  }
+
+  /**
+   * Wraps all operators of a physical plan.
+   *
+   * @param root The root operator of a physical plan
+   * @return The wrapped root operator
+   */
+  public static ProfiledExec instrument(PhysicalExec root) {
+    return instrument(root, 0, new int[] {0});
+  }
+
+  private static ProfiledExec instrument(PhysicalExec exec, int depth, int [] sequence) {
+    ProfiledExec profiled = new ProfiledExec(exec, sequence[0]++, depth);
+
+    if (exec instanceof UnaryPhysicalExec) {
+      UnaryPhysicalExec unary = (UnaryPhysicalExec) exec;
+      if (unary.getChild() != null) {
+        ProfiledExec child = instrument(unary.getChild(), depth + 1, sequence);
+        unary.setChild(child);
+        profiled.children.add(child);
+      }
+    } else if (exec instanceof BinaryPhysicalExec) {
+      BinaryPhysicalExec binary = (BinaryPhysicalExec) exec;
+      ProfiledExec left = instrument(binary.getLeftChild(), depth + 1, sequence);
+      binary.setLeftChild(left);
+      profiled.children.add(left);
+      ProfiledExec right = instrument(binary.getRightChild(), depth + 1, sequence);
+      binary.setRightChild(right);
+      profiled.children.add(right);
+    }
+
+    return profiled;
+  }
+
+  public PhysicalExec getExec() {
+    return exec;
+  }
+
+  @Override
+  public void init() throws IOException {
+    long start = System.nanoTime();
+    exec.init();
+    elapsedNanos += System.nanoTime() - start;
+  }
+
+  @Override
+  public Tuple next() throws IOException {
+    long start = System.nanoTime();
+    Tuple tuple = exec.next();
+    elapsedNanos += System.nanoTime() - start;
+    if (tuple != null) {
+      outputRows++;
+    }
+    return tuple;
+  }
+
+  @Override
+  public void rescan() throws IOException {
+    long start = System.nanoTime();
+    exec.rescan();
+    elapsedNanos += System.nanoTime() - start;
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    exec.profile(profile);
+    exec.close();
+    closed = true;
+
+    if (children.isEmpty()) {
+      TableStats stats = exec.getInputStats();
+      if (stats != null && stats.getNumRows() != null) {
+        profile.setInputRows(stats.getNumRows());
+      }
+    }
+  }
+
+  @Override
+  public float getProgress() {
+    return exec.getProgress();
+  }
+
+  @Override
+  public TableStats getInputStats() {
+    return exec.getInputStats();
+  }
+
+  /**
+   * @return The profiles of this operator and its descendants in pre-order. The elapsed time of each operator
+   * excludes the time of its children.
+   */
+  public List<OperatorProfile> getProfiles() {
+    List<OperatorProfile> profiles = new ArrayList<OperatorProfile>();
+    collectProfiles(profiles);
+    return profiles;
+  }
+
+  private void collectProfiles(List<OperatorProfile> profiles) {
+    profile.setOutputRows(outputRows);
+    long childNanos = 0;
+    long childRows = 0;
+    for (ProfiledExec child : children) {
+      childNanos += child.elapsedNanos;
+      childRows += child.outputRows;
+    }
+    profile.setElapsedNanos(Math.max(0, elapsedNanos - childNanos));
+    if (!children.isEmpty()) {
+      profile.setInputRows(childRows);
+    }
+
+    profiles.add(profile);
+    for (ProfiledExec child : children) {
+      child.collectProfiles(profiles);
+    }
+  }
+}
@@ -42,6 +42,7 @@ import org.apache.tajo.worker.TaskAttemptContext;
 import java.io.IOException;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Queue;
 import java.util.Set;
 
 
@@ -53,10 +54,16 @@ public class SeqScanExec extends PhysicalExec {
 
   private CatalogProtos.FragmentProto [] fragments;
 
+  // morsels shared by the pipelines of a morsel-driven task. If null, it reads all fragments by itself.
+  private Queue<FileFragment> morsels;
+
   private Projector projector;
 
   private TableStats inputStats;
 
+  // it is reused for every output row
+  private Tuple outTuple;
+
   public SeqScanExec(TaskAttemptContext context, AbstractStorageManager sm,
                      ScanNode plan, CatalogProtos.FragmentProto [] fragments) throws IOException {
     super(context, plan.getInSchema(), plan.getOutSchema());
@@ -66,6 +73,14 @@ public class SeqScanExec extends PhysicalExec {
     this.fragments = fragments;
   }
 
+  /**
+   * Makes this operator read the morsels taken from the given queue instead of its fragments.
+   * It should be called before {@link #init()}.
+   */
+  public void setMorsels(Queue<FileFragment> morsels) {
+    this.morsels = morsels;
+  }
+
   /**
    * This method rewrites an input schema of column-partitioned table because
    * there are no actual field values in data file in a column-partitioned table.
@@ -145,8 +160,12 @@ public class SeqScanExec extends PhysicalExec {
     }
 
     this.projector = new Projector(inSchema, outSchema, plan.getTargets());
+    this.outTuple = new VTuple(outColumnNum);
 
-    if (fragments.length > 1) {
+    if (morsels != null) {
+      this.scanner = new MorselScanner(context.getConf(), plan.getPhysicalSchema(), plan.getTableDesc().getMeta(),
+          morsels, projected);
+    } else if (fragments.length > 1) {
       this.scanner = new MergeScanner(context.getConf(), plan.getPhysicalSchema(), plan.getTableDesc().getMeta(),
           FragmentConvertor.<FileFragment>convert(context.getConf(), plan.getTableDesc().getMeta().getStoreType(),
               fragments), projected);
@@ -162,7 +181,6 @@ public class SeqScanExec extends PhysicalExec {
   @Override
   public Tuple next() throws IOException {
     Tuple tuple;
-    Tuple outTuple = new VTuple(outColumnNum);
 
     if (!plan.hasQual()) {
       if ((tuple = scanner.next()) != null) {
@@ -177,6 +195,7 @@ public class SeqScanExec extends PhysicalExec {
 
         if (qual.eval(inSchema, tuple).isTrue()) {
           projector.eval(tuple, outTuple);
+          outTuple.setOffset(tuple.getOffset());
           return outTuple;
         }
       }
@@ -206,12 +225,21 @@ public class SeqScanExec extends PhysicalExec {
     plan = null;
     qual = null;
     projector = null;
+    outTuple = null;
   }
 
   public String getTableName() {
     return plan.getTableName();
   }
 
+  public String getCanonicalName() {
+    return plan.getCanonicalName();
+  }
+
+  public CatalogProtos.FragmentProto [] getFragments() {
+    return fragments;
+  }
+
   @Override
   public float getProgress() {
     if (scanner == null) {
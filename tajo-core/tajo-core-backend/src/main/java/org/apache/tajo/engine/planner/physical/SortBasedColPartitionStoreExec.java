@@ -83,6 +83,7 @@ public class SortBasedColPartitionStoreExec extends ColPartitionStoreExec {
     appender = StorageManagerFactory.getStorageManager(context.getConf()).getAppender(meta, outSchema, dataFile);
     appender.enableStats();
     appender.init();
+    context.addPartition(partition);
 
     return appender;
   }
@@ -0,0 +1,417 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.planner.rewrite;
+
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.engine.eval.*;
+import org.apache.tajo.engine.planner.BasicLogicalPlanVisitor;
+import org.apache.tajo.engine.planner.LogicalPlan;
+import org.apache.tajo.engine.planner.PlannerUtil;
+import org.apache.tajo.engine.planner.PlanningException;
+import org.apache.tajo.engine.planner.Target;
+import org.apache.tajo.engine.planner.logical.*;
+import org.apache.tajo.util.TUtil;
+
+import java.util.*;
+
+/**
+ * This rule rewrites the expressions of a logical plan in two steps.
+ *
+ * <ul>
+ *   <li>Constant folding: a subtree which refers to neither any column, any aggregation function nor any
+ *   non-deterministic function is evaluated once at planning time, and it is replaced by a {@link ConstEval}.</li>
+ *   <li>Common subexpression elimination: if the filter and the targets of a scan evaluate the same expensive
+ *   expression more than once per row, the scan computes the expression only once into a hidden column.
+ *   A selection and a projection on top of the scan refer to the hidden column instead.</li>
+ * </ul>
+ *
+ * A scan which is a child of a join is not rewritten by the second step, because a join between two scans
+ * can be a broadcast join.
+ */
+public class CommonSubExprEliminationRule implements RewriteRule {
+  private static final String NAME = "CommonSubExprElimination";
+
+  /** Expressions which are worth being computed only once per row */
+  private static final Set<EvalType> EXPENSIVE_EVALS = EnumSet.of(
+      EvalType.FUNCTION, EvalType.CAST, EvalType.CONCATENATE, EvalType.CASE,
+      EvalType.LIKE, EvalType.SIMILAR_TO, EvalType.REGEX);
+
+  private final Rewriter rewriter = new Rewriter();
+
+  @Override
+  public String getName() {
+    return NAME;
+  }
+
+  @Override
+  public boolean isEligible(LogicalPlan plan) {
+    return true;
+  }
+
+  @Override
+  public LogicalPlan rewrite(LogicalPlan plan) throws PlanningException {
+    for (LogicalPlan.QueryBlock block : plan.getQueryBlocks()) {
+      rewriter.visit(block, plan, block, block.getRoot(), new Stack<LogicalNode>());
+    }
+    return plan;
+  }
+
+  private static int getChildNum(EvalNode expr) {
+    switch (expr.getType()) {
+      case NOT:
+      case SIGNED:
+      case CAST:
+        return 1;
+      case FUNCTION:
+      case AGG_FUNCTION:
+        EvalNode [] args = ((FunctionEval) expr).getArgs();
+        return args == null ? 0 : args.length;
+      default:
+        return expr instanceof BinaryEval ? 2 : 0;
+    }
+  }
+
+  private static EvalNode getChild(EvalNode expr, int idx) {
+    switch (expr.getType()) {
+      case NOT:
+        return ((NotEval) expr).getChild();
+      case SIGNED:
+        return ((SignedEval) expr).getChild();
+      case CAST:
+        return ((CastEval) expr).getOperand();
+      case FUNCTION:
+      case AGG_FUNCTION:
+        return ((FunctionEval) expr).getArgs()[idx];
+      default:
+        return expr.getExpr(idx);
+    }
+  }
+
+  private static void setChild(EvalNode expr, int idx, EvalNode child) {
+    switch (expr.getType()) {
+      case NOT:
+        ((NotEval) expr).setChild(child);
+        break;
+      case SIGNED:
+        ((SignedEval) expr).setChild(child);
+        break;
+      case CAST:
+        ((CastEval) expr).setOperand(child);
+        break;
+      case FUNCTION:
+      case AGG_FUNCTION:
+        ((FunctionEval) expr).getArgs()[idx] = child;
+        break;
+      default:
+        if (idx == 0) {
+          expr.setLeftExpr(child);
+        } else {
+          expr.setRightExpr(child);
+        }
+    }
+  }
+
+  /**
+   * @return True if an expression contains neither any aggregation function nor any non-deterministic function
+   */
+  private static boolean isDeterministic(EvalNode expr) {
+    for (GeneralFunctionEval function : EvalTreeUtil.<GeneralFunctionEval>findEvalsByType(expr, EvalType.FUNCTION)) {
+      if (!function.isDeterministic()) {
+        return false;
+      }
+    }
+    return EvalTreeUtil.findEvalsByType(expr, EvalType.AGG_FUNCTION).isEmpty();
+  }
+
+  private static boolean isConstant(EvalNode expr) {
+    return EvalTreeUtil.findUniqueColumns(expr).isEmpty() && isDeterministic(expr);
+  }
+
+  /**
+   * It folds constant subtrees of a given expression from the bottom.
+   *
+   * @return The folded expression
+   */
+  private static EvalNode foldConstants(EvalNode expr) {
+    if (expr == null || expr.getType() == EvalType.CONST || expr.getType() == EvalType.ROW_CONSTANT) {
+      return expr;
+    }
+
+    for (int i = 0; i < getChildNum(expr); i++) {
+      setChild(expr, i, foldConstants(getChild(expr, i)));
+    }
+
+    if (expr.getType() != EvalType.FIELD && isConstant(expr)) {
+      Datum value;
+      try {
+        value = expr.eval(null, null);
+      } catch (RuntimeException e) {
+        // an invalid expression is left as it is in order to report the error at run time.
+        return expr;
+      }
+      // A folded expression must keep its data type, so a null result or a different type is not folded.
+      if (value != null && value.type() == expr.getValueType().getType()) {
+        return new ConstEval(value);
+      }
+    }
+    return expr;
+  }
+
+  private static void foldConstantsInNode(LogicalNode node) {
+    if (node instanceof Projectable && ((Projectable) node).hasTargets()) {
+      for (Target target : ((Projectable) node).getTargets()) {
+        target.setExpr(foldConstants((EvalNode) target.getEvalTree()));
+      }
+    }
+
+    switch (node.getType()) {
+      case SELECTION:
+        SelectionNode selection = (SelectionNode) node;
+        selection.setQual(foldConstants(selection.getQual()));
+        break;
+      case HAVING:
+        HavingNode having = (HavingNode) node;
+        having.setQual(foldConstants(having.getQual()));
+        break;
+      case JOIN:
+        JoinNode join = (JoinNode) node;
+        if (join.hasJoinQual()) {
+          join.setJoinQual(foldConstants(join.getJoinQual()));
+        }
+        break;
+      case GROUP_BY:
+        GroupbyNode groupby = (GroupbyNode) node;
+        if (groupby.hasAggFunctions()) {
+          for (AggregationFunctionCallEval aggFunction : groupby.getAggFunctions()) {
+            foldConstants(aggFunction);
+          }
+        }
+        break;
+      case SCAN:
+      case PARTITIONS_SCAN:
+        ScanNode scan = (ScanNode) node;
+        if (scan.hasQual()) {
+          scan.setQual(foldConstants(scan.getQual()));
+        }
+        break;
+    }
+  }
+
+  private static class Occurrence {
+    private final EvalNode expr;
+    private final int size;
+    private int count = 1;
+
+    private Occurrence(EvalNode expr, int size) {
+      this.expr = expr;
+      this.size = size;
+    }
+  }
+
+  private static boolean isCandidate(EvalNode expr) {
+    switch (expr.getType()) {
+      case FIELD:
+      case CONST:
+      case ROW_CONSTANT:
+        return false;
+    }
+
+    if (EvalTreeUtil.findUniqueColumns(expr).isEmpty() || !isDeterministic(expr)) {
+      return false;
+    }
+    for (EvalType type : EXPENSIVE_EVALS) {
+      if (!EvalTreeUtil.findEvalsByType(expr, type).isEmpty()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * It collects candidate subexpressions in pre-order, and it returns the size of a given expression.
+   */
+  private static int collectOccurrences(EvalNode expr, List<Occurrence> occurrences) {
+    int size = 1;
+    for (int i = 0; i < getChildNum(expr); i++) {
+      size += collectOccurrences(getChild(expr, i), occurrences);
+    }
+
+    if (isCandidate(expr)) {
+      boolean found = false;
+      for (Occurrence occurrence : occurrences) {
+        if (occurrence.expr.equals(expr)) {
+          occurrence.count++;
+          found = true;
+          break;
+        }
+      }
+      if (!found) {
+        occurrences.add(new Occurrence(expr, size));
+      }
+    }
+    return size;
+  }
+
+  /**
+   * @return The largest subexpression which occurs more than once. If there is no such subexpression, it returns null.
+   */
+  private static EvalNode findLargestCommonSubExpr(List<EvalNode> exprs) {
+    List<Occurrence> occurrences = TUtil.newList();
+    for (EvalNode expr : exprs) {
+      collectOccurrences(expr, occurrences);
+    }
+
+    Occurrence largest = null;
+    for (Occurrence occurrence : occurrences) {
+      if (occurrence.count > 1 && (largest == null || occurrence.size > largest.size)) {
+        largest = occurrence;
+      }
+    }
+    return largest == null ? null : largest.expr;
+  }
+
+  private static EvalNode replace(EvalNode expr, EvalNode target, Column column) {
+    if (expr.equals(target)) {
+      return new FieldEval(column);
+    }
+    for (int i = 0; i < getChildNum(expr); i++) {
+      setChild(expr, i, replace(getChild(expr, i), target, column));
+    }
+    return expr;
+  }
+
+  private static EvalNode cloneEval(EvalNode expr) throws PlanningException {
+    try {
+      return (EvalNode) expr.clone();
+    } catch (CloneNotSupportedException e) {
+      throw new PlanningException(e);
+    }
+  }
+
+  private static void eliminateCommonSubExprs(LogicalPlan plan, LogicalNode parent, ScanNode scan)
+      throws PlanningException {
+    Target [] originTargets = scan.hasTargets() ? scan.getTargets() : PlannerUtil.schemaToTargets(scan.getOutSchema());
+
+    // the first expression is the filter if the scan has it.
+    List<EvalNode> exprs = TUtil.newList();
+    if (scan.hasQual()) {
+      exprs.add(cloneEval(scan.getQual()));
+    }
+    for (Target target : originTargets) {
+      exprs.add(cloneEval(target.getEvalTree()));
+    }
+
+    List<Target> commonTargets = TUtil.newList();
+    EvalNode common;
+    while ((common = findLargestCommonSubExpr(exprs)) != null) {
+      Column column = new Column(plan.generateUniqueColumnName(common), common.getValueType());
+      for (int i = 0; i < exprs.size(); i++) {
+        exprs.set(i, replace(exprs.get(i), common, column));
+      }
+      commonTargets.add(new Target(common, column.getQualifiedName()));
+    }
+
+    if (commonTargets.isEmpty()) {
+      return;
+    }
+
+    // The filter is moved to a selection only if it refers to any common subexpression.
+    EvalNode qual = null;
+    if (scan.hasQual()) {
+      qual = exprs.remove(0);
+      boolean referCommonSubExpr = false;
+      for (Target commonTarget : commonTargets) {
+        referCommonSubExpr |= EvalTreeUtil.containColumnRef(qual, commonTarget.getNamedColumn());
+      }
+      if (!referCommonSubExpr) {
+        qual = null;
+      }
+    }
+
+    Target [] projectedTargets = new Target[originTargets.length];
+    for (int i = 0; i < originTargets.length; i++) {
+      try {
+        projectedTargets[i] = (Target) originTargets[i].clone();
+      } catch (CloneNotSupportedException e) {
+        throw new PlanningException(e);
+      }
+      projectedTargets[i].setExpr(exprs.get(i));
+    }
+
+    // the scan emits the columns required by upper nodes and the common subexpressions.
+    Set<Column> requiredColumns = new LinkedHashSet<Column>();
+    if (qual != null) {
+      requiredColumns.addAll(EvalTreeUtil.findUniqueColumns(qual));
+    }
+    for (EvalNode expr : exprs) {
+      requiredColumns.addAll(EvalTreeUtil.findUniqueColumns(expr));
+    }
+    List<Target> scanTargets = TUtil.newList();
+    for (Column column : requiredColumns) {
+      if (scan.getInSchema().contains(column)) {
+        scanTargets.add(new Target(new FieldEval(column)));
+      }
+    }
+    scanTargets.addAll(commonTargets);
+
+    LogicalNode child = scan;
+    if (qual != null) {
+      scan.setQual(null);
+    }
+    scan.setTargets(scanTargets.toArray(new Target[scanTargets.size()]));
+
+    if (qual != null) {
+      SelectionNode selection = plan.createNode(SelectionNode.class);
+      selection.setChild(scan);
+      selection.setInSchema(scan.getOutSchema());
+      selection.setOutSchema(scan.getOutSchema());
+      selection.setQual(qual);
+      child = selection;
+    }
+
+    ProjectionNode projection = plan.createNode(ProjectionNode.class);
+    projection.setChild(child);
+    projection.setInSchema(child.getOutSchema());
+    projection.setTargets(projectedTargets);
+
+    PlannerUtil.replaceNode(plan, parent, scan, projection);
+    plan.addHistory(NAME + " computes " + commonTargets.size() + " common subexpression(s) once in "
+        + scan.getCanonicalName());
+  }
+
+  private final class Rewriter extends BasicLogicalPlanVisitor<LogicalPlan.QueryBlock, Object> {
+    @Override
+    public Object visit(LogicalPlan.QueryBlock context, LogicalPlan plan, LogicalPlan.QueryBlock block,
+                        LogicalNode node, Stack<LogicalNode> stack) throws PlanningException {
+      foldConstantsInNode(node);
+      return super.visit(context, plan, block, node, stack);
+    }
+
+    @Override
+    public Object visitScan(LogicalPlan.QueryBlock context, LogicalPlan plan, LogicalPlan.QueryBlock block,
+                            ScanNode scanNode, Stack<LogicalNode> stack) throws PlanningException {
+      // a scan which is the root of a query block is not rewritten because a table subquery refers to it.
+      if (!stack.empty() && stack.peek().getType() != NodeType.JOIN) {
+        eliminateCommonSubExprs(plan, stack.peek(), scanNode);
+      }
+      return null;
+    }
+  }
+}
@@ -0,0 +1,328 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.planner.rewrite;
+
+import org.apache.tajo.catalog.CatalogService;
+import org.apache.tajo.catalog.CatalogUtil;
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.catalog.IndexDesc;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.catalog.SortSpec;
+import org.apache.tajo.catalog.TableMeta;
+import org.apache.tajo.catalog.CatalogConstants;
+import org.apache.tajo.catalog.proto.CatalogProtos.IndexMethod;
+import org.apache.tajo.catalog.proto.CatalogProtos.StoreType;
+import org.apache.tajo.common.TajoDataTypes;
+import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.engine.eval.*;
+import org.apache.tajo.engine.planner.BasicLogicalPlanVisitor;
+import org.apache.tajo.engine.planner.CardinalityEstimator;
+import org.apache.tajo.engine.planner.LogicalPlan;
+import org.apache.tajo.engine.planner.PlannerUtil;
+import org.apache.tajo.engine.planner.PlanningException;
+import org.apache.tajo.engine.planner.logical.*;
+import org.apache.tajo.util.IndexUtil;
+import org.apache.tajo.util.TUtil;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Stack;
+
+/**
+ * This rule replaces a table scan by an index scan if an index of the table can narrow down the rows to be read,
+ * and the estimated selectivity of the key range is less than
+ * {@link TajoConf.ConfVars#OPTIMIZER_INDEX_SCAN_SELECTIVITY_THRESHOLD}.
+ *
+ * A key range is built from the conjuncts of a search condition in the form of 'column op constant', where op is
+ * one of =, <, <=, > and >=. The search condition is still evaluated for each row read through an index.
+ * Since index files are built for each fragment, a fragment without an up-to-date index file is read sequentially.
+ */
+public class IndexScanRule implements RewriteRule {
+  private static final String NAME = "IndexScan";
+
+  private final CatalogService catalog;
+  private final double selectivityThreshold;
+  private final Rewriter rewriter = new Rewriter();
+
+  public IndexScanRule(TajoConf conf, CatalogService catalog) {
+    this.catalog = catalog;
+    this.selectivityThreshold = conf.getFloatVar(TajoConf.ConfVars.OPTIMIZER_INDEX_SCAN_SELECTIVITY_THRESHOLD);
+  }
+
+  @Override
+  public String getName() {
+    return NAME;
+  }
+
+  @Override
+  public boolean isEligible(LogicalPlan plan) {
+    for (LogicalPlan.QueryBlock block : plan.getQueryBlocks()) {
+      for (RelationNode relation : block.getRelations()) {
+        if (relation.getType() == NodeType.SCAN && ((ScanNode) relation).hasQual()) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public LogicalPlan rewrite(LogicalPlan plan) throws PlanningException {
+    for (LogicalPlan.QueryBlock block : plan.getQueryBlocks()) {
+      rewriter.visit(new CardinalityEstimator(block), plan, block, block.getRoot(), new Stack<LogicalNode>());
+    }
+    return plan;
+  }
+
+  /**
+   * Only the storage types whose scanners are seekable can be read through an index.
+   */
+  public static boolean isIndexable(TableMeta meta) {
+    return (meta.getStoreType() == StoreType.CSV && meta.getOption(CatalogConstants.COMPRESSION_CODEC) == null)
+        || meta.getStoreType() == StoreType.RAW;
+  }
+
+  /**
+   * @return an index scan for the scan node, or NULL if any index is not beneficial.
+   */
+  private IndexScanNode findBestIndexScan(CardinalityEstimator estimator, LogicalPlan plan, ScanNode scanNode) {
+    if (scanNode.getTableDesc().hasPartition() || !isIndexable(scanNode.getTableDesc().getMeta())) {
+      return null;
+    }
+
+    // collects the indexable conjuncts for each column
+    Map<Column, List<EvalNode>> conjunctsByColumn = TUtil.newLinkedHashMap();
+    for (EvalNode conjunct : AlgebraicUtil.toConjunctiveNormalFormArray(scanNode.getQual())) {
+      Column column = getKeyColumn(conjunct);
+      if (column != null) {
+        TUtil.putToNestedList(conjunctsByColumn, column, conjunct);
+      }
+    }
+    if (conjunctsByColumn.isEmpty()) {
+      return null;
+    }
+
+    String databaseName = CatalogUtil.extractQualifier(scanNode.getTableName());
+    String tableName = CatalogUtil.extractSimpleName(scanNode.getTableName());
+
+    IndexScanNode best = null;
+    double bestSelectivity = selectivityThreshold;
+    for (Map.Entry<Column, List<EvalNode>> entry : conjunctsByColumn.entrySet()) {
+      Column column = entry.getKey();
+      if (!catalog.existIndexByColumn(databaseName, tableName, column.getSimpleName())) {
+        continue;
+      }
+      IndexDesc index = catalog.getIndexByColumn(databaseName, tableName, column.getSimpleName());
+      if (index == null || index.getIndexMethod() != IndexMethod.TWO_LEVEL_BIN_TREE) {
+        continue;
+      }
+
+      List<EvalNode> conjuncts = entry.getValue();
+      double selectivity = estimator.estimateSelectivity(
+          AlgebraicUtil.createSingletonExprFromCNF(conjuncts.toArray(new EvalNode[conjuncts.size()])));
+      if (selectivity < bestSelectivity) {
+        KeyRange range = new KeyRange();
+        for (EvalNode conjunct : conjuncts) {
+          range.add(conjunct);
+        }
+        if (range.isEmpty()) {
+          continue;
+        }
+
+        best = createIndexScan(plan, scanNode, column, index, range);
+        bestSelectivity = selectivity;
+      }
+    }
+    return best;
+  }
+
+  private static IndexScanNode createIndexScan(LogicalPlan plan, ScanNode scanNode, Column column, IndexDesc index,
+                                               KeyRange range) {
+    Schema keySchema = new Schema();
+    keySchema.addColumn(column);
+    SortSpec [] sortSpecs = new SortSpec[] {new SortSpec(column, index.isAscending(), false)};
+
+    IndexScanNode indexScan = new IndexScanNode(plan.newPID(), scanNode, keySchema, sortSpecs);
+    // a key range is represented in the order of the index.
+    if (index.isAscending()) {
+      indexScan.setRange(toKey(range.lower), range.lowerInclusive, toKey(range.upper), range.upperInclusive);
+    } else {
+      indexScan.setRange(toKey(range.upper), range.upperInclusive, toKey(range.lower), range.lowerInclusive);
+    }
+    indexScan.setIndexPath(IndexUtil.getIndexPath(scanNode.getTableDesc().getPath(), index.getIndexName()));
+    return indexScan;
+  }
+
+  private static Datum [] toKey(Datum value) {
+    return value == null ? null : new Datum[] {value};
+  }
+
+  /**
+   * @return the column of a conjunct in the form of 'column op constant', or NULL if it is not such a conjunct.
+   */
+  private static Column getKeyColumn(EvalNode conjunct) {
+    switch (conjunct.getType()) {
+    case EQUAL:
+    case LTH:
+    case LEQ:
+    case GTH:
+    case GEQ:
+      break;
+    default:
+      return null;
+    }
+
+    FieldEval field;
+    ConstEval constant;
+    if (conjunct.getLeftExpr().getType() == EvalType.FIELD && conjunct.getRightExpr().getType() == EvalType.CONST) {
+      field = (FieldEval) conjunct.getLeftExpr();
+      constant = (ConstEval) conjunct.getRightExpr();
+    } else if (conjunct.getLeftExpr().getType() == EvalType.CONST &&
+        conjunct.getRightExpr().getType() == EvalType.FIELD) {
+      field = (FieldEval) conjunct.getRightExpr();
+      constant = (ConstEval) conjunct.getLeftExpr();
+    } else {
+      return null;
+    }
+
+    Datum value = constant.getValue();
+    if (value.isNull() || !isComparable(field.getColumnRef().getDataType().getType(), value.type())) {
+      return null;
+    }
+    return field.getColumnRef();
+  }
+
+  private static boolean isComparable(TajoDataTypes.Type columnType, TajoDataTypes.Type valueType) {
+    return columnType == valueType || (isNumeric(columnType) && isNumeric(valueType));
+  }
+
+  private static boolean isNumeric(TajoDataTypes.Type type) {
+    switch (type) {
+    case INT2:
+    case INT4:
+    case INT8:
+    case FLOAT4:
+    case FLOAT8:
+      return true;
+    default:
+      return false;
+    }
+  }
+
+  /**
+   * The intersection of the key ranges of conjuncts on a column. A NULL bound means that the range is not bounded.
+   */
+  private static class KeyRange {
+    Datum lower = null;
+    boolean lowerInclusive = true;
+    Datum upper = null;
+    boolean upperInclusive = true;
+
+    void add(EvalNode conjunct) {
+      EvalType type = conjunct.getType();
+      Datum value;
+      if (conjunct.getLeftExpr().getType() == EvalType.FIELD) {
+        value = ((ConstEval) conjunct.getRightExpr()).getValue();
+      } else {
+        // normalize 'constant op column' into 'column op constant'
+        value = ((ConstEval) conjunct.getLeftExpr()).getValue();
+        type = flip(type);
+      }
+
+      switch (type) {
+      case EQUAL:
+        addLower(value, true);
+        addUpper(value, true);
+        break;
+      case GTH:
+        addLower(value, false);
+        break;
+      case GEQ:
+        addLower(value, true);
+        break;
+      case LTH:
+        addUpper(value, false);
+        break;
+      case LEQ:
+        addUpper(value, true);
+        break;
+      default:
+      }
+    }
+
+    private static EvalType flip(EvalType type) {
+      switch (type) {
+      case LTH: return EvalType.GTH;
+      case LEQ: return EvalType.GEQ;
+      case GTH: return EvalType.LTH;
+      case GEQ: return EvalType.LEQ;
+      default: return type;
+      }
+    }
+
+    private void addLower(Datum value, boolean inclusive) {
+      int cmp = lower == null ? 1 : value.compareTo(lower);
+      if (cmp > 0 || (cmp == 0 && !inclusive)) {
+        lower = value;
+        lowerInclusive = inclusive;
+      }
+    }
+
+    private void addUpper(Datum value, boolean inclusive) {
+      int cmp = upper == null ? -1 : value.compareTo(upper);
+      if (cmp < 0 || (cmp == 0 && !inclusive)) {
+        upper = value;
+        upperInclusive = inclusive;
+      }
+    }
+
+    /**
+     * @return true if this range is bounded on neither side
+     */
+    boolean isEmpty() {
+      return lower == null && upper == null;
+    }
+  }
+
+  private class Rewriter extends BasicLogicalPlanVisitor<CardinalityEstimator, LogicalNode> {
+    @Override
+    public LogicalNode visitScan(CardinalityEstimator estimator, LogicalPlan plan, LogicalPlan.QueryBlock block,
+                                 ScanNode node, Stack<LogicalNode> stack) throws PlanningException {
+      if (!node.hasQual()) {
+        return node;
+      }
+
+      IndexScanNode indexScan = findBestIndexScan(estimator, plan, node);
+      if (indexScan == null) {
+        return node;
+      }
+
+      indexScan.setEstimatedRows(estimator.estimateRows(node));
+      plan.addHistory("IndexScan chooses " + indexScan.getIndexPath().getName() + " for " + node.getCanonicalName());
+      // if it is topmost node, set it as the rootnode of this block.
+      if (stack.empty()) {
+        block.setRoot(indexScan);
+      } else {
+        PlannerUtil.replaceNode(plan, stack.peek(), node, indexScan);
+      }
+      return indexScan;
+    }
+  }
+}
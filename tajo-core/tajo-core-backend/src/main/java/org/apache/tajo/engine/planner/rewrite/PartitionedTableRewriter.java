@@ -23,11 +23,16 @@ import com.google.common.collect.Sets;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.hadoop.fs.*;
+import org.apache.tajo.catalog.CatalogService;
+import org.apache.tajo.catalog.CatalogUtil;
 import org.apache.tajo.catalog.Column;
 import org.apache.tajo.catalog.Schema;
 import org.apache.tajo.catalog.TableDesc;
+import org.apache.tajo.catalog.partition.PartitionDesc;
 import org.apache.tajo.catalog.partition.PartitionMethodDesc;
+import org.apache.tajo.catalog.statistics.TableStats;
 import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.datum.Datum;
 import org.apache.tajo.engine.eval.*;
 import org.apache.tajo.engine.planner.BasicLogicalPlanVisitor;
 import org.apache.tajo.engine.planner.LogicalPlan;
@@ -42,6 +47,16 @@ import java.util.List;
 import java.util.Set;
 import java.util.Stack;
 
+import static org.apache.tajo.catalog.proto.CatalogProtos.PartitionType;
+
+/**
+ * It replaces the scan of a column-partitioned table with the scan of the partitions matched to
+ * the search condition.
+ *
+ * If the partitions of a table are registered in the catalog, they are pruned with the partition
+ * metadata, so that no directory of the table is listed. Otherwise, for example for an external table,
+ * the partition directories are listed level by level with path filters.
+ */
 public class PartitionedTableRewriter implements RewriteRule {
   private static final Log LOG = LogFactory.getLog(PartitionedTableRewriter.class);
 
@@ -49,9 +64,19 @@ public class PartitionedTableRewriter implements RewriteRule {
   private final Rewriter rewriter = new Rewriter();
 
   private final TajoConf systemConf;
+  private final CatalogService catalog;
 
   public PartitionedTableRewriter(TajoConf conf) {
+    this(conf, null);
+  }
+
+  /**
+   * @param conf system configuration
+   * @param catalog catalog service to look up partitions. If it is NULL, partition directories are always listed.
+   */
+  public PartitionedTableRewriter(TajoConf conf, CatalogService catalog) {
     systemConf = conf;
+    this.catalog = catalog;
   }
 
   @Override
@@ -225,6 +250,127 @@ public class PartitionedTableRewriter implements RewriteRule {
     return filters;
   }
 
+  /**
+   * Find the partitions matched to the search condition from the partitions registered in the catalog.
+   * The catalog narrows down partitions with the equality conditions on partition columns, and the whole
+   * condition is evaluated against the values of each partition.
+   *
+   * @param partitionColumns The partition columns schema
+   * @param conjunctiveForms search condition corresponding to partition columns.
+   *                         If it is NULL, it means that there is no search condition for this table.
+   * @param table the partitioned table
+   * @return the paths of the matched partitions
+   */
+  private Path [] findFilteredPathsFromCatalog(Schema partitionColumns, EvalNode [] conjunctiveForms,
+                                               TableDesc table) throws IOException {
+    String [] splitted = CatalogUtil.splitFQTableName(table.getName());
+    List<PartitionDesc> partitions = catalog.getPartitions(splitted[0], splitted[1],
+        buildAllowedValues(partitionColumns, conjunctiveForms));
+    if (partitions == null) {
+      throw new IOException("Cannot get the partitions of " + table.getName());
+    }
+
+    EvalNode filter = null;
+    if (conjunctiveForms != null) {
+      filter = AlgebraicUtil.createSingletonExprFromCNF(conjunctiveForms);
+    }
+
+    List<Path> filteredPaths = Lists.newArrayList();
+    for (PartitionDesc partition : partitions) {
+      Path path = new Path(table.getPath(), partition.getName());
+      if (filter != null) {
+        Tuple tuple = TupleUtil.buildTupleFromPartitionPath(partitionColumns, path, true);
+        if (tuple == null || !filter.eval(partitionColumns, tuple).asBool()) {
+          continue;
+        }
+      }
+      filteredPaths.add(path);
+    }
+
+    LOG.info("Filtered partitions in catalog: " + filteredPaths.size() + " of " + partitions.size());
+    return filteredPaths.toArray(new Path[filteredPaths.size()]);
+  }
+
+  /**
+   * Build the allowed values of each partition column from equality conditions, such as col = 'A',
+   * col IN ('A', 'B'), and col = 'A' OR col = 'B'. Values are represented as the strings of partition
+   * directory names.
+   *
+   * @return the allowed values in the order of partition columns. A NULL element allows every value.
+   */
+  private static List<Set<String>> buildAllowedValues(Schema partitionColumns, EvalNode [] conjunctiveForms) {
+    List<Set<String>> allowedValues = Lists.newArrayList();
+    for (Column column : partitionColumns.getColumns()) {
+      Set<String> values = null;
+      if (conjunctiveForms != null) {
+        for (EvalNode expr : conjunctiveForms) {
+          Set<String> equalValues = getEqualValues(expr, column);
+          if (equalValues != null) {
+            if (values == null) {
+              values = equalValues;
+            } else {
+              values.retainAll(equalValues);
+            }
+          }
+        }
+      }
+      allowedValues.add(values);
+    }
+    return allowedValues;
+  }
+
+  /**
+   * @return the constant values which a column should be equal to, or NULL if an expression is not
+   * an equality condition on the column.
+   */
+  private static Set<String> getEqualValues(EvalNode expr, Column column) {
+    switch (expr.getType()) {
+    case EQUAL: {
+      EvalNode left = expr.getLeftExpr();
+      EvalNode right = expr.getRightExpr();
+      if (left.getType() == EvalType.CONST && right.getType() == EvalType.FIELD) {
+        left = expr.getRightExpr();
+        right = expr.getLeftExpr();
+      }
+      if (isColumn(left, column) && right.getType() == EvalType.CONST &&
+          right.getValueType().getType() == column.getDataType().getType()) {
+        return Sets.newHashSet(((ConstEval) right).getValue().asChars());
+      }
+      return null;
+    }
+    case IN: {
+      InEval inEval = (InEval) expr;
+      if (inEval.isNot() || !isColumn(inEval.getLeftExpr(), column) ||
+          inEval.getRightExpr().getType() != EvalType.ROW_CONSTANT) {
+        return null;
+      }
+      Set<String> values = Sets.newHashSet();
+      for (Datum datum : ((RowConstantEval) inEval.getRightExpr()).getValues()) {
+        if (datum.type() != column.getDataType().getType()) {
+          return null;
+        }
+        values.add(datum.asChars());
+      }
+      return values;
+    }
+    case OR: {
+      Set<String> left = getEqualValues(expr.getLeftExpr(), column);
+      Set<String> right = getEqualValues(expr.getRightExpr(), column);
+      if (left == null || right == null) {
+        return null;
+      }
+      left.addAll(right);
+      return left;
+    }
+    default:
+      return null;
+    }
+  }
+
+  private static boolean isColumn(EvalNode expr, Column column) {
+    return expr.getType() == EvalType.FIELD && ((FieldEval) expr).getColumnRef().equals(column);
+  }
+
   private static Path [] toPathArray(FileStatus[] fileStatuses) {
     Path [] paths = new Path[fileStatuses.length];
     for (int j = 0; j < fileStatuses.length; j++) {
@@ -233,7 +379,13 @@ public class PartitionedTableRewriter implements RewriteRule {
     return paths;
   }
 
-  private Path [] findFilteredPartitionPaths(ScanNode scanNode) throws IOException {
+  /**
+   * @param scanNode the scan of a partitioned table
+   * @param numPartitionsInCatalog the number of partitions registered in the catalog. If it is positive,
+   *                               partitions are found from the catalog.
+   * @return the paths of partitions matched to the search condition
+   */
+  private Path [] findFilteredPartitionPaths(ScanNode scanNode, int numPartitionsInCatalog) throws IOException {
     TableDesc table = scanNode.getTableDesc();
     PartitionMethodDesc partitionDesc = scanNode.getTableDesc().getPartitionMethod();
 
@@ -271,12 +423,27 @@ public class PartitionedTableRewriter implements RewriteRule {
       }
     }
 
+    EvalNode [] partitionFilters = null; // NULL means that we will get all partition paths.
     if (indexablePredicateSet.size() > 0) { // There are at least one indexable predicates
-      return findFilteredPaths(paritionValuesSchema,
-          indexablePredicateSet.toArray(new EvalNode[indexablePredicateSet.size()]), table.getPath());
-    } else { // otherwise, we will get all partition paths.
-      return findFilteredPaths(paritionValuesSchema, null, table.getPath());
+      partitionFilters = indexablePredicateSet.toArray(new EvalNode[indexablePredicateSet.size()]);
+    }
+
+    if (numPartitionsInCatalog > 0) {
+      return findFilteredPathsFromCatalog(paritionValuesSchema, partitionFilters, table);
+    } else {
+      return findFilteredPaths(paritionValuesSchema, partitionFilters, table.getPath());
+    }
+  }
+
+  /**
+   * @return the number of partitions registered in the catalog, or -1 if the catalog is not available.
+   */
+  private int getNumPartitionsInCatalog(TableDesc table) {
+    if (catalog == null || table.getPartitionMethod().getPartitionType() != PartitionType.COLUMN) {
+      return -1;
     }
+    String [] splitted = CatalogUtil.splitFQTableName(table.getName());
+    return catalog.getNumPartitions(splitted[0], splitted[1]);
   }
 
   private boolean checkIfIndexablePredicateOnTargetColumn(EvalNode evalNode, Column targetColumn) {
@@ -323,8 +490,14 @@ public class PartitionedTableRewriter implements RewriteRule {
     }
   }
 
-  private void updateTableStat(PartitionedTableScanNode scanNode) throws PlanningException {
-    if (scanNode.getInputPaths().length > 0) {
+  private void updateTableStat(PartitionedTableScanNode scanNode, int numPartitionsInCatalog)
+      throws PlanningException {
+    TableStats stats = scanNode.getTableDesc().getStats();
+    if (numPartitionsInCatalog > 0 && stats != null && stats.getNumBytes() != null && stats.getNumBytes() > 0) {
+      // The volume is estimated in proportion to the number of partitions without accessing the file system.
+      stats.setNumBytes((long) ((double) stats.getNumBytes() * scanNode.getInputPaths().length /
+          numPartitionsInCatalog));
+    } else if (scanNode.getInputPaths().length > 0) {
       try {
         FileSystem fs = scanNode.getInputPaths()[0].getFileSystem(systemConf);
         long totalVolume = 0;
@@ -352,11 +525,12 @@ public class PartitionedTableRewriter implements RewriteRule {
       }
 
       try {
-        Path [] filteredPaths = findFilteredPartitionPaths(scanNode);
+        int numPartitionsInCatalog = getNumPartitionsInCatalog(table);
+        Path [] filteredPaths = findFilteredPartitionPaths(scanNode, numPartitionsInCatalog);
         plan.addHistory("PartitionTableRewriter chooses " + filteredPaths.length + " of partitions");
         PartitionedTableScanNode rewrittenScanNode = plan.createNode(PartitionedTableScanNode.class);
         rewrittenScanNode.init(scanNode, filteredPaths);
-        updateTableStat(rewrittenScanNode);
+        updateTableStat(rewrittenScanNode, numPartitionsInCatalog);
 
         // if it is topmost node, set it as the rootnode of this block.
         if (stack.empty()) {
@@ -0,0 +1,196 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.planner.rewrite;
+
+import org.apache.tajo.engine.eval.AlgebraicUtil;
+import org.apache.tajo.engine.eval.EvalNode;
+import org.apache.tajo.engine.eval.EvalNodeVisitor;
+import org.apache.tajo.engine.planner.BasicLogicalPlanVisitor;
+import org.apache.tajo.engine.planner.CardinalityEstimator;
+import org.apache.tajo.engine.planner.LogicalPlan;
+import org.apache.tajo.engine.planner.PlanningException;
+import org.apache.tajo.engine.planner.logical.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Stack;
+
+/**
+ * This rule reorders the conjuncts of filter conditions so that cheap and selective conjuncts are
+ * evaluated first. Since AND is evaluated in a short-circuit manner, the remaining conjuncts are not
+ * evaluated for a row once a conjunct is false.
+ *
+ * Conjuncts are sorted in the ascending order of rank = (selectivity - 1) / cost, which minimizes
+ * the expected evaluation cost per row for independent conjuncts. Selectivities are estimated by
+ * {@link CardinalityEstimator}, and per-row costs are estimated from the types of expressions.
+ * Conjuncts of the same rank keep the order written in the query.
+ */
+public class PredicateReorderRule implements RewriteRule {
+  private static final String NAME = "PredicateReorder";
+
+  private final Rewriter rewriter = new Rewriter();
+
+  @Override
+  public String getName() {
+    return NAME;
+  }
+
+  @Override
+  public boolean isEligible(LogicalPlan plan) {
+    for (LogicalPlan.QueryBlock block : plan.getQueryBlocks()) {
+      if (block.hasNode(NodeType.SELECTION) || block.hasNode(NodeType.HAVING) || block.getRelations().size() > 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public LogicalPlan rewrite(LogicalPlan plan) throws PlanningException {
+    for (LogicalPlan.QueryBlock block : plan.getQueryBlocks()) {
+      rewriter.visit(new CardinalityEstimator(block), plan, block, block.getRoot(), new Stack<LogicalNode>());
+    }
+    return plan;
+  }
+
+  /**
+   * @return the conjuncts of a qual in the ascending order of their ranks
+   */
+  static EvalNode reorderConjuncts(CardinalityEstimator estimator, EvalNode qual) {
+    EvalNode [] conjuncts = AlgebraicUtil.toConjunctiveNormalFormArray(qual);
+    if (conjuncts.length < 2) {
+      return qual;
+    }
+
+    List<RankedConjunct> ranked = new ArrayList<RankedConjunct>(conjuncts.length);
+    for (EvalNode conjunct : conjuncts) {
+      double selectivity = Math.max(0, Math.min(1, estimator.estimateSelectivity(conjunct)));
+      ranked.add(new RankedConjunct(conjunct, (selectivity - 1) / estimateCost(conjunct)));
+    }
+    // it is a stable sort.
+    Collections.sort(ranked, RANK_COMPARATOR);
+
+    EvalNode [] ordered = new EvalNode[conjuncts.length];
+    for (int i = 0; i < ordered.length; i++) {
+      ordered[i] = ranked.get(i).conjunct;
+    }
+    return AlgebraicUtil.createSingletonExprFromCNF(ordered);
+  }
+
+  /**
+   * @return the estimated relative cost to evaluate an expression for a row. It is always positive.
+   */
+  static double estimateCost(EvalNode expr) {
+    EvalCostSummer summer = new EvalCostSummer();
+    expr.postOrder(summer);
+    return Math.max(1, summer.cost);
+  }
+
+  private static double getUnitCost(EvalNode expr) {
+    switch (expr.getType()) {
+    case FIELD:
+    case CONST:
+    case ROW_CONSTANT:
+      return 0;
+    case IN:
+    case BETWEEN:
+    case CAST:
+      return 2;
+    case CONCATENATE:
+      return 5;
+    case LIKE:
+      return 10;
+    case SIMILAR_TO:
+    case REGEX:
+      return 20;
+    case FUNCTION:
+      // a general function, including a user-defined one, is regarded as expensive.
+      return 20;
+    default:
+      // comparison, arithmetic and logical operators
+      return 1;
+    }
+  }
+
+  private static class EvalCostSummer implements EvalNodeVisitor {
+    double cost = 0;
+
+    @Override
+    public void visit(EvalNode node) {
+      cost += getUnitCost(node);
+    }
+  }
+
+  private static class RankedConjunct {
+    final EvalNode conjunct;
+    final double rank;
+
+    RankedConjunct(EvalNode conjunct, double rank) {
+      this.conjunct = conjunct;
+      this.rank = rank;
+    }
+  }
+
+  private static final Comparator<RankedConjunct> RANK_COMPARATOR = new Comparator<RankedConjunct>() {
+    @Override
+    public int compare(RankedConjunct o1, RankedConjunct o2) {
+      return Double.compare(o1.rank, o2.rank);
+    }
+  };
+
+  private static class Rewriter extends BasicLogicalPlanVisitor<CardinalityEstimator, LogicalNode> {
+
+    @Override
+    public LogicalNode visitFilter(CardinalityEstimator estimator, LogicalPlan plan, LogicalPlan.QueryBlock block,
+                                   SelectionNode node, Stack<LogicalNode> stack) throws PlanningException {
+      super.visitFilter(estimator, plan, block, node, stack);
+      node.setQual(reorderConjuncts(estimator, node.getQual()));
+      return node;
+    }
+
+    @Override
+    public LogicalNode visitHaving(CardinalityEstimator estimator, LogicalPlan plan, LogicalPlan.QueryBlock block,
+                                   HavingNode node, Stack<LogicalNode> stack) throws PlanningException {
+      super.visitHaving(estimator, plan, block, node, stack);
+      node.setQual(reorderConjuncts(estimator, node.getQual()));
+      return node;
+    }
+
+    @Override
+    public LogicalNode visitScan(CardinalityEstimator estimator, LogicalPlan plan, LogicalPlan.QueryBlock block,
+                                 ScanNode node, Stack<LogicalNode> stack) throws PlanningException {
+      if (node.hasQual()) {
+        node.setQual(reorderConjuncts(estimator, node.getQual()));
+      }
+      return node;
+    }
+
+    @Override
+    public LogicalNode visitPartitionedTableScan(CardinalityEstimator estimator, LogicalPlan plan,
+                                                 LogicalPlan.QueryBlock block, PartitionedTableScanNode node,
+                                                 Stack<LogicalNode> stack) throws PlanningException {
+      if (node.hasQual()) {
+        node.setQual(reorderConjuncts(estimator, node.getQual()));
+      }
+      return node;
+    }
+  }
+}
@@ -491,6 +491,20 @@ public class ProjectionPushDownRule extends
     return node;
   }
 
+  @Override
+  public LogicalNode visitCreateIndex(Context context, LogicalPlan plan, LogicalPlan.QueryBlock block,
+                                      CreateIndexNode node, Stack<LogicalNode> stack) throws PlanningException {
+    Context newContext = new Context(context);
+    for (SortSpec sortSpec : node.getSortSpecs()) {
+      newContext.addExpr(new FieldEval(sortSpec.getSortKey()));
+    }
+
+    LogicalNode child = super.visitCreateIndex(newContext, plan, block, node, stack);
+
+    node.setInSchema(child.getOutSchema());
+    return node;
+  }
+
   @Override
   public LogicalNode visitHaving(Context context, LogicalPlan plan, LogicalPlan.QueryBlock block, HavingNode node,
                             Stack<LogicalNode> stack) throws PlanningException {
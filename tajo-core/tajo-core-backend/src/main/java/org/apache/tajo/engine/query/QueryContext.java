@@ -39,6 +39,10 @@ public class QueryContext extends Options {
   public static final String OUTPUT_OVERWRITE = "tajo.query.output.overwrite";
   public static final String OUTPUT_AS_DIRECTORY = "tajo.query.output.asdirectory";
 
+  public static final String ANALYZE_TABLE_NAME = "tajo.query.analyze.table";
+
+  public static final String PROFILE_QUERY = "tajo.query.profile";
+
   public static final String TRUE_VALUE = "1";
   public static final String FALSE_VALUE = "0";
 
@@ -181,6 +185,23 @@ public class QueryContext extends Options {
     return getCommandType() == NodeType.INSERT;
   }
 
+  /**
+   * Set the table whose statistics are computed by this query. It is set for ANALYZE TABLE statement.
+   *
+   * @param tableName a qualified table name
+   */
+  public void setAnalyzeTable(String tableName) {
+    put(ANALYZE_TABLE_NAME, tableName);
+  }
+
+  public boolean isAnalyzeTable() {
+    return get(ANALYZE_TABLE_NAME) != null;
+  }
+
+  public String getAnalyzeTable() {
+    return get(ANALYZE_TABLE_NAME);
+  }
+
   public void setHiveQueryMode() {
     setBool("hive.query.mode", true);
   }
@@ -188,4 +209,15 @@ public class QueryContext extends Options {
   public boolean isHiveQueryMode() {
     return getBool("hive.query.mode");
   }
+
+  /**
+   * Enables the runtime profiling of physical operators. It is set for EXPLAIN ANALYZE statement.
+   */
+  public void setProfileQuery() {
+    setBool(PROFILE_QUERY, true);
+  }
+
+  public boolean isProfileQuery() {
+    return getBool(PROFILE_QUERY);
+  }
 }
@@ -218,6 +218,13 @@ public class DefaultTaskScheduler extends AbstractTaskScheduler {
           scheduledRequests.addLeafTask(castEvent);
         } else {
           scheduledRequests.addNonLeafTask(castEvent);
+
+          // Non-leaf tasks do not have any locality, so the task is pushed to waiting task runners immediately.
+          if (taskRequests.size() > 0) {
+            synchronized (schedulingThread) {
+              schedulingThread.notifyAll();
+            }
+          }
         }
       }
     } else if (event.getType() == EventType.T_SCHEDULE_CANCEL) {
@@ -802,7 +809,7 @@ public class DefaultTaskScheduler extends AbstractTaskScheduler {
               new ArrayList<FragmentProto>(task.getAllFragments()),
               "",
               false,
-              task.getLogicalPlan().toJson(),
+              subQuery.getSerializedPlan(taskRequest.getContainerId()),
               context.getMasterContext().getQueryContext(),
               subQuery.getDataChannel(), subQuery.getBlock().getEnforcer());
           if (checkIfInterQuery(subQuery.getMasterPlan(), subQuery.getBlock())) {
@@ -859,7 +866,7 @@ public class DefaultTaskScheduler extends AbstractTaskScheduler {
               Lists.newArrayList(task.getAllFragments()),
               "",
               false,
-              task.getLogicalPlan().toJson(),
+              subQuery.getSerializedPlan(taskRequest.getContainerId()),
               context.getMasterContext().getQueryContext(),
               subQuery.getDataChannel(),
               subQuery.getBlock().getEnforcer());
@@ -28,7 +28,15 @@ import org.apache.hadoop.util.StringUtils;
 import org.apache.tajo.QueryId;
 import org.apache.tajo.QueryIdFactory;
 import org.apache.tajo.TajoProtos;
+import org.apache.tajo.algebra.AnalyzeTable;
+import org.apache.tajo.algebra.ColumnReferenceExpr;
+import org.apache.tajo.algebra.CountRowsFunctionExpr;
 import org.apache.tajo.algebra.Expr;
+import org.apache.tajo.algebra.GeneralSetFunctionExpr;
+import org.apache.tajo.algebra.NamedExpr;
+import org.apache.tajo.algebra.OpType;
+import org.apache.tajo.algebra.Projection;
+import org.apache.tajo.algebra.Relation;
 import org.apache.tajo.annotation.Nullable;
 import org.apache.tajo.catalog.*;
 import org.apache.tajo.catalog.exception.*;
@@ -37,6 +45,7 @@ import org.apache.tajo.catalog.statistics.TableStats;
 import org.apache.tajo.conf.TajoConf;
 import org.apache.tajo.engine.exception.IllegalQueryStatusException;
 import org.apache.tajo.engine.exception.VerifyException;
+import org.apache.tajo.engine.function.builtin.CollectColumnStats;
 import org.apache.tajo.engine.parser.HiveQLAnalyzer;
 import org.apache.tajo.engine.parser.SQLAnalyzer;
 import org.apache.tajo.engine.planner.*;
@@ -54,6 +63,8 @@ import java.io.IOException;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import static org.apache.tajo.TajoConstants.DEFAULT_TABLESPACE_NAME;
 import static org.apache.tajo.ipc.ClientProtos.GetQueryStatusResponse;
@@ -62,6 +73,9 @@ public class GlobalEngine extends AbstractService {
   /** Class Logger */
   private final static Log LOG = LogFactory.getLog(GlobalEngine.class);
 
+  private static final Pattern EXPLAIN_ANALYZE_PATTERN =
+      Pattern.compile("^\\s*explain\\s+analyze\\s+", Pattern.CASE_INSENSITIVE);
+
   private final MasterContext context;
   private final AbstractStorageManager sm;
 
@@ -73,6 +87,10 @@ public class GlobalEngine extends AbstractService {
   private LogicalOptimizer optimizer;
   private LogicalPlanVerifier annotatedPlanVerifier;
   private DistributedQueryHookManager hookManager;
+  // NULL if the plan cache is disabled
+  private PlanCache planCache;
+  // NULL if the result cache is disabled
+  private ResultCache resultCache;
 
   public GlobalEngine(final MasterContext context) {
     super(GlobalEngine.class.getName());
@@ -87,12 +105,22 @@ public class GlobalEngine extends AbstractService {
       converter = new HiveQLAnalyzer();
       preVerifier = new PreLogicalPlanVerifier(context.getCatalog());
       planner = new LogicalPlanner(context.getCatalog());
-      optimizer = new LogicalOptimizer(context.getConf());
+      optimizer = new LogicalOptimizer(context.getConf(), context.getCatalog());
       annotatedPlanVerifier = new LogicalPlanVerifier(context.getConf(), context.getCatalog());
 
       hookManager = new DistributedQueryHookManager();
       hookManager.addHook(new CreateTableHook());
       hookManager.addHook(new InsertHook());
+
+      int planCacheSize = context.getConf().getIntVar(TajoConf.ConfVars.QUERY_PLAN_CACHE_SIZE);
+      if (planCacheSize > 0) {
+        planCache = new PlanCache(planCacheSize);
+      }
+      int resultCacheSize = context.getConf().getIntVar(TajoConf.ConfVars.QUERY_RESULT_CACHE_SIZE);
+      if (context.getConf().getBoolVar(TajoConf.ConfVars.QUERY_RESULT_CACHE_ENABLED) && resultCacheSize > 0) {
+        resultCache = new ResultCache(context.getConf(), resultCacheSize,
+            context.getConf().getLongVar(TajoConf.ConfVars.QUERY_RESULT_CACHE_MAX_BYTES));
+      }
     } catch (Throwable t) {
       LOG.error(t.getMessage(), t);
     }
@@ -116,6 +144,13 @@ public class GlobalEngine extends AbstractService {
           if(cmds[0].equalsIgnoreCase("set")) {
               String[] params = cmds[1].split("=");
               context.getConf().set(params[0], params[1]);
+              // cached plans may depend on the previous configuration.
+              if (planCache != null) {
+                planCache.clear();
+              }
+              if (resultCache != null) {
+                resultCache.clear();
+              }
               GetQueryStatusResponse.Builder responseBuilder = GetQueryStatusResponse.newBuilder();
               responseBuilder.setQueryId(QueryIdFactory.NULL_QUERY_ID.getProto());
               responseBuilder.setResultCode(ClientProtos.ResultCode.OK);
@@ -124,6 +159,13 @@ public class GlobalEngine extends AbstractService {
           }
       }
 
+      // EXPLAIN ANALYZE executes the statement with operator profiling.
+      Matcher explainAnalyze = EXPLAIN_ANALYZE_PATTERN.matcher(sql);
+      if (explainAnalyze.find()) {
+        sql = sql.substring(explainAnalyze.end());
+        queryContext.setProfileQuery();
+      }
+
       final boolean hiveQueryMode = context.getConf().getBoolVar(TajoConf.ConfVars.HIVE_QUERY_MODE);
       LOG.info("hive.query.mode:" + hiveQueryMode);
 
@@ -134,8 +176,7 @@ public class GlobalEngine extends AbstractService {
 
       context.getSystemMetrics().counter("Query", "totalQuery").inc();
 
-      Expr planningContext = hiveQueryMode ? converter.parse(sql) : analyzer.parse(sql);
-      LogicalPlan plan = createLogicalPlan(session, planningContext);
+      LogicalPlan plan = planQuery(session, queryContext, sql, hiveQueryMode);
       LogicalRootNode rootNode = plan.getRootBlock().getRoot();
 
       GetQueryStatusResponse.Builder responseBuilder = GetQueryStatusResponse.newBuilder();
@@ -147,12 +188,31 @@ public class GlobalEngine extends AbstractService {
         responseBuilder.setState(TajoProtos.QueryState.QUERY_SUCCEEDED);
       } else {
         context.getSystemMetrics().counter("Query", "numDMLQuery").inc();
+        String resultKey = null;
+        if (resultCache != null && !queryContext.isProfileQuery() &&
+            ResultCache.isCacheable(parseQuery(sql, hiveQueryMode), plan)) {
+          try {
+            resultKey = resultCache.getKey(plan);
+          } catch (IOException e) {
+            LOG.warn("Cannot get the versions of input tables, so the result will not be cached: " + e.getMessage());
+          }
+          TableDesc cachedResult = resultKey == null ? null : resultCache.get(resultKey);
+          if (cachedResult != null) {
+            context.getSystemMetrics().counter("Query", "resultCacheHit").inc();
+            return getCachedResultResponse(cachedResult);
+          }
+          context.getSystemMetrics().counter("Query", "resultCacheMiss").inc();
+        }
+
         hookManager.doHooks(queryContext, plan);
 
         QueryJobManager queryJobManager = this.context.getQueryJobManager();
         QueryInfo queryInfo;
 
         queryInfo = queryJobManager.createNewQueryJob(session, queryContext, sql, rootNode);
+        if (queryInfo != null && resultKey != null) {
+          resultCache.register(queryInfo.getQueryId(), resultKey);
+        }
 
         if(queryInfo == null) {
           responseBuilder.setQueryId(QueryIdFactory.NULL_QUERY_ID.getProto());
@@ -188,6 +248,85 @@ public class GlobalEngine extends AbstractService {
     }
   }
 
+  /**
+   * A query answered from the result cache gets a new query id, and it is immediately completed.
+   */
+  private GetQueryStatusResponse getCachedResultResponse(TableDesc resultDesc) throws IOException {
+    QueryId queryId = QueryIdFactory.newQueryId(context.getResourceManager().getSeedQueryId());
+    resultCache.addServedQuery(queryId, resultDesc);
+
+    GetQueryStatusResponse.Builder responseBuilder = GetQueryStatusResponse.newBuilder();
+    responseBuilder.setQueryId(queryId.getProto());
+    responseBuilder.setResultCode(ClientProtos.ResultCode.OK);
+    responseBuilder.setState(TajoProtos.QueryState.QUERY_SUCCEEDED);
+    responseBuilder.setHasResult(true);
+    responseBuilder.setResultDesc(resultDesc.getProto());
+    return responseBuilder.build();
+  }
+
+  /**
+   * @return NULL if the result cache is disabled
+   */
+  public ResultCache getResultCache() {
+    return resultCache;
+  }
+
+  /**
+   * @return a parsed statement, which is a copy of the cached one if the plan cache is enabled
+   */
+  private Expr parseQuery(String sql, boolean hiveQueryMode) {
+    if (planCache == null) {
+      return hiveQueryMode ? converter.parse(sql) : analyzer.parse(sql);
+    }
+
+    String exprKey = PlanCache.getExprKey(sql, hiveQueryMode);
+    Expr expr = planCache.getExpr(exprKey);
+    if (expr == null) {
+      expr = hiveQueryMode ? converter.parse(sql) : analyzer.parse(sql);
+      planCache.putExpr(exprKey, expr);
+    }
+    return expr;
+  }
+
+  /**
+   * Builds an optimized plan of a statement. If the plan cache is enabled, a cached plan is reused
+   * for the same statement in the same database unless the catalog has been changed.
+   */
+  private LogicalPlan planQuery(Session session, QueryContext queryContext, String sql, boolean hiveQueryMode)
+      throws PlanningException {
+    if (planCache == null) {
+      Expr planningContext = parseQuery(sql, hiveQueryMode);
+      if (planningContext.getType() == OpType.AnalyzeTable) {
+        planningContext = buildAnalyzeQuery(catalog, session, queryContext, (AnalyzeTable) planningContext);
+      }
+      return createLogicalPlan(session, planningContext);
+    }
+
+    String exprKey = PlanCache.getExprKey(sql, hiveQueryMode);
+    String planKey = PlanCache.getPlanKey(exprKey, session.getCurrentDatabase());
+    // it must be read before planning, so that a plan is never cached with a newer version.
+    long catalogVersion = catalog.getCatalogVersion();
+
+    LogicalPlan plan = planCache.getPlan(planKey, catalogVersion);
+    if (plan != null) {
+      context.getSystemMetrics().counter("Query", "planCacheHit").inc();
+      return plan;
+    }
+    context.getSystemMetrics().counter("Query", "planCacheMiss").inc();
+
+    Expr expr = parseQuery(sql, hiveQueryMode);
+    Expr planningContext = expr;
+    if (planningContext.getType() == OpType.AnalyzeTable) {
+      planningContext = buildAnalyzeQuery(catalog, session, queryContext, (AnalyzeTable) planningContext);
+    }
+    plan = createLogicalPlan(session, planningContext);
+
+    if (PlanCache.isCacheablePlan(expr, plan)) {
+      planCache.putPlan(planKey, catalogVersion, plan);
+    }
+    return plan;
+  }
+
   public String explainQuery(Session session, String sql) throws IOException, SQLException, PlanningException {
     LOG.info("SQL: " + sql);
     // parse the query
@@ -241,6 +380,40 @@ public class GlobalEngine extends AbstractService {
     }
   }
 
+  /**
+   * ANALYZE TABLE is executed as an aggregation query which computes the number of rows and
+   * the statistics of every column in a distributed way. When the query is completed,
+   * the statistics are stored into the catalog by a query hook of the query master.
+   */
+  public static Expr buildAnalyzeQuery(CatalogService catalog, Session session, QueryContext queryContext,
+                                       AnalyzeTable analyze) {
+    String qualifiedName;
+    if (CatalogUtil.isFQTableName(analyze.getTableName())) {
+      qualifiedName = analyze.getTableName();
+    } else {
+      qualifiedName = CatalogUtil.buildFQName(session.getCurrentDatabase(), analyze.getTableName());
+    }
+
+    if (!catalog.existsTable(qualifiedName)) {
+      throw new NoSuchTableException(qualifiedName);
+    }
+    TableDesc desc = catalog.getTableDesc(qualifiedName);
+
+    List<NamedExpr> targets = new ArrayList<NamedExpr>();
+    targets.add(new NamedExpr(new CountRowsFunctionExpr()));
+    for (Column column : desc.getSchema().getColumns()) {
+      targets.add(new NamedExpr(new GeneralSetFunctionExpr(CollectColumnStats.NAME, false,
+          new ColumnReferenceExpr(column.getSimpleName()))));
+    }
+
+    Projection projection = new Projection();
+    projection.setNamedExprs(targets.toArray(new NamedExpr[targets.size()]));
+    projection.setChild(new Relation(qualifiedName));
+
+    queryContext.setAnalyzeTable(qualifiedName);
+    return projection;
+  }
+
   private LogicalPlan createLogicalPlan(Session session, Expr expression) throws PlanningException {
 
     VerificationState state = new VerificationState();
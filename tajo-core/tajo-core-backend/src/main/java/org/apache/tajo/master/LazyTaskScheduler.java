@@ -468,7 +468,7 @@ public class LazyTaskScheduler extends AbstractTaskScheduler {
         new ArrayList<FragmentProto>(taskAttempt.getQueryUnit().getAllFragments()),
         "",
         false,
-        taskAttempt.getQueryUnit().getLogicalPlan().toJson(),
+        subQuery.getSerializedPlan(attemptContext.getContainerId()),
         context.getMasterContext().getQueryContext(),
         subQuery.getDataChannel(), subQuery.getBlock().getEnforcer());
     if (checkIfInterQuery(subQuery.getMasterPlan(), subQuery.getBlock())) {
@@ -0,0 +1,203 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.master;
+
+import org.apache.tajo.algebra.Expr;
+import org.apache.tajo.algebra.JsonHelper;
+import org.apache.tajo.algebra.OpType;
+import org.apache.tajo.engine.planner.LogicalPlan;
+import org.apache.tajo.engine.planner.PlannerUtil;
+import org.apache.tajo.engine.planner.logical.NodeType;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A cache of query plans in the master.
+ *
+ * An optimized {@link LogicalPlan} is cached only for read-only queries, because the master
+ * does not modify their plans after optimization. Plans are keyed by the normalized SQL text,
+ * the current database of a session and the query mode, and they are valid only for the catalog
+ * version when they were built. All cached plans are dropped once the catalog version changes,
+ * so plans referring to changed tables are never reused.
+ *
+ * For the other statements, such as INSERT and CREATE TABLE AS, only the parsed {@link Expr}
+ * is cached, and a copy of it is returned for each use because planning modifies it.
+ *
+ * Both caches are bounded and evict the least recently used entries.
+ */
+public class PlanCache {
+  private final Map<String, LogicalPlan> plans;
+  private final Map<String, String> exprs;
+  private long catalogVersion = -1;
+
+  public PlanCache(final int maxSize) {
+    plans = new LinkedHashMap<String, LogicalPlan>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, LogicalPlan> eldest) {
+        return size() > maxSize;
+      }
+    };
+    exprs = new LinkedHashMap<String, String>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+        return size() > maxSize;
+      }
+    };
+  }
+
+  /**
+   * @return the key of a parsed statement
+   */
+  public static String getExprKey(String sql, boolean hiveQueryMode) {
+    return (hiveQueryMode ? "H:" : "T:") + normalize(sql);
+  }
+
+  /**
+   * @return the key of a plan, which is planned in the current database
+   */
+  public static String getPlanKey(String exprKey, String databaseName) {
+    return databaseName + "\u0000" + exprKey;
+  }
+
+  /**
+   * Collapses whitespaces outside of quotes and removes a trailing semicolon, so that the same
+   * statement written in different lines shares a cache entry.
+   */
+  static String normalize(String sql) {
+    StringBuilder sb = new StringBuilder(sql.length());
+    char quote = 0;
+    boolean pendingSpace = false;
+
+    for (int i = 0; i < sql.length(); i++) {
+      char c = sql.charAt(i);
+      if (quote != 0) {
+        sb.append(c);
+        if (c == quote) {
+          quote = 0;
+        }
+      } else if (Character.isWhitespace(c)) {
+        pendingSpace = sb.length() > 0;
+      } else {
+        if (pendingSpace) {
+          sb.append(' ');
+          pendingSpace = false;
+        }
+        if (c == '\'' || c == '"') {
+          quote = c;
+        }
+        sb.append(c);
+      }
+    }
+
+    int end = sb.length();
+    while (end > 0 && sb.charAt(end - 1) == ';') {
+      end--;
+    }
+    sb.setLength(end);
+    return sb.toString().trim();
+  }
+
+  /**
+   * @return true if a plan of a statement can be shared by multiple executions
+   */
+  public static boolean isCacheablePlan(Expr expr, LogicalPlan plan) {
+    if (expr.getType() == OpType.AnalyzeTable) {
+      return false;
+    }
+
+    NodeType rootType = plan.getRootBlock().getRoot().getChild().getType();
+    if (PlannerUtil.checkIfDDLPlan(plan.getRootBlock().getRoot()) || rootType == NodeType.INSERT ||
+        rootType == NodeType.CREATE_TABLE) {
+      return false;
+    }
+
+    // pruned partitions are listed when a query is planned, and new partitions may be added later.
+    for (LogicalPlan.QueryBlock block : plan.getQueryBlocks()) {
+      if (block.hasNode(NodeType.PARTITIONS_SCAN)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @param catalogVersion the current catalog version
+   * @return the cached plan, or NULL if there is no plan built for the catalog version
+   */
+  public synchronized LogicalPlan getPlan(String key, long catalogVersion) {
+    if (catalogVersion < 0) {
+      return null;
+    }
+    checkCatalogVersion(catalogVersion);
+    return plans.get(key);
+  }
+
+  /**
+   * @param catalogVersion the catalog version read before the plan is built
+   */
+  public synchronized void putPlan(String key, long catalogVersion, LogicalPlan plan) {
+    checkCatalogVersion(catalogVersion);
+    if (catalogVersion >= 0 && catalogVersion == this.catalogVersion) {
+      plans.put(key, plan);
+    }
+  }
+
+  private void checkCatalogVersion(long catalogVersion) {
+    if (catalogVersion > this.catalogVersion) {
+      plans.clear();
+      this.catalogVersion = catalogVersion;
+    }
+  }
+
+  /**
+   * @return a copy of the cached statement, or NULL if it is not cached
+   */
+  public Expr getExpr(String key) {
+    String json;
+    synchronized (this) {
+      json = exprs.get(key);
+    }
+    return json == null ? null : JsonHelper.fromJson(json, Expr.class);
+  }
+
+  public void putExpr(String key, Expr expr) {
+    String json = expr.toJson();
+    // some statements may not be restored from JSON exactly. They are not cached.
+    if (!expr.equals(JsonHelper.fromJson(json, Expr.class))) {
+      return;
+    }
+    synchronized (this) {
+      exprs.put(key, json);
+    }
+  }
+
+  public synchronized void clear() {
+    plans.clear();
+    exprs.clear();
+  }
+
+  public synchronized int getPlanNum() {
+    return plans.size();
+  }
+
+  public synchronized int getExprNum() {
+    return exprs.size();
+  }
+}
@@ -0,0 +1,340 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.master;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.protobuf.ByteString;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.tajo.QueryId;
+import org.apache.tajo.catalog.TableDesc;
+import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.ipc.ClientProtos.FetchResultRequest;
+import org.apache.tajo.ipc.ClientProtos.FetchResultResponse;
+import org.apache.tajo.ipc.ClientProtos.ResultCode;
+import org.apache.tajo.jdbc.TajoResultSet;
+import org.apache.tajo.storage.BinaryTupleBuilder;
+import org.apache.tajo.storage.FileScanner;
+import org.apache.tajo.storage.MergeScanner;
+import org.apache.tajo.storage.Scanner;
+import org.apache.tajo.storage.Tuple;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * QueryResultScanner reads the result of a query for a client, which fetches the rows page by page
+ * through rpc instead of reading the result files from HDFS. Each row is encoded as a
+ * {@link org.apache.tajo.storage.BinaryTuple}.
+ *
+ * Each scanner is a cursor identified by a fetch handle, which is returned by the first fetch of a result.
+ * So, several result sets of the same query are read independently. The scanners are kept in {@link Scanners}
+ * until all rows are fetched, they are closed, or they are not used for a while.
+ */
+public class QueryResultScanner {
+  private static final Log LOG = LogFactory.getLog(QueryResultScanner.class);
+
+  private final TajoConf conf;
+  private final long fetchHandle;
+  private final QueryId queryId;
+  private final TableDesc desc;
+  private final BinaryTupleBuilder builder;
+  private Scanner scanner;
+  private boolean eos = false;
+  private boolean closed = false;
+  private volatile long lastAccessTime;
+
+  public QueryResultScanner(TajoConf conf, long fetchHandle, QueryId queryId, TableDesc desc) {
+    this.conf = conf;
+    this.fetchHandle = fetchHandle;
+    this.queryId = queryId;
+    this.desc = desc;
+    this.builder = new BinaryTupleBuilder(desc.getSchema());
+    this.lastAccessTime = System.currentTimeMillis();
+  }
+
+  public long getFetchHandle() {
+    return fetchHandle;
+  }
+
+  public QueryId getQueryId() {
+    return queryId;
+  }
+
+  public TableDesc getResultDesc() {
+    return desc;
+  }
+
+  /**
+   * @return The last time when the rows are fetched
+   */
+  public long getLastAccessTime() {
+    return lastAccessTime;
+  }
+
+  private void open() throws IOException {
+    FileSystem fs = FileScanner.getFileSystem(conf, desc.getPath());
+    scanner = new MergeScanner(conf, desc.getSchema(), desc.getMeta(),
+        TajoResultSet.getFragments(fs, desc.getPath()));
+    scanner.init();
+    eos = false;
+  }
+
+  /**
+   * Fetches at most fetchRowNum rows from the current position.
+   */
+  public synchronized FetchResultResponse nextRows(int fetchRowNum) throws IOException {
+    if (closed) {
+      throw new IOException("The fetch handle " + fetchHandle + " of " + queryId + " is already closed");
+    }
+    lastAccessTime = System.currentTimeMillis();
+    if (scanner == null && !eos) {
+      open();
+    }
+
+    FetchResultResponse.Builder response = FetchResultResponse.newBuilder();
+    response.setResultCode(ResultCode.OK);
+    response.setFetchHandle(fetchHandle);
+    while (!eos && response.getRowsCount() < fetchRowNum) {
+      Tuple tuple = scanner.next();
+      if (tuple == null) {
+        closeScanner();
+        eos = true;
+      } else {
+        response.addRows(ByteString.copyFrom(builder.build(tuple).getBytes()));
+      }
+    }
+    response.setEos(eos);
+    lastAccessTime = System.currentTimeMillis();
+    return response.build();
+  }
+
+  /**
+   * Rewinds this scanner to the first row.
+   */
+  public synchronized void reset() throws IOException {
+    closeScanner();
+    eos = false;
+  }
+
+  private void closeScanner() {
+    if (scanner != null) {
+      try {
+        scanner.close();
+      } catch (IOException e) {
+        LOG.warn("Cannot close the result scanner of " + queryId + ": " + e.getMessage());
+      }
+      scanner = null;
+    }
+  }
+
+  /**
+   * Closes this scanner. No more rows can be fetched from it.
+   */
+  public synchronized void close() {
+    closeScanner();
+    closed = true;
+  }
+
+  /**
+   * The result scanners served by a client service. A scanner which is not used for
+   * {@link TajoConf.ConfVars#CLIENT_RESULT_FETCH_IDLE_TIMEOUT} is closed, so the scanners of dead clients
+   * do not hold their result files.
+   */
+  public static class Scanners {
+    private final Map<Long, QueryResultScanner> scanners = new ConcurrentHashMap<Long, QueryResultScanner>();
+    private final AtomicLong handleSeq = new AtomicLong(0);
+    private final TajoConf conf;
+    private final long idleTimeoutMs;
+    private IdleScannerCleaner cleaner;
+
+    public Scanners(TajoConf conf) {
+      this.conf = conf;
+      this.idleTimeoutMs = conf.getIntVar(TajoConf.ConfVars.CLIENT_RESULT_FETCH_IDLE_TIMEOUT) * 1000L;
+    }
+
+    /**
+     * Starts the thread which closes idle scanners.
+     */
+    public void start() {
+      if (idleTimeoutMs > 0) {
+        cleaner = new IdleScannerCleaner();
+        cleaner.start();
+      }
+    }
+
+    /**
+     * Stops the cleaner thread and closes all scanners.
+     */
+    public void stop() {
+      if (cleaner != null) {
+        cleaner.stopped.set(true);
+        cleaner.interrupt();
+        cleaner = null;
+      }
+      closeAll();
+    }
+
+    /**
+     * Fetches the next rows of a query result. If the request does not have a fetch handle, a new scanner is
+     * opened, and its fetch handle is returned with the rows.
+     *
+     * @param desc The result of the query. It is NULL if the query does not have its result.
+     */
+    public FetchResultResponse fetch(FetchResultRequest request, TableDesc desc) {
+      QueryId queryId = new QueryId(request.getQueryId());
+      long fetchHandle = request.getFetchHandle();
+
+      if (request.getClose()) {
+        close(fetchHandle);
+        return FetchResultResponse.newBuilder()
+            .setResultCode(ResultCode.OK)
+            .setEos(true)
+            .setFetchHandle(fetchHandle).build();
+      }
+
+      QueryResultScanner scanner;
+      if (fetchHandle == 0) {
+        if (desc == null) {
+          return newErrorResponse("No result for " + queryId);
+        }
+        scanner = new QueryResultScanner(conf, handleSeq.incrementAndGet(), queryId, desc);
+        scanners.put(scanner.getFetchHandle(), scanner);
+        onOpen(scanner);
+      } else {
+        scanner = scanners.get(fetchHandle);
+        if (scanner == null || !scanner.getQueryId().equals(queryId)) {
+          return newErrorResponse("No fetch handle " + fetchHandle + " for " + queryId
+              + ". It is already closed or expired.");
+        }
+      }
+
+      try {
+        if (request.getReset()) {
+          scanner.reset();
+        }
+        FetchResultResponse response = scanner.nextRows(request.getFetchRowNum());
+        if (response.getEos()) {
+          close(scanner.getFetchHandle());
+        }
+        return response;
+      } catch (Throwable t) {
+        LOG.error("Cannot fetch the result of " + queryId + ": " + t.getMessage(), t);
+        close(scanner.getFetchHandle());
+        return newErrorResponse(t.getMessage() == null ? t.getClass().getName() : t.getMessage());
+      }
+    }
+
+    private static FetchResultResponse newErrorResponse(String message) {
+      return FetchResultResponse.newBuilder()
+          .setResultCode(ResultCode.ERROR)
+          .setEos(true)
+          .setErrorMessage(message).build();
+    }
+
+    public void close(long fetchHandle) {
+      QueryResultScanner scanner = scanners.remove(fetchHandle);
+      if (scanner != null) {
+        scanner.close();
+        onClose(scanner);
+      }
+    }
+
+    /**
+     * Closes all scanners of a query.
+     */
+    public void closeQuery(QueryId queryId) {
+      for (QueryResultScanner scanner : scanners.values()) {
+        if (scanner.getQueryId().equals(queryId)) {
+          close(scanner.getFetchHandle());
+        }
+      }
+    }
+
+    public void closeAll() {
+      for (Long fetchHandle : scanners.keySet()) {
+        close(fetchHandle);
+      }
+    }
+
+    /**
+     * Closes the scanners which have not been used for the idle timeout.
+     *
+     * @return The number of closed scanners
+     */
+    @VisibleForTesting
+    int closeIdleScanners(long now) {
+      int closedNum = 0;
+      for (QueryResultScanner scanner : scanners.values()) {
+        if (now - scanner.getLastAccessTime() > idleTimeoutMs) {
+          LOG.info("Close the idle fetch handle " + scanner.getFetchHandle() + " of " + scanner.getQueryId());
+          close(scanner.getFetchHandle());
+          closedNum++;
+        }
+      }
+      return closedNum;
+    }
+
+    public int size() {
+      return scanners.size();
+    }
+
+    /**
+     * It is called when a scanner is created for a query result.
+     */
+    protected void onOpen(QueryResultScanner scanner) {
+    }
+
+    /**
+     * It is called when a scanner is closed and removed.
+     */
+    protected void onClose(QueryResultScanner scanner) {
+    }
+
+    private class IdleScannerCleaner extends Thread {
+      private final AtomicBoolean stopped = new AtomicBoolean(false);
+
+      IdleScannerCleaner() {
+        super("Idle result scanner cleaner");
+        setDaemon(true);
+      }
+
+      @Override
+      public void run() {
+        long interval = Math.max(1000, Math.min(idleTimeoutMs / 2, 60 * 1000));
+        while (!stopped.get()) {
+          try {
+            Thread.sleep(interval);
+          } catch (InterruptedException e) {
+            break;
+          }
+          try {
+            closeIdleScanners(System.currentTimeMillis());
+          } catch (Throwable t) {
+            LOG.error(t.getMessage(), t);
+          }
+        }
+      }
+    }
+  }
+}
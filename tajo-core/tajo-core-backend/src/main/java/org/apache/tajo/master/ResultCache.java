@@ -0,0 +1,431 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.master;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.tajo.QueryId;
+import org.apache.tajo.TajoConstants;
+import org.apache.tajo.algebra.Expr;
+import org.apache.tajo.catalog.TableDesc;
+import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.engine.eval.*;
+import org.apache.tajo.engine.planner.BasicLogicalPlanVisitor;
+import org.apache.tajo.engine.planner.LogicalPlan;
+import org.apache.tajo.engine.planner.PlanningException;
+import org.apache.tajo.engine.planner.Target;
+import org.apache.tajo.engine.planner.logical.*;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * A cache of materialized query results in the master.
+ *
+ * The result of a read-only query is left in the staging directory of the query, and it is read
+ * by clients from there. If the same plan is submitted again while its input tables are not changed,
+ * the master returns the description of the previous result instead of executing the query.
+ *
+ * A result is keyed by a digest of the serialized plan and the versions of the input tables.
+ * The version of a table consists of the modification times and the lengths of the table directory
+ * and the files in it, so that a table overwritten or appended by queries is not regarded as the same
+ * table. Queries which call non-deterministic or user-defined functions or read partitioned tables
+ * are not cached.
+ *
+ * The cache is bounded by the number of results and their total volume. An evicted result is removed
+ * together with its staging directory. If a query answered from the cache or an open reader still refers
+ * to an evicted result, the directory is removed when the last of them is released.
+ */
+public class ResultCache {
+  private static final Log LOG = LogFactory.getLog(ResultCache.class);
+
+  /** the maximum number of queries answered from the cache which are kept for their clients */
+  private static final int MAX_SERVED_QUERIES = 1024;
+  private static final Charset UTF8 = Charset.forName("UTF-8");
+
+  private final TajoConf conf;
+  private final int maxNum;
+  private final long maxBytes;
+
+  /** cached results, the least recently used one first */
+  private final LinkedHashMap<String, TableDesc> results = new LinkedHashMap<String, TableDesc>(16, 0.75f, true);
+  private long totalBytes = 0;
+  /** keys of running queries whose results will be cached */
+  private final Map<QueryId, String> pending = new HashMap<QueryId, String>();
+  /** queries answered from the cache, the oldest one first */
+  private final LinkedHashMap<QueryId, TableDesc> served = new LinkedHashMap<QueryId, TableDesc>();
+  /** the number of open readers for each result directory */
+  private final Map<Path, Integer> readers = new HashMap<Path, Integer>();
+  /** evicted results whose directories are still referred to */
+  private final Set<Path> evictedInUse = new HashSet<Path>();
+
+  /**
+   * @param maxNum the maximum number of cached results
+   * @param maxBytes the maximum total volume of cached results
+   */
+  public ResultCache(TajoConf conf, int maxNum, long maxBytes) {
+    this.conf = conf;
+    this.maxNum = maxNum;
+    this.maxBytes = maxBytes;
+  }
+
+  /**
+   * @return true if the result of a statement can be reused by later executions
+   */
+  public static boolean isCacheable(Expr expr, LogicalPlan plan) {
+    if (!PlanCache.isCacheablePlan(expr, plan) || !isDeterministic(plan)) {
+      return false;
+    }
+    for (TableDesc table : getInputTables(plan)) {
+      if (table.hasPartition()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return true if every function called in a plan is a built-in function which always returns the same result
+   * for the same arguments
+   */
+  private static boolean isDeterministic(LogicalPlan plan) {
+    List<FunctionEval> functions = new ArrayList<FunctionEval>();
+    FunctionCollector collector = new FunctionCollector();
+    try {
+      for (LogicalPlan.QueryBlock block : plan.getQueryBlocks()) {
+        collector.visit(functions, plan, block, block.getRoot(), new Stack<LogicalNode>());
+      }
+    } catch (PlanningException e) {
+      LOG.warn("Cannot find the functions of a plan: " + e.getMessage());
+      return false;
+    }
+
+    for (FunctionEval function : functions) {
+      switch (function.getFuncDesc().getFuncType()) {
+        case UDF:
+        case UDA:
+        case DISTINCT_UDA:
+          // the determinism of a user-defined function is unknown.
+          return false;
+        case GENERAL:
+          if (function instanceof GeneralFunctionEval && !((GeneralFunctionEval) function).isDeterministic()) {
+            return false;
+          }
+          break;
+        default:
+          break;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * It collects the function calls in the targets and the conditions of the relational operators of a plan.
+   */
+  private static class FunctionCollector extends BasicLogicalPlanVisitor<List<FunctionEval>, Object> {
+    @Override
+    public Object visit(List<FunctionEval> functions, LogicalPlan plan, LogicalPlan.QueryBlock block,
+                        LogicalNode node, Stack<LogicalNode> stack) throws PlanningException {
+      List<EvalNode> exprs = new ArrayList<EvalNode>();
+      if (node instanceof Projectable && ((Projectable) node).hasTargets()) {
+        for (Target target : ((Projectable) node).getTargets()) {
+          exprs.add(target.getEvalTree());
+        }
+      }
+      switch (node.getType()) {
+        case SELECTION:
+          exprs.add(((SelectionNode) node).getQual());
+          break;
+        case HAVING:
+          exprs.add(((HavingNode) node).getQual());
+          break;
+        case JOIN:
+          exprs.add(((JoinNode) node).getJoinQual());
+          break;
+        case GROUP_BY:
+          if (((GroupbyNode) node).hasAggFunctions()) {
+            exprs.addAll(Arrays.asList(((GroupbyNode) node).getAggFunctions()));
+          }
+          break;
+        case SCAN:
+        case PARTITIONS_SCAN:
+          exprs.add(((ScanNode) node).getQual());
+          break;
+        default:
+          break;
+      }
+
+      for (EvalNode expr : exprs) {
+        if (expr != null) {
+          functions.addAll(EvalTreeUtil.<FunctionEval>findEvalsByType(expr, EvalType.FUNCTION));
+          functions.addAll(EvalTreeUtil.<FunctionEval>findEvalsByType(expr, EvalType.AGG_FUNCTION));
+        }
+      }
+      return super.visit(functions, plan, block, node, stack);
+    }
+  }
+
+  private static List<TableDesc> getInputTables(LogicalPlan plan) {
+    List<TableDesc> tables = new ArrayList<TableDesc>();
+    for (LogicalPlan.QueryBlock block : plan.getQueryBlocks()) {
+      for (RelationNode relation : block.getRelations()) {
+        if (relation instanceof ScanNode) {
+          tables.add(((ScanNode) relation).getTableDesc());
+        }
+      }
+    }
+    return tables;
+  }
+
+  /**
+   * @return the key of a query result, which is changed if any input table is changed
+   */
+  public String getKey(LogicalPlan plan) throws IOException {
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("MD5");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IOException(e);
+    }
+
+    digest.update(plan.getRootBlock().getRoot().toJson().getBytes(UTF8));
+    for (TableDesc table : getInputTables(plan)) {
+      digest.update(getTableVersion(table).getBytes(UTF8));
+    }
+    return new BigInteger(1, digest.digest()).toString(16);
+  }
+
+  private String getTableVersion(TableDesc table) throws IOException {
+    Path path = table.getPath();
+    FileSystem fs = path.getFileSystem(conf);
+    StringBuilder sb = new StringBuilder(table.getName()).append('@').append(path);
+
+    FileStatus status = fs.getFileStatus(path);
+    sb.append(':').append(status.getModificationTime()).append(':').append(status.getLen());
+    if (status.isDirectory()) {
+      FileStatus [] children = fs.listStatus(path);
+      Arrays.sort(children);
+      for (FileStatus child : children) {
+        sb.append('/').append(child.getPath().getName())
+            .append(':').append(child.getModificationTime()).append(':').append(child.getLen());
+      }
+    }
+    return sb.toString();
+  }
+
+  /**
+   * @return the description of a cached result, or NULL if there is no result for the key
+   */
+  public synchronized TableDesc get(String key) {
+    return results.get(key);
+  }
+
+  /**
+   * Registers a submitted query, whose result will be cached with the key when it succeeds.
+   */
+  public synchronized void register(QueryId queryId, String key) {
+    pending.put(queryId, key);
+  }
+
+  /**
+   * It is called when a query is finished.
+   *
+   * @param resultDesc the description of the query result, or NULL if the query did not succeed
+   */
+  public void finish(QueryId queryId, TableDesc resultDesc) {
+    List<TableDesc> evicted = new ArrayList<TableDesc>();
+    synchronized (this) {
+      String key = pending.remove(queryId);
+      if (key == null || resultDesc == null || results.containsKey(key)) {
+        return;
+      }
+
+      long bytes = getVolume(resultDesc);
+      if (bytes > maxBytes) {
+        return;
+      }
+      results.put(key, resultDesc);
+      totalBytes += bytes;
+
+      Iterator<TableDesc> it = results.values().iterator();
+      while ((results.size() > maxNum || totalBytes > maxBytes) && it.hasNext()) {
+        TableDesc eldest = it.next();
+        it.remove();
+        totalBytes -= getVolume(eldest);
+        evicted.add(eldest);
+      }
+    }
+
+    removeResultDirs(evicted);
+  }
+
+  /**
+   * Keeps a result returned from the cache for a new query id, so that the client can retrieve
+   * the result with the query id.
+   */
+  public void addServedQuery(QueryId queryId, TableDesc resultDesc) {
+    List<TableDesc> released = new ArrayList<TableDesc>();
+    synchronized (this) {
+      served.put(queryId, resultDesc);
+      Iterator<TableDesc> it = served.values().iterator();
+      while (served.size() > MAX_SERVED_QUERIES) {
+        released.add(it.next());
+        it.remove();
+      }
+    }
+    for (TableDesc desc : released) {
+      releaseResultDir(desc);
+    }
+  }
+
+  /**
+   * @return the result of a query answered from the cache, or NULL if there is no such query
+   */
+  public synchronized TableDesc getServedQuery(QueryId queryId) {
+    return served.get(queryId);
+  }
+
+  /**
+   * It is called when the client of a query answered from the cache does not need the result anymore.
+   */
+  public void removeServedQuery(QueryId queryId) {
+    TableDesc desc;
+    synchronized (this) {
+      desc = served.remove(queryId);
+    }
+    if (desc != null) {
+      releaseResultDir(desc);
+    }
+  }
+
+  /**
+   * It is called when a reader opens a result, and the result directory is kept until the reader is released.
+   */
+  public synchronized void acquireReader(TableDesc desc) {
+    Integer count = readers.get(desc.getPath());
+    readers.put(desc.getPath(), count == null ? 1 : count + 1);
+  }
+
+  public void releaseReader(TableDesc desc) {
+    synchronized (this) {
+      Integer count = readers.get(desc.getPath());
+      if (count == null) {
+        return;
+      } else if (count > 1) {
+        readers.put(desc.getPath(), count - 1);
+        return;
+      }
+      readers.remove(desc.getPath());
+    }
+    releaseResultDir(desc);
+  }
+
+  /**
+   * Drops all cached results and removes their directories.
+   */
+  public void clear() {
+    List<TableDesc> evicted;
+    synchronized (this) {
+      evicted = new ArrayList<TableDesc>(results.values());
+      results.clear();
+      totalBytes = 0;
+    }
+    removeResultDirs(evicted);
+  }
+
+  public synchronized int size() {
+    return results.size();
+  }
+
+  public synchronized long getTotalBytes() {
+    return totalBytes;
+  }
+
+  private static long getVolume(TableDesc desc) {
+    return desc.getStats() != null && desc.getStats().getNumBytes() != null ? desc.getStats().getNumBytes() : 0;
+  }
+
+  private boolean isInUse(Path path) {
+    if (readers.containsKey(path)) {
+      return true;
+    }
+    for (TableDesc desc : served.values()) {
+      if (desc.getPath().equals(path)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Removes the directories of evicted results. A result which is still referred to by a served query
+   * or an open reader is removed when the last of them is released.
+   */
+  private void removeResultDirs(List<TableDesc> evicted) {
+    List<TableDesc> removed = new ArrayList<TableDesc>();
+    synchronized (this) {
+      for (TableDesc desc : evicted) {
+        if (isInUse(desc.getPath())) {
+          evictedInUse.add(desc.getPath());
+        } else {
+          removed.add(desc);
+        }
+      }
+    }
+    for (TableDesc desc : removed) {
+      removeResultDir(desc);
+    }
+  }
+
+  /**
+   * Removes the directory of a result released by a served query or a reader if it has been evicted
+   * and nothing refers to it anymore.
+   */
+  private void releaseResultDir(TableDesc desc) {
+    synchronized (this) {
+      if (!evictedInUse.contains(desc.getPath()) || isInUse(desc.getPath())) {
+        return;
+      }
+      evictedInUse.remove(desc.getPath());
+    }
+    removeResultDir(desc);
+  }
+
+  private void removeResultDir(TableDesc desc) {
+    Path path = desc.getPath();
+    // a result is written into the staging directory of its query, which is not used anymore.
+    if (path.getName().equals(TajoConstants.RESULT_DIR_NAME) && path.getParent() != null) {
+      path = path.getParent();
+    }
+    try {
+      FileSystem fs = path.getFileSystem(conf);
+      fs.delete(path, true);
+      LOG.info("Evicted a cached query result: " + path);
+    } catch (IOException e) {
+      LOG.warn("Cannot remove an evicted query result " + path + ": " + e.getMessage());
+    }
+  }
+}
@@ -18,6 +18,11 @@
 
 package org.apache.tajo.master;
 
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Metric;
+import com.codahale.metrics.MetricSet;
+import com.codahale.metrics.Timer;
+import com.google.common.base.Preconditions;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.hadoop.conf.Configuration;
@@ -33,18 +38,36 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * TajoAsyncDispatcher handles events in its own threads. An event is put into the queue of one thread, which is
+ * chosen by the hash of the partition key of the event. So, events with the same partition key are handled
+ * in the order in which they are put. Without a {@link Partitioner}, all events are handled by one thread.
+ */
 public class TajoAsyncDispatcher extends AbstractService  implements Dispatcher {
 
   private static final Log LOG = LogFactory.getLog(TajoAsyncDispatcher.class);
 
-  private final BlockingQueue<Event> eventQueue;
+  /**
+   * It returns the partition key of an event. Events that must be handled in order should have the same key.
+   * Events whose key is NULL are handled by the first thread.
+   */
+  public interface Partitioner {
+    Object getPartitionKey(Event event);
+  }
+
+  private final BlockingQueue<Event> [] eventQueues;
+  private final Partitioner partitioner;
   private volatile boolean stopped = false;
 
-  private Thread eventHandlingThread;
+  private Thread [] eventHandlingThreads;
   protected final Map<Class<? extends Enum>, EventHandler> eventDispatchers;
   private boolean exitOnDispatchException;
+  // the time spent by handlers for an event
+  private final Timer handlerTimer = new Timer();
 
   private String id;
 
@@ -52,14 +75,114 @@ public class TajoAsyncDispatcher extends AbstractService  implements Dispatcher
     this(id, new LinkedBlockingQueue<Event>());
   }
 
+  @SuppressWarnings("unchecked")
   public TajoAsyncDispatcher(String id, BlockingQueue<Event> eventQueue) {
+    this(id, new BlockingQueue[] {eventQueue}, null);
+  }
+
+  /**
+   * @param threadNum The number of threads which handle events
+   * @param partitioner It decides the thread which handles an event
+   */
+  public TajoAsyncDispatcher(String id, int threadNum, Partitioner partitioner) {
+    this(id, newQueues(threadNum), partitioner);
+  }
+
+  private TajoAsyncDispatcher(String id, BlockingQueue<Event> [] eventQueues, Partitioner partitioner) {
     super(TajoAsyncDispatcher.class.getName());
+    Preconditions.checkArgument(eventQueues.length == 1 || partitioner != null,
+        "Multiple threads require a partitioner");
     this.id = id;
-    this.eventQueue = eventQueue;
-    this.eventDispatchers = new HashMap<Class<? extends Enum>, EventHandler>();
+    this.eventQueues = eventQueues;
+    this.partitioner = partitioner;
+    // a handler can be registered while events are being handled
+    this.eventDispatchers = new ConcurrentHashMap<Class<? extends Enum>, EventHandler>();
+  }
+
+  @SuppressWarnings("unchecked")
+  private static BlockingQueue<Event> [] newQueues(int threadNum) {
+    Preconditions.checkArgument(threadNum > 0, "The number of threads must be positive: " + threadNum);
+    BlockingQueue<Event> [] queues = new BlockingQueue[threadNum];
+    for (int i = 0; i < threadNum; i++) {
+      queues[i] = new LinkedBlockingQueue<Event>();
+    }
+    return queues;
+  }
+
+  public int getThreadNum() {
+    return eventQueues.length;
+  }
+
+  int getPartition(Event event) {
+    if (eventQueues.length == 1) {
+      return 0;
+    }
+    return getPartitionOfKey(partitioner.getPartitionKey(event));
+  }
+
+  /**
+   * @return The thread which handles the events of the given partition key
+   */
+  public int getPartitionOfKey(Object key) {
+    if (eventQueues.length == 1 || key == null) {
+      return 0;
+    }
+    return (key.hashCode() & Integer.MAX_VALUE) % eventQueues.length;
+  }
+
+  /**
+   * @return The number of events waiting in all queues
+   */
+  public int getQueueSize() {
+    int size = 0;
+    for (BlockingQueue<Event> eachQueue : eventQueues) {
+      size += eachQueue.size();
+    }
+    return size;
+  }
+
+  /**
+   * @return The number of events waiting in the longest queue
+   */
+  public int getMaxQueueSize() {
+    int max = 0;
+    for (BlockingQueue<Event> eachQueue : eventQueues) {
+      max = Math.max(max, eachQueue.size());
+    }
+    return max;
+  }
+
+  /**
+   * Returns the metrics of this dispatcher: the sizes of the queues and the latency of handlers.
+   */
+  public MetricSet getMetricSet() {
+    return new MetricSet() {
+      @Override
+      public Map<String, Metric> getMetrics() {
+        Map<String, Metric> metrics = new HashMap<String, Metric>();
+        metrics.put("queueSize", new Gauge<Integer>() {
+          @Override
+          public Integer getValue() {
+            return getQueueSize();
+          }
+        });
+        metrics.put("maxQueueSize", new Gauge<Integer>() {
+          @Override
+          public Integer getValue() {
+            return getMaxQueueSize();
+          }
+        });
+        metrics.put("handlerLatency", handlerTimer);
+        return metrics;
+      }
+    };
   }
 
-  Runnable createThread() {
+  public Timer getHandlerTimer() {
+    return handlerTimer;
+  }
+
+  Runnable createThread(final BlockingQueue<Event> eventQueue) {
     return new Runnable() {
       @Override
       public void run() {
@@ -94,11 +217,14 @@ public class TajoAsyncDispatcher extends AbstractService  implements Dispatcher
   public void start() {
     //start all the components
     super.start();
-    eventHandlingThread = new Thread(createThread());
-    eventHandlingThread.setName("AsyncDispatcher event handler");
-    eventHandlingThread.start();
+    eventHandlingThreads = new Thread[eventQueues.length];
+    for (int i = 0; i < eventQueues.length; i++) {
+      eventHandlingThreads[i] = new Thread(createThread(eventQueues[i]));
+      eventHandlingThreads[i].setName("AsyncDispatcher event handler" + (eventQueues.length > 1 ? " " + i : ""));
+      eventHandlingThreads[i].start();
+    }
 
-    LOG.info("AsyncDispatcher started:" + id);
+    LOG.info("AsyncDispatcher started:" + id + ", threads=" + eventQueues.length);
   }
 
   @Override
@@ -107,12 +233,16 @@ public class TajoAsyncDispatcher extends AbstractService  implements Dispatcher
       return;
     }
     stopped = true;
-    if (eventHandlingThread != null) {
-      eventHandlingThread.interrupt();
-      try {
-        eventHandlingThread.join();
-      } catch (InterruptedException ie) {
-        LOG.warn("Interrupted Exception while stopping");
+    if (eventHandlingThreads != null) {
+      for (Thread eachThread : eventHandlingThreads) {
+        eachThread.interrupt();
+      }
+      for (Thread eachThread : eventHandlingThreads) {
+        try {
+          eachThread.join();
+        } catch (InterruptedException ie) {
+          LOG.warn("Interrupted Exception while stopping");
+        }
       }
     }
 
@@ -131,6 +261,7 @@ public class TajoAsyncDispatcher extends AbstractService  implements Dispatcher
     }
     Class<? extends Enum> type = event.getType().getDeclaringClass();
 
+    long startTime = System.nanoTime();
     try{
       EventHandler handler = eventDispatchers.get(type);
       if(handler != null) {
@@ -146,6 +277,7 @@ public class TajoAsyncDispatcher extends AbstractService  implements Dispatcher
         System.exit(-1);
       }
     } finally {
+      handlerTimer.update(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
     }
   }
 
@@ -181,6 +313,8 @@ public class TajoAsyncDispatcher extends AbstractService  implements Dispatcher
   class GenericEventHandler implements EventHandler<Event> {
     public void handle(Event event) {
       /* all this method does is enqueue all the events onto the queue */
+      int partition = getPartition(event);
+      BlockingQueue<Event> eventQueue = eventQueues[partition];
       int qSize = eventQueue.size();
       if (qSize !=0 && qSize %1000 == 0) {
         LOG.info("Size of event-queue is " + qSize);
@@ -194,7 +328,7 @@ public class TajoAsyncDispatcher extends AbstractService  implements Dispatcher
         if(LOG.isDebugEnabled()) {
           LOG.debug(id + ",add event:" +
               event.getType() + "," + event + "," +
-              (eventHandlingThread == null ? "null" : eventHandlingThread.isAlive()));
+              (eventHandlingThreads == null ? "null" : eventHandlingThreads[partition].isAlive()));
         }
         eventQueue.put(event);
       } catch (InterruptedException e) {
@@ -67,6 +67,7 @@ public class TajoMasterClientService extends AbstractService {
   private final TajoConf conf;
   private final CatalogService catalog;
   private final TajoMasterClientProtocolServiceHandler clientHandler;
+  private final QueryResultScanner.Scanners resultScanners;
   private BlockingRpcServer server;
   private InetSocketAddress bindAddress;
 
@@ -81,6 +82,24 @@ public class TajoMasterClientService extends AbstractService {
     this.conf = context.getConf();
     this.catalog = context.getCatalog();
     this.clientHandler = new TajoMasterClientProtocolServiceHandler();
+    // the directory of a cached result is kept while it is read by a client.
+    this.resultScanners = new QueryResultScanner.Scanners(conf) {
+      @Override
+      protected void onOpen(QueryResultScanner scanner) {
+        ResultCache resultCache = TajoMasterClientService.this.context.getGlobalEngine().getResultCache();
+        if (resultCache != null) {
+          resultCache.acquireReader(scanner.getResultDesc());
+        }
+      }
+
+      @Override
+      protected void onClose(QueryResultScanner scanner) {
+        ResultCache resultCache = TajoMasterClientService.this.context.getGlobalEngine().getResultCache();
+        if (resultCache != null) {
+          resultCache.releaseReader(scanner.getResultDesc());
+        }
+      }
+    };
   }
 
   @Override
@@ -91,7 +110,7 @@ public class TajoMasterClientService extends AbstractService {
     InetSocketAddress initIsa = NetUtils.createSocketAddr(confClientServiceAddr);
     int workerNum = conf.getIntVar(ConfVars.MASTER_SERVICE_RPC_SERVER_WORKER_THREAD_NUM);
     try {
-      server = new BlockingRpcServer(TajoMasterClientProtocol.class, clientHandler, initIsa, workerNum);
+      server = new BlockingRpcServer(TajoMasterClientProtocol.class, clientHandler, initIsa, workerNum, conf);
     } catch (Exception e) {
       LOG.error(e);
       throw new RuntimeException(e);
@@ -101,6 +120,7 @@ public class TajoMasterClientService extends AbstractService {
     bindAddress = NetUtils.getConnectAddress(server.getListenAddress());
     this.conf.setVar(ConfVars.TAJO_MASTER_CLIENT_RPC_ADDRESS, NetUtils.normalizeInetSocketAddress(bindAddress));
     LOG.info("Instantiated TajoMasterClientService at " + this.bindAddress);
+    resultScanners.start();
     super.start();
   }
 
@@ -109,6 +129,7 @@ public class TajoMasterClientService extends AbstractService {
     if (server != null) {
       server.shutdown();
     }
+    resultScanners.stop();
     super.stop();
   }
 
@@ -325,8 +346,6 @@ public class TajoMasterClientService extends AbstractService {
       try {
         context.getSessionManager().touch(request.getSessionId().getId());
         QueryId queryId = new QueryId(request.getQueryId());
-        QueryInProgress queryInProgress = context.getQueryJobManager().getQueryInProgress(queryId);
-        QueryInfo queryInfo = queryInProgress.getQueryInfo();
         GetQueryResultResponse.Builder builder
             = GetQueryResultResponse.newBuilder();
 
@@ -336,6 +355,15 @@ public class TajoMasterClientService extends AbstractService {
         } catch (IOException e) {
           LOG.warn("Can't get current user name");
         }
+
+        TableDesc cachedResult = getCachedResult(queryId);
+        if (cachedResult != null) {
+          builder.setTableDesc(cachedResult.getProto());
+          return builder.build();
+        }
+
+        QueryInProgress queryInProgress = context.getQueryJobManager().getQueryInProgress(queryId);
+        QueryInfo queryInfo = queryInProgress.getQueryInfo();
         switch (queryInfo.getQueryState()) {
           case QUERY_SUCCEEDED:
             // TODO check this logic needed
@@ -441,9 +469,16 @@ public class TajoMasterClientService extends AbstractService {
         QueryId queryId = new QueryId(request.getQueryId());
         builder.setQueryId(request.getQueryId());
 
+        TableDesc cachedResult = getCachedResult(queryId);
         if (queryId.equals(QueryIdFactory.NULL_QUERY_ID)) {
           builder.setResultCode(ResultCode.OK);
           builder.setState(TajoProtos.QueryState.QUERY_SUCCEEDED);
+        } else if (cachedResult != null) {
+          builder.setResultCode(ResultCode.OK);
+          builder.setState(TajoProtos.QueryState.QUERY_SUCCEEDED);
+          builder.setProgress(1.0f);
+          builder.setHasResult(true);
+          builder.setResultDesc(cachedResult.getProto());
         } else {
           QueryInProgress queryInProgress = context.getQueryJobManager().getQueryInProgress(queryId);
           if (queryInProgress != null) {
@@ -757,5 +792,44 @@ public class TajoMasterClientService extends AbstractService {
         throw new ServiceException(t);
       }
     }
+
+    @Override
+    public FetchResultResponse fetchNextRows(RpcController controller, FetchResultRequest request)
+        throws ServiceException {
+      try {
+        context.getSessionManager().touch(request.getSessionId().getId());
+        QueryId queryId = new QueryId(request.getQueryId());
+
+        // the other results are fetched from their QueryMasters.
+        return resultScanners.fetch(request, getCachedResult(queryId));
+      } catch (Throwable t) {
+        throw new ServiceException(t);
+      }
+    }
+
+    @Override
+    public BoolProto closeQueryResult(RpcController controller, GetQueryResultRequest request)
+        throws ServiceException {
+      try {
+        context.getSessionManager().touch(request.getSessionId().getId());
+        QueryId queryId = new QueryId(request.getQueryId());
+        resultScanners.closeQuery(queryId);
+        ResultCache resultCache = context.getGlobalEngine().getResultCache();
+        if (resultCache != null) {
+          resultCache.removeServedQuery(queryId);
+        }
+        return BOOL_TRUE;
+      } catch (Throwable t) {
+        throw new ServiceException(t);
+      }
+    }
+
+    /**
+     * @return the result of a query answered from the result cache, or NULL if it is not such a query
+     */
+    private TableDesc getCachedResult(QueryId queryId) {
+      ResultCache resultCache = context.getGlobalEngine().getResultCache();
+      return resultCache == null ? null : resultCache.getServedQuery(queryId);
+    }
   }
 }
@@ -65,7 +65,7 @@ public class TajoMasterService extends AbstractService {
     InetSocketAddress initIsa = NetUtils.createSocketAddr(confMasterServiceAddr);
     int workerNum = conf.getIntVar(TajoConf.ConfVars.MASTER_RPC_SERVER_WORKER_THREAD_NUM);
     try {
-      server = new AsyncRpcServer(TajoMasterProtocol.class, masterHandler, initIsa, workerNum);
+      server = new AsyncRpcServer(TajoMasterProtocol.class, masterHandler, initIsa, workerNum, conf);
     } catch (Exception e) {
       LOG.error(e);
     }
@@ -0,0 +1,66 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.master.event;
+
+import org.apache.hadoop.yarn.event.AbstractEvent;
+import org.apache.tajo.QueryId;
+import org.apache.tajo.QueryUnitId;
+import org.apache.tajo.ipc.TajoWorkerProtocol.TaskStatusProto;
+
+import java.util.List;
+
+/**
+ * This event delivers the statuses of the task attempts of a query, which a worker has reported at once.
+ * All tasks of the statuses are handled by the same dispatcher thread as the task of its partition key.
+ */
+public class TaskStatusBatchEvent extends AbstractEvent<TaskStatusBatchEvent.EventType> {
+  public enum EventType {
+    TASK_STATUS_BATCH
+  }
+
+  private final QueryId queryId;
+  private final String serverName;
+  private final QueryUnitId partitionKey;
+  private final List<TaskStatusProto> statuses;
+
+  public TaskStatusBatchEvent(QueryId queryId, String serverName, QueryUnitId partitionKey,
+                              List<TaskStatusProto> statuses) {
+    super(EventType.TASK_STATUS_BATCH);
+    this.queryId = queryId;
+    this.serverName = serverName;
+    this.partitionKey = partitionKey;
+    this.statuses = statuses;
+  }
+
+  public QueryId getQueryId() {
+    return queryId;
+  }
+
+  public String getServerName() {
+    return serverName;
+  }
+
+  public QueryUnitId getPartitionKey() {
+    return partitionKey;
+  }
+
+  public List<TaskStatusProto> getStatuses() {
+    return statuses;
+  }
+}
@@ -23,6 +23,7 @@ import org.apache.commons.lang.exception.ExceptionUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.hadoop.fs.ContentSummary;
+import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.yarn.event.EventHandler;
@@ -33,20 +34,34 @@ import org.apache.tajo.QueryId;
 import org.apache.tajo.TajoConstants;
 import org.apache.tajo.TajoProtos.QueryState;
 import org.apache.tajo.catalog.CatalogService;
+import org.apache.tajo.catalog.CatalogUtil;
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.catalog.IndexDesc;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.catalog.SortSpec;
 import org.apache.tajo.catalog.TableDesc;
 import org.apache.tajo.catalog.TableMeta;
+import org.apache.tajo.catalog.partition.PartitionDesc;
+import org.apache.tajo.catalog.statistics.ColumnStats;
 import org.apache.tajo.catalog.statistics.TableStats;
 import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.engine.planner.PlannerUtil;
 import org.apache.tajo.engine.planner.global.DataChannel;
 import org.apache.tajo.engine.planner.global.ExecutionBlock;
 import org.apache.tajo.engine.planner.global.ExecutionBlockCursor;
 import org.apache.tajo.engine.planner.global.MasterPlan;
+import org.apache.tajo.engine.planner.logical.CreateIndexNode;
 import org.apache.tajo.engine.planner.logical.CreateTableNode;
 import org.apache.tajo.engine.planner.logical.InsertNode;
 import org.apache.tajo.engine.planner.logical.NodeType;
+import org.apache.tajo.engine.planner.logical.ScanNode;
+import org.apache.tajo.engine.planner.physical.OperatorProfile;
 import org.apache.tajo.engine.query.QueryContext;
 import org.apache.tajo.master.event.*;
 import org.apache.tajo.storage.AbstractStorageManager;
+import org.apache.tajo.storage.Scanner;
+import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.storage.VTuple;
 import org.apache.tajo.util.TUtil;
 
 import java.io.IOException;
@@ -55,6 +70,10 @@ import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+import static org.apache.tajo.catalog.proto.CatalogProtos.ColumnStatsProto;
+import static org.apache.tajo.catalog.proto.CatalogProtos.IndexMethod;
+import static org.apache.tajo.catalog.proto.CatalogProtos.PartitionType;
+
 public class Query implements EventHandler<QueryEvent> {
   private static final Log LOG = LogFactory.getLog(Query.class);
 
@@ -202,7 +221,8 @@ public class Query implements EventHandler<QueryEvent> {
     this.clock = context.getClock();
     this.appSubmitTime = appSubmitTime;
     this.queryStr = queryStr;
-    subqueries = Maps.newHashMap();
+    // subqueries are read by all threads of the dispatcher
+    subqueries = Maps.newConcurrentMap();
     this.eventHandler = eventHandler;
     this.plan = plan;
     this.sm = context.getStorageManager();
@@ -319,6 +339,27 @@ public class Query implements EventHandler<QueryEvent> {
     return this.subqueries.values();
   }
 
+  /**
+   * It prints the operator profiles of all execution blocks in the execution order.
+   *
+   * @return NULL if this query is not profiled
+   */
+  public String getProfile() {
+    StringBuilder sb = new StringBuilder();
+    ExecutionBlockCursor cursor = new ExecutionBlockCursor(plan);
+    while (cursor.hasNext()) {
+      SubQuery subQuery = getSubQuery(cursor.nextBlock().getId());
+      if (subQuery == null || subQuery.getOperatorProfiles() == null) {
+        continue;
+      }
+      sb.append(subQuery.getId()).append("\n");
+      for (OperatorProfile profile : subQuery.getOperatorProfiles()) {
+        sb.append("  ").append(profile).append("\n");
+      }
+    }
+    return sb.length() > 0 ? sb.toString() : null;
+  }
+
   public QueryState getState() {
     readLock.lock();
     try {
@@ -423,6 +464,8 @@ public class Query implements EventHandler<QueryEvent> {
         hookList.add(new MaterializedResultHook());
         hookList.add(new CreateTableHook());
         hookList.add(new InsertTableHook());
+        hookList.add(new AnalyzeTableHook());
+        hookList.add(new CreateIndexHook());
       }
 
       public void execute(QueryContext queryContext, Query query,
@@ -504,6 +547,7 @@ public class Query implements EventHandler<QueryEvent> {
         query.setResultDesc(tableDescTobeCreated);
 
         catalog.createTable(tableDescTobeCreated);
+        addPartitions(catalog, tableDescTobeCreated, lastStage, finalOutputDir);
       }
     }
 
@@ -544,12 +588,146 @@ public class Query implements EventHandler<QueryEvent> {
         if (insertNode.hasTargetTable()) {
           catalog.dropTable(insertNode.getTableName());
           catalog.createTable(finalTable);
+          // the previous partitions were dropped with the table because the output directory is replaced.
+          addPartitions(catalog, finalTable, lastStage, finalOutputDir);
         }
 
         query.setResultDesc(finalTable);
       }
     }
 
+    /**
+     * ANALYZE TABLE results in a single row which consists of the number of rows and
+     * serialized column statistics in the order of the table schema. This hook stores them into the catalog.
+     */
+    private class AnalyzeTableHook implements QueryHook {
+
+      @Override
+      public boolean isEligible(QueryContext queryContext, Query query, ExecutionBlockId finalExecBlockId,
+                                Path finalOutputDir) {
+        return queryContext.isAnalyzeTable();
+      }
+
+      @Override
+      public void execute(QueryMaster.QueryMasterContext context, QueryContext queryContext,
+                          Query query, ExecutionBlockId finalExecBlockId, Path finalOutputDir)
+          throws Exception {
+
+        CatalogService catalog = context.getWorkerContext().getCatalog();
+        SubQuery lastStage = query.getSubQuery(finalExecBlockId);
+        String tableName = queryContext.getAnalyzeTable();
+        TableDesc desc = catalog.getTableDesc(tableName);
+
+        Tuple result = readFirstRow(query, lastStage.getTableMeta(), lastStage.getSchema(), finalOutputDir);
+        if (result == null) {
+          throw new IOException("ANALYZE TABLE " + tableName + " has no result");
+        }
+
+        TableStats stats = new TableStats();
+        stats.setNumRows(result.get(0).asInt8());
+        stats.setNumBytes(getTableVolume(query.systemConf, desc.getPath()));
+
+        Column [] columns = desc.getSchema().toArray();
+        for (int i = 0; i < columns.length; i++) {
+          ColumnStatsProto.Builder builder = ColumnStatsProto.newBuilder();
+          builder.mergeFrom(result.get(i + 1).asByteArray());
+          builder.setColumn(columns[i].getProto());
+          stats.addColumnStat(new ColumnStats(builder.build()));
+        }
+
+        if (!catalog.updateTableStats(tableName, stats)) {
+          throw new IOException("Cannot update the statistics of " + tableName);
+        }
+      }
+
+      private Tuple readFirstRow(Query query, TableMeta meta, Schema schema, Path dir) throws IOException {
+        FileSystem fs = dir.getFileSystem(query.systemConf);
+        for (FileStatus file : fs.listStatus(dir)) {
+          String name = file.getPath().getName();
+          if (file.isDirectory() || file.getLen() == 0 || name.startsWith(".") || name.startsWith("_")) {
+            continue;
+          }
+
+          Scanner scanner = query.sm.getFileScanner(meta, schema, file.getPath());
+          try {
+            scanner.init();
+            Tuple tuple = scanner.next();
+            if (tuple != null) {
+              return new VTuple(tuple);
+            }
+          } finally {
+            scanner.close();
+          }
+        }
+        return null;
+      }
+    }
+
+    /**
+     * Each task of CREATE INDEX writes the index files of its fragments. When all of them are completed,
+     * this hook registers the index into the catalog.
+     */
+    private class CreateIndexHook implements QueryHook {
+
+      @Override
+      public boolean isEligible(QueryContext queryContext, Query query, ExecutionBlockId finalExecBlockId,
+                                Path finalOutputDir) {
+        SubQuery lastStage = query.getSubQuery(finalExecBlockId);
+        return lastStage.getBlock().getPlan().getType() == NodeType.CREATE_INDEX;
+      }
+
+      @Override
+      public void execute(QueryMaster.QueryMasterContext context, QueryContext queryContext,
+                          Query query, ExecutionBlockId finalExecBlockId, Path finalOutputDir)
+          throws Exception {
+
+        CatalogService catalog = context.getWorkerContext().getCatalog();
+        SubQuery lastStage = query.getSubQuery(finalExecBlockId);
+        CreateIndexNode createIndexNode = (CreateIndexNode) lastStage.getBlock().getPlan();
+        ScanNode scanNode = PlannerUtil.findTopNode(createIndexNode, NodeType.SCAN);
+        SortSpec sortKey = createIndexNode.getSortSpecs()[0];
+
+        IndexDesc indexDesc = new IndexDesc(createIndexNode.getIndexName(),
+            CatalogUtil.extractQualifier(scanNode.getTableName()),
+            CatalogUtil.extractSimpleName(scanNode.getTableName()),
+            sortKey.getSortKey(), IndexMethod.TWO_LEVEL_BIN_TREE, createIndexNode.isUnique(), false,
+            sortKey.isAscending());
+        if (!catalog.createIndex(indexDesc)) {
+          throw new IOException("Cannot create the index " + createIndexNode.getIndexName());
+        }
+      }
+    }
+
+    /**
+     * It registers the column partitions written by the last stage to the catalog, so that
+     * the planner can prune partitions without listing the directories of a table.
+     */
+    private void addPartitions(CatalogService catalog, TableDesc table, SubQuery lastStage, Path finalOutputDir)
+        throws IOException {
+      if (!table.hasPartition() || table.getPartitionMethod().getPartitionType() != PartitionType.COLUMN) {
+        return;
+      }
+
+      Set<String> names = new TreeSet<String>();
+      for (QueryUnit queryUnit : lastStage.getQueryUnits()) {
+        names.addAll(queryUnit.getPartitions());
+      }
+
+      List<PartitionDesc> partitions = new ArrayList<PartitionDesc>(names.size());
+      for (String name : names) {
+        PartitionDesc partition = new PartitionDesc();
+        partition.setName(name);
+        partition.setOrdinalPosition(partitions.size());
+        partition.setPath(new Path(finalOutputDir, name).toString());
+        partitions.add(partition);
+      }
+
+      String [] splitted = CatalogUtil.splitFQTableName(table.getName());
+      if (!partitions.isEmpty() && !catalog.addPartitions(splitted[0], splitted[1], partitions)) {
+        throw new IOException("Cannot add the partitions of " + table.getName());
+      }
+    }
+
     private long getTableVolume(TajoConf systemConf, Path tablePath) throws IOException {
       FileSystem fs = tablePath.getFileSystem(systemConf);
       ContentSummary directorySummary = fs.getContentSummary(tablePath);
@@ -34,6 +34,7 @@ import org.apache.tajo.engine.query.QueryContext;
 import org.apache.tajo.ipc.QueryMasterProtocol;
 import org.apache.tajo.ipc.QueryMasterProtocol.QueryMasterProtocolService;
 import org.apache.tajo.ipc.TajoWorkerProtocol;
+import org.apache.tajo.master.ResultCache;
 import org.apache.tajo.master.TajoAsyncDispatcher;
 import org.apache.tajo.master.TajoMaster;
 import org.apache.tajo.master.rm.WorkerResourceManager;
@@ -230,15 +231,18 @@ public class QueryInProgress extends CompositeService {
       }
       LOG.info("Call executeQuery to :" +
           queryInfo.getQueryMasterHost() + ":" + queryInfo.getQueryMasterPort() + "," + queryId);
-      queryMasterRpcClient.executeQuery(
-          null,
+      TajoWorkerProtocol.QueryExecutionRequestProto.Builder builder =
           TajoWorkerProtocol.QueryExecutionRequestProto.newBuilder()
               .setQueryId(queryId.getProto())
               .setSession(session.getProto())
               .setQueryContext(queryContext.getProto())
               .setSql(PrimitiveProtos.StringProto.newBuilder().setValue(queryInfo.getSql()))
-              .setLogicalPlanJson(PrimitiveProtos.StringProto.newBuilder().setValue(plan.toJson()).build())
-              .build(), NullCallback.get());
+              .setLogicalPlanJson(PrimitiveProtos.StringProto.newBuilder().setValue(plan.toJson()).build());
+      long catalogVersion = masterContext.getCatalog().getCatalogVersion();
+      if (catalogVersion >= 0) {
+        builder.setCatalogVersion(catalogVersion);
+      }
+      queryMasterRpcClient.executeQuery(null, builder.build(), NullCallback.get());
       querySubmitted.set(true);
     } catch (Exception e) {
       LOG.error(e.getMessage(), e);
@@ -264,6 +268,9 @@ public class QueryInProgress extends CompositeService {
     this.queryInfo.setQueryState(queryInfo.getQueryState());
     this.queryInfo.setProgress(queryInfo.getProgress());
     this.queryInfo.setFinishTime(queryInfo.getFinishTime());
+    if (queryInfo.getResultDesc() != null) {
+      this.queryInfo.setResultDesc(queryInfo.getResultDesc());
+    }
 
     if(queryInfo.getLastMessage() != null && !queryInfo.getLastMessage().isEmpty()) {
       this.queryInfo.setLastMessage(queryInfo.getLastMessage());
@@ -281,6 +288,11 @@ public class QueryInProgress extends CompositeService {
     }
 
     if(isFinishState(this.queryInfo.getQueryState())) {
+      ResultCache resultCache = masterContext.getGlobalEngine().getResultCache();
+      if (resultCache != null) {
+        resultCache.finish(queryId, this.queryInfo.getQueryState() == TajoProtos.QueryState.QUERY_SUCCEEDED ?
+            this.queryInfo.getResultDesc() : null);
+      }
       getEventHandler().handle(
           new QueryJobEvent(QueryJobEvent.Type.QUERY_JOB_FINISH, this.queryInfo));
     }
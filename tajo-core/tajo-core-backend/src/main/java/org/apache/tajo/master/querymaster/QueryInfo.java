@@ -21,6 +21,7 @@ package org.apache.tajo.master.querymaster;
 
 import org.apache.tajo.QueryId;
 import org.apache.tajo.TajoProtos;
+import org.apache.tajo.catalog.TableDesc;
 
 public class QueryInfo {
   private QueryId queryId;
@@ -33,6 +34,7 @@ public class QueryInfo {
   private String hostNameOfQM;
   private int queryMasterPort;
   private int queryMasterClientPort;
+  private TableDesc resultDesc;
 
   public QueryInfo(QueryId queryId) {
     this(queryId, null);
@@ -117,6 +119,17 @@ public class QueryInfo {
     this.progress = progress;
   }
 
+  /**
+   * @return the description of the query result, which is only available after the query succeeds
+   */
+  public TableDesc getResultDesc() {
+    return resultDesc;
+  }
+
+  public void setResultDesc(TableDesc resultDesc) {
+    this.resultDesc = resultDesc;
+  }
+
   @Override
   public String toString() {
     return queryId.toString() + "state=" + queryState +",progress=" + progress + ", queryMaster="
@@ -354,16 +354,20 @@ public class QueryMaster extends CompositeService implements EventHandler {
   }
 
   private TajoHeartbeat buildTajoHeartBeat(QueryMasterTask queryMasterTask) {
-    TajoHeartbeat queryHeartbeat = TajoHeartbeat.newBuilder()
+    TajoHeartbeat.Builder queryHeartbeat = TajoHeartbeat.newBuilder()
         .setTajoWorkerHost(workerContext.getQueryMasterManagerService().getBindAddr().getHostName())
         .setTajoQueryMasterPort(workerContext.getQueryMasterManagerService().getBindAddr().getPort())
         .setTajoWorkerClientPort(workerContext.getTajoWorkerClientService().getBindAddr().getPort())
         .setState(queryMasterTask.getState())
         .setQueryId(queryMasterTask.getQueryId().getProto())
         .setQueryProgress(queryMasterTask.getQuery().getProgress())
-        .setQueryFinishTime(queryMasterTask.getQuery().getFinishTime())
-        .build();
-    return queryHeartbeat;
+        .setQueryFinishTime(queryMasterTask.getQuery().getFinishTime());
+    // the master may cache the result of a succeeded query.
+    if (queryMasterTask.getState() == TajoProtos.QueryState.QUERY_SUCCEEDED &&
+        queryMasterTask.getQuery().getResultDesc() != null) {
+      queryHeartbeat.setResultDesc(queryMasterTask.getQuery().getResultDesc().getProto());
+    }
+    return queryHeartbeat.build();
   }
 
   private class QueryStartEventHandler implements EventHandler<QueryStartEvent> {
@@ -18,6 +18,7 @@
 
 package org.apache.tajo.master.querymaster;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.google.protobuf.RpcCallback;
 import com.google.protobuf.RpcController;
@@ -40,6 +41,10 @@ import org.apache.tajo.util.NetUtils;
 import org.apache.tajo.worker.TajoWorker;
 
 import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 public class QueryMasterManagerService extends CompositeService
     implements QueryMasterProtocol.QueryMasterProtocolService.Interface {
@@ -77,7 +82,7 @@ public class QueryMasterManagerService extends CompositeService
       }
 
       int workerNum = tajoConf.getIntVar(TajoConf.ConfVars.QUERY_MASTER_RPC_SERVER_WORKER_THREAD_NUM);
-      this.rpcServer = new AsyncRpcServer(QueryMasterProtocol.class, this, initIsa, workerNum);
+      this.rpcServer = new AsyncRpcServer(QueryMasterProtocol.class, this, initIsa, workerNum, tajoConf);
       this.rpcServer.start();
 
       this.bindAddr = NetUtils.getConnectAddress(rpcServer.getListenAddress());
@@ -173,6 +178,29 @@ public class QueryMasterManagerService extends CompositeService
     }
   }
 
+  /**
+   * Returns the serialized plan of an execution block. A TaskRunner requests it when the task carrying the plan
+   * has not been delivered to it. It returns an empty string if the execution block is not running.
+   */
+  @Override
+  public void getExecutionBlockPlan(RpcController controller, TajoIdProtos.ExecutionBlockIdProto request,
+                                    RpcCallback<PrimitiveProtos.StringProto> done) {
+    String serializedPlan = "";
+    try {
+      ExecutionBlockId ebId = new ExecutionBlockId(request);
+      QueryMasterTask queryMasterTask = queryMaster.getQueryMasterTask(ebId.getQueryId());
+      if (queryMasterTask != null && queryMasterTask.getQuery() != null) {
+        SubQuery subQuery = queryMasterTask.getQuery().getSubQuery(ebId);
+        if (subQuery != null) {
+          serializedPlan = subQuery.getSerializedPlan();
+        }
+      }
+    } catch (Exception e) {
+      LOG.error(e.getMessage(), e);
+    }
+    done.run(PrimitiveProtos.StringProto.newBuilder().setValue(serializedPlan).build());
+  }
+
   @Override
   public void ping(RpcController controller,
                    TajoIdProtos.QueryUnitAttemptIdProto attemptId,
@@ -180,6 +208,55 @@ public class QueryMasterManagerService extends CompositeService
     done.run(TajoWorker.TRUE_PROTO);
   }
 
+  /**
+   * Applies the statuses of all running tasks which a worker has sent at once. The statuses of each query are
+   * delivered to its QueryMasterTask in one event. Pings are ignored like {@link #ping}.
+   */
+  @Override
+  public void statusReport(RpcController controller, TajoWorkerProtocol.StatusReportProto report,
+                           RpcCallback<PrimitiveProtos.BoolProto> done) {
+    try {
+      Map<QueryId, List<TajoWorkerProtocol.TaskStatusProto>> statusesPerQuery =
+          groupStatusesByQuery(report.getStatusList());
+      for (Map.Entry<QueryId, List<TajoWorkerProtocol.TaskStatusProto>> entry : statusesPerQuery.entrySet()) {
+        QueryMasterTask queryMasterTask = queryMaster.getQueryMasterTask(entry.getKey());
+        if (queryMasterTask == null) {
+          queryMasterTask = queryMaster.getQueryMasterTask(entry.getKey(), true);
+        }
+        if (queryMasterTask == null) {
+          LOG.warn("No QueryMasterTask for " + entry.getKey() + ", ignoring " + entry.getValue().size()
+              + " task statuses from " + report.getServerName());
+          continue;
+        }
+        queryMasterTask.handleTaskStatuses(report.getServerName(), entry.getValue());
+      }
+      done.run(TajoWorker.TRUE_PROTO);
+    } catch (Exception e) {
+      LOG.error(e.getMessage(), e);
+      done.run(TajoWorker.FALSE_PROTO);
+    }
+  }
+
+  /**
+   * Groups task statuses by their queries. The statuses of each query keep the order in the given list.
+   */
+  @VisibleForTesting
+  static Map<QueryId, List<TajoWorkerProtocol.TaskStatusProto>> groupStatusesByQuery(
+      List<TajoWorkerProtocol.TaskStatusProto> statusList) {
+    Map<QueryId, List<TajoWorkerProtocol.TaskStatusProto>> statusesPerQuery =
+        new LinkedHashMap<QueryId, List<TajoWorkerProtocol.TaskStatusProto>>();
+    for (TajoWorkerProtocol.TaskStatusProto status : statusList) {
+      QueryId queryId = new QueryId(status.getId().getQueryUnitId().getExecutionBlockId().getQueryId());
+      List<TajoWorkerProtocol.TaskStatusProto> statuses = statusesPerQuery.get(queryId);
+      if (statuses == null) {
+        statuses = new ArrayList<TajoWorkerProtocol.TaskStatusProto>();
+        statusesPerQuery.put(queryId, statuses);
+      }
+      statuses.add(status);
+    }
+    return statusesPerQuery;
+  }
+
   @Override
   public void fatalError(RpcController controller, TajoWorkerProtocol.TaskFatalErrorReport report,
                          RpcCallback<PrimitiveProtos.BoolProto> done) {
@@ -225,6 +302,9 @@ public class QueryMasterManagerService extends CompositeService
 
       QueryId queryId = new QueryId(request.getQueryId());
       LOG.info("Receive executeQuery request:" + queryId);
+      if (request.hasCatalogVersion()) {
+        workerContext.getCatalog().updateCatalogVersion(request.getCatalogVersion());
+      }
       queryMaster.handle(new QueryStartEvent(queryId,
           new Session(request.getSession()),
           new QueryContext(request.getQueryContext()), request.getSql().getValue(),
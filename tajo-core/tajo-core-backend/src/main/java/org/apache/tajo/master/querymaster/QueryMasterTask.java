@@ -18,6 +18,7 @@
 
 package org.apache.tajo.master.querymaster;
 
+import com.google.common.annotations.VisibleForTesting;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.hadoop.conf.Configuration;
@@ -27,10 +28,13 @@ import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.fs.permission.FsPermission;
 import org.apache.hadoop.security.UserGroupInformation;
 import org.apache.hadoop.service.CompositeService;
+import org.apache.hadoop.yarn.event.Event;
 import org.apache.hadoop.yarn.event.EventHandler;
 import org.apache.hadoop.yarn.util.Clock;
 import org.apache.tajo.*;
+import org.apache.tajo.algebra.AnalyzeTable;
 import org.apache.tajo.algebra.Expr;
+import org.apache.tajo.algebra.OpType;
 import org.apache.tajo.catalog.CatalogService;
 import org.apache.tajo.catalog.TableDesc;
 import org.apache.tajo.conf.TajoConf;
@@ -43,6 +47,7 @@ import org.apache.tajo.engine.planner.logical.NodeType;
 import org.apache.tajo.engine.planner.logical.ScanNode;
 import org.apache.tajo.engine.query.QueryContext;
 import org.apache.tajo.ipc.TajoMasterProtocol;
+import org.apache.tajo.ipc.TajoWorkerProtocol.TaskStatusProto;
 import org.apache.tajo.master.GlobalEngine;
 import org.apache.tajo.master.TajoAsyncDispatcher;
 import org.apache.tajo.master.TajoContainerProxy;
@@ -60,7 +65,10 @@ import org.apache.tajo.worker.TajoResourceAllocator;
 import org.apache.tajo.worker.YarnResourceAllocator;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -138,7 +146,8 @@ public class QueryMasterTask extends CompositeService {
       }
       addService(resourceAllocator);
 
-      dispatcher = new TajoAsyncDispatcher(queryId.toString());
+      dispatcher = new TajoAsyncDispatcher(queryId.toString(),
+          systemConf.getIntVar(TajoConf.ConfVars.QUERYMASTER_DISPATCHER_THREADS), new QueryEventPartitioner());
       addService(dispatcher);
 
       dispatcher.register(SubQueryEventType.class, new SubQueryEventDispatcher());
@@ -147,10 +156,13 @@ public class QueryMasterTask extends CompositeService {
       dispatcher.register(QueryMasterQueryCompletedEvent.EventType.class, new QueryFinishEventHandler());
       dispatcher.register(TaskSchedulerEvent.EventType.class, new TaskSchedulerDispatcher());
       dispatcher.register(LocalTaskEventType.class, new LocalTaskEventHandler());
+      dispatcher.register(TaskStatusBatchEvent.EventType.class,
+          new TaskStatusBatchEventHandler(new TaskAttemptEventDispatcher()));
 
       initStagingDir();
 
       queryMetrics = new TajoMetrics(queryId.toString());
+      queryMetrics.register("dispatcher", dispatcher.getMetricSet());
 
       super.init(systemConf);
     } catch (IOException e) {
@@ -211,6 +223,61 @@ public class QueryMasterTask extends CompositeService {
     query.getSubQuery(id).handleTaskRequestEvent(event);
   }
 
+  /**
+   * Applies the task statuses of this query reported by a worker. The statuses are split by the dispatcher threads
+   * of their tasks, and the statuses of each thread are applied in one event.
+   */
+  public void handleTaskStatuses(String serverName, List<TaskStatusProto> statuses) {
+    dispatchTaskStatuses(dispatcher, queryId, serverName, statuses);
+  }
+
+  @VisibleForTesting
+  static void dispatchTaskStatuses(TajoAsyncDispatcher dispatcher, QueryId queryId, String serverName,
+                                   List<TaskStatusProto> statuses) {
+    Map<Integer, List<TaskStatusProto>> statusesPerPartition = new LinkedHashMap<Integer, List<TaskStatusProto>>();
+    Map<Integer, QueryUnitId> partitionKeys = new HashMap<Integer, QueryUnitId>();
+    for (TaskStatusProto status : statuses) {
+      QueryUnitId taskId = new QueryUnitId(status.getId().getQueryUnitId());
+      int partition = dispatcher.getPartitionOfKey(taskId);
+      List<TaskStatusProto> statusesOfPartition = statusesPerPartition.get(partition);
+      if (statusesOfPartition == null) {
+        statusesOfPartition = new ArrayList<TaskStatusProto>();
+        statusesPerPartition.put(partition, statusesOfPartition);
+        partitionKeys.put(partition, taskId);
+      }
+      statusesOfPartition.add(status);
+    }
+
+    for (Map.Entry<Integer, List<TaskStatusProto>> entry : statusesPerPartition.entrySet()) {
+      dispatcher.getEventHandler().handle(
+          new TaskStatusBatchEvent(queryId, serverName, partitionKeys.get(entry.getKey()), entry.getValue()));
+    }
+  }
+
+  /**
+   * The events of a task and its attempts are handled in order, and so are the events of a subquery and
+   * its task scheduler. The other events, e.g., query events, are handled by the first thread of the dispatcher.
+   */
+  static class QueryEventPartitioner implements TajoAsyncDispatcher.Partitioner {
+    @Override
+    public Object getPartitionKey(Event event) {
+      if (event instanceof TaskAttemptEvent) {
+        return ((TaskAttemptEvent) event).getTaskAttemptId().getQueryUnitId();
+      } else if (event instanceof TaskEvent) {
+        return ((TaskEvent) event).getTaskId();
+      } else if (event instanceof SubQueryEvent) {
+        return ((SubQueryEvent) event).getSubQueryId();
+      } else if (event instanceof TaskSchedulerEvent) {
+        return ((TaskSchedulerEvent) event).getExecutionBlockId();
+      } else if (event instanceof TaskStatusBatchEvent) {
+        // a batch has only the tasks of the same thread as its partition key.
+        return ((TaskStatusBatchEvent) event).getPartitionKey();
+      } else {
+        return null;
+      }
+    }
+  }
+
   private class SubQueryEventDispatcher implements EventHandler<SubQueryEvent> {
     public void handle(SubQueryEvent event) {
       ExecutionBlockId id = event.getSubQueryId();
@@ -248,6 +315,43 @@ public class QueryMasterTask extends CompositeService {
     }
   }
 
+  /**
+   * It applies the task statuses reported by a worker at once. All tasks of a batch are handled by the thread
+   * which handles the batch, so each status is applied directly in order with the other events of its task,
+   * e.g., TA_ASSIGNED. A failure of a status does not prevent the other statuses from being applied.
+   */
+  static class TaskStatusBatchEventHandler implements EventHandler<TaskStatusBatchEvent> {
+    private final EventHandler<TaskAttemptEvent> attemptHandler;
+
+    /**
+     * @param attemptHandler It applies an event to its attempt in the calling thread
+     */
+    TaskStatusBatchEventHandler(EventHandler<TaskAttemptEvent> attemptHandler) {
+      this.attemptHandler = attemptHandler;
+    }
+
+    @Override
+    public void handle(TaskStatusBatchEvent event) {
+      if (LOG.isDebugEnabled()) {
+        LOG.debug("TaskStatusBatchEventHandler>" + event.getStatuses().size() + " statuses from "
+            + event.getServerName());
+      }
+      for (TaskStatusProto status : event.getStatuses()) {
+        try {
+          QueryUnitAttemptId attemptId = new QueryUnitAttemptId(status.getId());
+          if (status.getState() == TajoProtos.TaskAttemptState.TA_KILLED) {
+            LOG.warn(attemptId + " Killed");
+            attemptHandler.handle(new TaskAttemptEvent(attemptId, TaskAttemptEventType.TA_LOCAL_KILLED));
+          } else {
+            attemptHandler.handle(new TaskAttemptStatusUpdateEvent(attemptId, status));
+          }
+        } catch (Throwable t) {
+          LOG.error("Cannot apply the status of " + status.getId() + ": " + t.getMessage(), t);
+        }
+      }
+    }
+  }
+
   private class TaskSchedulerDispatcher
       implements EventHandler<TaskSchedulerEvent> {
     public void handle(TaskSchedulerEvent event) {
@@ -301,7 +405,7 @@ public class QueryMasterTask extends CompositeService {
 
     CatalogService catalog = getQueryTaskContext().getQueryMasterContext().getWorkerContext().getCatalog();
     LogicalPlanner planner = new LogicalPlanner(catalog);
-    LogicalOptimizer optimizer = new LogicalOptimizer(systemConf);
+    LogicalOptimizer optimizer = new LogicalOptimizer(systemConf, catalog);
     Expr expr;
     if (queryContext.isHiveQueryMode()) {
       HiveQLAnalyzer HiveQLAnalyzer = new HiveQLAnalyzer();
@@ -312,6 +416,9 @@ public class QueryMasterTask extends CompositeService {
     }
     LogicalPlan plan = null;
     try {
+      if (expr.getType() == OpType.AnalyzeTable) {
+        expr = GlobalEngine.buildAnalyzeQuery(catalog, session, queryContext, (AnalyzeTable) expr);
+      }
       plan = planner.createPlan(session, expr);
       optimizer.optimize(plan);
     } catch (PlanningException e) {
@@ -325,7 +432,7 @@ public class QueryMasterTask extends CompositeService {
     try {
 
       for (LogicalPlan.QueryBlock block : plan.getQueryBlocks()) {
-        LogicalNode[] scanNodes = PlannerUtil.findAllNodes(block.getRoot(), NodeType.SCAN);
+        LogicalNode[] scanNodes = PlannerUtil.findAllNodes(block.getRoot(), NodeType.SCAN, NodeType.BST_INDEX_SCAN);
         if(scanNodes != null) {
           for(LogicalNode eachScanNode: scanNodes) {
             ScanNode scanNode = (ScanNode)eachScanNode;
@@ -67,6 +67,8 @@ public class QueryUnit implements EventHandler<TaskEvent> {
   private int totalFragmentNum;
 
   private List<ShuffleFileOutput> shuffleFileOutputs;
+  /** the column partitions written by the succeeded attempt */
+  private List<String> partitions;
 	private TableStats stats;
   private final boolean isLeafTask;
   private List<IntermediateEntry> intermediateData;
@@ -172,6 +174,7 @@ public class QueryUnit implements EventHandler<TaskEvent> {
     fetchMap = Maps.newHashMap();
     fragMap = Maps.newHashMap();
     shuffleFileOutputs = new ArrayList<ShuffleFileOutput>();
+    partitions = Collections.emptyList();
     attempts = Collections.emptyMap();
     lastAttemptId = null;
     nextAttempt = -1;
@@ -351,6 +354,17 @@ public class QueryUnit implements EventHandler<TaskEvent> {
 	  return this.shuffleFileOutputs.size();
 	}
 
+  public void setPartitions(List<String> partitions) {
+    this.partitions = Collections.unmodifiableList(partitions);
+  }
+
+  /**
+   * @return the column partitions written by this task, relative to the output path
+   */
+  public List<String> getPartitions() {
+    return this.partitions;
+  }
+
   public QueryUnitAttempt newAttempt() {
     QueryUnitAttempt attempt = new QueryUnitAttempt(scheduleContext,
         QueryIdFactory.newQueryUnitAttemptId(this.getId(), ++nextAttempt),
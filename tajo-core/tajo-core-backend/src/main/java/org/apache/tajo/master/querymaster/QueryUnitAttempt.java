@@ -40,6 +40,7 @@ import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+import static org.apache.tajo.ipc.TajoWorkerProtocol.OperatorProfileProto;
 import static org.apache.tajo.ipc.TajoWorkerProtocol.ShuffleFileOutput;
 
 public class QueryUnitAttempt implements EventHandler<TaskAttemptEvent> {
@@ -67,6 +68,7 @@ public class QueryUnitAttempt implements EventHandler<TaskAttemptEvent> {
   private float progress;
   private CatalogProtos.TableStatsProto inputStats;
   private CatalogProtos.TableStatsProto resultStats;
+  private List<OperatorProfileProto> operatorProfiles;
 
   protected static final StateMachineFactory
       <QueryUnitAttempt, TaskAttemptState, TaskAttemptEventType, TaskAttemptEvent>
@@ -258,6 +260,13 @@ public class QueryUnitAttempt implements EventHandler<TaskAttemptEvent> {
     return new TableStats(resultStats);
   }
 
+  /**
+   * @return The runtime profiles of physical operators. It is only available for a profiled query.
+   */
+  public List<OperatorProfileProto> getOperatorProfiles() {
+    return operatorProfiles;
+  }
+
   private void fillTaskStatistics(TaskCompletionReport report) {
     this.progress = 1.0f;
 
@@ -272,6 +281,9 @@ public class QueryUnitAttempt implements EventHandler<TaskAttemptEvent> {
       }
       this.getQueryUnit().setIntermediateData(partitions);
     }
+    if (report.getPartitionsCount() > 0) {
+      this.getQueryUnit().setPartitions(report.getPartitionsList());
+    }
     if (report.hasInputStats()) {
       this.inputStats = report.getInputStats();
     }
@@ -279,6 +291,9 @@ public class QueryUnitAttempt implements EventHandler<TaskAttemptEvent> {
       this.resultStats = report.getResultStats();
       this.getQueryUnit().setStats(new TableStats(resultStats));
     }
+    if (report.getOperatorProfilesCount() > 0) {
+      this.operatorProfiles = report.getOperatorProfilesList();
+    }
   }
 
   private static class TaskAttemptScheduleTransition implements
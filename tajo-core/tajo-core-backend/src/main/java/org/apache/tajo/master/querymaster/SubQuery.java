@@ -49,6 +49,7 @@ import org.apache.tajo.engine.planner.logical.GroupbyNode;
 import org.apache.tajo.engine.planner.logical.NodeType;
 import org.apache.tajo.engine.planner.logical.ScanNode;
 import org.apache.tajo.engine.planner.logical.StoreTableNode;
+import org.apache.tajo.engine.planner.physical.OperatorProfile;
 import org.apache.tajo.ipc.TajoMasterProtocol;
 import org.apache.tajo.master.*;
 import org.apache.tajo.master.TaskRunnerGroupEvent.EventType;
@@ -66,6 +67,7 @@ import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import static org.apache.tajo.conf.TajoConf.ConfVars;
+import static org.apache.tajo.ipc.TajoWorkerProtocol.OperatorProfileProto;
 import static org.apache.tajo.ipc.TajoWorkerProtocol.ShuffleType;
 
 
@@ -83,6 +85,7 @@ public class SubQuery implements EventHandler<SubQueryEvent> {
   private TableMeta meta;
   private TableStats resultStatistics;
   private TableStats inputStatistics;
+  private List<OperatorProfile> operatorProfiles;
   private EventHandler<Event> eventHandler;
   private final AbstractStorageManager sm;
   private AbstractTaskScheduler taskScheduler;
@@ -250,6 +253,11 @@ public class SubQuery implements EventHandler<SubQueryEvent> {
   private int failedObjectCount = 0;
   private TaskSchedulerContext schedulerContext;
 
+  // the serialized plan of this execution block, which is shared by all tasks
+  private String serializedPlan;
+  // workers which have already received the serialized plan
+  private final Set<String> planReceivedWorkers = new HashSet<String>();
+
   public SubQuery(QueryMasterTask.QueryMasterTaskContext context, MasterPlan masterPlan, ExecutionBlock block, AbstractStorageManager sm) {
     this.context = context;
     this.masterPlan = masterPlan;
@@ -357,6 +365,33 @@ public class SubQuery implements EventHandler<SubQueryEvent> {
     tasks.put(task.getId(), task);
   }
 
+  /**
+   * Returns the serialized plan for a task assigned to the given container. All tasks of this subquery share
+   * the same plan, so it is serialized only once. In addition, it is sent only with the first task of each
+   * worker because the TaskRunnerManager of a worker keeps the plan of an execution block for all its
+   * TaskRunners. For the remaining tasks, it returns an empty string. If a TaskRunner does not find the plan
+   * in its worker, for example, because the first task is lost or is not handled yet, it requests the plan
+   * through {@link #getSerializedPlan()}.
+   */
+  public synchronized String getSerializedPlan(ContainerId containerId) {
+    Container container = containers.get(containerId);
+    String worker = container != null ? container.getNodeId().toString() : containerId.toString();
+    if (!planReceivedWorkers.add(worker)) {
+      return "";
+    }
+    return getSerializedPlan();
+  }
+
+  /**
+   * @return The serialized plan of this execution block
+   */
+  public synchronized String getSerializedPlan() {
+    if (serializedPlan == null) {
+      serializedPlan = block.getPlan().toJson();
+    }
+    return serializedPlan;
+  }
+
   /**
    * It finalizes this subquery. It is only invoked when the subquery is succeeded.
    */
@@ -429,6 +464,13 @@ public class SubQuery implements EventHandler<SubQueryEvent> {
     return inputStatistics;
   }
 
+  /**
+   * @return The operator profiles merged from all tasks. It is only available for a profiled query.
+   */
+  public List<OperatorProfile> getOperatorProfiles() {
+    return operatorProfiles;
+  }
+
   public List<String> getDiagnostics() {
     readLock.lock();
     try {
@@ -535,6 +577,16 @@ public class SubQuery implements EventHandler<SubQueryEvent> {
     return new TableStats[]{inputStats, resultStats};
   }
 
+  private List<OperatorProfile> computeProfileFromTasks() {
+    List<List<OperatorProfileProto>> taskProfiles = Lists.newArrayList();
+    for (QueryUnit unit : getQueryUnits()) {
+      if (unit.getLastAttempt() != null && unit.getLastAttempt().getOperatorProfiles() != null) {
+        taskProfiles.add(unit.getLastAttempt().getOperatorProfiles());
+      }
+    }
+    return taskProfiles.isEmpty() ? null : OperatorProfile.aggregate(taskProfiles);
+  }
+
   private void stopScheduler() {
     // If there are launched TaskRunners, send the 'shouldDie' message to all r
     // via received task requests.
@@ -579,6 +631,7 @@ public class SubQuery implements EventHandler<SubQueryEvent> {
     meta = CatalogUtil.newTableMeta(storeType, new Options());
     inputStatistics = statsArray[0];
     resultStatistics = statsArray[1];
+    operatorProfiles = computeProfileFromTasks();
   }
 
   @Override
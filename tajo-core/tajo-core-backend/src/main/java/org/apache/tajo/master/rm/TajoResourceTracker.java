@@ -83,7 +83,7 @@ public class TajoResourceTracker extends AbstractService implements TajoResource
     InetSocketAddress initIsa = NetUtils.createSocketAddr(confMasterServiceAddr);
 
     try {
-      server = new AsyncRpcServer(TajoResourceTrackerProtocol.class, this, initIsa, 3);
+      server = new AsyncRpcServer(TajoResourceTrackerProtocol.class, this, initIsa, 3, systemConf);
     } catch (Exception e) {
       LOG.error(e);
       throw new IOError(e);
@@ -117,7 +117,8 @@ public class TajoResourceTracker extends AbstractService implements TajoResource
         heartbeat.getServerStatus().getRunningTaskNum(),
         heartbeat.getServerStatus().getJvmHeap().getMaxHeap(),
         heartbeat.getServerStatus().getJvmHeap().getFreeHeap(),
-        heartbeat.getServerStatus().getJvmHeap().getTotalHeap());
+        heartbeat.getServerStatus().getJvmHeap().getTotalHeap(),
+        heartbeat.getServerStatus().getReservedMemoryBytes());
   }
 
   @Override
@@ -198,6 +199,7 @@ public class TajoResourceTracker extends AbstractService implements TajoResource
       workerResource.setMaxHeap(request.getServerStatus().getJvmHeap().getMaxHeap());
       workerResource.setFreeHeap(request.getServerStatus().getJvmHeap().getFreeHeap());
       workerResource.setTotalHeap(request.getServerStatus().getJvmHeap().getTotalHeap());
+      workerResource.setReservedMemory(request.getServerStatus().getReservedMemoryBytes());
     } else {
       workerResource.setMemoryMB(4096);
       workerResource.setDiskSlots(4);
@@ -237,6 +237,7 @@ public class Worker implements EventHandler<WorkerEvent>, Comparable<Worker> {
         worker.getResource().setMaxHeap(statusEvent.maxHeap());
         worker.getResource().setFreeHeap(statusEvent.getFreeHeap());
         worker.getResource().setTotalHeap(statusEvent.getTotalHeap());
+        worker.getResource().setReservedMemory(statusEvent.getReservedMemory());
       }
 
       return WorkerState.RUNNING;
@@ -50,6 +50,8 @@ public class WorkerResource {
   private long maxHeap;
   private long freeHeap;
   private long totalHeap;
+  // memory reserved by the operators of running tasks
+  private long reservedMemory;
 
   private int numRunningTasks;
 
@@ -221,6 +223,14 @@ public class WorkerResource {
     this.totalHeap = totalHeap;
   }
 
+  public long getReservedMemory() {
+    return reservedMemory;
+  }
+
+  public void setReservedMemory(long reservedMemory) {
+    this.reservedMemory = reservedMemory;
+  }
+
   public int getNumRunningTasks() {
     return numRunningTasks;
   }
@@ -27,13 +27,16 @@ public class WorkerStatusEvent extends WorkerEvent {
   private final long maxHeap;
   private final long freeHeap;
   private final long totalHeap;
+  private final long reservedMemory;
 
-  public WorkerStatusEvent(String workerId, int runningTaskNum, long maxHeap, long freeHeap, long totalHeap) {
+  public WorkerStatusEvent(String workerId, int runningTaskNum, long maxHeap, long freeHeap, long totalHeap,
+                           long reservedMemory) {
     super(workerId, WorkerEventType.STATE_UPDATE);
     this.runningTaskNum = runningTaskNum;
     this.maxHeap = maxHeap;
     this.freeHeap = freeHeap;
     this.totalHeap = totalHeap;
+    this.reservedMemory = reservedMemory;
   }
 
   public int getRunningTaskNum() {
@@ -51,4 +54,8 @@ public class WorkerStatusEvent extends WorkerEvent {
   public long getTotalHeap() {
     return totalHeap;
   }
+
+  public long getReservedMemory() {
+    return reservedMemory;
+  }
 }
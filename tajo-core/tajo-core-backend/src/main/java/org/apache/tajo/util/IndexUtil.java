@@ -19,6 +19,7 @@
 package org.apache.tajo.util;
 
 import com.google.gson.Gson;
+import org.apache.hadoop.fs.Path;
 import org.apache.tajo.catalog.Column;
 import org.apache.tajo.catalog.Schema;
 import org.apache.tajo.catalog.SortSpec;
@@ -35,6 +36,16 @@ import java.util.LinkedList;
 import java.util.Map.Entry;
 
 public class IndexUtil {
+  /** the directory in a table directory, which contains index files. It is hidden from table scans. */
+  public static final String INDEX_DIR_NAME = "_index";
+
+  /**
+   * @return the directory which contains the index files of all fragments of a table
+   */
+  public static Path getIndexPath(Path tablePath, String indexName) {
+    return new Path(new Path(tablePath, INDEX_DIR_NAME), indexName);
+  }
+
   public static String getIndexNameOfFrag(FileFragment fragment, SortSpec[] keys) {
     StringBuilder builder = new StringBuilder(); 
     builder.append(fragment.getPath().getName() + "_");
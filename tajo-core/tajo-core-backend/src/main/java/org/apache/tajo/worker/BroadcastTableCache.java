@@ -0,0 +1,223 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.worker;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Objects;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.tajo.ExecutionBlockId;
+import org.apache.tajo.QueryId;
+import org.apache.tajo.catalog.proto.CatalogProtos.FragmentProto;
+import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.util.FileUtil;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * BroadcastTableCache keeps the hash tables built from broadcast tables. All tasks of an execution block
+ * in a worker probe one read-only hash table instead of scanning the broadcast table and building their own copies.
+ *
+ * A hash table is counted by the operators using it. Since the tasks of a task runner run one after another,
+ * a hash table is kept even if no operator uses it, and it is removed when its execution block or query is finished.
+ */
+public class BroadcastTableCache {
+  private static final Log LOG = LogFactory.getLog(BroadcastTableCache.class);
+
+  private static BroadcastTableCache instance;
+
+  private final MemoryManager memoryManager;
+  private final Map<Key, Entry> entries = new HashMap<Key, Entry>();
+
+  @VisibleForTesting
+  public BroadcastTableCache(MemoryManager memoryManager) {
+    this.memoryManager = memoryManager;
+  }
+
+  /**
+   * All tasks in the same JVM share one cache.
+   */
+  public synchronized static BroadcastTableCache getInstance(TajoConf conf) {
+    if (instance == null) {
+      instance = new BroadcastTableCache(MemoryManager.getInstance(conf));
+    }
+    return instance;
+  }
+
+  public interface Loader {
+    /**
+     * Loads the rows of a broadcast table into a hash table.
+     *
+     * @return The bytes of the loaded rows
+     */
+    long load(Map<Tuple, List<Tuple>> table) throws IOException;
+  }
+
+  /**
+   * Returns the hash table of a key. If the hash table does not exist, it is loaded by the given loader, and
+   * other operators asking for the same key wait until it is loaded. The hash table should not be modified.
+   * Every successful call should be paired with {@link #release(Key)}.
+   */
+  public Map<Tuple, List<Tuple>> acquire(Key key, Loader loader) throws IOException {
+    Entry entry;
+    synchronized (entries) {
+      entry = entries.get(key);
+      if (entry == null) {
+        entry = new Entry();
+        entries.put(key, entry);
+      }
+      entry.refCount++;
+    }
+
+    boolean loaded = false;
+    try {
+      synchronized (entry) {
+        if (entry.table == null) {
+          // if it fails, the next operator waiting for the entry loads it again.
+          Map<Tuple, List<Tuple>> table = new HashMap<Tuple, List<Tuple>>(10000);
+          long bytes = loader.load(table);
+          memoryManager.forceReserve(entry, bytes);
+          entry.table = table;
+          LOG.info("Broadcast table of " + key + " is cached (" + table.size() + " keys, "
+              + FileUtil.humanReadableByteCount(bytes, false) + ")");
+        }
+        loaded = true;
+        return entry.table;
+      }
+    } finally {
+      if (!loaded) {
+        release(key);
+      }
+    }
+  }
+
+  public void release(Key key) {
+    Entry removed = null;
+    synchronized (entries) {
+      Entry entry = entries.get(key);
+      if (entry == null) {
+        return;
+      }
+      entry.refCount--;
+      if (entry.refCount == 0 && entry.finished) {
+        entries.remove(key);
+        removed = entry;
+      }
+    }
+    if (removed != null) {
+      memoryManager.release(removed);
+    }
+  }
+
+  /**
+   * Removes the hash tables of an execution block. A hash table still used by an operator is removed
+   * when it is released.
+   */
+  public void releaseExecutionBlock(ExecutionBlockId ebId) {
+    remove(ebId.getQueryId(), ebId);
+  }
+
+  /**
+   * Removes the hash tables of all execution blocks of a query.
+   */
+  public void releaseQuery(QueryId queryId) {
+    remove(queryId, null);
+  }
+
+  private void remove(QueryId queryId, ExecutionBlockId ebId) {
+    List<Entry> removed = new ArrayList<Entry>();
+    synchronized (entries) {
+      Iterator<Map.Entry<Key, Entry>> it = entries.entrySet().iterator();
+      while (it.hasNext()) {
+        Map.Entry<Key, Entry> entry = it.next();
+        ExecutionBlockId entryEbId = entry.getKey().ebId;
+        if (entryEbId.getQueryId().equals(queryId) && (ebId == null || entryEbId.equals(ebId))) {
+          if (entry.getValue().refCount == 0) {
+            it.remove();
+            removed.add(entry.getValue());
+          } else {
+            entry.getValue().finished = true;
+          }
+        }
+      }
+    }
+
+    // the memory manager is not called while holding the lock of entries
+    for (Entry entry : removed) {
+      memoryManager.release(entry);
+    }
+  }
+
+  @VisibleForTesting
+  public int size() {
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+
+  private static class Entry implements MemoryConsumer {
+    private int refCount = 0;
+    private boolean finished = false;
+    private volatile Map<Tuple, List<Tuple>> table;
+
+    /**
+     * A cached hash table is always kept until its execution block is finished.
+     */
+    @Override
+    public boolean requestSpill() {
+      return false;
+    }
+  }
+
+  /**
+   * A hash table is identified by the join operator building it and the fragments of the broadcast table.
+   */
+  public static class Key {
+    private final ExecutionBlockId ebId;
+    private final int joinPid;
+    private final Set<FragmentProto> fragments;
+
+    public Key(ExecutionBlockId ebId, int joinPid, List<FragmentProto> fragments) {
+      this.ebId = ebId;
+      this.joinPid = joinPid;
+      this.fragments = new HashSet<FragmentProto>(fragments);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (obj instanceof Key) {
+        Key other = (Key) obj;
+        return ebId.equals(other.ebId) && joinPid == other.joinPid && fragments.equals(other.fragments);
+      }
+      return false;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hashCode(ebId, joinPid, fragments);
+    }
+
+    @Override
+    public String toString() {
+      return ebId + ", join " + joinPid;
+    }
+  }
+}
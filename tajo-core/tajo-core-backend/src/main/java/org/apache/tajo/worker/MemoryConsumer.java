@@ -0,0 +1,34 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.worker;
+
+/**
+ * An operator which reserves memory from {@link MemoryManager}.
+ */
+public interface MemoryConsumer {
+
+  /**
+   * It is called by {@link MemoryManager} when the memory of a worker is short. It is called in a thread of
+   * another task while the manager is locked, so it must not block. A consumer should only mark itself, and then
+   * spill its data and release its memory in its own thread.
+   *
+   * @return True if this consumer will spill. False if it cannot spill.
+   */
+  boolean requestSpill();
+}
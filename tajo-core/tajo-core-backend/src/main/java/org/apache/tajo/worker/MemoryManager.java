@@ -0,0 +1,147 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.worker;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.util.FileUtil;
+
+import java.util.*;
+
+/**
+ * MemoryManager keeps track of the memory reserved by the operators of all tasks running in a worker.
+ * Operators reserve memory before they hold more data, and they release it when they spill or close.
+ *
+ * If a reservation exceeds the capacity, the manager asks the largest consumers to spill
+ * until the shortage is covered.
+ */
+public class MemoryManager {
+  private static final Log LOG = LogFactory.getLog(MemoryManager.class);
+
+  private static MemoryManager instance;
+
+  private final long capacity;
+  private long reserved = 0;
+  private final Map<MemoryConsumer, Long> reservations = new HashMap<MemoryConsumer, Long>();
+
+  @VisibleForTesting
+  public MemoryManager(long capacity) {
+    this.capacity = capacity;
+  }
+
+  /**
+   * All tasks in the same JVM share one memory manager.
+   */
+  public synchronized static MemoryManager getInstance(TajoConf conf) {
+    if (instance == null) {
+      float ratio = conf.getFloatVar(TajoConf.ConfVars.WORKER_EXECUTION_MEMORY_RATIO);
+      instance = new MemoryManager((long) (Runtime.getRuntime().maxMemory() * ratio));
+      LOG.info("Memory for execution: " + FileUtil.humanReadableByteCount(instance.capacity, false));
+    }
+    return instance;
+  }
+
+  public long getCapacity() {
+    return capacity;
+  }
+
+  public synchronized long getReserved() {
+    return reserved;
+  }
+
+  public synchronized long getReserved(MemoryConsumer consumer) {
+    Long bytes = reservations.get(consumer);
+    return bytes == null ? 0 : bytes;
+  }
+
+  /**
+   * Reserves memory only if it is available. Otherwise, it asks other consumers to spill.
+   *
+   * @return True if the memory is reserved. If false, the consumer should spill its data or wait.
+   */
+  public synchronized boolean reserve(MemoryConsumer consumer, long bytes) {
+    if (reserved + bytes <= capacity) {
+      add(consumer, bytes);
+      return true;
+    } else {
+      requestSpill(consumer, reserved + bytes - capacity);
+      return false;
+    }
+  }
+
+  /**
+   * Reserves memory even if it exceeds the capacity. It is used by operators which cannot spill.
+   * If the capacity is exceeded, it asks other consumers to spill.
+   */
+  public synchronized void forceReserve(MemoryConsumer consumer, long bytes) {
+    add(consumer, bytes);
+    if (reserved > capacity) {
+      requestSpill(consumer, reserved - capacity);
+    }
+  }
+
+  /**
+   * Releases all memory reserved by a consumer.
+   *
+   * @return The released bytes
+   */
+  public synchronized long release(MemoryConsumer consumer) {
+    Long bytes = reservations.remove(consumer);
+    if (bytes == null) {
+      return 0;
+    }
+    reserved -= bytes;
+    return bytes;
+  }
+
+  private void add(MemoryConsumer consumer, long bytes) {
+    Long current = reservations.get(consumer);
+    reservations.put(consumer, current == null ? bytes : current + bytes);
+    reserved += bytes;
+  }
+
+  private void requestSpill(MemoryConsumer requester, long shortage) {
+    List<Map.Entry<MemoryConsumer, Long>> consumers =
+        new ArrayList<Map.Entry<MemoryConsumer, Long>>(reservations.entrySet());
+    Collections.sort(consumers, new Comparator<Map.Entry<MemoryConsumer, Long>>() {
+      @Override
+      public int compare(Map.Entry<MemoryConsumer, Long> e1, Map.Entry<MemoryConsumer, Long> e2) {
+        return e2.getValue().compareTo(e1.getValue());
+      }
+    });
+
+    long toBeReleased = 0;
+    for (Map.Entry<MemoryConsumer, Long> entry : consumers) {
+      if (toBeReleased >= shortage) {
+        break;
+      }
+      if (entry.getKey() != requester && entry.getKey().requestSpill()) {
+        toBeReleased += entry.getValue();
+      }
+    }
+
+    if (toBeReleased < shortage && LOG.isDebugEnabled()) {
+      LOG.debug("Memory is short by " + FileUtil.humanReadableByteCount(shortage - toBeReleased, false)
+          + " (reserved: " + FileUtil.humanReadableByteCount(reserved, false)
+          + ", capacity: " + FileUtil.humanReadableByteCount(capacity, false) + ")");
+    }
+  }
+}
@@ -0,0 +1,102 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.worker;
+
+/**
+ * It keeps track of the memory used by an operator. The memory is reserved from {@link MemoryManager} in units,
+ * so an operator does not contend for the memory manager on every tuple. Once a reservation fails, it is not
+ * tried again until {@link #release()}, which an operator calls after it spills its data.
+ */
+public class MemoryReservation implements MemoryConsumer {
+  public static final long RESERVATION_UNIT = 1024 * 1024;
+
+  private final TaskAttemptContext context;
+  private final MemoryConsumer spillable;
+  private long used = 0;
+  private long reserved = 0;
+  private boolean reservationFailed = false;
+
+  /**
+   * @param context The context of the task which the operator belongs to
+   * @param spillable An operator which spills its data when it is requested. NULL if the operator cannot spill.
+   */
+  public MemoryReservation(TaskAttemptContext context, MemoryConsumer spillable) {
+    this.context = context;
+    this.spillable = spillable;
+  }
+
+  public MemoryReservation(TaskAttemptContext context) {
+    this(context, null);
+  }
+
+  /**
+   * Adds the memory used by an operator only if the worker has enough memory.
+   *
+   * @return False if the memory could not be reserved. The memory is counted as used even in that case,
+   * so the operator should spill its data and call {@link #release()}.
+   */
+  public boolean tryAdd(long bytes) {
+    used += bytes;
+    if (used > reserved) {
+      if (reservationFailed) {
+        return false;
+      }
+      long unit = Math.max(RESERVATION_UNIT, used - reserved);
+      if (!context.reserveMemory(this, unit)) {
+        reservationFailed = true;
+        return false;
+      }
+      reserved += unit;
+    }
+    return true;
+  }
+
+  /**
+   * Adds the memory used by an operator even if the worker does not have enough memory.
+   */
+  public void add(long bytes) {
+    used += bytes;
+    if (used > reserved) {
+      long unit = Math.max(RESERVATION_UNIT, used - reserved);
+      context.forceReserveMemory(this, unit);
+      reserved += unit;
+    }
+  }
+
+  /**
+   * Releases all memory of the operator.
+   */
+  public void release() {
+    if (reserved > 0) {
+      context.releaseMemory(this);
+    }
+    used = 0;
+    reserved = 0;
+    reservationFailed = false;
+  }
+
+  public long getUsed() {
+    return used;
+  }
+
+  @Override
+  public boolean requestSpill() {
+    return spillable != null && spillable.requestSpill();
+  }
+}
@@ -0,0 +1,59 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.worker;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.tajo.conf.TajoConf;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * PipelineExecutor runs the pipelines of morsel-driven tasks. All tasks in a worker share its threads,
+ * so the number of threads running operators does not grow with the number of concurrent tasks.
+ */
+public class PipelineExecutor {
+  private static final Log LOG = LogFactory.getLog(PipelineExecutor.class);
+
+  private static PipelineExecutor instance;
+
+  private final ExecutorService executor;
+
+  private PipelineExecutor(int threadNum) {
+    this.executor = Executors.newFixedThreadPool(threadNum,
+        new ThreadFactoryBuilder().setNameFormat("Pipeline Executor #%d").setDaemon(true).build());
+  }
+
+  public synchronized static PipelineExecutor getInstance(TajoConf conf) {
+    if (instance == null) {
+      int threadNum = conf.getIntVar(TajoConf.ConfVars.WORKER_EXECUTION_POOL_THREADS);
+      instance = new PipelineExecutor(threadNum);
+      LOG.info("Pipeline executor is started with " + threadNum + " threads");
+    }
+    return instance;
+  }
+
+  public <T> Future<T> submit(Callable<T> pipeline) {
+    return executor.submit(pipeline);
+  }
+}
@@ -30,9 +30,11 @@ import org.apache.tajo.QueryId;
 import org.apache.tajo.QueryIdFactory;
 import org.apache.tajo.TajoIdProtos;
 import org.apache.tajo.TajoProtos;
+import org.apache.tajo.catalog.TableDesc;
 import org.apache.tajo.conf.TajoConf;
 import org.apache.tajo.ipc.ClientProtos;
 import org.apache.tajo.ipc.QueryMasterClientProtocol;
+import org.apache.tajo.master.QueryResultScanner;
 import org.apache.tajo.master.querymaster.Query;
 import org.apache.tajo.master.querymaster.QueryMasterTask;
 import org.apache.tajo.rpc.BlockingRpcServer;
@@ -56,6 +58,7 @@ public class TajoWorkerClientService extends AbstractService {
   private TajoConf conf;
   private TajoWorker.WorkerContext workerContext;
   private TajoWorkerClientProtocolServiceHandler serviceHandler;
+  private QueryResultScanner.Scanners resultScanners;
 
   public TajoWorkerClientService(TajoWorker.WorkerContext workerContext, int port) {
     super(TajoWorkerClientService.class.getName());
@@ -69,6 +72,7 @@ public class TajoWorkerClientService extends AbstractService {
     Preconditions.checkArgument(conf instanceof TajoConf);
     this.conf = (TajoConf) conf;
     this.serviceHandler = new TajoWorkerClientProtocolServiceHandler();
+    this.resultScanners = new QueryResultScanner.Scanners(this.conf);
 
     // init RPC Server in constructor cause Heartbeat Thread use bindAddr
     // Setup RPC server
@@ -81,7 +85,8 @@ public class TajoWorkerClientService extends AbstractService {
 
       // TODO blocking/non-blocking??
       int workerNum = this.conf.getIntVar(TajoConf.ConfVars.WORKER_SERVICE_RPC_SERVER_WORKER_THREAD_NUM);
-      this.rpcServer = new BlockingRpcServer(QueryMasterClientProtocol.class, serviceHandler, initIsa, workerNum);
+      this.rpcServer = new BlockingRpcServer(QueryMasterClientProtocol.class, serviceHandler, initIsa,
+          workerNum, this.conf);
       this.rpcServer.start();
 
       this.bindAddr = NetUtils.getConnectAddress(rpcServer.getListenAddress());
@@ -99,6 +104,7 @@ public class TajoWorkerClientService extends AbstractService {
 
   @Override
   public void start() {
+    resultScanners.start();
     super.start();
   }
 
@@ -108,6 +114,9 @@ public class TajoWorkerClientService extends AbstractService {
     if(rpcServer != null) {
       rpcServer.shutdown();
     }
+    if (resultScanners != null) {
+      resultScanners.stop();
+    }
     LOG.info("TajoWorkerClientService stopped");
     super.stop();
   }
@@ -145,6 +154,10 @@ public class TajoWorkerClientService extends AbstractService {
         switch (query.getState()) {
           case QUERY_SUCCEEDED:
             builder.setTableDesc(query.getResultDesc().getProto());
+            String profile = query.getProfile();
+            if (profile != null) {
+              builder.setProfile(profile);
+            }
             break;
           case QUERY_FAILED:
           case QUERY_ERROR:
@@ -209,7 +222,26 @@ public class TajoWorkerClientService extends AbstractService {
             TajoIdProtos.QueryIdProto request) throws ServiceException {
       final QueryId queryId = new QueryId(request);
       LOG.info("Stop Query:" + queryId);
+      resultScanners.closeQuery(queryId);
       return BOOL_TRUE;
     }
+
+    @Override
+    public ClientProtos.FetchResultResponse fetchNextRows(
+            RpcController controller,
+            ClientProtos.FetchResultRequest request) throws ServiceException {
+      QueryId queryId = new QueryId(request.getQueryId());
+      QueryMasterTask queryMasterTask = workerContext.getQueryMaster().getQueryMasterTask(queryId, true);
+
+      TableDesc resultDesc = null;
+      if (queryMasterTask != null) {
+        queryMasterTask.touchSessionTime();
+        Query query = queryMasterTask.getQuery();
+        if (query != null && query.getState() == TajoProtos.QueryState.QUERY_SUCCEEDED) {
+          resultDesc = query.getResultDesc();
+        }
+      }
+      return resultScanners.fetch(request, resultDesc);
+    }
   }
 }
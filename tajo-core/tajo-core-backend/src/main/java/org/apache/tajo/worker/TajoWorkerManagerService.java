@@ -66,7 +66,7 @@ public class TajoWorkerManagerService extends CompositeService
       }
 
       int workerNum = tajoConf.getIntVar(TajoConf.ConfVars.WORKER_RPC_SERVER_WORKER_THREAD_NUM);
-      this.rpcServer = new AsyncRpcServer(TajoWorkerProtocol.class, this, initIsa, workerNum);
+      this.rpcServer = new AsyncRpcServer(TajoWorkerProtocol.class, this, initIsa, workerNum, tajoConf);
       this.rpcServer.start();
 
       this.bindAddr = NetUtils.getConnectAddress(rpcServer.getListenAddress());
@@ -146,7 +146,9 @@ public class TajoWorkerManagerService extends CompositeService
   @Override
   public void cleanup(RpcController controller, TajoIdProtos.QueryIdProto request,
                       RpcCallback<PrimitiveProtos.BoolProto> done) {
-    workerContext.cleanup(new QueryId(request).toString());
+    QueryId queryId = new QueryId(request);
+    workerContext.cleanup(queryId.toString());
+    BroadcastTableCache.getInstance((TajoConf) getConfig()).releaseQuery(queryId);
     done.run(TajoWorker.TRUE_PROTO);
   }
 }
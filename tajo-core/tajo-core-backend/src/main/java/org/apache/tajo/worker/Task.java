@@ -38,13 +38,14 @@ import org.apache.tajo.catalog.TableMeta;
 import org.apache.tajo.catalog.proto.CatalogProtos;
 import org.apache.tajo.catalog.statistics.TableStats;
 import org.apache.tajo.conf.TajoConf;
-import org.apache.tajo.engine.json.CoreGsonHelper;
 import org.apache.tajo.engine.planner.PlannerUtil;
 import org.apache.tajo.engine.planner.logical.LogicalNode;
 import org.apache.tajo.engine.planner.logical.NodeType;
 import org.apache.tajo.engine.planner.logical.ScanNode;
 import org.apache.tajo.engine.planner.logical.SortNode;
+import org.apache.tajo.engine.planner.physical.OperatorProfile;
 import org.apache.tajo.engine.planner.physical.PhysicalExec;
+import org.apache.tajo.engine.planner.physical.ProfiledExec;
 import org.apache.tajo.engine.query.QueryContext;
 import org.apache.tajo.engine.query.QueryUnitRequest;
 import org.apache.tajo.ipc.QueryMasterProtocol.QueryMasterProtocolService;
@@ -86,10 +87,12 @@ public class Task {
   private LogicalNode plan;
   private final Map<String, TableDesc> descs = Maps.newHashMap();
   private PhysicalExec executor;
+  // only available for a profiled query
+  private List<OperatorProfile> operatorProfiles;
   private boolean interQuery;
-  private boolean killed = false;
-  private boolean aborted = false;
-  private boolean stopped = false;
+  private volatile boolean killed = false;
+  private volatile boolean aborted = false;
+  private volatile boolean stopped = false;
   private final Reporter reporter;
   private Path inputTableBaseDir;
 
@@ -156,8 +159,8 @@ public class Task {
     this.reporter = new Reporter(taskId, masterProxy);
     this.reporter.startCommunicationThread();
 
-    plan = CoreGsonHelper.fromJson(request.getSerializedData(), LogicalNode.class);
-    LogicalNode [] scanNode = PlannerUtil.findAllNodes(plan, NodeType.SCAN);
+    plan = worker.getPlan(request.getSerializedData());
+    LogicalNode [] scanNode = PlannerUtil.findAllNodes(plan, NodeType.SCAN, NodeType.BST_INDEX_SCAN);
     for (LogicalNode node : scanNode) {
       ScanNode scan = (ScanNode)node;
       descs.put(scan.getCanonicalName(), scan.getTableDesc());
@@ -257,6 +260,24 @@ public class Task {
     return context;
   }
 
+  public boolean isStopped() {
+    return stopped;
+  }
+
+  /**
+   * Updates the progress of this task with the progress of its executor.
+   */
+  public void updateProgress() {
+    try {
+      if(executor != null && context.getProgress() < 1.0f) {
+        float progress = executor.getProgress();
+        context.setExecutorProgress(progress);
+      }
+    } catch (Throwable t) {
+      LOG.error("Get progress error: " + t.getMessage(), t);
+    }
+  }
+
   public boolean hasFetchPhase() {
     return fetcherRunners.size() > 0;
   }
@@ -278,6 +299,13 @@ public class Task {
     aborted = true;
     context.stop();
     releaseChannelFactory();
+
+    // an aborted task may have never run, e.g., a prefetched task of a stopped TaskRunner.
+    try {
+      reporter.stopCommunicationThread();
+    } catch (InterruptedException e) {
+      LOG.warn(e);
+    }
   }
 
   public void cleanUp() {
@@ -304,6 +332,7 @@ public class Task {
         .setState(context.getState());
 
     builder.setInputStats(reloadInputStats());
+    builder.setReservedMemoryBytes(context.getReservedMemory());
 
     if (context.getResultStats() != null) {
       builder.setResultStats(context.getResultStats().getProto());
@@ -348,6 +377,14 @@ public class Task {
       } while (it.hasNext());
     }
 
+    builder.addAllPartitions(context.getPartitions());
+
+    if (operatorProfiles != null) {
+      for (OperatorProfile profile : operatorProfiles) {
+        builder.addOperatorProfiles(profile.getProto());
+      }
+    }
+
     return builder.build();
   }
 
@@ -380,11 +417,18 @@ public class Task {
       if (context.getFragmentSize() > 0) {
         this.executor = taskRunnerContext.getTQueryEngine().
             createPlan(context, plan);
+        if (queryContext != null && queryContext.isProfileQuery()) {
+          this.executor = ProfiledExec.instrument(executor);
+        }
         this.executor.init();
-        while(!killed && executor.next() != null) {
+        // an aborted task, e.g., the running task of a stopped TaskRunner, is stopped as well.
+        while(!killed && !aborted && executor.next() != null) {
         }
         this.executor.close();
         reloadInputStats();
+        if (executor instanceof ProfiledExec) {
+          operatorProfiles = ((ProfiledExec) executor).getProfiles();
+        }
         this.executor = null;
       }
     } catch (Exception e) {
@@ -393,6 +437,8 @@ public class Task {
       LOG.error(errorMessage);
       aborted = true;
     } finally {
+      // operators of a failed or killed task may not release their memory.
+      context.releaseAllMemory();
       context.setProgress(1.0f);
       stopped = true;
       completedTasksNum++;
@@ -675,14 +721,7 @@ public class Task {
         @Override
         public void run() {
           while (!stop.get() && !stopped) {
-            try {
-              if(executor != null && context.getProgress() < 1.0f) {
-                float progress = executor.getProgress();
-                context.setExecutorProgress(progress);
-              }
-            } catch (Throwable t) {
-              LOG.error("Get progress error: " + t.getMessage(), t);
-            }
+            updateProgress();
 
             try {
               if (context.isPorgressChanged()) {
@@ -714,6 +753,15 @@ public class Task {
     }
 
     public void startCommunicationThread() {
+      // the status of this task is sent together with the other tasks of this worker.
+      TaskStatusAggregator aggregator = taskRunnerContext.getStatusAggregator();
+      if (aggregator != null) {
+        if (!stop.get()) {
+          aggregator.register(taskRunnerContext.getQueryMasterAddress(), Task.this);
+        }
+        return;
+      }
+
       if (pingThread == null) {
         pingThread = new Thread(createReporterThread());
         pingThread.setName("communication thread");
@@ -726,6 +774,11 @@ public class Task {
         return;
       }
 
+      TaskStatusAggregator aggregator = taskRunnerContext.getStatusAggregator();
+      if (aggregator != null) {
+        aggregator.unregister(taskRunnerContext.getQueryMasterAddress(), Task.this);
+      }
+
       if (pingThread != null) {
         // Intent of the lock is to not send an interupt in the middle of an
         // umbilical.ping or umbilical.statusUpdate
@@ -38,6 +38,7 @@ import java.util.*;
 import java.util.Map.Entry;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.apache.tajo.catalog.proto.CatalogProtos.FragmentProto;
 
@@ -62,6 +63,8 @@ public class TaskAttemptContext {
 
   /** a map of shuffled file outputs */
   private Map<Integer, String> shuffleFileOutputs;
+  /** the names of column partitions written by this task */
+  private Set<String> partitions = new LinkedHashSet<String>();
   private File fetchIn;
   private boolean stopped = false;
   private boolean interQuery = false;
@@ -69,11 +72,17 @@ public class TaskAttemptContext {
   private DataChannel dataChannel;
   private Enforcer enforcer;
 
+  private final MemoryManager memoryManager;
+  /** the memory reserved by the operators of this task */
+  private final AtomicLong reservedMemory = new AtomicLong(0);
+  private final Set<MemoryConsumer> memoryConsumers = Collections.synchronizedSet(new HashSet<MemoryConsumer>());
+
   public TaskAttemptContext(TajoConf conf, final QueryUnitAttemptId queryId,
                             final FragmentProto[] fragments,
                             final Path workDir) {
     this.conf = conf;
     this.queryId = queryId;
+    this.memoryManager = MemoryManager.getInstance(conf);
     
     for(FragmentProto t : fragments) {
       if (fragmentMap.containsKey(t.getId())) {
@@ -100,6 +109,53 @@ public class TaskAttemptContext {
   public TajoConf getConf() {
     return this.conf;
   }
+
+  /**
+   * Reserves memory for an operator of this task only if the worker has enough memory.
+   *
+   * @return False if the memory is not available. Then, the operator should spill its data.
+   */
+  public boolean reserveMemory(MemoryConsumer consumer, long bytes) {
+    if (memoryManager.reserve(consumer, bytes)) {
+      memoryConsumers.add(consumer);
+      reservedMemory.addAndGet(bytes);
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Reserves memory for an operator of this task even if the worker does not have enough memory.
+   */
+  public void forceReserveMemory(MemoryConsumer consumer, long bytes) {
+    memoryManager.forceReserve(consumer, bytes);
+    memoryConsumers.add(consumer);
+    reservedMemory.addAndGet(bytes);
+  }
+
+  /**
+   * Releases all memory reserved by an operator of this task.
+   */
+  public void releaseMemory(MemoryConsumer consumer) {
+    memoryConsumers.remove(consumer);
+    reservedMemory.addAndGet(-memoryManager.release(consumer));
+  }
+
+  /**
+   * Releases the memory which is not released by operators, e.g., when this task fails.
+   */
+  public void releaseAllMemory() {
+    synchronized (memoryConsumers) {
+      for (MemoryConsumer consumer : memoryConsumers) {
+        reservedMemory.addAndGet(-memoryManager.release(consumer));
+      }
+      memoryConsumers.clear();
+    }
+  }
+
+  public long getReservedMemory() {
+    return reservedMemory.get();
+  }
   
   public TaskAttemptState getState() {
     return this.state;
@@ -187,6 +243,17 @@ public class TaskAttemptContext {
   public Iterator<Entry<Integer,String>> getShuffleFileOutputs() {
     return shuffleFileOutputs.entrySet().iterator();
   }
+
+  /**
+   * @param partition a partition path relative to the output path, like 'col1=value1/col2=value2'
+   */
+  public void addPartition(String partition) {
+    partitions.add(partition);
+  }
+
+  public Collection<String> getPartitions() {
+    return partitions;
+  }
   
   public void updateAssignedFragments(String tableId, Fragment[] fragments) {
     fragmentMap.remove(tableId);
@@ -0,0 +1,158 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.worker;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TaskExecutor runs the tasks received by a TaskRunner one by one in its own thread.
+ *
+ * A TaskRunner acquires a slot before it requests a task, and the slot is released when the task is finished.
+ * There are prefetchNum + 1 slots, so at most prefetchNum tasks are received and initialized while another task
+ * is running.
+ */
+class TaskExecutor {
+  private static final Log LOG = LogFactory.getLog(TaskExecutor.class);
+
+  // query units which are received and initialized, but are not started yet.
+  private final BlockingQueue<Task> prefetchedTasks = new LinkedBlockingQueue<Task>();
+  // It limits the number of query units which are received, but are not finished yet.
+  private final Semaphore taskSlots;
+  private final Thread thread;
+  private volatile Task runningTask;
+  private volatile boolean stopped = false;
+
+  TaskExecutor(String name, int prefetchNum) {
+    this.taskSlots = new Semaphore(Math.max(0, prefetchNum) + 1);
+    this.thread = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        runTasks();
+      }
+    }, "TaskExecutor " + name);
+  }
+
+  public void start() {
+    thread.start();
+  }
+
+  /**
+   * @return true if a slot is acquired within the given waiting time
+   */
+  public boolean acquireSlot(long timeout, TimeUnit unit) throws InterruptedException {
+    return taskSlots.tryAcquire(timeout, unit);
+  }
+
+  /**
+   * Releases a slot acquired for a task which will not be submitted.
+   */
+  public void releaseSlot() {
+    taskSlots.release();
+  }
+
+  /**
+   * Adds a task which is initialized. It is executed after the previously submitted tasks.
+   */
+  public void submit(Task task) {
+    prefetchedTasks.add(task);
+    // a task submitted after stop() is never taken by the thread.
+    if (stopped && prefetchedTasks.remove(task)) {
+      task.abort();
+      taskSlots.release();
+    }
+  }
+
+  public int getPrefetchedNum() {
+    return prefetchedTasks.size();
+  }
+
+  private void runTasks() {
+    while (!stopped) {
+      Task task;
+      try {
+        task = prefetchedTasks.poll(3, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        continue;
+      }
+
+      if (task == null) {
+        continue;
+      }
+
+      try {
+        runningTask = task;
+        if (!stopped) {
+          LOG.info("Running: " + task.getId());
+          // task.run() is a blocking call.
+          task.run();
+        } else {
+          task.abort();
+        }
+      } catch (Throwable t) {
+        LOG.error(t.getMessage(), t);
+      } finally {
+        runningTask = null;
+        taskSlots.release();
+      }
+    }
+  }
+
+  /**
+   * Aborts the running task and the prefetched tasks, and waits for the executor thread to be finished.
+   *
+   * @param timeoutMs The maximum time to wait for the running task to be finished
+   * @return true if the executor thread is finished
+   */
+  public boolean stop(long timeoutMs) {
+    stopped = true;
+
+    // prefetched tasks will never run.
+    Task task;
+    while ((task = prefetchedTasks.poll()) != null) {
+      task.abort();
+      taskSlots.release();
+    }
+
+    Task running = runningTask;
+    if (running != null) {
+      running.abort();
+    }
+
+    thread.interrupt();
+    if (Thread.currentThread() == thread) {
+      return false;
+    }
+    try {
+      thread.join(timeoutMs);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    if (thread.isAlive()) {
+      LOG.warn(thread.getName() + " is not finished in " + timeoutMs + " ms");
+      return false;
+    }
+    return true;
+  }
+}
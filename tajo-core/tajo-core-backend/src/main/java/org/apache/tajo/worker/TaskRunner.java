@@ -37,6 +37,8 @@ import org.apache.tajo.QueryUnitAttemptId;
 import org.apache.tajo.TajoProtos.TaskAttemptState;
 import org.apache.tajo.conf.TajoConf;
 import org.apache.tajo.conf.TajoConf.ConfVars;
+import org.apache.tajo.engine.json.CoreGsonHelper;
+import org.apache.tajo.engine.planner.logical.LogicalNode;
 import org.apache.tajo.engine.query.QueryUnitRequestImpl;
 import org.apache.tajo.ipc.QueryMasterProtocol;
 import org.apache.tajo.ipc.QueryMasterProtocol.QueryMasterProtocolService;
@@ -44,8 +46,10 @@ import org.apache.tajo.rpc.CallFuture;
 import org.apache.tajo.rpc.NettyClientBase;
 import org.apache.tajo.rpc.NullCallback;
 import org.apache.tajo.rpc.RpcConnectionPool;
+import org.apache.tajo.rpc.protocolrecords.PrimitiveProtos.StringProto;
 import org.apache.tajo.util.TajoIdUtils;
 
+import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.util.Map;
 import java.util.concurrent.*;
@@ -58,6 +62,10 @@ import static org.apache.tajo.ipc.TajoWorkerProtocol.*;
 public class TaskRunner extends AbstractService {
   /** class logger */
   private static final Log LOG = LogFactory.getLog(TaskRunner.class);
+  /** the maximum time to wait for the running task to be aborted when a TaskRunner is stopped */
+  private static final long TASK_EXECUTOR_JOIN_TIMEOUT_MS = 10000;
+  /** the maximum time to wait for the plan of an execution block from the QueryMaster */
+  private static final long PLAN_REQUEST_TIMEOUT_SEC = 60;
 
   private TajoConf systemConf;
 
@@ -88,8 +96,13 @@ public class TaskRunner extends AbstractService {
 
   private LocalDirAllocator lDirAllocator;
 
-  // A thread to receive each assigned query unit and execute the query unit
+  // A thread to receive each assigned query unit and prepare the query unit
   private Thread taskLauncher;
+  // It executes the prepared query units one by one
+  private final TaskExecutor taskExecutor;
+
+  // the plan of this execution block. Only the first task assigned to this TaskRunner carries the serialized plan.
+  private LogicalNode plan;
 
   // Contains the object references related for TaskRunner
   private TaskRunnerContext taskRunnerContext;
@@ -115,6 +128,7 @@ public class TaskRunner extends AbstractService {
     this.connPool = RpcConnectionPool.getPool(conf);
     this.fetchLauncher = Executors.newFixedThreadPool(
         conf.getIntVar(ConfVars.SHUFFLE_FETCHER_PARALLEL_EXECUTION_MAX_NUM));
+    this.taskExecutor = new TaskExecutor(args[1], conf.getIntVar(ConfVars.TASK_RUNNER_PREFETCH_NUM));
     try {
       final ExecutionBlockId executionBlockId = TajoIdUtils.createExecutionBlockId(args[1]);
 
@@ -216,6 +230,12 @@ public class TaskRunner extends AbstractService {
       }
     }
 
+    // the running task and the prefetched tasks are aborted.
+    if (taskLauncher != null && Thread.currentThread() != taskLauncher) {
+      taskLauncher.interrupt();
+    }
+    taskExecutor.stop(TASK_EXECUTOR_JOIN_TIMEOUT_MS);
+
     tasks.clear();
     fetchLauncher.shutdown();
     this.queryEngine = null;
@@ -283,6 +303,52 @@ public class TaskRunner extends AbstractService {
       return executionBlockId;
     }
 
+    public InetSocketAddress getQueryMasterAddress() {
+      return qmMasterAddr;
+    }
+
+    /**
+     * @return The aggregator of task statuses. It is NULL if each task reports its status by itself.
+     */
+    public TaskStatusAggregator getStatusAggregator() {
+      return taskRunnerManager == null ? null : taskRunnerManager.getStatusAggregator();
+    }
+
+    /**
+     * Returns a copy of the plan of this execution block for a task.
+     *
+     * @param serializedPlan The serialized plan delivered with the task. It is empty if the plan has been
+     *                       already delivered to this TaskRunner. If the task carrying the plan was lost,
+     *                       the plan is requested to the QueryMaster.
+     */
+    public LogicalNode getPlan(String serializedPlan) throws IOException {
+      if (plan == null && (serializedPlan == null || serializedPlan.isEmpty()) && taskRunnerManager != null) {
+        // another TaskRunner of the same execution block may have received the plan.
+        plan = taskRunnerManager.getCachedPlan(executionBlockId);
+      }
+
+      if (plan == null) {
+        if (serializedPlan == null || serializedPlan.isEmpty()) {
+          LOG.info("Request the plan of " + executionBlockId + " to QueryMaster");
+          serializedPlan = requestPlan();
+        }
+        if (serializedPlan == null || serializedPlan.isEmpty()) {
+          throw new IOException("No plan is delivered for " + executionBlockId);
+        }
+        if (taskRunnerManager != null) {
+          plan = taskRunnerManager.getPlan(executionBlockId, serializedPlan);
+        } else {
+          plan = CoreGsonHelper.fromJson(serializedPlan, LogicalNode.class);
+        }
+      }
+
+      try {
+        return (LogicalNode) plan.clone();
+      } catch (CloneNotSupportedException e) {
+        throw new IOException(e);
+      }
+    }
+
     public void addTaskHistory(QueryUnitAttemptId quAttemptId, TaskHistory taskHistory) {
       taskHistories.put(quAttemptId, taskHistory);
     }
@@ -300,6 +366,27 @@ public class TaskRunner extends AbstractService {
     return taskRunnerContext;
   }
 
+  /**
+   * Requests the serialized plan of this execution block to the QueryMaster.
+   *
+   * @return The serialized plan. It is empty if the QueryMaster does not run this execution block.
+   */
+  String requestPlan() throws IOException {
+    NettyClientBase qmClient = null;
+    try {
+      qmClient = connPool.getConnection(qmMasterAddr, QueryMasterProtocol.class, true);
+      QueryMasterProtocolService.Interface qmClientService = qmClient.getStub();
+
+      CallFuture<StringProto> callFuture = new CallFuture<StringProto>();
+      qmClientService.getExecutionBlockPlan(null, executionBlockId.getProto(), callFuture);
+      return callFuture.get(PLAN_REQUEST_TIMEOUT_SEC, TimeUnit.SECONDS).getValue();
+    } catch (Exception e) {
+      throw new IOException("Cannot get the plan of " + executionBlockId + " from " + qmMasterAddr, e);
+    } finally {
+      connPool.releaseConnection(qmClient);
+    }
+  }
+
   static void fatalError(QueryMasterProtocolService.Interface qmClientService,
                          QueryUnitAttemptId taskAttemptId, String message) {
     if (message == null) {
@@ -323,11 +410,21 @@ public class TaskRunner extends AbstractService {
           int receivedNum = 0;
           CallFuture<QueryUnitRequestProto> callFuture = null;
           QueryUnitRequestProto taskRequest = null;
+          boolean slotAcquired = false;
 
           while(!stopped) {
             NettyClientBase qmClient = null;
             QueryMasterProtocolService.Interface qmClientService = null;
             try {
+              // A new task is requested only if this TaskRunner can keep it. Otherwise, it waits for
+              // the running task to be finished.
+              if (!slotAcquired) {
+                if (!taskExecutor.acquireSlot(3, TimeUnit.SECONDS)) {
+                  continue;
+                }
+                slotAcquired = true;
+              }
+
               qmClient = connPool.getConnection(qmMasterAddr, QueryMasterProtocol.class, true);
               qmClientService = qmClient.getStub();
 
@@ -339,6 +436,8 @@ public class TaskRunner extends AbstractService {
                     .setContainerId(((ContainerIdPBImpl) containerId).getProto())
                     .build();
 
+                // QueryMaster keeps this request until a task becomes available for this TaskRunner,
+                // and then it pushes the task as the response.
                 qmClientService.getTask(null, request, callFuture);
               }
               try {
@@ -377,6 +476,10 @@ public class TaskRunner extends AbstractService {
                   if (tasks.containsKey(taskAttemptId)) {
                     LOG.error("Duplicate Task Attempt: " + taskAttemptId);
                     fatalError(qmClientService, taskAttemptId, "Duplicate Task Attempt: " + taskAttemptId);
+                    taskExecutor.releaseSlot();
+                    slotAcquired = false;
+                    callFuture = null;
+                    taskRequest = null;
                     continue;
                   }
 
@@ -391,11 +494,14 @@ public class TaskRunner extends AbstractService {
                     if (task.hasFetchPhase()) {
                       task.fetch(); // The fetch is performed in an asynchronous way.
                     }
-                    // task.run() is a blocking call.
-                    task.run();
+                    // The task is executed by taskExecutor while the next task is being requested and fetched.
+                    taskExecutor.submit(task);
+                    slotAcquired = false;
                   } catch (Throwable t) {
                     LOG.error(t.getMessage(), t);
                     fatalError(qmClientService, taskAttemptId, t.getMessage());
+                    taskExecutor.releaseSlot();
+                    slotAcquired = false;
                   } finally {
                     callFuture = null;
                     taskRequest = null;
@@ -410,7 +516,9 @@ public class TaskRunner extends AbstractService {
           }
         }
       });
+
       taskLauncher.start();
+      taskExecutor.start();
     } catch (Throwable t) {
       LOG.fatal("Unhandled exception. Starting shutdown.", t);
     } finally {
@@ -25,6 +25,8 @@ import org.apache.hadoop.service.CompositeService;
 import org.apache.tajo.ExecutionBlockId;
 import org.apache.tajo.QueryUnitAttemptId;
 import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.engine.json.CoreGsonHelper;
+import org.apache.tajo.engine.planner.logical.LogicalNode;
 
 import java.util.*;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -38,6 +40,10 @@ public class TaskRunnerManager extends CompositeService {
   private TajoConf tajoConf;
   private AtomicBoolean stop = new AtomicBoolean(false);
   private FinishedTaskCleanThread finishedTaskCleanThread;
+  // the deserialized plan of each execution block, which is shared by its task runners
+  private final Map<ExecutionBlockId, LogicalNode> planCache = new HashMap<ExecutionBlockId, LogicalNode>();
+  // it is NULL if the task status aggregation is disabled
+  private TaskStatusAggregator statusAggregator;
 
   public TaskRunnerManager(TajoWorker.WorkerContext workerContext) {
     super(TaskRunnerManager.class.getName());
@@ -52,9 +58,17 @@ public class TaskRunnerManager extends CompositeService {
   @Override
   public void init(Configuration conf) {
     tajoConf = (TajoConf)conf;
+    if(tajoConf.getBoolVar(TajoConf.ConfVars.WORKER_TASK_STATUS_AGGREGATION_ENABLED)) {
+      statusAggregator = new TaskStatusAggregator(workerContext);
+      addService(statusAggregator);
+    }
     super.init(tajoConf);
   }
 
+  public TaskStatusAggregator getStatusAggregator() {
+    return statusAggregator;
+  }
+
   @Override
   public void start() {
     finishedTaskCleanThread = new FinishedTaskCleanThread();
@@ -91,6 +105,7 @@ public class TaskRunnerManager extends CompositeService {
       TaskRunner taskRunner = taskRunnerMap.remove(id);
       if(taskRunner != null) {
         finishedTaskRunnerMap.put(id, taskRunner);
+        releasePlan(taskRunner.getExecutionBlockId());
       }
     }
     if(workerContext.isYarnContainerMode()) {
@@ -98,6 +113,44 @@ public class TaskRunnerManager extends CompositeService {
     }
   }
 
+  /**
+   * Returns the plan of an execution block. The serialized plan is deserialized only once even if
+   * several task runners of the same execution block receive it.
+   */
+  public LogicalNode getPlan(ExecutionBlockId ebId, String serializedPlan) {
+    synchronized(planCache) {
+      LogicalNode plan = planCache.get(ebId);
+      if(plan == null) {
+        plan = CoreGsonHelper.fromJson(serializedPlan, LogicalNode.class);
+        planCache.put(ebId, plan);
+      }
+      return plan;
+    }
+  }
+
+  /**
+   * @return The plan of an execution block if it is already deserialized. Otherwise, NULL.
+   */
+  public LogicalNode getCachedPlan(ExecutionBlockId ebId) {
+    synchronized(planCache) {
+      return planCache.get(ebId);
+    }
+  }
+
+  // It must be called while holding the lock of taskRunnerMap.
+  // The plan and the cached broadcast tables of an execution block are released after its last task runner stops.
+  private void releasePlan(ExecutionBlockId ebId) {
+    for(TaskRunner eachTaskRunner: taskRunnerMap.values()) {
+      if(eachTaskRunner.getExecutionBlockId().equals(ebId)) {
+        return;
+      }
+    }
+    synchronized(planCache) {
+      planCache.remove(ebId);
+    }
+    BroadcastTableCache.getInstance(tajoConf).releaseExecutionBlock(ebId);
+  }
+
   public Collection<TaskRunner> getTaskRunners() {
     synchronized(taskRunnerMap) {
       return Collections.unmodifiableCollection(taskRunnerMap.values());
@@ -0,0 +1,195 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.worker;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.service.AbstractService;
+import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.ipc.QueryMasterProtocol;
+import org.apache.tajo.ipc.QueryMasterProtocol.QueryMasterProtocolService;
+import org.apache.tajo.ipc.TajoWorkerProtocol.StatusReportProto;
+import org.apache.tajo.rpc.NettyClientBase;
+import org.apache.tajo.rpc.NullCallback;
+import org.apache.tajo.rpc.RpcConnectionPool;
+
+import java.net.InetSocketAddress;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * It periodically sends the statuses of all running tasks of this worker to their QueryMasters.
+ * The statuses of the tasks which belong to the same QueryMaster are sent in one {@link StatusReportProto},
+ * instead of a statusUpdate or ping call for each task.
+ *
+ * The final status of a task is still sent by the task itself.
+ */
+public class TaskStatusAggregator extends AbstractService {
+  private static final Log LOG = LogFactory.getLog(TaskStatusAggregator.class);
+
+  private final TajoWorker.WorkerContext workerContext;
+  private String serverName;
+  private final Map<InetSocketAddress, Set<Task>> tasks = new HashMap<InetSocketAddress, Set<Task>>();
+  private RpcConnectionPool connPool;
+  private long interval;
+  private ReportThread thread;
+
+  public TaskStatusAggregator(TajoWorker.WorkerContext workerContext) {
+    super(TaskStatusAggregator.class.getSimpleName());
+    this.workerContext = workerContext;
+  }
+
+  @Override
+  public void serviceInit(Configuration conf) throws Exception {
+    Preconditions.checkArgument(conf instanceof TajoConf, "Configuration must be a TajoConf instance.");
+    TajoConf systemConf = (TajoConf) conf;
+    interval = systemConf.getIntVar(TajoConf.ConfVars.WORKER_TASK_STATUS_REPORT_INTERVAL);
+    connPool = RpcConnectionPool.getPool(systemConf);
+    super.serviceInit(conf);
+  }
+
+  @Override
+  public void serviceStart() throws Exception {
+    // the rpc services of this worker are bound after this service is initialized.
+    serverName = workerContext.getWorkerName();
+    thread = new ReportThread();
+    thread.start();
+    super.serviceStart();
+  }
+
+  @Override
+  public void serviceStop() throws Exception {
+    if (thread != null) {
+      thread.stopped.set(true);
+      synchronized (thread) {
+        thread.notifyAll();
+      }
+    }
+    super.serviceStop();
+  }
+
+  /**
+   * Adds a running task whose status is reported to the QueryMaster of the given address.
+   */
+  public void register(InetSocketAddress queryMasterAddr, Task task) {
+    synchronized (tasks) {
+      Set<Task> tasksOfQueryMaster = tasks.get(queryMasterAddr);
+      if (tasksOfQueryMaster == null) {
+        tasksOfQueryMaster = new LinkedHashSet<Task>();
+        tasks.put(queryMasterAddr, tasksOfQueryMaster);
+      }
+      tasksOfQueryMaster.add(task);
+    }
+  }
+
+  public void unregister(InetSocketAddress queryMasterAddr, Task task) {
+    synchronized (tasks) {
+      Set<Task> tasksOfQueryMaster = tasks.get(queryMasterAddr);
+      if (tasksOfQueryMaster != null) {
+        tasksOfQueryMaster.remove(task);
+        if (tasksOfQueryMaster.isEmpty()) {
+          tasks.remove(queryMasterAddr);
+        }
+      }
+    }
+  }
+
+  /**
+   * Builds a report for each QueryMaster. A task whose progress has been changed since the last report
+   * is reported with its status, and the other tasks are reported only with their ids.
+   */
+  @VisibleForTesting
+  Map<InetSocketAddress, StatusReportProto> buildReports(String serverName) {
+    Map<InetSocketAddress, List<Task>> snapshot = new HashMap<InetSocketAddress, List<Task>>();
+    synchronized (tasks) {
+      for (Map.Entry<InetSocketAddress, Set<Task>> entry : tasks.entrySet()) {
+        snapshot.put(entry.getKey(), new ArrayList<Task>(entry.getValue()));
+      }
+    }
+
+    Map<InetSocketAddress, StatusReportProto> reports = new HashMap<InetSocketAddress, StatusReportProto>();
+    for (Map.Entry<InetSocketAddress, List<Task>> entry : snapshot.entrySet()) {
+      StatusReportProto.Builder builder = StatusReportProto.newBuilder()
+          .setTimestamp(System.currentTimeMillis())
+          .setServerName(serverName);
+      for (Task task : entry.getValue()) {
+        if (task.isStopped()) {
+          continue;
+        }
+        try {
+          task.updateProgress();
+          if (task.getContext().isPorgressChanged()) {
+            builder.addStatus(task.getReport());
+          } else {
+            builder.addPings(task.getId().getProto());
+          }
+        } catch (Throwable t) {
+          LOG.error("Cannot get the status of " + task.getId() + ": " + t.getMessage(), t);
+        }
+      }
+
+      if (builder.getStatusCount() > 0 || builder.getPingsCount() > 0) {
+        reports.put(entry.getKey(), builder.build());
+      }
+    }
+    return reports;
+  }
+
+  class ReportThread extends Thread {
+    private final AtomicBoolean stopped = new AtomicBoolean(false);
+
+    public ReportThread() {
+      super("Task status aggregator");
+      setDaemon(true);
+    }
+
+    @Override
+    public void run() {
+      LOG.info("Task Status Aggregator Thread start.");
+      while (!stopped.get()) {
+        for (Map.Entry<InetSocketAddress, StatusReportProto> entry : buildReports(serverName).entrySet()) {
+          NettyClientBase qmClient = null;
+          try {
+            qmClient = connPool.getConnection(entry.getKey(), QueryMasterProtocol.class, true);
+            QueryMasterProtocolService.Interface qmClientService = qmClient.getStub();
+            qmClientService.statusReport(null, entry.getValue(), NullCallback.get());
+          } catch (Throwable t) {
+            LOG.error("Cannot send the task statuses to " + entry.getKey() + ": " + t.getMessage(), t);
+          } finally {
+            connPool.releaseConnection(qmClient);
+          }
+        }
+
+        try {
+          synchronized (ReportThread.this) {
+            if (!stopped.get()) {
+              wait(interval);
+            }
+          }
+        } catch (InterruptedException e) {
+          break;
+        }
+      }
+      LOG.info("Task Status Aggregator Thread stopped.");
+    }
+  }
+}
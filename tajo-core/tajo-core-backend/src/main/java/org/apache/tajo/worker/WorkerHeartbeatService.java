@@ -189,6 +189,7 @@ public class WorkerHeartbeatService extends AbstractService {
             .setDiskSlots(workerDiskSlots)
             .setMemoryResourceMB(workerMemoryMB)
             .setJvmHeap(jvmHeap)
+            .setReservedMemoryBytes(MemoryManager.getInstance(systemConf).getReserved())
             .setQueryMasterMode(PrimitiveProtos.BoolProto.newBuilder().setValue(context.isQueryMasterMode()))
             .setTaskRunnerMode(PrimitiveProtos.BoolProto.newBuilder().setValue(context.isTaskRunnerMode()))
             .build();
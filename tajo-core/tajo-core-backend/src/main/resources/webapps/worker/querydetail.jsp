@@ -26,6 +26,8 @@
 <%@ page import="java.text.SimpleDateFormat" %>
 <%@ page import="org.apache.tajo.QueryId" %>
 <%@ page import="org.apache.tajo.util.TajoIdUtils" %>
+<%@ page import="org.apache.tajo.util.FileUtil" %>
+<%@ page import="org.apache.tajo.engine.planner.physical.OperatorProfile" %>
 
 <%
   QueryId queryId = TajoIdUtils.parseQueryId(request.getParameter("queryId"));
@@ -79,6 +81,46 @@ for(SubQuery eachSubQuery: subQueries) {
   %>
   </table>
   <p/>
+<%
+  if (query.getProfile() != null) {
+%>
+  <hr/>
+  <h3>Operator Profile</h3>
+  <table width="100%" border="1" class="border_table">
+    <tr><th>ID</th><th>Operator</th><th>Tasks</th><th>Input Rows</th><th>Output Rows</th><th>Time (msec)</th>
+      <th>Spilled</th><th>Peak Memory</th><th>Hash Probes</th><th>Hash Entries</th><th>Hash Collisions</th></tr>
+<%
+    for(SubQuery eachSubQuery: subQueries) {
+      if (eachSubQuery.getOperatorProfiles() == null) {
+        continue;
+      }
+      for(OperatorProfile eachProfile: eachSubQuery.getOperatorProfiles()) {
+        StringBuilder indent = new StringBuilder();
+        for (int i = 0; i < eachProfile.getDepth(); i++) {
+          indent.append("&nbsp;&nbsp;");
+        }
+%>
+    <tr>
+      <td><%=eachSubQuery.getId()%></td>
+      <td><%=indent%><%=eachProfile.getName()%></td>
+      <td align='right'><%=eachProfile.getNumTasks()%></td>
+      <td align='right'><%=eachProfile.getInputRows()%></td>
+      <td align='right'><%=eachProfile.getOutputRows()%></td>
+      <td align='right'><%=eachProfile.getElapsedNanos() / 1000000%></td>
+      <td align='right'><%=FileUtil.humanReadableByteCount(eachProfile.getSpilledBytes(), false)%></td>
+      <td align='right'><%=FileUtil.humanReadableByteCount(eachProfile.getPeakMemoryBytes(), false)%></td>
+      <td align='right'><%=eachProfile.getHashProbes()%></td>
+      <td align='right'><%=eachProfile.getHashEntries()%></td>
+      <td align='right'><%=eachProfile.getHashCollisions()%></td>
+    </tr>
+<%
+      }
+    }
+%>
+  </table>
+<%
+  }
+%>
   <hr/>
   <h3>Logical Plan</h3>
   <pre style="white-space:pre-wrap;"><%=query.getPlan().getLogicalPlan().toString()%></pre>
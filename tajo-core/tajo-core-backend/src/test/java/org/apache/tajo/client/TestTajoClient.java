@@ -204,6 +204,26 @@ public class TestTajoClient {
     assertEquals(TajoProtos.QueryState.QUERY_KILLED, client.getQueryStatus(queryId).getState());
   }
 
+  @Test
+  public final void testExplainAnalyze() throws IOException, ServiceException, InterruptedException {
+    ClientProtos.GetQueryStatusResponse res = client.executeQuery(
+        "explain analyze select l_orderkey, sum(l_quantity) from lineitem group by l_orderkey");
+    assertEquals(ClientProtos.ResultCode.OK, res.getResultCode());
+    QueryId queryId = new QueryId(res.getQueryId());
+
+    QueryStatus status = client.getQueryStatus(queryId);
+    while (TajoClient.isQueryRunnning(status.getState())) {
+      Thread.sleep(100);
+      status = client.getQueryStatus(queryId);
+    }
+
+    // the statement without EXPLAIN ANALYZE is executed, and its operators are profiled.
+    assertEquals(TajoProtos.QueryState.QUERY_SUCCEEDED, status.getState());
+    String profile = client.getQueryProfile(queryId);
+    assertNotNull(profile);
+    assertTrue(profile, profile.contains("SeqScanExec"));
+  }
+
   @Test
   public final void testUpdateQuery() throws IOException, ServiceException {
     final String tableName = CatalogUtil.normalizeIdentifier("testUpdateQuery");
@@ -24,6 +24,7 @@ import org.junit.Test;
 import java.io.IOException;
 
 import static org.apache.tajo.common.TajoDataTypes.Type.BOOLEAN;
+import static org.apache.tajo.common.TajoDataTypes.Type.FLOAT8;
 import static org.apache.tajo.common.TajoDataTypes.Type.INT4;
 import static org.apache.tajo.common.TajoDataTypes.Type.TEXT;
 
@@ -288,6 +289,35 @@ public class TestPredicates extends ExprTestBase {
         new String[]{"t","t"});
   }
 
+  private static String makeInList(int num, boolean quoted, String suffix) {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < num; i++) {
+      if (i > 0) {
+        sb.append(",");
+      }
+      sb.append(quoted ? "'" + (i * 3) + suffix + "'" : (i * 3) + suffix);
+    }
+    return sb.toString();
+  }
+
+  @Test
+  public void testInPredicateWithLargeList() throws IOException {
+    Schema schema = new Schema();
+    schema.addColumn("col1", INT4);
+    schema.addColumn("col2", FLOAT8);
+    schema.addColumn("col3", TEXT);
+
+    // SORTED and HASH lookups
+    for (int num : new int[] {InValueSet.SORTED_THRESHOLD, InValueSet.HASH_THRESHOLD * 2}) {
+      String query = "select col1 in (" + makeInList(num, false, "") + "), " +
+          "col2 in (" + makeInList(num, false, ".5") + "), " +
+          "col3 in (" + makeInList(num, true, "") + ") from table1";
+      testEval(schema, "table1", "21,21.5,21", query, new String[]{"t", "t", "t"});
+      testEval(schema, "table1", "22,22.5,22", query, new String[]{"f", "f", "f"});
+      testEval(schema, "table1", "-3,,3", query, new String[]{"f", "", "t"});
+    }
+  }
+
   //////////////////////////////////////////////////////////////////
   // Null Predicate
   //////////////////////////////////////////////////////////////////
@@ -44,6 +44,17 @@ public class TestPatternMatchingPredicates extends ExprTestBase {
     testEval(schema, "table1", "abc", "select col1 like '_b_' from table1", new String[]{"t"});
     testEval(schema, "table1", "abc", "select col1 like '%b%' from table1", new String[]{"t"});
 
+    // test for patterns matched on bytes without regular expressions
+    testEval(schema, "table1", "abc", "select col1 like 'abc' from table1", new String[]{"t"});
+    testEval(schema, "table1", "abc", "select col1 like 'ab' from table1", new String[]{"f"});
+    testEval(schema, "table1", "abc", "select col1 like '%' from table1", new String[]{"t"});
+    testEval(schema, "table1", "abc", "select col1 like '%abcd%' from table1", new String[]{"f"});
+    testEval(schema, "table1", "abc", "select col1 like 'abcd%' from table1", new String[]{"f"});
+    testEval(schema, "table1", "abc", "select col1 like '%zabc' from table1", new String[]{"f"});
+    testEval(schema, "table1", "abc", "select col1 like 'a%c' from table1", new String[]{"t"});
+    testEval(schema, "table1", "가나다", "select col1 like '%나%' from table1", new String[]{"t"});
+    testEval(schema, "table1", "가나다", "select col1 like '가%' from table1", new String[]{"t"});
+
     // test for escaping regular expressions
     testEval(schema, "table1", "abc", "select col1 not like '.bc' from table1", new String[]{"t"});
     testEval(schema, "table1", "abc", "select col1 not like '.*bc' from table1", new String[]{"t"});
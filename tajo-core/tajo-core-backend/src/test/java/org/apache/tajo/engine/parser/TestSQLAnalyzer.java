@@ -20,10 +20,13 @@ package org.apache.tajo.engine.parser;
 
 import org.antlr.v4.runtime.ANTLRInputStream;
 import org.antlr.v4.runtime.CommonTokenStream;
+import org.apache.tajo.algebra.AnalyzeTable;
+import org.apache.tajo.algebra.CreateIndex;
 import org.apache.tajo.algebra.CreateTable;
 import org.apache.tajo.algebra.Expr;
 import org.apache.tajo.algebra.LiteralValue;
 import org.apache.tajo.algebra.OpType;
+import org.apache.tajo.algebra.Relation;
 import org.apache.tajo.engine.parser.SQLParser.SqlContext;
 import org.apache.tajo.util.FileUtil;
 import org.junit.Test;
@@ -33,6 +36,7 @@ import java.io.IOException;
 import java.util.Iterator;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -209,6 +213,30 @@ public class TestSQLAnalyzer {
     parseQuery(sql);
   }
 
+  @Test
+  public void testAnalyzeTable() throws IOException {
+    String sql = FileUtil.readTextFile(new File("src/test/resources/queries/default/analyze_table.sql"));
+    Expr expr = parseQuery(sql);
+    assertEquals(OpType.AnalyzeTable, expr.getType());
+    assertEquals("abc", ((AnalyzeTable) expr).getTableName());
+  }
+
+  @Test
+  public void testCreateIndex() throws IOException {
+    String sql = FileUtil.readTextFile(new File("src/test/resources/queries/default/create_index.sql"));
+    Expr expr = parseQuery(sql);
+    assertEquals(OpType.CreateIndex, expr.getType());
+    CreateIndex createIndex = (CreateIndex) expr;
+    assertEquals("idx_l_orderkey", createIndex.getIndexName());
+    assertTrue(createIndex.isUnique());
+    assertEquals("bst", createIndex.getMethodName());
+    assertEquals(1, createIndex.getSortSpecs().length);
+    assertFalse(createIndex.getSortSpecs()[0].isAscending());
+    assertTrue(createIndex.getSortSpecs()[0].isNullFirst());
+    assertEquals(OpType.Relation, createIndex.getChild().getType());
+    assertEquals("lineitem", ((Relation) createIndex.getChild()).getName());
+  }
+
   @Test
   public void testCreateTable1() throws IOException {
     String sql = FileUtil.readTextFile(new File("src/test/resources/queries/default/create_table_1.sql"));
@@ -24,8 +24,15 @@ import org.apache.tajo.TajoTestingCluster;
 import org.apache.tajo.algebra.Expr;
 import org.apache.tajo.catalog.*;
 import org.apache.tajo.catalog.proto.CatalogProtos.FunctionType;
+import org.apache.tajo.catalog.proto.CatalogProtos.IndexMethod;
 import org.apache.tajo.catalog.proto.CatalogProtos.StoreType;
+import org.apache.tajo.catalog.statistics.ColumnStats;
+import org.apache.tajo.catalog.statistics.TableStats;
 import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.engine.eval.ConstEval;
+import org.apache.tajo.engine.eval.EvalNode;
+import org.apache.tajo.engine.eval.EvalTreeUtil;
+import org.apache.tajo.engine.eval.EvalType;
 import org.apache.tajo.engine.function.builtin.SumInt;
 import org.apache.tajo.engine.parser.SQLAnalyzer;
 import org.apache.tajo.engine.planner.logical.*;
@@ -92,6 +99,22 @@ public class TestLogicalOptimizer {
             CommonTestingUtil.getTestDir());
     catalog.createTable(score);
 
+    Schema ordersSchema = new Schema();
+    ordersSchema.addColumn("o_orderkey", Type.INT8);
+    ordersSchema.addColumn("o_custkey", Type.INT4);
+    createTableWithStats("orders", ordersSchema, 1000000, 16000000, "o_custkey", 1000);
+
+    Schema customerSchema = new Schema();
+    customerSchema.addColumn("c_custkey", Type.INT4);
+    customerSchema.addColumn("c_name", Type.TEXT);
+    customerSchema.addColumn("c_nationkey", Type.INT4);
+    createTableWithStats("customer", customerSchema, 1000, 50000, "c_custkey", 1000, "c_nationkey", 25);
+
+    Schema nationSchema = new Schema();
+    nationSchema.addColumn("n_nationkey", Type.INT4);
+    nationSchema.addColumn("n_name", Type.TEXT);
+    createTableWithStats("nation", nationSchema, 25, 1000, "n_nationkey", 25);
+
     FunctionDesc funcDesc = new FunctionDesc("sumtest", SumInt.class, FunctionType.GENERAL,
         CatalogUtil.newSimpleDataType(Type.INT4),
         CatalogUtil.newSimpleDataTypeArray(Type.INT4));
@@ -102,6 +125,26 @@ public class TestLogicalOptimizer {
     optimizer = new LogicalOptimizer(util.getConfiguration());
   }
 
+  /**
+   * @param ndvs pairs of a column name and its number of distinct values
+   */
+  private static void createTableWithStats(String tableName, Schema schema, long numRows, long numBytes,
+                                           Object... ndvs) {
+    TableStats stats = new TableStats();
+    stats.setNumRows(numRows);
+    stats.setNumBytes(numBytes);
+    for (int i = 0; i < ndvs.length; i += 2) {
+      ColumnStats columnStats = new ColumnStats(schema.getColumn((String) ndvs[i]));
+      columnStats.setNumDistVals((Integer) ndvs[i + 1]);
+      stats.addColumnStat(columnStats);
+    }
+
+    TableDesc desc = new TableDesc(CatalogUtil.buildFQName(DEFAULT_DATABASE_NAME, tableName), schema,
+        StoreType.CSV, new Options(), CommonTestingUtil.getTestDir());
+    desc.setStats(stats);
+    catalog.createTable(desc);
+  }
+
   @AfterClass
   public static void tearDown() throws Exception {
     util.shutdownCatalogCluster();
@@ -254,10 +297,121 @@ public class TestLogicalOptimizer {
     assertTrue(LogicalPlanner.checkIfBeEvaluatedAtRelation(newPlan.getRootBlock(), selNode.getQual(), scanNode));
   }
 
+  @Test
+  public final void testConstantFolding() throws PlanningException {
+    Expr expr = sqlAnalyzer.parse("select name from employee where empid > 40 + 60");
+    LogicalPlan newPlan = planner.createPlan(session, expr);
+    LogicalNode optimized = optimizer.optimize(newPlan);
+
+    LogicalRootNode root = (LogicalRootNode) optimized;
+    assertEquals(NodeType.SCAN, root.getChild().getType());
+    ScanNode scanNode = root.getChild();
+    EvalNode qual = scanNode.getQual();
+    assertEquals(EvalType.GTH, qual.getType());
+    assertEquals(EvalType.CONST, qual.getRightExpr().getType());
+    assertEquals(100, ((ConstEval) qual.getRightExpr()).getValue().asInt4());
+  }
+
+  @Test
+  public final void testCommonSubExprElimination() throws PlanningException {
+    Expr expr = sqlAnalyzer.parse(
+        "select upper(name) || 'a', upper(name) || 'b' from employee where upper(name) = 'TAJO'");
+    LogicalPlan newPlan = planner.createPlan(session, expr);
+    LogicalNode optimized = optimizer.optimize(newPlan);
+
+    LogicalRootNode root = (LogicalRootNode) optimized;
+    assertEquals(NodeType.PROJECTION, root.getChild().getType());
+    ProjectionNode projNode = root.getChild();
+    assertEquals(NodeType.SELECTION, projNode.getChild().getType());
+    SelectionNode selNode = projNode.getChild();
+    assertEquals(EvalType.FIELD, selNode.getQual().getLeftExpr().getType());
+    assertEquals(NodeType.SCAN, selNode.getChild().getType());
+    ScanNode scanNode = selNode.getChild();
+    assertFalse(scanNode.hasQual());
+
+    // upper(name) is computed only once by the scan
+    int functionNum = 0;
+    for (Target target : scanNode.getTargets()) {
+      functionNum += EvalTreeUtil.findEvalsByType(target.getEvalTree(), EvalType.FUNCTION).size();
+    }
+    assertEquals(1, functionNum);
+    for (Target target : projNode.getTargets()) {
+      assertEquals(0, EvalTreeUtil.findEvalsByType(target.getEvalTree(), EvalType.FUNCTION).size());
+    }
+  }
+
+  @Test
+  public final void testPredicateReorder() throws PlanningException {
+    Expr expr = sqlAnalyzer.parse("select name from employee where upper(name) = 'TAJO' and empid > 10");
+    LogicalPlan newPlan = planner.createPlan(session, expr);
+    LogicalNode optimized = optimizer.optimize(newPlan);
+
+    LogicalRootNode root = (LogicalRootNode) optimized;
+    assertEquals(NodeType.SCAN, root.getChild().getType());
+    ScanNode scanNode = root.getChild();
+    EvalNode qual = scanNode.getQual();
+
+    // the cheap comparison should be evaluated before the function call.
+    assertEquals(EvalType.AND, qual.getType());
+    assertEquals(EvalType.GTH, qual.getLeftExpr().getType());
+    assertEquals(EvalType.EQUAL, qual.getRightExpr().getType());
+  }
+
   @Test
   public final void testInsertInto() throws CloneNotSupportedException, PlanningException {
     Expr expr = sqlAnalyzer.parse(TestLogicalPlanner.insertStatements[0]);
     LogicalPlan newPlan = planner.createPlan(session, expr);
     optimizer.optimize(newPlan);
   }
+
+  @Test
+  public final void testJoinOrderWithStatistics() throws PlanningException {
+    Expr expr = sqlAnalyzer.parse("select o_orderkey, c_name, n_name from orders, customer, nation " +
+        "where o_custkey = c_custkey and c_nationkey = n_nationkey");
+    LogicalPlan newPlan = planner.createPlan(session, expr);
+    LogicalNode optimized = optimizer.optimize(newPlan);
+
+    // the small relations, customer and nation, should be joined first.
+    JoinNode topJoin = PlannerUtil.findTopNode(optimized, NodeType.JOIN);
+    assertEquals(NodeType.JOIN, topJoin.getLeftChild().getType());
+    assertEquals(NodeType.SCAN, topJoin.getRightChild().getType());
+    ScanNode ordersScan = topJoin.getRightChild();
+    assertEquals(CatalogUtil.buildFQName(DEFAULT_DATABASE_NAME, "orders"), ordersScan.getTableName());
+
+    // |customer join nation| = 1000 * 25 / 25, |orders join customer| = 1000000 * 1000 / 1000
+    JoinNode childJoin = topJoin.getLeftChild();
+    assertEquals(1000, childJoin.getEstimatedRows(), 1);
+    assertEquals(1000000, topJoin.getEstimatedRows(), 1);
+    assertTrue(PlannerUtil.buildExplainString(optimized).contains("estimated rows: 1000000"));
+  }
+
+  @Test
+  public final void testIndexScan() throws PlanningException {
+    catalog.createIndex(new IndexDesc("idx_o_custkey", DEFAULT_DATABASE_NAME, "orders",
+        new Column("o_custkey", Type.INT4), IndexMethod.TWO_LEVEL_BIN_TREE, false, false, true));
+    LogicalOptimizer indexOptimizer = new LogicalOptimizer(util.getConfiguration(), catalog);
+
+    // the selectivity of an equality condition is 1/1000, so the index is used.
+    Expr expr = sqlAnalyzer.parse("select o_orderkey from orders where o_custkey = 10 and o_orderkey > 5");
+    LogicalPlan newPlan = planner.createPlan(session, expr);
+    LogicalNode optimized = indexOptimizer.optimize(newPlan);
+
+    IndexScanNode indexScan = PlannerUtil.findTopNode(optimized, NodeType.BST_INDEX_SCAN);
+    assertNotNull(indexScan);
+    assertEquals(CatalogUtil.buildFQName(DEFAULT_DATABASE_NAME, "orders"), indexScan.getTableName());
+    assertEquals(10, indexScan.getLowerKey()[0].asInt4());
+    assertTrue(indexScan.isLowerInclusive());
+    assertEquals(10, indexScan.getUpperKey()[0].asInt4());
+    assertTrue(indexScan.isUpperInclusive());
+    assertTrue(indexScan.getIndexPath().toString().endsWith("_index/idx_o_custkey"));
+    // the search condition is still evaluated for each row
+    assertEquals(EvalType.AND, indexScan.getQual().getType());
+
+    // a range condition is not selective enough.
+    expr = sqlAnalyzer.parse("select o_orderkey from orders where o_custkey > 10");
+    newPlan = planner.createPlan(session, expr);
+    optimized = indexOptimizer.optimize(newPlan);
+    assertNull(PlannerUtil.findTopNode(optimized, NodeType.BST_INDEX_SCAN));
+    assertNotNull(PlannerUtil.findTopNode(optimized, NodeType.SCAN));
+  }
 }
@@ -0,0 +1,159 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.planner;
+
+import org.apache.tajo.LocalTajoTestingUtility;
+import org.apache.tajo.TajoTestingCluster;
+import org.apache.tajo.algebra.Expr;
+import org.apache.tajo.algebra.JoinType;
+import org.apache.tajo.catalog.*;
+import org.apache.tajo.catalog.proto.CatalogProtos.StoreType;
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.engine.eval.EvalType;
+import org.apache.tajo.engine.parser.SQLAnalyzer;
+import org.apache.tajo.engine.planner.logical.*;
+import org.apache.tajo.master.TajoMaster;
+import org.apache.tajo.master.session.Session;
+import org.apache.tajo.util.CommonTestingUtil;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.apache.tajo.TajoConstants.DEFAULT_DATABASE_NAME;
+import static org.apache.tajo.TajoConstants.DEFAULT_TABLESPACE_NAME;
+import static org.junit.Assert.*;
+
+public class TestSubQueryRewriter {
+  private static TajoTestingCluster util;
+  private static CatalogService catalog;
+  private static SQLAnalyzer sqlAnalyzer;
+  private static LogicalPlanner planner;
+  private static LogicalOptimizer optimizer;
+  private static Session session = LocalTajoTestingUtility.createDummySession();
+
+  @BeforeClass
+  public static void setUp() throws Exception {
+    util = new TajoTestingCluster();
+    util.startCatalogCluster();
+    catalog = util.getMiniCatalogCluster().getCatalog();
+    catalog.createTablespace(DEFAULT_TABLESPACE_NAME, "hdfs://localhost:1234");
+    catalog.createDatabase(DEFAULT_DATABASE_NAME, DEFAULT_TABLESPACE_NAME);
+    for (FunctionDesc funcDesc : TajoMaster.initBuiltinFunctions()) {
+      catalog.createFunction(funcDesc);
+    }
+
+    Schema schema = new Schema();
+    schema.addColumn("name", Type.TEXT);
+    schema.addColumn("empid", Type.INT4);
+    schema.addColumn("deptname", Type.TEXT);
+
+    Schema schema2 = new Schema();
+    schema2.addColumn("deptname", Type.TEXT);
+    schema2.addColumn("manager", Type.TEXT);
+
+    TableMeta meta = CatalogUtil.newTableMeta(StoreType.CSV);
+    catalog.createTable(new TableDesc(CatalogUtil.buildFQName(DEFAULT_DATABASE_NAME, "employee"), schema, meta,
+        CommonTestingUtil.getTestDir()));
+    catalog.createTable(new TableDesc(CatalogUtil.buildFQName(DEFAULT_DATABASE_NAME, "dept"), schema2, meta,
+        CommonTestingUtil.getTestDir()));
+
+    sqlAnalyzer = new SQLAnalyzer();
+    planner = new LogicalPlanner(catalog);
+    optimizer = new LogicalOptimizer(util.getConfiguration());
+  }
+
+  @AfterClass
+  public static void tearDown() throws Exception {
+    util.shutdownCatalogCluster();
+  }
+
+  private static LogicalPlan plan(String sql) throws PlanningException {
+    Expr expr = sqlAnalyzer.parse(sql);
+    LogicalPlan plan = planner.createPlan(session, expr);
+    optimizer.optimize(plan);
+    return plan;
+  }
+
+  private static JoinNode getJoinNode(LogicalPlan plan) {
+    JoinNode join = PlannerUtil.findTopNode(plan.getRootBlock().getRoot(), NodeType.JOIN);
+    assertNotNull(join);
+    return join;
+  }
+
+  @Test
+  public final void testInSubQuery() throws PlanningException {
+    LogicalPlan plan = plan("select name from employee where deptname in (select deptname from dept) and empid > 10");
+    JoinNode join = getJoinNode(plan);
+    assertEquals(JoinType.LEFT_SEMI, join.getJoinType());
+    assertEquals(NodeType.SCAN, join.getLeftChild().getType());
+    assertEquals(NodeType.TABLE_SUBQUERY, join.getRightChild().getType());
+    assertTrue(SubQueryRewriter.isRewrittenSubQuery((RelationNode) join.getRightChild()));
+    assertEquals(EvalType.EQUAL, join.getJoinQual().getType());
+
+    // the remaining predicate is pushed down to the outer relation.
+    assertTrue(((ScanNode) join.getLeftChild()).hasQual());
+    assertEquals(1, plan.getRootBlock().getRoot().getOutSchema().size());
+  }
+
+  @Test
+  public final void testCorrelatedExists() throws PlanningException {
+    LogicalPlan plan = plan("select * from employee e where exists " +
+        "(select * from dept d where d.deptname = e.deptname and manager = 'tajo')");
+    JoinNode join = getJoinNode(plan);
+    assertEquals(JoinType.LEFT_SEMI, join.getJoinType());
+    assertEquals(EvalType.EQUAL, join.getJoinQual().getType());
+
+    // the correlated predicate is pulled up, and the others remain in the subquery.
+    TableSubQueryNode subQuery = (TableSubQueryNode) join.getRightChild();
+    ScanNode dept = PlannerUtil.findTopNode(subQuery.getSubQuery(), NodeType.SCAN);
+    assertTrue(dept.hasQual());
+    assertEquals(EvalType.EQUAL, dept.getQual().getType());
+
+    // asterisk does not include columns of the subquery.
+    assertEquals(3, plan.getRootBlock().getRoot().getOutSchema().size());
+  }
+
+  @Test
+  public final void testNotExists() throws PlanningException {
+    LogicalPlan plan = plan("select name from employee where not exists " +
+        "(select manager from dept where dept.deptname = employee.deptname)");
+    JoinNode join = getJoinNode(plan);
+    assertEquals(JoinType.LEFT_ANTI, join.getJoinType());
+    assertEquals(NodeType.SCAN, join.getLeftChild().getType());
+    assertEquals(NodeType.TABLE_SUBQUERY, join.getRightChild().getType());
+  }
+
+  @Test
+  public final void testUnsupportedSubQueries() {
+    String [] queries = {
+        "select name from employee where deptname not in (select deptname from dept)",
+        "select name from employee where exists (select deptname from dept)",
+        "select name from employee e where exists (select deptname from dept d where d.deptname > e.deptname)",
+        "select name from employee where deptname in (select deptname, manager from dept)"
+    };
+
+    for (String query : queries) {
+      try {
+        plan(query);
+        fail("must be failed: " + query);
+      } catch (PlanningException e) {
+      }
+    }
+  }
+}
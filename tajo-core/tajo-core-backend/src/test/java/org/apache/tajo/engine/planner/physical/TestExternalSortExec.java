@@ -155,7 +155,7 @@ public class TestExternalSortExec {
         });
 
     while ((tuple = exec.next()) != null) {
-      curVal = tuple;
+      curVal = new VTuple(tuple);
       if (preVal != null) {
         assertTrue("prev: " + preVal + ", but cur: " + curVal, comparator.compare(preVal, curVal) <= 0);
       }
@@ -170,7 +170,7 @@ public class TestExternalSortExec {
     exec.rescan();
     cnt = 0;
     while ((tuple = exec.next()) != null) {
-      curVal = tuple;
+      curVal = new VTuple(tuple);
       if (preVal != null) {
         assertTrue("prev: " + preVal + ", but cur: " + curVal, comparator.compare(preVal, curVal) <= 0);
       }
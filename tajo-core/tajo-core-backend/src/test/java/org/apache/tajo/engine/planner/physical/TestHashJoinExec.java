@@ -46,6 +46,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.util.List;
 
 import static org.apache.tajo.TajoConstants.DEFAULT_TABLESPACE_NAME;
 import static org.apache.tajo.ipc.TajoWorkerProtocol.JoinEnforce.JoinAlgorithm;
@@ -178,6 +179,56 @@ public class TestHashJoinExec {
     assertEquals(10 / 2, count);
   }
 
+  @Test
+  public final void testProfiledHashInnerJoin() throws IOException, PlanningException {
+    Expr expr = analyzer.parse(QUERIES[0]);
+    LogicalNode plan = planner.createPlan(session, expr).getRootBlock().getRoot();
+
+    JoinNode joinNode = PlannerUtil.findTopNode(plan, NodeType.JOIN);
+    Enforcer enforcer = new Enforcer();
+    enforcer.enforceJoinAlgorithm(joinNode.getPID(), JoinAlgorithm.IN_MEMORY_HASH_JOIN);
+
+    FileFragment[] empFrags = StorageManager.splitNG(conf, "default.e", employee.getMeta(), employee.getPath(), Integer.MAX_VALUE);
+    FileFragment[] peopleFrags = StorageManager.splitNG(conf, "default.p", people.getMeta(), people.getPath(), Integer.MAX_VALUE);
+    FileFragment[] merged = TUtil.concat(empFrags, peopleFrags);
+
+    Path workDir = CommonTestingUtil.getTestDir("target/test-data/testProfiledHashInnerJoin");
+    TaskAttemptContext ctx = new TaskAttemptContext(conf,
+        LocalTajoTestingUtility.newQueryUnitAttemptId(), merged, workDir);
+    ctx.setEnforcer(enforcer);
+
+    PhysicalPlanner phyPlanner = new PhysicalPlannerImpl(conf, sm);
+    ProfiledExec exec = ProfiledExec.instrument(phyPlanner.createPlan(ctx, plan));
+
+    int count = 0;
+    exec.init();
+    while (exec.next() != null) {
+      count++;
+    }
+    exec.close();
+    assertEquals(10 / 2, count);
+
+    List<OperatorProfile> profiles = exec.getProfiles();
+    assertEquals(4, profiles.size());
+    OperatorProfile projection = profiles.get(0);
+    assertEquals("ProjectionExec", projection.getName());
+    assertEquals(0, projection.getDepth());
+    assertEquals(count, projection.getOutputRows());
+
+    OperatorProfile join = profiles.get(1);
+    assertEquals("HashJoinExec", join.getName());
+    assertEquals(1, join.getDepth());
+    assertEquals(count, join.getOutputRows());
+    assertEquals(10 + 10 / 2, join.getInputRows());
+
+    OperatorProfile left = profiles.get(2);
+    OperatorProfile right = profiles.get(3);
+    assertEquals(2, left.getDepth());
+    assertEquals(left.getOutputRows(), join.getHashProbes());
+    assertEquals(right.getOutputRows(), join.getHashEntries());
+    assertEquals(left.getOutputRows(), left.getInputRows());
+  }
+
   @Test
   public final void testCheckIfInMemoryInnerJoinIsPossible() throws IOException, PlanningException {
     Expr expr = analyzer.parse(QUERIES[0]);
@@ -0,0 +1,270 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.engine.planner.physical;
+
+import org.apache.hadoop.fs.Path;
+import org.apache.tajo.LocalTajoTestingUtility;
+import org.apache.tajo.TajoConstants;
+import org.apache.tajo.TajoTestingCluster;
+import org.apache.tajo.algebra.Expr;
+import org.apache.tajo.catalog.*;
+import org.apache.tajo.catalog.proto.CatalogProtos.StoreType;
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.engine.parser.SQLAnalyzer;
+import org.apache.tajo.engine.planner.*;
+import org.apache.tajo.engine.planner.enforce.Enforcer;
+import org.apache.tajo.engine.planner.logical.GroupbyNode;
+import org.apache.tajo.engine.planner.logical.JoinNode;
+import org.apache.tajo.engine.planner.logical.LogicalNode;
+import org.apache.tajo.engine.planner.logical.NodeType;
+import org.apache.tajo.master.TajoMaster;
+import org.apache.tajo.master.session.Session;
+import org.apache.tajo.storage.*;
+import org.apache.tajo.storage.fragment.FileFragment;
+import org.apache.tajo.util.CommonTestingUtil;
+import org.apache.tajo.util.TUtil;
+import org.apache.tajo.worker.TaskAttemptContext;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.apache.tajo.TajoConstants.DEFAULT_TABLESPACE_NAME;
+import static org.apache.tajo.ipc.TajoWorkerProtocol.JoinEnforce.JoinAlgorithm;
+import static org.junit.Assert.*;
+
+public class TestMorselDrivenExec {
+  private TajoConf conf;
+  private final String TEST_PATH = "target/test-data/TestMorselDrivenExec";
+  private TajoTestingCluster util;
+  private CatalogService catalog;
+  private SQLAnalyzer analyzer;
+  private LogicalPlanner planner;
+  private AbstractStorageManager sm;
+  private Path testDir;
+  private final Session session = LocalTajoTestingUtility.createDummySession();
+
+  private TableDesc employee;
+  private TableDesc people;
+
+  private static final int EMPLOYEE_NUM = 10000;
+
+  @Before
+  public void setUp() throws Exception {
+    util = new TajoTestingCluster();
+    util.initTestDir();
+    catalog = util.startCatalogCluster().getCatalog();
+    testDir = CommonTestingUtil.getTestDir(TEST_PATH);
+    catalog.createTablespace(DEFAULT_TABLESPACE_NAME, testDir.toUri().toString());
+    catalog.createDatabase(TajoConstants.DEFAULT_DATABASE_NAME, DEFAULT_TABLESPACE_NAME);
+    for (FunctionDesc funcDesc : TajoMaster.initBuiltinFunctions()) {
+      catalog.createFunction(funcDesc);
+    }
+    conf = new TajoConf(util.getConfiguration());
+    conf.setIntVar(TajoConf.ConfVars.EXECUTOR_MORSEL_PARALLELISM, 4);
+    conf.setLongVar(TajoConf.ConfVars.EXECUTOR_MORSEL_SIZE, 4096);
+    sm = StorageManagerFactory.getStorageManager(conf, testDir);
+
+    Schema employeeSchema = new Schema();
+    employeeSchema.addColumn("managerid", Type.INT4);
+    employeeSchema.addColumn("empid", Type.INT4);
+    employeeSchema.addColumn("memid", Type.INT4);
+    employeeSchema.addColumn("deptname", Type.TEXT);
+
+    TableMeta employeeMeta = CatalogUtil.newTableMeta(StoreType.CSV);
+    Path employeePath = new Path(testDir, "employee.csv");
+    Appender appender = StorageManagerFactory.getStorageManager(conf).getAppender(employeeMeta, employeeSchema,
+        employeePath);
+    appender.init();
+    Tuple tuple = new VTuple(employeeSchema.size());
+    for (int i = 0; i < EMPLOYEE_NUM; i++) {
+      tuple.put(new Datum[] { DatumFactory.createInt4(i),
+          DatumFactory.createInt4(i), DatumFactory.createInt4(10 + i),
+          DatumFactory.createText("dept_" + (i % 10)) });
+      appender.addTuple(tuple);
+    }
+
+    appender.flush();
+    appender.close();
+    employee = CatalogUtil.newTableDesc("default.employee", employeeSchema, employeeMeta, employeePath);
+    catalog.createTable(employee);
+
+    Schema peopleSchema = new Schema();
+    peopleSchema.addColumn("empid", Type.INT4);
+    peopleSchema.addColumn("fk_memid", Type.INT4);
+    peopleSchema.addColumn("name", Type.TEXT);
+    peopleSchema.addColumn("age", Type.INT4);
+    TableMeta peopleMeta = CatalogUtil.newTableMeta(StoreType.CSV);
+    Path peoplePath = new Path(testDir, "people.csv");
+    appender = StorageManagerFactory.getStorageManager(conf).getAppender(peopleMeta, peopleSchema, peoplePath);
+    appender.init();
+    tuple = new VTuple(peopleSchema.size());
+    for (int i = 1; i < EMPLOYEE_NUM; i += 2) {
+      tuple.put(new Datum[] { DatumFactory.createInt4(i),
+          DatumFactory.createInt4(10 + i),
+          DatumFactory.createText("name_" + i),
+          DatumFactory.createInt4(30 + i) });
+      appender.addTuple(tuple);
+    }
+
+    appender.flush();
+    appender.close();
+
+    people = CatalogUtil.newTableDesc("default.people", peopleSchema, peopleMeta, peoplePath);
+    catalog.createTable(people);
+    analyzer = new SQLAnalyzer();
+    planner = new LogicalPlanner(catalog);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    util.shutdownCatalogCluster();
+  }
+
+  @Test
+  public final void testHashJoin() throws IOException, PlanningException {
+    Expr expr = analyzer.parse("select managerId, e.empId, deptName, e.memId from employee as e inner join " +
+        "people as p on e.empId = p.empId and e.memId = p.fk_memId");
+    LogicalNode plan = planner.createPlan(session, expr).getRootBlock().getRoot();
+
+    JoinNode joinNode = PlannerUtil.findTopNode(plan, NodeType.JOIN);
+    Enforcer enforcer = new Enforcer();
+    enforcer.enforceJoinAlgorithm(joinNode.getPID(), JoinAlgorithm.IN_MEMORY_HASH_JOIN);
+
+    FileFragment[] empFrags = StorageManager.splitNG(conf, "default.e", employee.getMeta(), employee.getPath(),
+        Integer.MAX_VALUE);
+    FileFragment[] peopleFrags = StorageManager.splitNG(conf, "default.p", people.getMeta(), people.getPath(),
+        Integer.MAX_VALUE);
+    FileFragment[] merged = TUtil.concat(empFrags, peopleFrags);
+
+    Path workDir = CommonTestingUtil.getTestDir("target/test-data/testMorselDrivenHashJoin");
+    TaskAttemptContext ctx = new TaskAttemptContext(conf,
+        LocalTajoTestingUtility.newQueryUnitAttemptId(), merged, workDir);
+    ctx.setEnforcer(enforcer);
+
+    PhysicalPlanner phyPlanner = new PhysicalPlannerImpl(conf, sm);
+    PhysicalExec exec = phyPlanner.createPlan(ctx, plan);
+
+    MorselDrivenExec morselExec = PhysicalPlanUtil.findExecutor(exec, MorselDrivenExec.class);
+    assertNotNull(morselExec);
+    assertEquals(4, morselExec.getPipelines().size());
+
+    Tuple tuple;
+    int count = 0;
+    long sum = 0;
+    exec.init();
+    while ((tuple = exec.next()) != null) {
+      int empId = tuple.get(1).asInt4();
+      assertEquals(1, empId % 2);
+      assertEquals(empId, tuple.get(0).asInt4());
+      assertEquals("dept_" + (empId % 10), tuple.get(2).asChars());
+      assertEquals(10 + empId, tuple.get(3).asInt4());
+      sum += empId;
+      count++;
+    }
+    exec.close();
+
+    assertEquals(EMPLOYEE_NUM / 2, count);
+    assertEquals((long) (EMPLOYEE_NUM / 2) * (EMPLOYEE_NUM / 2), sum);
+  }
+
+  @Test
+  public final void testFunctionProjection() throws IOException, PlanningException {
+    Expr expr = analyzer.parse("select upper(deptName), empId + 1 from employee");
+    LogicalNode plan = planner.createPlan(session, expr).getRootBlock().getRoot();
+
+    FileFragment[] frags = StorageManager.splitNG(conf, "default.employee", employee.getMeta(), employee.getPath(),
+        Integer.MAX_VALUE);
+
+    Path workDir = CommonTestingUtil.getTestDir("target/test-data/testMorselDrivenFunctionProjection");
+    TaskAttemptContext ctx = new TaskAttemptContext(conf,
+        LocalTajoTestingUtility.newQueryUnitAttemptId(), frags, workDir);
+    ctx.setEnforcer(new Enforcer());
+
+    PhysicalPlanner phyPlanner = new PhysicalPlannerImpl(conf, sm);
+    PhysicalExec exec = phyPlanner.createPlan(ctx, plan);
+    MorselDrivenExec morselExec = PhysicalPlanUtil.findExecutor(exec, MorselDrivenExec.class);
+    assertNotNull(morselExec);
+    assertEquals(4, morselExec.getPipelines().size());
+
+    // each pipeline evaluates its own copy of the function, so no row gets the arguments of another row.
+    Tuple tuple;
+    int count = 0;
+    long sum = 0;
+    exec.init();
+    while ((tuple = exec.next()) != null) {
+      int empId = tuple.get(1).asInt4() - 1;
+      assertEquals("DEPT_" + (empId % 10), tuple.get(0).asChars());
+      sum += empId;
+      count++;
+    }
+    exec.close();
+
+    assertEquals(EMPLOYEE_NUM, count);
+    assertEquals((long) EMPLOYEE_NUM * (EMPLOYEE_NUM - 1) / 2, sum);
+  }
+
+  @Test
+  public final void testHashAggregation() throws IOException, PlanningException {
+    Expr expr = analyzer.parse("select deptName, count(*), sum(empId) from employee group by deptName");
+    LogicalNode plan = planner.createPlan(session, expr).getRootBlock().getRoot();
+
+    GroupbyNode groupbyNode = PlannerUtil.findTopNode(plan, NodeType.GROUP_BY);
+    Enforcer enforcer = new Enforcer();
+    enforcer.enforceHashAggregation(groupbyNode.getPID());
+
+    FileFragment[] frags = StorageManager.splitNG(conf, "default.employee", employee.getMeta(), employee.getPath(),
+        Integer.MAX_VALUE);
+
+    Path workDir = CommonTestingUtil.getTestDir("target/test-data/testMorselDrivenHashAggregation");
+    TaskAttemptContext ctx = new TaskAttemptContext(conf,
+        LocalTajoTestingUtility.newQueryUnitAttemptId(), frags, workDir);
+    ctx.setEnforcer(enforcer);
+
+    PhysicalPlanner phyPlanner = new PhysicalPlannerImpl(conf, sm);
+    PhysicalExec exec = phyPlanner.createPlan(ctx, plan);
+    assertNotNull(PhysicalPlanUtil.findExecutor(exec, MorselDrivenExec.class));
+
+    Map<String, Long> counts = new HashMap<String, Long>();
+    Map<String, Long> sums = new HashMap<String, Long>();
+    Tuple tuple;
+    exec.init();
+    while ((tuple = exec.next()) != null) {
+      String dept = tuple.get(0).asChars();
+      assertFalse(counts.containsKey(dept));
+      counts.put(dept, tuple.get(1).asInt8());
+      sums.put(dept, tuple.get(2).asInt8());
+    }
+    exec.close();
+
+    assertEquals(10, counts.size());
+    for (int i = 0; i < 10; i++) {
+      assertEquals(EMPLOYEE_NUM / 10, counts.get("dept_" + i).longValue());
+      // the sum of i, i + 10, i + 20, ...
+      long expected = 10L * ((EMPLOYEE_NUM / 10) * (EMPLOYEE_NUM / 10 - 1) / 2) + (long) i * (EMPLOYEE_NUM / 10);
+      assertEquals(expected, sums.get("dept_" + i).longValue());
+    }
+  }
+}
@@ -187,7 +187,7 @@ public class TestProgressExternalSortExec {
 
         assertTrue(progress > initProgress);
       }
-      curVal = tuple;
+      curVal = new VTuple(tuple);
       if (preVal != null) {
         assertTrue("prev: " + preVal + ", but cur: " + curVal, comparator.compare(preVal, curVal) <= 0);
       }
@@ -211,7 +211,7 @@ public class TestProgressExternalSortExec {
 
     cnt = 0;
     while ((tuple = exec.next()) != null) {
-      curVal = tuple;
+      curVal = new VTuple(tuple);
       if (preVal != null) {
         assertTrue("prev: " + preVal + ", but cur: " + curVal, comparator.compare(preVal, curVal) <= 0);
       }
@@ -0,0 +1,221 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.jdbc;
+
+import com.google.protobuf.ServiceException;
+import org.apache.hadoop.fs.Path;
+import org.apache.tajo.QueryId;
+import org.apache.tajo.QueryIdFactory;
+import org.apache.tajo.catalog.CatalogUtil;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.catalog.TableDesc;
+import org.apache.tajo.catalog.TableMeta;
+import org.apache.tajo.catalog.proto.CatalogProtos.StoreType;
+import org.apache.tajo.client.TajoClient;
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.ipc.ClientProtos.FetchResultRequest;
+import org.apache.tajo.ipc.ClientProtos.FetchResultResponse;
+import org.apache.tajo.ipc.ClientProtos.ResultCode;
+import org.apache.tajo.master.QueryResultScanner;
+import org.apache.tajo.storage.*;
+import org.apache.tajo.util.CommonTestingUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.io.IOException;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class TestRemoteResultFetcher {
+  private static final int ROW_NUM = 25;
+  private static final int FETCH_ROW_NUM = 10;
+
+  private Schema schema;
+  private QueryId queryId;
+  private TableDesc desc;
+  private QueryResultScanner.Scanners scanners;
+  private TajoClient client;
+
+  @Before
+  public void setUp() throws Exception {
+    TajoConf conf = new TajoConf();
+    schema = new Schema();
+    schema.addColumn("id", Type.INT4);
+    TableMeta meta = CatalogUtil.newTableMeta(StoreType.CSV);
+
+    Path resultDir = CommonTestingUtil.getTestDir();
+    Appender appender = StorageManagerFactory.getStorageManager(conf).getAppender(meta, schema,
+        new Path(resultDir, "part-0"));
+    appender.init();
+    for (int i = 0; i < ROW_NUM; i++) {
+      Tuple tuple = new VTuple(schema.size());
+      tuple.put(0, DatumFactory.createInt4(i));
+      appender.addTuple(tuple);
+    }
+    appender.close();
+
+    queryId = QueryIdFactory.newQueryId(System.currentTimeMillis(), 1);
+    desc = new TableDesc(queryId.toString(), schema, meta, resultDir);
+    scanners = new QueryResultScanner.Scanners(conf);
+
+    // the client fetches the rows from the scanners of this test instead of a client service.
+    client = mock(TajoClient.class);
+    when(client.fetchNextRows(any(QueryId.class), anyLong(), anyInt(), anyBoolean())).thenAnswer(
+        new Answer<FetchResultResponse>() {
+          @Override
+          public FetchResultResponse answer(InvocationOnMock invocation) {
+            Object [] args = invocation.getArguments();
+            FetchResultRequest request = FetchResultRequest.newBuilder()
+                .setQueryId(((QueryId) args[0]).getProto())
+                .setFetchHandle((Long) args[1])
+                .setFetchRowNum((Integer) args[2])
+                .setReset((Boolean) args[3])
+                .build();
+            return scanners.fetch(request, desc);
+          }
+        });
+    doAnswer(new Answer<Void>() {
+      @Override
+      public Void answer(InvocationOnMock invocation) {
+        scanners.close((Long) invocation.getArguments()[1]);
+        return null;
+      }
+    }).when(client).closeFetchHandle(any(QueryId.class), anyLong());
+  }
+
+  @After
+  public void tearDown() {
+    scanners.stop();
+  }
+
+  private static void assertRows(RemoteResultFetcher fetcher, int from, int to) throws IOException {
+    for (int i = from; i < to; i++) {
+      Tuple tuple = fetcher.next();
+      assertNotNull(tuple);
+      assertEquals(i, tuple.get(0).asInt4());
+    }
+  }
+
+  @Test
+  public void testFetchAllPages() throws Exception {
+    RemoteResultFetcher fetcher = new RemoteResultFetcher(client, queryId, schema, FETCH_ROW_NUM);
+    assertRows(fetcher, 0, ROW_NUM);
+    assertNull(fetcher.next());
+    assertNull(fetcher.next());
+
+    // 3 pages are fetched through one cursor, and the server closes it at the last page.
+    verify(client, times(1)).fetchNextRows(eq(queryId), eq(0L), eq(FETCH_ROW_NUM), eq(false));
+    verify(client, times(3)).fetchNextRows(eq(queryId), anyLong(), eq(FETCH_ROW_NUM), eq(false));
+    assertEquals(0, scanners.size());
+
+    fetcher.close();
+    verify(client, never()).closeFetchHandle(any(QueryId.class), anyLong());
+  }
+
+  @Test
+  public void testReset() throws Exception {
+    RemoteResultFetcher fetcher = new RemoteResultFetcher(client, queryId, schema, FETCH_ROW_NUM);
+    assertRows(fetcher, 0, 5);
+
+    // the open cursor is rewound.
+    fetcher.reset();
+    assertRows(fetcher, 0, ROW_NUM);
+    assertNull(fetcher.next());
+    verify(client, times(1)).fetchNextRows(eq(queryId), anyLong(), eq(FETCH_ROW_NUM), eq(true));
+
+    // a new cursor is opened after all rows are fetched.
+    fetcher.reset();
+    assertRows(fetcher, 0, ROW_NUM);
+    assertNull(fetcher.next());
+    verify(client, times(2)).fetchNextRows(eq(queryId), eq(0L), eq(FETCH_ROW_NUM), eq(false));
+    assertEquals(0, scanners.size());
+  }
+
+  @Test
+  public void testIndependentResultSets() throws Exception {
+    RemoteResultFetcher fetcher1 = new RemoteResultFetcher(client, queryId, schema, FETCH_ROW_NUM);
+    RemoteResultFetcher fetcher2 = new RemoteResultFetcher(client, queryId, schema, FETCH_ROW_NUM);
+
+    assertRows(fetcher1, 0, 12);
+    assertRows(fetcher2, 0, 5);
+    assertRows(fetcher1, 12, ROW_NUM);
+    assertRows(fetcher2, 5, ROW_NUM);
+    assertNull(fetcher1.next());
+    assertNull(fetcher2.next());
+  }
+
+  @Test
+  public void testClosePartiallyRead() throws Exception {
+    RemoteResultFetcher fetcher = new RemoteResultFetcher(client, queryId, schema, FETCH_ROW_NUM);
+    assertRows(fetcher, 0, 5);
+    assertEquals(1, scanners.size());
+
+    fetcher.close();
+    verify(client, times(1)).closeFetchHandle(eq(queryId), anyLong());
+    assertEquals(0, scanners.size());
+    assertNull(fetcher.next());
+  }
+
+  @Test
+  public void testErrorResponse() throws Exception {
+    RemoteResultFetcher fetcher = new RemoteResultFetcher(client, queryId, schema, FETCH_ROW_NUM);
+    assertRows(fetcher, 0, FETCH_ROW_NUM);
+
+    // the cursor is expired on the server.
+    scanners.closeAll();
+    int id = FETCH_ROW_NUM;
+    try {
+      Tuple tuple;
+      while ((tuple = fetcher.next()) != null) {
+        assertEquals(id++, tuple.get(0).asInt4());
+      }
+      fail("An expired cursor must fail");
+    } catch (IOException e) {
+      // the rows of a page received before the expiry are still returned.
+      assertTrue(id == FETCH_ROW_NUM || id == FETCH_ROW_NUM * 2);
+    }
+    assertNull(fetcher.next());
+
+    fetcher.close();
+    verify(client, never()).closeFetchHandle(any(QueryId.class), anyLong());
+  }
+
+  @Test
+  public void testRpcFailure() throws Exception {
+    TajoClient failingClient = mock(TajoClient.class);
+    when(failingClient.fetchNextRows(any(QueryId.class), anyLong(), anyInt(), anyBoolean()))
+        .thenThrow(new ServiceException("connection refused"));
+
+    RemoteResultFetcher fetcher = new RemoteResultFetcher(failingClient, queryId, schema, FETCH_ROW_NUM);
+    try {
+      fetcher.next();
+      fail("A failed rpc must fail");
+    } catch (IOException e) {
+      assertEquals("connection refused", e.getMessage());
+    }
+    fetcher.close();
+    verify(failingClient, never()).closeFetchHandle(any(QueryId.class), anyLong());
+  }
+}
@@ -0,0 +1,93 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.master;
+
+import org.apache.tajo.algebra.Expr;
+import org.apache.tajo.engine.parser.SQLAnalyzer;
+import org.apache.tajo.engine.planner.LogicalPlan;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TestPlanCache {
+
+  @Test
+  public void testNormalize() {
+    assertEquals("select * from lineitem where l_comment = 'a  b'",
+        PlanCache.normalize("  select *\n  from\tlineitem\n where l_comment = 'a  b' ;"));
+    assertEquals(PlanCache.getExprKey("select 1", false), PlanCache.getExprKey("select   1;", false));
+    assertFalse(PlanCache.getExprKey("select 1", false).equals(PlanCache.getExprKey("select 1", true)));
+    assertFalse(PlanCache.getPlanKey("k", "db1").equals(PlanCache.getPlanKey("k", "db2")));
+  }
+
+  @Test
+  public void testCatalogVersion() {
+    PlanCache cache = new PlanCache(10);
+    LogicalPlan plan = new LogicalPlan("default", null);
+
+    cache.putPlan("q1", 1, plan);
+    assertSame(plan, cache.getPlan("q1", 1));
+    // unknown catalog version
+    assertNull(cache.getPlan("q1", -1));
+
+    // a plan built with an old version is not cached.
+    cache.putPlan("q2", 0, plan);
+    assertNull(cache.getPlan("q2", 1));
+
+    // all plans are dropped once the catalog is changed.
+    assertNull(cache.getPlan("q1", 2));
+    assertEquals(0, cache.getPlanNum());
+  }
+
+  @Test
+  public void testEviction() {
+    PlanCache cache = new PlanCache(2);
+    LogicalPlan plan = new LogicalPlan("default", null);
+
+    cache.putPlan("q1", 1, plan);
+    cache.putPlan("q2", 1, plan);
+    assertNotNull(cache.getPlan("q1", 1));
+    cache.putPlan("q3", 1, plan);
+
+    // the least recently used one is evicted.
+    assertEquals(2, cache.getPlanNum());
+    assertNotNull(cache.getPlan("q1", 1));
+    assertNull(cache.getPlan("q2", 1));
+    assertNotNull(cache.getPlan("q3", 1));
+  }
+
+  @Test
+  public void testExpr() {
+    PlanCache cache = new PlanCache(10);
+    SQLAnalyzer analyzer = new SQLAnalyzer();
+    String sql = "select l_orderkey, sum(l_quantity) from lineitem where l_quantity > 10 group by l_orderkey";
+    Expr expr = analyzer.parse(sql);
+
+    String key = PlanCache.getExprKey(sql, false);
+    assertNull(cache.getExpr(key));
+    cache.putExpr(key, expr);
+
+    Expr copy1 = cache.getExpr(key);
+    Expr copy2 = cache.getExpr(key);
+    assertEquals(expr, copy1);
+    assertEquals(expr, copy2);
+    // each use gets its own copy.
+    assertNotSame(copy1, copy2);
+  }
+}
@@ -0,0 +1,283 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.master;
+
+import com.google.protobuf.ByteString;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.tajo.QueryId;
+import org.apache.tajo.QueryIdFactory;
+import org.apache.tajo.catalog.CatalogUtil;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.catalog.TableDesc;
+import org.apache.tajo.catalog.TableMeta;
+import org.apache.tajo.catalog.proto.CatalogProtos.StoreType;
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.ipc.ClientProtos.FetchResultRequest;
+import org.apache.tajo.ipc.ClientProtos.FetchResultResponse;
+import org.apache.tajo.ipc.ClientProtos.ResultCode;
+import org.apache.tajo.storage.*;
+import org.apache.tajo.util.CommonTestingUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TestQueryResultScanner {
+  private static final int ROW_NUM = 25;
+
+  private TajoConf conf;
+  private Schema schema;
+  private QueryId queryId;
+  private TableDesc desc;
+  private Scanners scanners;
+
+  /**
+   * It counts the opened and closed scanners.
+   */
+  private static class Scanners extends QueryResultScanner.Scanners {
+    int openedNum = 0;
+    int closedNum = 0;
+
+    Scanners(TajoConf conf) {
+      super(conf);
+    }
+
+    @Override
+    protected void onOpen(QueryResultScanner scanner) {
+      openedNum++;
+    }
+
+    @Override
+    protected void onClose(QueryResultScanner scanner) {
+      closedNum++;
+    }
+  }
+
+  @Before
+  public void setUp() throws Exception {
+    conf = new TajoConf();
+    schema = new Schema();
+    schema.addColumn("id", Type.INT4);
+    schema.addColumn("name", Type.TEXT);
+    TableMeta meta = CatalogUtil.newTableMeta(StoreType.CSV);
+
+    Path resultDir = CommonTestingUtil.getTestDir();
+    Appender appender = StorageManagerFactory.getStorageManager(conf).getAppender(meta, schema,
+        new Path(resultDir, "part-0"));
+    appender.init();
+    for (int i = 0; i < ROW_NUM; i++) {
+      Tuple tuple = new VTuple(schema.size());
+      tuple.put(0, DatumFactory.createInt4(i));
+      tuple.put(1, DatumFactory.createText("name" + i));
+      appender.addTuple(tuple);
+    }
+    appender.close();
+
+    queryId = QueryIdFactory.newQueryId(System.currentTimeMillis(), 1);
+    desc = new TableDesc(queryId.toString(), schema, meta, resultDir);
+    scanners = new Scanners(conf);
+  }
+
+  @After
+  public void tearDown() {
+    scanners.stop();
+  }
+
+  private FetchResultResponse fetch(QueryId queryId, long fetchHandle, int fetchRowNum, boolean reset) {
+    FetchResultRequest request = FetchResultRequest.newBuilder()
+        .setQueryId(queryId.getProto())
+        .setFetchHandle(fetchHandle)
+        .setFetchRowNum(fetchRowNum)
+        .setReset(reset)
+        .build();
+    return scanners.fetch(request, desc);
+  }
+
+  private FetchResultResponse close(long fetchHandle) {
+    FetchResultRequest request = FetchResultRequest.newBuilder()
+        .setQueryId(queryId.getProto())
+        .setFetchHandle(fetchHandle)
+        .setFetchRowNum(0)
+        .setClose(true)
+        .build();
+    return scanners.fetch(request, desc);
+  }
+
+  private List<Integer> getIds(FetchResultResponse response) {
+    BinaryTupleBuilder builder = new BinaryTupleBuilder(schema);
+    List<Integer> ids = new ArrayList<Integer>();
+    for (ByteString row : response.getRowsList()) {
+      Tuple tuple = builder.wrap(row.toByteArray());
+      assertEquals("name" + tuple.get(0).asInt4(), tuple.get(1).asChars());
+      ids.add(tuple.get(0).asInt4());
+    }
+    return ids;
+  }
+
+  private static List<Integer> range(int from, int to) {
+    List<Integer> ids = new ArrayList<Integer>();
+    for (int i = from; i < to; i++) {
+      ids.add(i);
+    }
+    return ids;
+  }
+
+  @Test
+  public void testFetchPages() {
+    FetchResultResponse response = fetch(queryId, 0, 10, false);
+    assertEquals(ResultCode.OK, response.getResultCode());
+    assertFalse(response.getEos());
+    long fetchHandle = response.getFetchHandle();
+    assertTrue(fetchHandle > 0);
+    assertEquals(range(0, 10), getIds(response));
+    assertEquals(1, scanners.size());
+
+    response = fetch(queryId, fetchHandle, 10, false);
+    assertEquals(fetchHandle, response.getFetchHandle());
+    assertFalse(response.getEos());
+    assertEquals(range(10, 20), getIds(response));
+
+    // the scanner is closed when all rows are fetched.
+    response = fetch(queryId, fetchHandle, 10, false);
+    assertTrue(response.getEos());
+    assertEquals(range(20, ROW_NUM), getIds(response));
+    assertEquals(0, scanners.size());
+    assertEquals(1, scanners.openedNum);
+    assertEquals(1, scanners.closedNum);
+
+    // the fetch handle cannot be used any more.
+    response = fetch(queryId, fetchHandle, 10, false);
+    assertEquals(ResultCode.ERROR, response.getResultCode());
+    assertTrue(response.getEos());
+  }
+
+  @Test
+  public void testIndependentFetchHandles() {
+    // two result sets of the same query have their own cursors.
+    FetchResultResponse response1 = fetch(queryId, 0, 10, false);
+    FetchResultResponse response2 = fetch(queryId, 0, 5, false);
+    assertTrue(response1.getFetchHandle() != response2.getFetchHandle());
+    assertEquals(range(0, 10), getIds(response1));
+    assertEquals(range(0, 5), getIds(response2));
+    assertEquals(2, scanners.size());
+
+    response2 = fetch(queryId, response2.getFetchHandle(), 10, false);
+    assertEquals(range(5, 15), getIds(response2));
+    response1 = fetch(queryId, response1.getFetchHandle(), 100, false);
+    assertEquals(range(10, ROW_NUM), getIds(response1));
+    assertTrue(response1.getEos());
+    assertEquals(1, scanners.size());
+
+    response2 = fetch(queryId, response2.getFetchHandle(), 100, false);
+    assertEquals(range(15, ROW_NUM), getIds(response2));
+    assertEquals(0, scanners.size());
+  }
+
+  @Test
+  public void testReset() {
+    FetchResultResponse response = fetch(queryId, 0, 10, false);
+    long fetchHandle = response.getFetchHandle();
+    fetch(queryId, fetchHandle, 10, false);
+
+    response = fetch(queryId, fetchHandle, 10, true);
+    assertEquals(fetchHandle, response.getFetchHandle());
+    assertEquals(range(0, 10), getIds(response));
+    assertEquals(1, scanners.openedNum);
+  }
+
+  @Test
+  public void testErrors() throws IOException {
+    // a query without its result
+    FetchResultRequest request = FetchResultRequest.newBuilder()
+        .setQueryId(queryId.getProto())
+        .setFetchRowNum(10)
+        .build();
+    FetchResultResponse response = scanners.fetch(request, null);
+    assertEquals(ResultCode.ERROR, response.getResultCode());
+    assertTrue(response.getEos());
+
+    // an unknown fetch handle
+    response = fetch(queryId, 1234, 10, false);
+    assertEquals(ResultCode.ERROR, response.getResultCode());
+
+    // the fetch handle of another query
+    response = fetch(queryId, 0, 10, false);
+    QueryId anotherQueryId = QueryIdFactory.newQueryId(System.currentTimeMillis(), 2);
+    assertEquals(ResultCode.ERROR, fetch(anotherQueryId, response.getFetchHandle(), 10, false).getResultCode());
+    assertEquals(1, scanners.size());
+    scanners.closeQuery(queryId);
+
+    // a failure while reading the result closes the scanner.
+    FileSystem fs = desc.getPath().getFileSystem(conf);
+    fs.delete(desc.getPath(), true);
+    response = fetch(queryId, 0, 10, false);
+    assertEquals(ResultCode.ERROR, response.getResultCode());
+    assertTrue(response.hasErrorMessage());
+    assertEquals(0, scanners.size());
+    assertEquals(scanners.openedNum, scanners.closedNum);
+  }
+
+  @Test
+  public void testClosePartiallyRead() {
+    FetchResultResponse response = fetch(queryId, 0, 10, false);
+    long fetchHandle = response.getFetchHandle();
+    FetchResultResponse another = fetch(queryId, 0, 10, false);
+
+    response = close(fetchHandle);
+    assertEquals(ResultCode.OK, response.getResultCode());
+    assertTrue(response.getEos());
+    assertEquals(1, scanners.size());
+    assertEquals(1, scanners.closedNum);
+    assertEquals(ResultCode.ERROR, fetch(queryId, fetchHandle, 10, false).getResultCode());
+
+    // the other cursor is not affected.
+    assertEquals(range(10, 20), getIds(fetch(queryId, another.getFetchHandle(), 10, false)));
+
+    // closing a query closes all its cursors.
+    fetch(queryId, 0, 10, false);
+    assertEquals(2, scanners.size());
+    scanners.closeQuery(queryId);
+    assertEquals(0, scanners.size());
+    assertEquals(3, scanners.closedNum);
+  }
+
+  @Test
+  public void testCloseIdleScanners() {
+    long timeoutMs = conf.getIntVar(TajoConf.ConfVars.CLIENT_RESULT_FETCH_IDLE_TIMEOUT) * 1000L;
+    long fetchHandle = fetch(queryId, 0, 10, false).getFetchHandle();
+    fetch(queryId, 0, 10, false);
+
+    assertEquals(0, scanners.closeIdleScanners(System.currentTimeMillis()));
+    assertEquals(2, scanners.size());
+
+    // the scanners of a client which does not fetch rows any more are closed after the timeout.
+    assertEquals(2, scanners.closeIdleScanners(System.currentTimeMillis() + timeoutMs + 1000));
+    assertEquals(0, scanners.size());
+    assertEquals(2, scanners.closedNum);
+    assertEquals(ResultCode.ERROR, fetch(queryId, fetchHandle, 10, false).getResultCode());
+  }
+}
@@ -0,0 +1,263 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.master;
+
+import org.apache.hadoop.fs.FSDataOutputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.tajo.LocalTajoTestingUtility;
+import org.apache.tajo.QueryId;
+import org.apache.tajo.QueryIdFactory;
+import org.apache.tajo.TajoConstants;
+import org.apache.tajo.TajoTestingCluster;
+import org.apache.tajo.algebra.Expr;
+import org.apache.tajo.catalog.*;
+import org.apache.tajo.catalog.proto.CatalogProtos.FunctionType;
+import org.apache.tajo.catalog.proto.CatalogProtos.StoreType;
+import org.apache.tajo.catalog.statistics.TableStats;
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.engine.function.string.Upper;
+import org.apache.tajo.engine.parser.SQLAnalyzer;
+import org.apache.tajo.engine.planner.LogicalOptimizer;
+import org.apache.tajo.engine.planner.LogicalPlan;
+import org.apache.tajo.engine.planner.LogicalPlanner;
+import org.apache.tajo.master.session.Session;
+import org.apache.tajo.util.CommonTestingUtil;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import static org.apache.tajo.TajoConstants.DEFAULT_DATABASE_NAME;
+import static org.apache.tajo.TajoConstants.DEFAULT_TABLESPACE_NAME;
+import static org.junit.Assert.*;
+
+public class TestResultCache {
+  private static TajoTestingCluster util;
+  private static TajoConf conf;
+  private static CatalogService catalog;
+  private static SQLAnalyzer sqlAnalyzer;
+  private static LogicalPlanner planner;
+  private static LogicalOptimizer optimizer;
+  private static Session session = LocalTajoTestingUtility.createDummySession();
+  private static Path tablePath;
+
+  @BeforeClass
+  public static void setUp() throws Exception {
+    util = new TajoTestingCluster();
+    util.startCatalogCluster();
+    conf = util.getConfiguration();
+    catalog = util.getMiniCatalogCluster().getCatalog();
+    catalog.createTablespace(DEFAULT_TABLESPACE_NAME, "hdfs://localhost:1234/warehouse");
+    catalog.createDatabase(DEFAULT_DATABASE_NAME, DEFAULT_TABLESPACE_NAME);
+    for (FunctionDesc funcDesc : TajoMaster.initBuiltinFunctions()) {
+      catalog.createFunction(funcDesc);
+    }
+    // a user-defined function of which the determinism is unknown
+    catalog.createFunction(new FunctionDesc("my_upper", Upper.class, FunctionType.UDF,
+        CatalogUtil.newSimpleDataType(Type.TEXT), CatalogUtil.newSimpleDataTypeArray(Type.TEXT)));
+
+    Schema schema = new Schema();
+    schema.addColumn("name", Type.TEXT);
+    schema.addColumn("empid", Type.INT4);
+    tablePath = CommonTestingUtil.getTestDir();
+    TableDesc employee = new TableDesc(CatalogUtil.buildFQName(TajoConstants.DEFAULT_DATABASE_NAME, "employee"),
+        schema, CatalogUtil.newTableMeta(StoreType.CSV), tablePath);
+    catalog.createTable(employee);
+
+    sqlAnalyzer = new SQLAnalyzer();
+    planner = new LogicalPlanner(catalog);
+    optimizer = new LogicalOptimizer(conf, catalog);
+  }
+
+  @AfterClass
+  public static void tearDown() throws Exception {
+    util.shutdownCatalogCluster();
+  }
+
+  private static LogicalPlan plan(Expr expr) throws Exception {
+    LogicalPlan plan = planner.createPlan(session, expr);
+    optimizer.optimize(plan);
+    return plan;
+  }
+
+  private static TableDesc createResult(QueryId queryId, long numBytes) throws Exception {
+    Path stagingDir = new Path(CommonTestingUtil.getTestDir(), queryId.toString());
+    Path resultDir = new Path(stagingDir, TajoConstants.RESULT_DIR_NAME);
+    FileSystem.getLocal(conf).mkdirs(resultDir);
+
+    Schema schema = new Schema();
+    schema.addColumn("name", Type.TEXT);
+    TableDesc desc = new TableDesc(queryId.toString(), schema, CatalogUtil.newTableMeta(StoreType.CSV), resultDir);
+    TableStats stats = new TableStats();
+    stats.setNumBytes(numBytes);
+    desc.setStats(stats);
+    return desc;
+  }
+
+  @Test
+  public void testCacheable() throws Exception {
+    Expr expr = sqlAnalyzer.parse("select name from employee where empid > 10");
+    assertTrue(ResultCache.isCacheable(expr, plan(expr)));
+
+    expr = sqlAnalyzer.parse("select name, random(10) from employee");
+    assertFalse(ResultCache.isCacheable(expr, plan(expr)));
+
+    // non-deterministic functions are found from the function descriptors wherever they are called.
+    expr = sqlAnalyzer.parse("select name from employee where empid > random(10)");
+    assertFalse(ResultCache.isCacheable(expr, plan(expr)));
+    expr = sqlAnalyzer.parse("select name, count(*) from employee group by name having count(*) > random(10)");
+    assertFalse(ResultCache.isCacheable(expr, plan(expr)));
+    expr = sqlAnalyzer.parse("select name, today() from employee");
+    assertFalse(ResultCache.isCacheable(expr, plan(expr)));
+    expr = sqlAnalyzer.parse("select my_upper(name) from employee");
+    assertFalse(ResultCache.isCacheable(expr, plan(expr)));
+
+    expr = sqlAnalyzer.parse("select upper(name), sum(empid) from employee group by upper(name)");
+    assertTrue(ResultCache.isCacheable(expr, plan(expr)));
+  }
+
+  @Test
+  public void testInputTableVersion() throws Exception {
+    ResultCache cache = new ResultCache(conf, 10, Long.MAX_VALUE);
+    String sql = "select name from employee where empid > 10";
+    String key = cache.getKey(plan(sqlAnalyzer.parse(sql)));
+    assertEquals(key, cache.getKey(plan(sqlAnalyzer.parse(sql))));
+    assertFalse(key.equals(cache.getKey(plan(sqlAnalyzer.parse("select name from employee where empid > 20")))));
+
+    // a new file in the table changes the key.
+    FSDataOutputStream out = FileSystem.getLocal(conf).create(new Path(tablePath, "data.csv"));
+    out.writeBytes("tajo|1\n");
+    out.close();
+    assertFalse(key.equals(cache.getKey(plan(sqlAnalyzer.parse(sql)))));
+  }
+
+  @Test
+  public void testFinishAndServe() throws Exception {
+    ResultCache cache = new ResultCache(conf, 10, Long.MAX_VALUE);
+    long seed = System.currentTimeMillis();
+    QueryId q1 = QueryIdFactory.newQueryId(seed, 1);
+    QueryId q2 = QueryIdFactory.newQueryId(seed, 2);
+    TableDesc result = createResult(q1, 10);
+
+    // results of unregistered or failed queries are not cached.
+    cache.finish(q1, result);
+    assertNull(cache.get("k1"));
+    cache.register(q2, "k2");
+    cache.finish(q2, null);
+    assertNull(cache.get("k2"));
+
+    cache.register(q1, "k1");
+    cache.finish(q1, result);
+    assertSame(result, cache.get("k1"));
+
+    QueryId q3 = QueryIdFactory.newQueryId(seed, 3);
+    assertNull(cache.getServedQuery(q3));
+    cache.addServedQuery(q3, result);
+    assertSame(result, cache.getServedQuery(q3));
+  }
+
+  @Test
+  public void testEviction() throws Exception {
+    ResultCache cache = new ResultCache(conf, 2, 100);
+    FileSystem fs = FileSystem.getLocal(conf);
+    long seed = System.currentTimeMillis();
+    QueryId [] queryIds = new QueryId[4];
+    TableDesc [] results = new TableDesc[4];
+    for (int i = 0; i < results.length; i++) {
+      queryIds[i] = QueryIdFactory.newQueryId(seed, i + 1);
+      results[i] = createResult(queryIds[i], i == 3 ? 95 : 10);
+      cache.register(queryIds[i], "k" + i);
+    }
+
+    cache.finish(queryIds[0], results[0]);
+    cache.finish(queryIds[1], results[1]);
+    assertNotNull(cache.get("k0"));
+    cache.finish(queryIds[2], results[2]);
+
+    // the least recently used one is evicted together with its staging directory.
+    assertEquals(2, cache.size());
+    assertNotNull(cache.get("k0"));
+    assertNull(cache.get("k1"));
+    assertFalse(fs.exists(results[1].getPath().getParent()));
+    assertTrue(fs.exists(results[0].getPath()));
+
+    // results are also evicted to keep the total volume.
+    cache.finish(queryIds[3], results[3]);
+    assertEquals(1, cache.size());
+    assertEquals(95, cache.getTotalBytes());
+    assertNotNull(cache.get("k3"));
+
+    cache.clear();
+    assertEquals(0, cache.size());
+    assertFalse(fs.exists(results[3].getPath()));
+  }
+
+  @Test
+  public void testEvictionOfResultsInUse() throws Exception {
+    ResultCache cache = new ResultCache(conf, 1, Long.MAX_VALUE);
+    FileSystem fs = FileSystem.getLocal(conf);
+    long seed = System.currentTimeMillis();
+    QueryId [] queryIds = new QueryId[3];
+    TableDesc [] results = new TableDesc[3];
+    for (int i = 0; i < results.length; i++) {
+      queryIds[i] = QueryIdFactory.newQueryId(seed, i + 1);
+      results[i] = createResult(queryIds[i], 10);
+      cache.register(queryIds[i], "k" + i);
+    }
+
+    // a result which a served query refers to is not removed until the query is released.
+    cache.finish(queryIds[0], results[0]);
+    QueryId served = QueryIdFactory.newQueryId(seed, 10);
+    cache.addServedQuery(served, results[0]);
+    cache.finish(queryIds[1], results[1]);
+    assertNull(cache.get("k0"));
+    assertTrue(fs.exists(results[0].getPath()));
+    assertSame(results[0], cache.getServedQuery(served));
+    cache.removeServedQuery(served);
+    assertNull(cache.getServedQuery(served));
+    assertFalse(fs.exists(results[0].getPath()));
+
+    // a result which is being read is removed when the last reader is released.
+    cache.acquireReader(results[1]);
+    cache.acquireReader(results[1]);
+    cache.finish(queryIds[2], results[2]);
+    assertNull(cache.get("k1"));
+    cache.releaseReader(results[1]);
+    assertTrue(fs.exists(results[1].getPath()));
+    cache.releaseReader(results[1]);
+    assertFalse(fs.exists(results[1].getPath()));
+
+    // clear() also keeps results in use.
+    cache.acquireReader(results[2]);
+    cache.clear();
+    assertTrue(fs.exists(results[2].getPath()));
+    cache.releaseReader(results[2]);
+    assertFalse(fs.exists(results[2].getPath()));
+
+    // releasing a result which is still cached does not remove it.
+    QueryId q4 = QueryIdFactory.newQueryId(seed, 4);
+    TableDesc result4 = createResult(q4, 10);
+    cache.register(q4, "k4");
+    cache.finish(q4, result4);
+    cache.acquireReader(result4);
+    cache.releaseReader(result4);
+    assertTrue(fs.exists(result4.getPath()));
+  }
+}
@@ -0,0 +1,117 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.master;
+
+import org.apache.hadoop.yarn.event.AbstractEvent;
+import org.apache.hadoop.yarn.event.Event;
+import org.apache.hadoop.yarn.event.EventHandler;
+import org.apache.tajo.conf.TajoConf;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class TestTajoAsyncDispatcher {
+  private static final int KEY_NUM = 16;
+  private static final int EVENT_NUM_PER_KEY = 1000;
+
+  enum TestEventType {
+    TEST
+  }
+
+  static class TestEvent extends AbstractEvent<TestEventType> {
+    private final int key;
+    private final int seq;
+
+    TestEvent(int key, int seq) {
+      super(TestEventType.TEST);
+      this.key = key;
+      this.seq = seq;
+    }
+  }
+
+  @Test
+  public void testOrderPerPartitionKey() throws Exception {
+    TajoAsyncDispatcher dispatcher = new TajoAsyncDispatcher("test", 4, new TajoAsyncDispatcher.Partitioner() {
+      @Override
+      public Object getPartitionKey(Event event) {
+        return ((TestEvent) event).key;
+      }
+    });
+
+    final Map<Integer, List<Integer>> handled = new HashMap<Integer, List<Integer>>();
+    final Set<String> threadNames = Collections.synchronizedSet(new HashSet<String>());
+    final CountDownLatch latch = new CountDownLatch(KEY_NUM * EVENT_NUM_PER_KEY);
+    for (int i = 0; i < KEY_NUM; i++) {
+      handled.put(i, Collections.synchronizedList(new ArrayList<Integer>()));
+    }
+
+    dispatcher.register(TestEventType.class, new EventHandler<TestEvent>() {
+      @Override
+      public void handle(TestEvent event) {
+        threadNames.add(Thread.currentThread().getName());
+        handled.get(event.key).add(event.seq);
+        latch.countDown();
+      }
+    });
+    dispatcher.init(new TajoConf());
+    dispatcher.start();
+
+    try {
+      for (int seq = 0; seq < EVENT_NUM_PER_KEY; seq++) {
+        for (int key = 0; key < KEY_NUM; key++) {
+          dispatcher.getEventHandler().handle(new TestEvent(key, seq));
+        }
+      }
+      assertTrue(latch.await(30, TimeUnit.SECONDS));
+
+      for (int key = 0; key < KEY_NUM; key++) {
+        List<Integer> seqs = handled.get(key);
+        assertEquals(EVENT_NUM_PER_KEY, seqs.size());
+        for (int seq = 0; seq < EVENT_NUM_PER_KEY; seq++) {
+          assertEquals(seq, seqs.get(seq).intValue());
+        }
+      }
+      assertTrue(threadNames.size() > 1);
+      assertEquals(0, dispatcher.getQueueSize());
+      assertEquals(KEY_NUM * EVENT_NUM_PER_KEY, dispatcher.getHandlerTimer().getCount());
+      assertTrue(dispatcher.getMetricSet().getMetrics().containsKey("maxQueueSize"));
+    } finally {
+      dispatcher.stop();
+    }
+  }
+
+  @Test
+  public void testNullPartitionKey() {
+    TajoAsyncDispatcher dispatcher = new TajoAsyncDispatcher("test", 4, new TajoAsyncDispatcher.Partitioner() {
+      @Override
+      public Object getPartitionKey(Event event) {
+        return null;
+      }
+    });
+    assertEquals(4, dispatcher.getThreadNum());
+    assertEquals(0, dispatcher.getPartition(new TestEvent(1, 0)));
+
+    // a dispatcher without a partitioner has only one thread
+    assertEquals(1, new TajoAsyncDispatcher("test").getThreadNum());
+  }
+}
@@ -0,0 +1,80 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.master.querymaster;
+
+import org.apache.tajo.ExecutionBlockId;
+import org.apache.tajo.QueryId;
+import org.apache.tajo.QueryIdFactory;
+import org.apache.tajo.QueryUnitAttemptId;
+import org.apache.tajo.TajoProtos.TaskAttemptState;
+import org.apache.tajo.ipc.TajoWorkerProtocol.TaskStatusProto;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class TestQueryMasterManagerService {
+
+  private static TaskStatusProto newStatus(ExecutionBlockId ebId) {
+    QueryUnitAttemptId attemptId = QueryIdFactory.newQueryUnitAttemptId(QueryIdFactory.newQueryUnitId(ebId), 0);
+    return TaskStatusProto.newBuilder()
+        .setId(attemptId.getProto())
+        .setWorkerName("worker1:28091")
+        .setProgress(0.5f)
+        .setState(TaskAttemptState.TA_RUNNING)
+        .build();
+  }
+
+  @Test
+  public void testGroupStatusesByQuery() {
+    QueryId queryId1 = QueryIdFactory.newQueryId(System.currentTimeMillis(), 1);
+    QueryId queryId2 = QueryIdFactory.newQueryId(System.currentTimeMillis(), 2);
+    ExecutionBlockId ebId1 = QueryIdFactory.newExecutionBlockId(queryId1, 1);
+    ExecutionBlockId ebId2 = QueryIdFactory.newExecutionBlockId(queryId1, 2);
+    ExecutionBlockId ebId3 = QueryIdFactory.newExecutionBlockId(queryId2, 1);
+
+    List<TaskStatusProto> statuses = new ArrayList<TaskStatusProto>();
+    statuses.add(newStatus(ebId1));
+    statuses.add(newStatus(ebId3));
+    statuses.add(newStatus(ebId2));
+    statuses.add(newStatus(ebId1));
+
+    Map<QueryId, List<TaskStatusProto>> grouped = QueryMasterManagerService.groupStatusesByQuery(statuses);
+    assertEquals(2, grouped.size());
+
+    // the statuses of different execution blocks of the same query are delivered together in their order.
+    List<TaskStatusProto> statusesOfQuery1 = grouped.get(queryId1);
+    assertEquals(3, statusesOfQuery1.size());
+    assertEquals(statuses.get(0), statusesOfQuery1.get(0));
+    assertEquals(statuses.get(2), statusesOfQuery1.get(1));
+    assertEquals(statuses.get(3), statusesOfQuery1.get(2));
+
+    List<TaskStatusProto> statusesOfQuery2 = grouped.get(queryId2);
+    assertEquals(1, statusesOfQuery2.size());
+    assertEquals(statuses.get(1), statusesOfQuery2.get(0));
+  }
+
+  @Test
+  public void testGroupEmptyStatuses() {
+    assertTrue(QueryMasterManagerService.groupStatusesByQuery(new ArrayList<TaskStatusProto>()).isEmpty());
+  }
+}
@@ -0,0 +1,173 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.master.querymaster;
+
+import org.apache.hadoop.yarn.event.EventHandler;
+import org.apache.tajo.ExecutionBlockId;
+import org.apache.tajo.QueryIdFactory;
+import org.apache.tajo.QueryUnitAttemptId;
+import org.apache.tajo.TajoProtos.TaskAttemptState;
+import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.ipc.TajoWorkerProtocol.TaskStatusProto;
+import org.apache.tajo.master.TajoAsyncDispatcher;
+import org.apache.tajo.master.event.*;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class TestQueryMasterTask {
+  private static final int ATTEMPT_NUM = 32;
+  private static final String SERVER_NAME = "worker1:28091";
+
+  private static TaskStatusProto newStatus(QueryUnitAttemptId attemptId, TaskAttemptState state) {
+    return TaskStatusProto.newBuilder()
+        .setId(attemptId.getProto())
+        .setWorkerName(SERVER_NAME)
+        .setProgress(0.5f)
+        .setState(state)
+        .build();
+  }
+
+  /**
+   * A status reported in a batch must be applied after the assignment of its attempt, even though the statuses of
+   * a batch belong to tasks handled by different dispatcher threads.
+   */
+  @Test
+  public void testStatusBatchAfterAssignment() throws Exception {
+    TajoAsyncDispatcher dispatcher =
+        new TajoAsyncDispatcher("test", 4, new QueryMasterTask.QueryEventPartitioner());
+
+    final Map<QueryUnitAttemptId, List<TaskAttemptEventType>> handled =
+        Collections.synchronizedMap(new HashMap<QueryUnitAttemptId, List<TaskAttemptEventType>>());
+    final CountDownLatch latch = new CountDownLatch(ATTEMPT_NUM * 2);
+    final EventHandler<TaskAttemptEvent> attemptHandler = new EventHandler<TaskAttemptEvent>() {
+      @Override
+      public void handle(TaskAttemptEvent event) {
+        if (event.getType() == TaskAttemptEventType.TA_ASSIGNED) {
+          // a slow assignment makes a status which overtakes it visible.
+          try {
+            Thread.sleep(10);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        }
+        List<TaskAttemptEventType> events = handled.get(event.getTaskAttemptId());
+        if (events == null) {
+          events = Collections.synchronizedList(new ArrayList<TaskAttemptEventType>());
+          handled.put(event.getTaskAttemptId(), events);
+        }
+        events.add(event.getType());
+        latch.countDown();
+      }
+    };
+    final AtomicInteger attemptEventNum = new AtomicInteger(0);
+    dispatcher.register(TaskAttemptEventType.class, new EventHandler<TaskAttemptEvent>() {
+      @Override
+      public void handle(TaskAttemptEvent event) {
+        attemptEventNum.incrementAndGet();
+        attemptHandler.handle(event);
+      }
+    });
+    final AtomicInteger batchEventNum = new AtomicInteger(0);
+    final QueryMasterTask.TaskStatusBatchEventHandler batchHandler =
+        new QueryMasterTask.TaskStatusBatchEventHandler(attemptHandler);
+    dispatcher.register(TaskStatusBatchEvent.EventType.class, new EventHandler<TaskStatusBatchEvent>() {
+      @Override
+      public void handle(TaskStatusBatchEvent event) {
+        batchEventNum.incrementAndGet();
+        batchHandler.handle(event);
+      }
+    });
+    dispatcher.init(new TajoConf());
+    dispatcher.start();
+
+    try {
+      ExecutionBlockId ebId =
+          QueryIdFactory.newExecutionBlockId(QueryIdFactory.newQueryId(System.currentTimeMillis(), 1));
+      List<QueryUnitAttemptId> attemptIds = new ArrayList<QueryUnitAttemptId>();
+      List<TaskStatusProto> statuses = new ArrayList<TaskStatusProto>();
+      Set<Integer> partitions = new HashSet<Integer>();
+      for (int i = 0; i < ATTEMPT_NUM; i++) {
+        QueryUnitAttemptId attemptId =
+            QueryIdFactory.newQueryUnitAttemptId(QueryIdFactory.newQueryUnitId(ebId, i + 1), 0);
+        attemptIds.add(attemptId);
+        partitions.add(dispatcher.getPartitionOfKey(attemptId.getQueryUnitId()));
+        // the last attempt is killed by the worker.
+        statuses.add(newStatus(attemptId,
+            i == ATTEMPT_NUM - 1 ? TaskAttemptState.TA_KILLED : TaskAttemptState.TA_RUNNING));
+        dispatcher.getEventHandler().handle(new TaskAttemptAssignedEvent(attemptId, null, "worker1", 28092));
+      }
+      QueryMasterTask.dispatchTaskStatuses(dispatcher, ebId.getQueryId(), SERVER_NAME, statuses);
+
+      assertTrue(latch.await(30, TimeUnit.SECONDS));
+      for (int i = 0; i < ATTEMPT_NUM; i++) {
+        TaskAttemptEventType expected =
+            i == ATTEMPT_NUM - 1 ? TaskAttemptEventType.TA_LOCAL_KILLED : TaskAttemptEventType.TA_UPDATE;
+        assertEquals(Arrays.asList(TaskAttemptEventType.TA_ASSIGNED, expected), handled.get(attemptIds.get(i)));
+      }
+
+      // a report is dispatched as one event per thread, and its statuses are not dispatched again.
+      assertEquals(partitions.size(), batchEventNum.get());
+      assertTrue(batchEventNum.get() <= dispatcher.getThreadNum());
+      assertEquals(ATTEMPT_NUM, attemptEventNum.get());
+    } finally {
+      dispatcher.stop();
+    }
+  }
+
+  @Test
+  public void testStatusBatchOfSingleThread() throws Exception {
+    TajoAsyncDispatcher dispatcher = new TajoAsyncDispatcher("test");
+    final AtomicInteger batchEventNum = new AtomicInteger(0);
+    final AtomicInteger statusNum = new AtomicInteger(0);
+    final CountDownLatch latch = new CountDownLatch(1);
+    dispatcher.register(TaskStatusBatchEvent.EventType.class, new EventHandler<TaskStatusBatchEvent>() {
+      @Override
+      public void handle(TaskStatusBatchEvent event) {
+        batchEventNum.incrementAndGet();
+        statusNum.addAndGet(event.getStatuses().size());
+        latch.countDown();
+      }
+    });
+    dispatcher.init(new TajoConf());
+    dispatcher.start();
+
+    try {
+      ExecutionBlockId ebId =
+          QueryIdFactory.newExecutionBlockId(QueryIdFactory.newQueryId(System.currentTimeMillis(), 1));
+      List<TaskStatusProto> statuses = new ArrayList<TaskStatusProto>();
+      for (int i = 0; i < ATTEMPT_NUM; i++) {
+        statuses.add(newStatus(QueryIdFactory.newQueryUnitAttemptId(QueryIdFactory.newQueryUnitId(ebId, i + 1), 0),
+            TaskAttemptState.TA_RUNNING));
+      }
+      QueryMasterTask.dispatchTaskStatuses(dispatcher, ebId.getQueryId(), SERVER_NAME, statuses);
+
+      assertTrue(latch.await(30, TimeUnit.SECONDS));
+      assertEquals(1, batchEventNum.get());
+      assertEquals(ATTEMPT_NUM, statusNum.get());
+    } finally {
+      dispatcher.stop();
+    }
+  }
+}
@@ -0,0 +1,142 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.worker;
+
+import org.apache.hadoop.fs.Path;
+import org.apache.tajo.ExecutionBlockId;
+import org.apache.tajo.QueryId;
+import org.apache.tajo.QueryIdFactory;
+import org.apache.tajo.catalog.proto.CatalogProtos.FragmentProto;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.storage.Tuple;
+import org.apache.tajo.storage.VTuple;
+import org.apache.tajo.storage.fragment.FileFragment;
+import org.apache.tajo.util.TUtil;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class TestBroadcastTableCache {
+
+  private static class CountingLoader implements BroadcastTableCache.Loader {
+    private int loads = 0;
+
+    @Override
+    public long load(Map<Tuple, List<Tuple>> table) throws IOException {
+      loads++;
+      Tuple key = new VTuple(1);
+      key.put(0, DatumFactory.createInt4(loads));
+      table.put(key, TUtil.newList(key));
+      return 100;
+    }
+  }
+
+  private static List<FragmentProto> fragments(String... paths) {
+    List<FragmentProto> fragments = TUtil.newList();
+    for (String path : paths) {
+      fragments.add(new FileFragment("default.small", new Path(path), 0, 100).getProto());
+    }
+    return fragments;
+  }
+
+  @Test
+  public void testLoadOnce() throws IOException {
+    MemoryManager memoryManager = new MemoryManager(1000);
+    BroadcastTableCache cache = new BroadcastTableCache(memoryManager);
+    ExecutionBlockId ebId = QueryIdFactory.newExecutionBlockId(QueryIdFactory.newQueryId(System.currentTimeMillis(), 1));
+    CountingLoader loader = new CountingLoader();
+
+    BroadcastTableCache.Key key1 = new BroadcastTableCache.Key(ebId, 1, fragments("/small/0", "/small/1"));
+    BroadcastTableCache.Key key2 = new BroadcastTableCache.Key(ebId, 1, fragments("/small/1", "/small/0"));
+    Map<Tuple, List<Tuple>> table1 = cache.acquire(key1, loader);
+    cache.release(key1);
+    Map<Tuple, List<Tuple>> table2 = cache.acquire(key2, loader);
+
+    assertSame(table1, table2);
+    assertEquals(1, loader.loads);
+    assertEquals(100, memoryManager.getReserved());
+
+    // another join of the same execution block has its own hash table
+    BroadcastTableCache.Key key3 = new BroadcastTableCache.Key(ebId, 2, fragments("/small/0", "/small/1"));
+    assertNotSame(table1, cache.acquire(key3, loader));
+    assertEquals(2, loader.loads);
+    assertEquals(200, memoryManager.getReserved());
+  }
+
+  @Test
+  public void testReleaseExecutionBlock() throws IOException {
+    MemoryManager memoryManager = new MemoryManager(1000);
+    BroadcastTableCache cache = new BroadcastTableCache(memoryManager);
+    QueryId queryId = QueryIdFactory.newQueryId(System.currentTimeMillis(), 2);
+    ExecutionBlockId eb1 = QueryIdFactory.newExecutionBlockId(queryId, 1);
+    ExecutionBlockId eb2 = QueryIdFactory.newExecutionBlockId(queryId, 2);
+    CountingLoader loader = new CountingLoader();
+
+    BroadcastTableCache.Key key1 = new BroadcastTableCache.Key(eb1, 1, fragments("/small/0"));
+    BroadcastTableCache.Key key2 = new BroadcastTableCache.Key(eb2, 1, fragments("/small/0"));
+    cache.acquire(key1, loader);
+    cache.acquire(key2, loader);
+    cache.release(key2);
+    assertEquals(2, cache.size());
+
+    // the hash table still used by an operator is removed when it is released
+    cache.releaseExecutionBlock(eb1);
+    assertEquals(2, cache.size());
+    cache.release(key1);
+    assertEquals(1, cache.size());
+    assertEquals(100, memoryManager.getReserved());
+
+    cache.releaseQuery(queryId);
+    assertEquals(0, cache.size());
+    assertEquals(0, memoryManager.getReserved());
+  }
+
+  @Test
+  public void testReloadAfterFailure() throws IOException {
+    MemoryManager memoryManager = new MemoryManager(1000);
+    BroadcastTableCache cache = new BroadcastTableCache(memoryManager);
+    ExecutionBlockId ebId = QueryIdFactory.newExecutionBlockId(QueryIdFactory.newQueryId(System.currentTimeMillis(), 3));
+    BroadcastTableCache.Key key = new BroadcastTableCache.Key(ebId, 1, fragments("/small/0"));
+
+    try {
+      cache.acquire(key, new BroadcastTableCache.Loader() {
+        @Override
+        public long load(Map<Tuple, List<Tuple>> table) throws IOException {
+          throw new IOException("failed to scan");
+        }
+      });
+      fail("the failure of the loader should be thrown");
+    } catch (IOException e) {
+      assertEquals("failed to scan", e.getMessage());
+    }
+
+    CountingLoader loader = new CountingLoader();
+    assertEquals(1, cache.acquire(key, loader).size());
+    assertEquals(1, loader.loads);
+
+    cache.release(key);
+    cache.releaseExecutionBlock(ebId);
+    assertEquals(0, cache.size());
+    assertEquals(0, memoryManager.getReserved());
+  }
+}
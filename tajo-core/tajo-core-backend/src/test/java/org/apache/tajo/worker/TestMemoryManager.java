@@ -0,0 +1,119 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.worker;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class TestMemoryManager {
+
+  private static class Consumer implements MemoryConsumer {
+    private final boolean spillable;
+    private boolean spillRequested = false;
+
+    Consumer(boolean spillable) {
+      this.spillable = spillable;
+    }
+
+    @Override
+    public boolean requestSpill() {
+      spillRequested = true;
+      return spillable;
+    }
+  }
+
+  @Test
+  public void testReserveAndRelease() {
+    MemoryManager manager = new MemoryManager(100);
+    Consumer c1 = new Consumer(true);
+    Consumer c2 = new Consumer(true);
+
+    assertTrue(manager.reserve(c1, 60));
+    assertTrue(manager.reserve(c2, 30));
+    assertEquals(90, manager.getReserved());
+    assertEquals(60, manager.getReserved(c1));
+
+    assertEquals(60, manager.release(c1));
+    assertEquals(0, manager.release(c1));
+    assertEquals(30, manager.getReserved());
+    assertTrue(manager.reserve(c2, 70));
+    assertEquals(100, manager.getReserved(c2));
+  }
+
+  @Test
+  public void testRequestSpillToLargestConsumer() {
+    MemoryManager manager = new MemoryManager(100);
+    Consumer small = new Consumer(true);
+    Consumer large = new Consumer(true);
+    Consumer requester = new Consumer(true);
+
+    assertTrue(manager.reserve(small, 20));
+    assertTrue(manager.reserve(large, 50));
+    assertTrue(manager.reserve(requester, 30));
+
+    assertFalse(manager.reserve(requester, 10));
+    assertEquals(100, manager.getReserved());
+    assertTrue(large.spillRequested);
+    assertFalse(small.spillRequested);
+    assertFalse(requester.spillRequested);
+  }
+
+  @Test
+  public void testForceReserve() {
+    MemoryManager manager = new MemoryManager(100);
+    Consumer unspillable = new Consumer(false);
+    Consumer spillable = new Consumer(true);
+    Consumer hashTable = new Consumer(false);
+
+    assertTrue(manager.reserve(unspillable, 50));
+    assertTrue(manager.reserve(spillable, 40));
+
+    // the largest consumer cannot spill, so the next one is requested
+    manager.forceReserve(hashTable, 30);
+    assertEquals(120, manager.getReserved());
+    assertTrue(unspillable.spillRequested);
+    assertTrue(spillable.spillRequested);
+    assertFalse(hashTable.spillRequested);
+  }
+
+  @Test
+  public void testFailedReservationIsNotRetried() {
+    TaskAttemptContext context = mock(TaskAttemptContext.class);
+    MemoryReservation reservation = new MemoryReservation(context);
+    when(context.reserveMemory(reservation, MemoryReservation.RESERVATION_UNIT)).thenReturn(true, false, true);
+
+    // the first unit covers many small additions.
+    for (int i = 0; i < 1024; i++) {
+      assertTrue(reservation.tryAdd(1024));
+    }
+    verify(context, times(1)).reserveMemory(reservation, MemoryReservation.RESERVATION_UNIT);
+
+    // a failed reservation is remembered until the memory is released.
+    for (int i = 0; i < 1024; i++) {
+      assertFalse(reservation.tryAdd(1024));
+    }
+    verify(context, times(2)).reserveMemory(reservation, MemoryReservation.RESERVATION_UNIT);
+
+    reservation.release();
+    assertTrue(reservation.tryAdd(1024));
+    verify(context, times(3)).reserveMemory(reservation, MemoryReservation.RESERVATION_UNIT);
+  }
+}
@@ -0,0 +1,150 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.worker;
+
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class TestTaskExecutor {
+
+  /**
+   * @return a task whose run() blocks until the task is aborted or the given latch is released
+   */
+  private static Task createBlockingTask(final CountDownLatch started, final CountDownLatch finish) {
+    final Task task = mock(Task.class);
+    doAnswer(new Answer<Object>() {
+      @Override
+      public Object answer(InvocationOnMock invocation) throws Throwable {
+        started.countDown();
+        finish.await(30, TimeUnit.SECONDS);
+        return null;
+      }
+    }).when(task).run();
+    doAnswer(new Answer<Object>() {
+      @Override
+      public Object answer(InvocationOnMock invocation) throws Throwable {
+        finish.countDown();
+        return null;
+      }
+    }).when(task).abort();
+    return task;
+  }
+
+  @Test
+  public void testRunInSubmittedOrder() throws Exception {
+    TaskExecutor executor = new TaskExecutor("test", 2);
+    executor.start();
+    try {
+      Task [] tasks = new Task[3];
+      for (int i = 0; i < tasks.length; i++) {
+        assertTrue(executor.acquireSlot(1, TimeUnit.SECONDS));
+        tasks[i] = mock(Task.class);
+        executor.submit(tasks[i]);
+      }
+
+      // all slots are released after the tasks are finished.
+      for (int i = 0; i < tasks.length; i++) {
+        assertTrue(executor.acquireSlot(10, TimeUnit.SECONDS));
+      }
+      InOrder inOrder = inOrder(tasks[0], tasks[1], tasks[2]);
+      for (Task task : tasks) {
+        inOrder.verify(task).run();
+      }
+    } finally {
+      assertTrue(executor.stop(10000));
+    }
+  }
+
+  @Test
+  public void testPrefetchSlots() throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch finish = new CountDownLatch(1);
+    TaskExecutor executor = new TaskExecutor("test", 1);
+    executor.start();
+    try {
+      assertTrue(executor.acquireSlot(1, TimeUnit.SECONDS));
+      Task running = createBlockingTask(started, finish);
+      executor.submit(running);
+      assertTrue(started.await(10, TimeUnit.SECONDS));
+
+      // only one task can be prefetched while another task is running.
+      assertTrue(executor.acquireSlot(1, TimeUnit.SECONDS));
+      Task prefetched = mock(Task.class);
+      executor.submit(prefetched);
+      assertEquals(1, executor.getPrefetchedNum());
+      assertFalse(executor.acquireSlot(100, TimeUnit.MILLISECONDS));
+
+      // a slot becomes available when the running task is finished.
+      finish.countDown();
+      assertTrue(executor.acquireSlot(10, TimeUnit.SECONDS));
+      executor.releaseSlot();
+      verify(prefetched, timeout(10000)).run();
+    } finally {
+      assertTrue(executor.stop(10000));
+    }
+  }
+
+  @Test
+  public void testNoPrefetch() throws Exception {
+    TaskExecutor executor = new TaskExecutor("test", 0);
+    assertTrue(executor.acquireSlot(1, TimeUnit.SECONDS));
+    assertFalse(executor.acquireSlot(100, TimeUnit.MILLISECONDS));
+    executor.releaseSlot();
+    assertTrue(executor.acquireSlot(1, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void testStopAbortsRunningAndPrefetchedTasks() throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch finish = new CountDownLatch(1);
+    TaskExecutor executor = new TaskExecutor("test", 2);
+    executor.start();
+
+    Task running = createBlockingTask(started, finish);
+    executor.submit(running);
+    assertTrue(started.await(10, TimeUnit.SECONDS));
+    Task prefetched1 = mock(Task.class);
+    Task prefetched2 = mock(Task.class);
+    executor.submit(prefetched1);
+    executor.submit(prefetched2);
+
+    // stop() returns after the executor thread is finished.
+    assertTrue(executor.stop(10000));
+    verify(running).abort();
+    verify(prefetched1).abort();
+    verify(prefetched2).abort();
+    verify(prefetched1, never()).run();
+    verify(prefetched2, never()).run();
+    assertEquals(0, executor.getPrefetchedNum());
+
+    // a task submitted after the executor is stopped never runs.
+    Task late = mock(Task.class);
+    executor.submit(late);
+    verify(late).abort();
+    verify(late, never()).run();
+  }
+}
@@ -0,0 +1,120 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.worker;
+
+import org.apache.tajo.ExecutionBlockId;
+import org.apache.tajo.QueryIdFactory;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.engine.planner.logical.LimitNode;
+import org.apache.tajo.engine.planner.logical.LogicalNode;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class TestTaskRunner {
+  private ExecutionBlockId ebId;
+  private LimitNode limitNode;
+
+  @Before
+  public void setUp() {
+    ebId = QueryIdFactory.newExecutionBlockId(QueryIdFactory.newQueryId(System.currentTimeMillis(), 1));
+
+    Schema schema = new Schema();
+    schema.addColumn("id", Type.INT4);
+    limitNode = new LimitNode(1);
+    limitNode.setInSchema(schema);
+    limitNode.setOutSchema(schema);
+    limitNode.setFetchFirst(10);
+  }
+
+  /**
+   * @return A TaskRunner which gets the plan from the given string instead of the QueryMaster
+   */
+  private TaskRunner createTaskRunner(final String planInQueryMaster, final AtomicInteger requestNum) {
+    return createTaskRunner(null, planInQueryMaster, requestNum);
+  }
+
+  private TaskRunner createTaskRunner(TaskRunnerManager manager, final String planInQueryMaster,
+                                      final AtomicInteger requestNum) {
+    String [] args = new String[] {
+        "", ebId.toString(), "localhost:28091", "container_1396262212341_0001_01_000002", "localhost", "28093"};
+    return new TaskRunner(manager, new TajoConf(), args) {
+      @Override
+      String requestPlan() throws IOException {
+        requestNum.incrementAndGet();
+        return planInQueryMaster;
+      }
+    };
+  }
+
+  @Test
+  public void testPlanDeliveredWithFirstTask() throws Exception {
+    AtomicInteger requestNum = new AtomicInteger(0);
+    TaskRunner.TaskRunnerContext context = createTaskRunner("", requestNum).getContext();
+
+    LogicalNode first = context.getPlan(limitNode.toJson());
+    LogicalNode second = context.getPlan("");
+    assertEquals(limitNode, first);
+    assertEquals(limitNode, second);
+    // each task gets its own copy.
+    assertNotSame(first, second);
+    assertEquals(0, requestNum.get());
+  }
+
+  @Test
+  public void testFirstTaskLost() throws Exception {
+    AtomicInteger requestNum = new AtomicInteger(0);
+    // The QueryMaster sent the plan with the first task, but the task did not reach this TaskRunner.
+    // So, the next tasks come without the plan.
+    TaskRunner.TaskRunnerContext context = createTaskRunner(limitNode.toJson(), requestNum).getContext();
+
+    assertEquals(limitNode, context.getPlan(""));
+    assertEquals(1, requestNum.get());
+
+    // the plan is requested only once.
+    assertEquals(limitNode, context.getPlan(""));
+    assertEquals(1, requestNum.get());
+  }
+
+  @Test
+  public void testPlanSharedInWorker() throws Exception {
+    AtomicInteger requestNum = new AtomicInteger(0);
+    TaskRunnerManager manager = new TaskRunnerManager(null);
+    TaskRunner.TaskRunnerContext first = createTaskRunner(manager, "", requestNum).getContext();
+    TaskRunner.TaskRunnerContext second = createTaskRunner(manager, "", requestNum).getContext();
+
+    // The QueryMaster sends the plan only with the first task of a worker.
+    assertEquals(limitNode, first.getPlan(limitNode.toJson()));
+    assertEquals(limitNode, second.getPlan(""));
+    assertEquals(0, requestNum.get());
+  }
+
+  @Test(expected = IOException.class)
+  public void testNoPlanInQueryMaster() throws Exception {
+    AtomicInteger requestNum = new AtomicInteger(0);
+    TaskRunner.TaskRunnerContext context = createTaskRunner("", requestNum).getContext();
+    context.getPlan("");
+  }
+}
@@ -0,0 +1,155 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.worker;
+
+import org.apache.tajo.ExecutionBlockId;
+import org.apache.tajo.QueryIdFactory;
+import org.apache.tajo.QueryUnitAttemptId;
+import org.apache.tajo.TajoProtos.TaskAttemptState;
+import org.apache.tajo.ipc.TajoWorkerProtocol.StatusReportProto;
+import org.apache.tajo.ipc.TajoWorkerProtocol.TaskStatusProto;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class TestTaskStatusAggregator {
+  private static final String SERVER_NAME = "worker1:28091";
+
+  private final InetSocketAddress qm1 = InetSocketAddress.createUnresolved("qm1", 28093);
+  private final InetSocketAddress qm2 = InetSocketAddress.createUnresolved("qm2", 28093);
+
+  private ExecutionBlockId ebId;
+  private TaskStatusAggregator aggregator;
+
+  @Before
+  public void setUp() {
+    ebId = QueryIdFactory.newExecutionBlockId(QueryIdFactory.newQueryId(System.currentTimeMillis(), 1));
+    aggregator = new TaskStatusAggregator(mock(TajoWorker.WorkerContext.class));
+  }
+
+  private QueryUnitAttemptId newAttemptId() {
+    return QueryIdFactory.newQueryUnitAttemptId(QueryIdFactory.newQueryUnitId(ebId), 0);
+  }
+
+  private static TaskStatusProto newStatus(QueryUnitAttemptId attemptId, float progress) {
+    return TaskStatusProto.newBuilder()
+        .setId(attemptId.getProto())
+        .setWorkerName(SERVER_NAME)
+        .setProgress(progress)
+        .setState(TaskAttemptState.TA_RUNNING)
+        .build();
+  }
+
+  /**
+   * @param progressChanged whether the progress of the task is changed since the last report
+   * @param progresses the progresses returned by each call of getReport()
+   */
+  private static Task createTask(QueryUnitAttemptId attemptId, boolean progressChanged, Float... progresses) {
+    Task task = mock(Task.class);
+    TaskAttemptContext context = mock(TaskAttemptContext.class);
+    when(task.getId()).thenReturn(attemptId);
+    when(task.getContext()).thenReturn(context);
+    when(context.isPorgressChanged()).thenReturn(progressChanged);
+    if (progresses.length > 0) {
+      TaskStatusProto [] statuses = new TaskStatusProto[progresses.length];
+      for (int i = 0; i < progresses.length; i++) {
+        statuses[i] = newStatus(attemptId, progresses[i]);
+      }
+      when(task.getReport()).thenReturn(statuses[0], Arrays.copyOfRange(statuses, 1, statuses.length));
+    }
+    return task;
+  }
+
+  @Test
+  public void testGroupByQueryMaster() {
+    QueryUnitAttemptId id1 = newAttemptId();
+    QueryUnitAttemptId id2 = newAttemptId();
+    QueryUnitAttemptId id3 = newAttemptId();
+    Task changed = createTask(id1, true, 0.5f);
+    Task notChanged = createTask(id2, false);
+    Task ofAnotherQueryMaster = createTask(id3, true, 0.1f);
+
+    aggregator.register(qm1, changed);
+    aggregator.register(qm1, notChanged);
+    aggregator.register(qm2, ofAnotherQueryMaster);
+
+    Map<InetSocketAddress, StatusReportProto> reports = aggregator.buildReports(SERVER_NAME);
+    assertEquals(2, reports.size());
+
+    // a task whose progress is changed is reported with its status, and the other is reported as a ping.
+    StatusReportProto report1 = reports.get(qm1);
+    assertEquals(SERVER_NAME, report1.getServerName());
+    assertEquals(1, report1.getStatusCount());
+    assertEquals(id1.getProto(), report1.getStatus(0).getId());
+    assertEquals(1, report1.getPingsCount());
+    assertEquals(id2.getProto(), report1.getPings(0));
+    verify(notChanged, never()).getReport();
+
+    StatusReportProto report2 = reports.get(qm2);
+    assertEquals(1, report2.getStatusCount());
+    assertEquals(id3.getProto(), report2.getStatus(0).getId());
+    assertEquals(0, report2.getPingsCount());
+  }
+
+  @Test
+  public void testLatestStatusPerAttempt() {
+    QueryUnitAttemptId id = newAttemptId();
+    Task task = createTask(id, true, 0.3f, 0.6f);
+
+    // a task registered twice is reported only once.
+    aggregator.register(qm1, task);
+    aggregator.register(qm1, task);
+
+    StatusReportProto report = aggregator.buildReports(SERVER_NAME).get(qm1);
+    assertEquals(1, report.getStatusCount());
+    assertEquals(0.3f, report.getStatus(0).getProgress(), 0.0f);
+
+    // each report carries the status at the time when it is built.
+    report = aggregator.buildReports(SERVER_NAME).get(qm1);
+    assertEquals(1, report.getStatusCount());
+    assertEquals(0.6f, report.getStatus(0).getProgress(), 0.0f);
+    verify(task, times(2)).updateProgress();
+  }
+
+  @Test
+  public void testStoppedAndUnregisteredTasks() {
+    Task stopped = createTask(newAttemptId(), true, 1.0f);
+    when(stopped.isStopped()).thenReturn(true);
+    Task running = createTask(newAttemptId(), false);
+
+    aggregator.register(qm1, stopped);
+    aggregator.register(qm2, running);
+
+    // a QueryMaster which has no running task receives no report.
+    Map<InetSocketAddress, StatusReportProto> reports = aggregator.buildReports(SERVER_NAME);
+    assertEquals(1, reports.size());
+    assertTrue(reports.containsKey(qm2));
+    verify(stopped, never()).getReport();
+
+    aggregator.unregister(qm2, running);
+    aggregator.unregister(qm1, stopped);
+    assertTrue(aggregator.buildReports(SERVER_NAME).isEmpty());
+  }
+}
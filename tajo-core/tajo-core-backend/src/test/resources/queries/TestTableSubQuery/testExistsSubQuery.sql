@@ -0,0 +1,8 @@
+SELECT
+  r_regionkey, r_name
+FROM
+  region
+WHERE
+  EXISTS (SELECT * FROM nation WHERE n_regionkey = r_regionkey AND n_name LIKE 'A%')
+ORDER BY
+  r_regionkey;
\ No newline at end of file
@@ -0,0 +1 @@
+SELECT n_nationkey, n_name FROM nation WHERE n_nationkey IN (SELECT c_nationkey FROM customer) ORDER BY n_nationkey;
\ No newline at end of file
@@ -0,0 +1,8 @@
+SELECT
+  n_nationkey, n_name
+FROM
+  nation
+WHERE
+  NOT EXISTS (SELECT * FROM customer WHERE c_nationkey = n_nationkey) AND n_regionkey = 1
+ORDER BY
+  n_nationkey;
\ No newline at end of file
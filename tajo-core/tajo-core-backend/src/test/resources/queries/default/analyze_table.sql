@@ -0,0 +1 @@
+analyze table abc
\ No newline at end of file
@@ -0,0 +1 @@
+create unique index idx_l_orderkey on lineitem using bst (l_orderkey desc null first)
\ No newline at end of file
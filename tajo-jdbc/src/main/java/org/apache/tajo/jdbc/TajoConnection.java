@@ -22,6 +22,7 @@ import com.google.protobuf.ServiceException;
 import org.apache.tajo.TajoConstants;
 import org.apache.tajo.client.TajoClient;
 import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.util.NetUtils;
 import org.jboss.netty.handler.codec.http.QueryStringDecoder;
 
 import java.net.URI;
@@ -100,7 +101,7 @@ public class TajoConnection implements Connection {
     }
 
     try {
-      tajoClient = new TajoClient(hostName, port, databaseName);
+      tajoClient = new TajoClient(tajoConf, NetUtils.createSocketAddr(hostName, port), databaseName);
     } catch (Exception e) {
       throw new SQLException("Cannot create TajoClient instance:" + e.getMessage(), "TAJO-002");
     }
@@ -22,7 +22,7 @@ import com.google.protobuf.Descriptors.MethodDescriptor;
 import com.google.protobuf.*;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.apache.tajo.rpc.RpcProtos.RpcRequest;
+import org.apache.tajo.conf.TajoConf;
 import org.apache.tajo.rpc.RpcProtos.RpcResponse;
 import org.apache.tajo.util.NetUtils;
 import org.jboss.netty.channel.*;
@@ -58,11 +58,12 @@ public class AsyncRpcClient extends NettyClientBase {
    */
   AsyncRpcClient(final Class<?> protocol,
                  final InetSocketAddress addr) throws Exception {
-    this(protocol, addr, RpcChannelFactory.getSharedClientChannelFactory());
+    this(protocol, addr, RpcChannelFactory.getSharedClientChannelFactory(), new TajoConf());
   }
 
   AsyncRpcClient(final Class<?> protocol,
-                        final InetSocketAddress addr, ClientSocketChannelFactory factory)
+                 final InetSocketAddress addr, ClientSocketChannelFactory factory,
+                 TajoConf conf)
       throws Exception {
 
     this.protocol = protocol;
@@ -73,7 +74,9 @@ public class AsyncRpcClient extends NettyClientBase {
 
     this.handler = new ClientChannelUpstreamHandler();
     pipeFactory = new ProtoPipelineFactory(handler,
-        RpcResponse.getDefaultInstance());
+        RpcResponse.getDefaultInstance(), conf);
+    setWriteCoalescing(conf.getBoolVar(TajoConf.ConfVars.RPC_CLIENT_WRITE_COALESCING_ENABLED));
+    setMaxFrameSize(conf.getIntVar(TajoConf.ConfVars.RPC_MAX_FRAME_SIZE));
     super.init(addr, pipeFactory, factory);
     rpcChannel = new ProxyRpcChannel();
     this.key = new RpcConnectionKey(addr, protocol, true);
@@ -84,6 +87,14 @@ public class AsyncRpcClient extends NettyClientBase {
     return key;
   }
 
+  @Override
+  protected void writeFailed(int seqId, Throwable cause) {
+    ResponseCallback callback = requests.remove(seqId);
+    if (callback != null) {
+      callback.run(RpcResponse.newBuilder().setId(seqId).setErrorMessage(cause.toString()).build());
+    }
+  }
+
   @Override
   public <T> T getStub() {
     try {
@@ -118,27 +129,12 @@ public class AsyncRpcClient extends NettyClientBase {
 
       int nextSeqId = sequence.getAndIncrement();
 
-      Message rpcRequest = buildRequest(nextSeqId, method, param);
+      DirectRpcRequest rpcRequest = new DirectRpcRequest(nextSeqId, method.getName(), param);
 
       handler.registerCallback(nextSeqId,
           new ResponseCallback(controller, responseType, done));
 
-      getChannel().write(rpcRequest);
-    }
-
-    private Message buildRequest(int seqId,
-                                 MethodDescriptor method,
-                                 Message param) {
-
-      RpcRequest.Builder requestBuilder = RpcRequest.newBuilder()
-          .setId(seqId)
-          .setMethodName(method.getName());
-
-      if (param != null) {
-          requestBuilder.setRequestMessage(param.toByteString());
-      }
-
-      return requestBuilder.build();
+      write(rpcRequest);
     }
   }
 
@@ -220,7 +216,11 @@ public class AsyncRpcClient extends NettyClientBase {
       LOG.error(getRemoteAddress() + "," + protocol + "," + e.getCause().getMessage(), e.getCause());
 
       for(Map.Entry<Integer, ResponseCallback> callbackEntry: requests.entrySet()) {
-        ResponseCallback callback = callbackEntry.getValue();
+        // a callback may be already run by a failed write
+        ResponseCallback callback = requests.remove(callbackEntry.getKey());
+        if (callback == null) {
+          continue;
+        }
         Integer id = callbackEntry.getKey();
 
         RpcResponse.Builder responseBuilder = RpcResponse.newBuilder()
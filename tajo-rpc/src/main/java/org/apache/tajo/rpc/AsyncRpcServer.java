@@ -25,6 +25,7 @@ import com.google.protobuf.RpcController;
 import com.google.protobuf.Service;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.apache.tajo.conf.TajoConf;
 import org.apache.tajo.rpc.RpcProtos.RpcRequest;
 import org.apache.tajo.rpc.RpcProtos.RpcResponse;
 import org.jboss.netty.channel.*;
@@ -43,6 +44,15 @@ public class AsyncRpcServer extends NettyServerBase {
                         final InetSocketAddress bindAddress,
                         final int workerNum)
       throws Exception {
+    this(protocol, instance, bindAddress, workerNum, new TajoConf());
+  }
+
+  public AsyncRpcServer(final Class<?> protocol,
+                        final Object instance,
+                        final InetSocketAddress bindAddress,
+                        final int workerNum,
+                        final TajoConf conf)
+      throws Exception {
     super(protocol.getSimpleName(), bindAddress);
 
     String serviceClassName = protocol.getName() + "$" +
@@ -54,7 +64,7 @@ public class AsyncRpcServer extends NettyServerBase {
 
     ServerHandler handler = new ServerHandler();
     this.pipeline = new ProtoPipelineFactory(handler,
-        RpcRequest.getDefaultInstance());
+        RpcRequest.getDefaultInstance(), conf);
     super.init(this.pipeline, workerNum);
   }
 
@@ -25,7 +25,7 @@ import com.google.protobuf.RpcController;
 import com.google.protobuf.ServiceException;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
-import org.apache.tajo.rpc.RpcProtos.RpcRequest;
+import org.apache.tajo.conf.TajoConf;
 import org.apache.tajo.rpc.RpcProtos.RpcResponse;
 import org.apache.tajo.util.NetUtils;
 import org.jboss.netty.channel.*;
@@ -61,11 +61,12 @@ public class BlockingRpcClient extends NettyClientBase {
    */
   BlockingRpcClient(final Class<?> protocol,
                  final InetSocketAddress addr) throws Exception {
-    this(protocol, addr, RpcChannelFactory.getSharedClientChannelFactory());
+    this(protocol, addr, RpcChannelFactory.getSharedClientChannelFactory(), new TajoConf());
   }
 
   BlockingRpcClient(final Class<?> protocol,
-                           final InetSocketAddress addr, ClientSocketChannelFactory factory)
+                    final InetSocketAddress addr, ClientSocketChannelFactory factory,
+                    TajoConf conf)
       throws Exception {
 
     this.protocol = protocol;
@@ -77,7 +78,9 @@ public class BlockingRpcClient extends NettyClientBase {
 
     this.handler = new ClientChannelUpstreamHandler();
     pipeFactory = new ProtoPipelineFactory(handler,
-        RpcResponse.getDefaultInstance());
+        RpcResponse.getDefaultInstance(), conf);
+    setWriteCoalescing(conf.getBoolVar(TajoConf.ConfVars.RPC_CLIENT_WRITE_COALESCING_ENABLED));
+    setMaxFrameSize(conf.getIntVar(TajoConf.ConfVars.RPC_MAX_FRAME_SIZE));
     super.init(addr, pipeFactory, factory);
     rpcChannel = new ProxyRpcChannel();
 
@@ -89,6 +92,14 @@ public class BlockingRpcClient extends NettyClientBase {
     return key;
   }
 
+  @Override
+  protected void writeFailed(int seqId, Throwable cause) {
+    ProtoCallFuture callFuture = requests.remove(seqId);
+    if (callFuture != null) {
+      callFuture.setFailed(cause.getMessage(), cause);
+    }
+  }
+
   @Override
   public <T> T getStub() {
     try {
@@ -125,12 +136,12 @@ public class BlockingRpcClient extends NettyClientBase {
 
       int nextSeqId = sequence.getAndIncrement();
 
-      Message rpcRequest = buildRequest(nextSeqId, method, param);
+      DirectRpcRequest rpcRequest = new DirectRpcRequest(nextSeqId, method.getName(), param);
 
       ProtoCallFuture callFuture =
           new ProtoCallFuture(controller, responsePrototype);
       requests.put(nextSeqId, callFuture);
-      getChannel().write(rpcRequest);
+      write(rpcRequest);
 
       try {
         return callFuture.get();
@@ -143,20 +154,6 @@ public class BlockingRpcClient extends NettyClientBase {
         }
       }
     }
-
-    private Message buildRequest(int seqId,
-                                 MethodDescriptor method,
-                                 Message param) {
-      RpcRequest.Builder requestBuilder = RpcRequest.newBuilder()
-          .setId(seqId)
-          .setMethodName(method.getName());
-
-      if (param != null) {
-        requestBuilder.setRequestMessage(param.toByteString());
-      }
-
-      return requestBuilder.build();
-    }
   }
 
   private String getErrorMessage(String message) {
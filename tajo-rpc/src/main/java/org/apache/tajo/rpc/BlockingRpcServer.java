@@ -25,6 +25,7 @@ import com.google.protobuf.RpcController;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.jboss.netty.channel.*;
+import org.apache.tajo.conf.TajoConf;
 import org.apache.tajo.rpc.RpcProtos.RpcRequest;
 import org.apache.tajo.rpc.RpcProtos.RpcResponse;
 
@@ -41,6 +42,15 @@ public class BlockingRpcServer extends NettyServerBase {
                            final InetSocketAddress bindAddress,
                            final int workerNum)
       throws Exception {
+    this(protocol, instance, bindAddress, workerNum, new TajoConf());
+  }
+
+  public BlockingRpcServer(final Class<?> protocol,
+                           final Object instance,
+                           final InetSocketAddress bindAddress,
+                           final int workerNum,
+                           final TajoConf conf)
+      throws Exception {
 
     super(protocol.getSimpleName(), bindAddress);
 
@@ -54,7 +64,7 @@ public class BlockingRpcServer extends NettyServerBase {
 
     this.service = (BlockingService) method.invoke(null, instance);
     this.pipeline = new ProtoPipelineFactory(new ServerHandler(),
-        RpcRequest.getDefaultInstance());
+        RpcRequest.getDefaultInstance(), conf);
 
     super.init(this.pipeline, workerNum);
   }
@@ -0,0 +1,66 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.rpc;
+
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.MessageLite;
+import org.apache.tajo.rpc.RpcProtos.RpcRequest;
+
+import java.io.IOException;
+
+/**
+ * DirectRpcRequest is written in the same format as {@link RpcRequest}, but its parameter is serialized directly
+ * into the output instead of being copied into a ByteString first.
+ */
+class DirectRpcRequest {
+  private final int id;
+  private final String methodName;
+  private final MessageLite param;
+
+  /**
+   * @param param The parameter of a call. It can be NULL.
+   */
+  DirectRpcRequest(int id, String methodName, MessageLite param) {
+    this.id = id;
+    this.methodName = methodName;
+    this.param = param;
+  }
+
+  int getId() {
+    return id;
+  }
+
+  int getSerializedSize() {
+    int size = CodedOutputStream.computeInt32Size(RpcRequest.ID_FIELD_NUMBER, id)
+        + CodedOutputStream.computeStringSize(RpcRequest.METHOD_NAME_FIELD_NUMBER, methodName);
+    if (param != null) {
+      // a message field and a bytes field are encoded in the same way
+      size += CodedOutputStream.computeMessageSize(RpcRequest.REQUEST_MESSAGE_FIELD_NUMBER, param);
+    }
+    return size;
+  }
+
+  void writeTo(CodedOutputStream output) throws IOException {
+    output.writeInt32(RpcRequest.ID_FIELD_NUMBER, id);
+    output.writeString(RpcRequest.METHOD_NAME_FIELD_NUMBER, methodName);
+    if (param != null) {
+      output.writeMessage(RpcRequest.REQUEST_MESSAGE_FIELD_NUMBER, param);
+    }
+  }
+}
@@ -23,12 +23,17 @@ import org.apache.commons.logging.LogFactory;
 import org.jboss.netty.bootstrap.ClientBootstrap;
 import org.jboss.netty.channel.Channel;
 import org.jboss.netty.channel.ChannelFuture;
+import org.jboss.netty.channel.ChannelFutureListener;
 import org.jboss.netty.channel.ChannelPipelineFactory;
 import org.jboss.netty.channel.socket.ClientSocketChannelFactory;
+import org.jboss.netty.handler.codec.frame.TooLongFrameException;
 
 import java.io.Closeable;
 import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 public abstract class NettyClientBase implements Closeable {
   private static Log LOG = LogFactory.getLog(NettyClientBase.class);
@@ -36,12 +41,25 @@ public abstract class NettyClientBase implements Closeable {
   protected ClientBootstrap bootstrap;
   private ChannelFuture channelFuture;
 
+  private boolean writeCoalescing = false;
+  private int maxFrameSize = Integer.MAX_VALUE;
+  private final Object writeLock = new Object();
+  // the requests issued while the previous write is in progress
+  private List<DirectRpcRequest> pendingWrites = new ArrayList<DirectRpcRequest>();
+  private boolean writing = false;
+
   public NettyClientBase() {
   }
 
   public abstract <T> T getStub();
   public abstract RpcConnectionPool.RpcConnectionKey getKey();
 
+  /**
+   * It is called when a request cannot be written. The caller of the request should get the failure
+   * because no response will come for it.
+   */
+  protected abstract void writeFailed(int seqId, Throwable cause);
+
   public void init(InetSocketAddress addr, ChannelPipelineFactory pipeFactory, ClientSocketChannelFactory factory)
       throws IOException {
     try {
@@ -70,6 +88,102 @@ public abstract class NettyClientBase implements Closeable {
     }
   }
 
+  void setWriteCoalescing(boolean writeCoalescing) {
+    this.writeCoalescing = writeCoalescing;
+  }
+
+  /**
+   * @param maxFrameSize The max bytes of a request, excluding its length field
+   */
+  void setMaxFrameSize(int maxFrameSize) {
+    this.maxFrameSize = maxFrameSize;
+  }
+
+  /**
+   * Writes a request to the channel. If write coalescing is enabled, requests issued while the previous write
+   * is in progress are written at once when it completes. So, concurrent callers share one write and
+   * its system call without waiting for a timer.
+   *
+   * If a write fails, all requests of the write are failed by {@link #writeFailed(int, Throwable)}.
+   */
+  protected void write(DirectRpcRequest request) {
+    // an oversized request is rejected before it joins a batch, so it does not fail other requests.
+    int size = request.getSerializedSize();
+    if (size > maxFrameSize) {
+      writeFailed(request.getId(), new TooLongFrameException("The request " + request.getId() + " is " + size
+          + " bytes, which exceeds the max frame size " + maxFrameSize));
+      return;
+    }
+
+    if (!writeCoalescing) {
+      ChannelFuture future = getChannel().write(request);
+      future.addListener(new WriteListener(request));
+      return;
+    }
+
+    synchronized (writeLock) {
+      pendingWrites.add(request);
+      if (writing) {
+        return;
+      }
+      writing = true;
+    }
+    flushPendingWrites();
+  }
+
+  private void flushPendingWrites() {
+    while (true) {
+      List<DirectRpcRequest> requests;
+      synchronized (writeLock) {
+        if (pendingWrites.isEmpty()) {
+          writing = false;
+          return;
+        }
+        requests = pendingWrites;
+        pendingWrites = new ArrayList<DirectRpcRequest>();
+      }
+
+      // a list of requests is encoded into one buffer by ProtoFrameEncoder
+      ChannelFuture future = getChannel().write(requests.size() == 1 ? requests.get(0) : requests);
+      if (!future.isDone()) {
+        future.addListener(new WriteListener(requests, true));
+        return;
+      }
+      checkWrite(future, requests);
+    }
+  }
+
+  private void checkWrite(ChannelFuture future, List<DirectRpcRequest> requests) {
+    if (!future.isSuccess()) {
+      for (DirectRpcRequest request : requests) {
+        writeFailed(request.getId(), future.getCause());
+      }
+    }
+  }
+
+  private class WriteListener implements ChannelFutureListener {
+    private final List<DirectRpcRequest> requests;
+    // if true, the next pending requests are written after this write
+    private final boolean flush;
+
+    WriteListener(List<DirectRpcRequest> requests, boolean flush) {
+      this.requests = requests;
+      this.flush = flush;
+    }
+
+    WriteListener(DirectRpcRequest request) {
+      this(Collections.singletonList(request), false);
+    }
+
+    @Override
+    public void operationComplete(ChannelFuture future) throws Exception {
+      checkWrite(future, requests);
+      if (flush) {
+        flushPendingWrites();
+      }
+    }
+  }
+
   public boolean isConnected() {
     return getChannel().isConnected();
   }
@@ -0,0 +1,120 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.rpc;
+
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.MessageLite;
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBufferOutputStream;
+import org.jboss.netty.channel.Channel;
+import org.jboss.netty.channel.ChannelHandler.Sharable;
+import org.jboss.netty.channel.ChannelHandlerContext;
+import org.jboss.netty.handler.codec.frame.TooLongFrameException;
+import org.jboss.netty.handler.codec.oneone.OneToOneEncoder;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * ProtoFrameEncoder serializes protobuf messages into length-prefixed frames. It writes each message directly into
+ * a buffer of the exact frame size, taken from the buffer factory of the channel.
+ *
+ * A list of messages is encoded into one buffer which contains a frame for each message, so that
+ * the messages are sent by one write.
+ */
+@Sharable
+public class ProtoFrameEncoder extends OneToOneEncoder {
+  private static final int LENGTH_FIELD_SIZE = 4;
+
+  private final int maxFrameSize;
+
+  /**
+   * @param maxFrameSize The max bytes of a message, excluding its length field
+   */
+  public ProtoFrameEncoder(int maxFrameSize) {
+    this.maxFrameSize = maxFrameSize;
+  }
+
+  @Override
+  protected Object encode(ChannelHandlerContext ctx, Channel channel, Object msg) throws Exception {
+    if (msg instanceof List) {
+      List<?> messages = (List<?>) msg;
+      int [] sizes = new int[messages.size()];
+      int totalSize = 0;
+      for (int i = 0; i < sizes.length; i++) {
+        sizes[i] = getSerializedSize(messages.get(i));
+        totalSize += LENGTH_FIELD_SIZE + sizes[i];
+      }
+
+      ChannelBuffer buffer = channel.getConfig().getBufferFactory().getBuffer(totalSize);
+      for (int i = 0; i < sizes.length; i++) {
+        writeFrame(buffer, messages.get(i), sizes[i]);
+      }
+      return buffer;
+
+    } else if (msg instanceof MessageLite || msg instanceof DirectRpcRequest) {
+      int size = getSerializedSize(msg);
+      ChannelBuffer buffer = channel.getConfig().getBufferFactory().getBuffer(LENGTH_FIELD_SIZE + size);
+      writeFrame(buffer, msg, size);
+      return buffer;
+
+    } else {
+      return msg;
+    }
+  }
+
+  private int getSerializedSize(Object msg) throws TooLongFrameException {
+    int size;
+    if (msg instanceof DirectRpcRequest) {
+      size = ((DirectRpcRequest) msg).getSerializedSize();
+    } else {
+      size = ((MessageLite) msg).getSerializedSize();
+    }
+
+    if (size > maxFrameSize) {
+      throw new TooLongFrameException("The message of " + msg.getClass().getSimpleName() + " is " + size
+          + " bytes, which exceeds the max frame size " + maxFrameSize);
+    }
+    return size;
+  }
+
+  private static void writeFrame(ChannelBuffer buffer, Object msg, int size) throws IOException {
+    buffer.writeInt(size);
+
+    CodedOutputStream output;
+    if (buffer.hasArray()) {
+      output = CodedOutputStream.newInstance(buffer.array(), buffer.arrayOffset() + buffer.writerIndex(), size);
+    } else {
+      output = CodedOutputStream.newInstance(new ChannelBufferOutputStream(buffer));
+    }
+
+    if (msg instanceof DirectRpcRequest) {
+      ((DirectRpcRequest) msg).writeTo(output);
+    } else {
+      ((MessageLite) msg).writeTo(output);
+    }
+
+    if (buffer.hasArray()) {
+      output.checkNoSpaceLeft();
+      buffer.writerIndex(buffer.writerIndex() + size);
+    } else {
+      output.flush();
+    }
+  }
+}
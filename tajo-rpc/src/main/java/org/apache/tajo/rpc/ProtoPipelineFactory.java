@@ -19,32 +19,39 @@
 package org.apache.tajo.rpc;
 
 import com.google.protobuf.MessageLite;
+import org.apache.tajo.conf.TajoConf;
 import org.jboss.netty.channel.ChannelPipeline;
 import org.jboss.netty.channel.ChannelPipelineFactory;
 import org.jboss.netty.channel.ChannelUpstreamHandler;
 import org.jboss.netty.channel.Channels;
 import org.jboss.netty.handler.codec.frame.LengthFieldBasedFrameDecoder;
-import org.jboss.netty.handler.codec.frame.LengthFieldPrepender;
 import org.jboss.netty.handler.codec.protobuf.ProtobufDecoder;
-import org.jboss.netty.handler.codec.protobuf.ProtobufEncoder;
 
 public class ProtoPipelineFactory implements ChannelPipelineFactory {
   private final ChannelUpstreamHandler handler;
   private final MessageLite defaultInstance;
+  private final int maxFrameSize;
+  private final ProtoFrameEncoder encoder;
 
   public ProtoPipelineFactory(ChannelUpstreamHandler handlerFactory,
-      MessageLite defaultInstance) {
+      MessageLite defaultInstance, TajoConf conf) {
+    this(handlerFactory, defaultInstance, conf.getIntVar(TajoConf.ConfVars.RPC_MAX_FRAME_SIZE));
+  }
+
+  public ProtoPipelineFactory(ChannelUpstreamHandler handlerFactory,
+      MessageLite defaultInstance, int maxFrameSize) {
     this.handler = handlerFactory;
     this.defaultInstance = defaultInstance;
+    this.maxFrameSize = maxFrameSize;
+    this.encoder = new ProtoFrameEncoder(maxFrameSize);
   }
 
   public ChannelPipeline getPipeline() throws Exception {
     ChannelPipeline p = Channels.pipeline();
-    p.addLast("frameDecoder", new LengthFieldBasedFrameDecoder(1048576*2, 0, 4,
+    p.addLast("frameDecoder", new LengthFieldBasedFrameDecoder(maxFrameSize + 4, 0, 4,
         0, 4));
     p.addLast("protobufDecoder", new ProtobufDecoder(defaultInstance));
-    p.addLast("frameEncoder", new LengthFieldPrepender(4));
-    p.addLast("protobufEncoder", new ProtobufEncoder());
+    p.addLast("protobufEncoder", encoder);
     p.addLast("handler", handler);
     return p;
   }
@@ -0,0 +1,117 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.rpc;
+
+import com.google.protobuf.RpcCallback;
+import org.apache.tajo.rpc.test.DummyProtocol;
+import org.apache.tajo.rpc.test.DummyProtocol.DummyProtocolService.Interface;
+import org.apache.tajo.rpc.test.TestProtos.SumRequest;
+import org.apache.tajo.rpc.test.TestProtos.SumResponse;
+import org.apache.tajo.rpc.test.impl.DummyProtocolAsyncImpl;
+import org.apache.tajo.util.NetUtils;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+
+/**
+ * RpcBenchmark measures the number of RPC calls per second, which many threads send through one client
+ * to a local server. It runs with and without write coalescing.
+ *
+ * Usage: RpcBenchmark [thread num] [calls per thread] [max in-flight calls per thread]
+ */
+public class RpcBenchmark {
+
+  public static void main(String[] args) throws Exception {
+    int threadNum = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+    int callNum = args.length > 1 ? Integer.parseInt(args[1]) : 20000;
+    int inFlight = args.length > 2 ? Integer.parseInt(args[2]) : 16;
+
+    AsyncRpcServer server = new AsyncRpcServer(DummyProtocol.class, new DummyProtocolAsyncImpl(),
+        new InetSocketAddress("127.0.0.1", 0), 4);
+    server.start();
+    try {
+      InetSocketAddress addr = NetUtils.getConnectAddress(server.getListenAddress());
+      // warming up
+      run(addr, false, threadNum, callNum / 10, inFlight);
+
+      for (boolean coalescing : new boolean[] {false, true}) {
+        long elapsed = run(addr, coalescing, threadNum, callNum, inFlight);
+        long calls = (long) threadNum * callNum;
+        System.out.println(String.format(
+            "write coalescing: %s, threads: %d, calls: %d, elapsed: %d ms, %.1f calls/sec",
+            coalescing, threadNum, calls, elapsed, calls * 1000.0 / elapsed));
+      }
+    } finally {
+      server.shutdown();
+    }
+  }
+
+  /**
+   * @return The elapsed time in milliseconds
+   */
+  private static long run(InetSocketAddress addr, boolean coalescing, int threadNum, final int callNum,
+                          final int inFlight) throws Exception {
+    AsyncRpcClient client = new AsyncRpcClient(DummyProtocol.class, addr);
+    client.setWriteCoalescing(coalescing);
+    final Interface stub = client.getStub();
+    final SumRequest request = SumRequest.newBuilder().setX1(1).setX2(2).setX3(3.15d).setX4(2.0f).build();
+
+    final CountDownLatch start = new CountDownLatch(1);
+    final CountDownLatch finished = new CountDownLatch(threadNum * callNum);
+    Thread [] threads = new Thread[threadNum];
+    for (int i = 0; i < threadNum; i++) {
+      threads[i] = new Thread() {
+        @Override
+        public void run() {
+          final Semaphore permits = new Semaphore(inFlight);
+          RpcCallback<SumResponse> callback = new RpcCallback<SumResponse>() {
+            @Override
+            public void run(SumResponse response) {
+              permits.release();
+              finished.countDown();
+            }
+          };
+
+          try {
+            start.await();
+            for (int j = 0; j < callNum; j++) {
+              permits.acquire();
+              stub.sum(null, request, callback);
+            }
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        }
+      };
+      threads[i].start();
+    }
+
+    long startTime = System.currentTimeMillis();
+    start.countDown();
+    finished.await();
+    long elapsed = System.currentTimeMillis() - startTime;
+
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    client.close();
+    return Math.max(1, elapsed);
+  }
+}
@@ -21,6 +21,7 @@ package org.apache.tajo.rpc;
 import com.google.protobuf.RpcCallback;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.apache.tajo.conf.TajoConf;
 import org.apache.tajo.rpc.test.DummyProtocol;
 import org.apache.tajo.rpc.test.DummyProtocol.DummyProtocolService.Interface;
 import org.apache.tajo.rpc.test.TestProtos.EchoMessage;
@@ -146,6 +147,37 @@ public class TestAsyncRpc {
     assertEquals(future.get(1, TimeUnit.SECONDS), echoMessage);
   }
 
+  @Test
+  public void testOversizedRequest() throws Exception {
+    TajoConf conf = new TajoConf();
+    conf.setIntVar(TajoConf.ConfVars.RPC_MAX_FRAME_SIZE, 1024);
+    AsyncRpcClient smallFrameClient = new AsyncRpcClient(DummyProtocol.class,
+        NetUtils.getConnectAddress(server.getListenAddress()), RpcChannelFactory.getSharedClientChannelFactory(),
+        conf);
+    try {
+      Interface smallFrameStub = smallFrameClient.getStub();
+      StringBuilder sb = new StringBuilder();
+      for (int i = 0; i < 2048; i++) {
+        sb.append('a');
+      }
+
+      // the oversized request fails without waiting for a response.
+      CallFuture<EchoMessage> future = new CallFuture<EchoMessage>();
+      smallFrameStub.echo(future.getController(), EchoMessage.newBuilder().setMessage(sb.toString()).build(), future);
+      assertNull(future.get(10, TimeUnit.SECONDS));
+      assertTrue(future.getController().failed());
+
+      // the connection is still available for other requests.
+      EchoMessage echoMessage = EchoMessage.newBuilder().setMessage(MESSAGE).build();
+      future = new CallFuture<EchoMessage>();
+      smallFrameStub.echo(future.getController(), echoMessage, future);
+      assertEquals(echoMessage, future.get(10, TimeUnit.SECONDS));
+      assertFalse(future.getController().failed());
+    } finally {
+      smallFrameClient.close();
+    }
+  }
+
   @Test
   public void testCallFutureDisconnected() throws Exception {
     EchoMessage echoMessage = EchoMessage.newBuilder()
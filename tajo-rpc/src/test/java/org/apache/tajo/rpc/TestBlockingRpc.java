@@ -18,6 +18,7 @@
 
 package org.apache.tajo.rpc;
 
+import com.google.protobuf.ServiceException;
 import org.apache.tajo.conf.TajoConf;
 import org.apache.tajo.rpc.test.DummyProtocol;
 import org.apache.tajo.rpc.test.DummyProtocol.DummyProtocolService.BlockingInterface;
@@ -26,6 +27,7 @@ import org.apache.tajo.rpc.test.TestProtos.SumRequest;
 import org.apache.tajo.rpc.test.TestProtos.SumResponse;
 import org.apache.tajo.rpc.test.impl.DummyProtocolBlockingImpl;
 import org.apache.tajo.util.NetUtils;
+import org.jboss.netty.handler.codec.frame.TooLongFrameException;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -116,6 +118,36 @@ public class TestBlockingRpc {
     assertTrue(8.15d == response.getResult());
   }
 
+  @Test
+  public void testOversizedRequest() throws Exception {
+    TajoConf conf = new TajoConf();
+    conf.setIntVar(TajoConf.ConfVars.RPC_MAX_FRAME_SIZE, 1024);
+    BlockingRpcClient smallFrameClient = new BlockingRpcClient(DummyProtocol.class,
+        NetUtils.getConnectAddress(server.getListenAddress()), RpcChannelFactory.getSharedClientChannelFactory(),
+        conf);
+    try {
+      BlockingInterface smallFrameStub = smallFrameClient.getStub();
+      StringBuilder sb = new StringBuilder();
+      for (int i = 0; i < 2048; i++) {
+        sb.append('a');
+      }
+
+      // the oversized request fails without waiting for a response.
+      try {
+        smallFrameStub.echo(null, EchoMessage.newBuilder().setMessage(sb.toString()).build());
+        fail("An oversized request must fail");
+      } catch (ServiceException e) {
+        assertTrue(e.getCause() instanceof TooLongFrameException);
+      }
+
+      // the connection is still available for other requests.
+      EchoMessage message = EchoMessage.newBuilder().setMessage(MESSAGE).build();
+      assertEquals(MESSAGE, smallFrameStub.echo(null, message).getMessage());
+    } finally {
+      smallFrameClient.close();
+    }
+  }
+
   @Test
   public void testGetNull() throws Exception {
     assertNull(stub.getNull(null, null));
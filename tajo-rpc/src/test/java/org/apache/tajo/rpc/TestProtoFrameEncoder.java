@@ -0,0 +1,103 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.rpc;
+
+import org.apache.tajo.rpc.RpcProtos.RpcRequest;
+import org.apache.tajo.rpc.test.TestProtos.EchoMessage;
+import org.apache.tajo.rpc.test.TestProtos.SumRequest;
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBufferInputStream;
+import org.jboss.netty.handler.codec.embedder.CodecEmbedderException;
+import org.jboss.netty.handler.codec.embedder.EncoderEmbedder;
+import org.jboss.netty.handler.codec.frame.TooLongFrameException;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TestProtoFrameEncoder {
+
+  private static ChannelBuffer encode(ProtoFrameEncoder encoder, Object msg) {
+    EncoderEmbedder<ChannelBuffer> embedder = new EncoderEmbedder<ChannelBuffer>(encoder);
+    embedder.offer(msg);
+    embedder.finish();
+    return embedder.poll();
+  }
+
+  private static RpcRequest readFrame(ChannelBuffer buffer) throws Exception {
+    int size = buffer.readInt();
+    return RpcRequest.parseFrom(new ChannelBufferInputStream(buffer, size));
+  }
+
+  @Test
+  public void testDirectRpcRequest() throws Exception {
+    SumRequest param = SumRequest.newBuilder().setX1(1).setX2(2).setX3(3.15d).setX4(2.0f).build();
+    RpcRequest expected = RpcRequest.newBuilder()
+        .setId(7)
+        .setMethodName("sum")
+        .setRequestMessage(param.toByteString()).build();
+
+    ChannelBuffer buffer = encode(new ProtoFrameEncoder(1024), new DirectRpcRequest(7, "sum", param));
+    assertEquals(4 + expected.getSerializedSize(), buffer.readableBytes());
+    assertEquals(expected, readFrame(buffer));
+    assertFalse(buffer.readable());
+
+    // a call without a parameter
+    buffer = encode(new ProtoFrameEncoder(1024), new DirectRpcRequest(8, "getNull", null));
+    RpcRequest request = readFrame(buffer);
+    assertEquals(8, request.getId());
+    assertFalse(request.hasRequestMessage());
+  }
+
+  @Test
+  public void testCoalescedMessages() throws Exception {
+    List<Object> messages = new ArrayList<Object>();
+    for (int i = 0; i < 10; i++) {
+      EchoMessage param = EchoMessage.newBuilder().setMessage("message_" + i).build();
+      messages.add(new DirectRpcRequest(i, "echo", param));
+    }
+
+    ChannelBuffer buffer = encode(new ProtoFrameEncoder(1024), messages);
+    for (int i = 0; i < 10; i++) {
+      RpcRequest request = readFrame(buffer);
+      assertEquals(i, request.getId());
+      assertEquals("message_" + i, EchoMessage.parseFrom(request.getRequestMessage()).getMessage());
+    }
+    assertFalse(buffer.readable());
+  }
+
+  @Test
+  public void testMaxFrameSize() throws Exception {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < 100; i++) {
+      sb.append("0123456789");
+    }
+    EchoMessage param = EchoMessage.newBuilder().setMessage(sb.toString()).build();
+
+    try {
+      encode(new ProtoFrameEncoder(512), new DirectRpcRequest(0, "echo", param));
+      fail("A message larger than the max frame size should not be encoded");
+    } catch (CodecEmbedderException e) {
+      assertTrue(e.getCause() instanceof TooLongFrameException);
+    }
+    assertNotNull(encode(new ProtoFrameEncoder(2048), new DirectRpcRequest(0, "echo", param)));
+  }
+}
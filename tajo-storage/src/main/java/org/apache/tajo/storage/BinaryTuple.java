@@ -0,0 +1,298 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.storage;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Message;
+import org.apache.tajo.common.TajoDataTypes.DataType;
+import org.apache.tajo.datum.*;
+import org.apache.tajo.exception.UnsupportedException;
+import org.apache.tajo.util.Bytes;
+import org.apache.tajo.util.ClassSize;
+
+import java.util.Arrays;
+
+/**
+ * An instance of BinaryTuple is a read-only tuple packed into one byte array. Only its offset can be set.
+ *
+ * The layout of a row is as follows:
+ * <pre>
+ *  | null bitmap | fixed-width slots (8 bytes per field) | variable-length area |
+ * </pre>
+ *
+ * A fixed-width slot contains the value of a primitive field. For a variable-length field
+ * (CHAR, TEXT, BLOB and PROTOBUF), the slot contains the offset and the length of the field
+ * in the variable-length area. Since every row has only one object for its fields, the memory
+ * size of a row is exactly known, and hashCode and equals are computed on the bytes.
+ *
+ * Each BinaryTuple is created by {@link BinaryTupleBuilder}.
+ */
+public class BinaryTuple implements Tuple, Cloneable {
+  static final int SLOT_SIZE = 8;
+
+  /** Overhead for a BinaryTuple except for its byte array */
+  private static final long BINARY_TUPLE = ClassSize.estimateBase(BinaryTuple.class, false);
+
+  private final DataType [] types;
+  private final byte [] bytes;
+  private long offset;
+
+  BinaryTuple(DataType [] types, byte [] bytes) {
+    this.types = types;
+    this.bytes = bytes;
+  }
+
+  static int nullBitmapSize(int fieldNum) {
+    return (fieldNum + 7) / 8;
+  }
+
+  private int slotOffset(int fieldId) {
+    return nullBitmapSize(types.length) + (fieldId * SLOT_SIZE);
+  }
+
+  /**
+   * @return the byte array which contains this row
+   */
+  public byte [] getBytes() {
+    return bytes;
+  }
+
+  /**
+   * @return the offset of a variable-length field in the byte array returned by {@link #getBytes()}
+   */
+  public int getFieldOffset(int fieldId) {
+    return Bytes.toInt(bytes, slotOffset(fieldId));
+  }
+
+  /**
+   * @return the length of a variable-length field
+   */
+  public int getFieldLength(int fieldId) {
+    return Bytes.toInt(bytes, slotOffset(fieldId) + 4);
+  }
+
+  /**
+   * @return the exact heap size of this tuple
+   */
+  public long getMemorySize() {
+    return BINARY_TUPLE + ClassSize.align(ClassSize.ARRAY + bytes.length);
+  }
+
+  @Override
+  public int size() {
+    return types.length;
+  }
+
+  @Override
+  public boolean contains(int fieldid) {
+    return true;
+  }
+
+  @Override
+  public boolean isNull(int fieldid) {
+    return (bytes[fieldid >> 3] & (1 << (fieldid & 7))) != 0;
+  }
+
+  @Override
+  public void clear() {
+    throw new UnsupportedException();
+  }
+
+  @Override
+  public void put(int fieldId, Datum value) {
+    throw new UnsupportedException();
+  }
+
+  @Override
+  public void put(int fieldId, Datum[] values) {
+    throw new UnsupportedException();
+  }
+
+  @Override
+  public void put(int fieldId, Tuple tuple) {
+    throw new UnsupportedException();
+  }
+
+  @Override
+  public void put(Datum[] values) {
+    throw new UnsupportedException();
+  }
+
+  @Override
+  public Datum get(int fieldId) {
+    if (isNull(fieldId)) {
+      return NullDatum.get();
+    }
+
+    DataType type = types[fieldId];
+    switch (type.getType()) {
+      case BOOLEAN:
+        return DatumFactory.createBool(getBool(fieldId));
+      case BIT:
+        return DatumFactory.createBit(getByte(fieldId));
+      case CHAR:
+        return DatumFactory.createChar(getBytes(fieldId));
+      case INT2:
+        return DatumFactory.createInt2(getInt2(fieldId));
+      case INT4:
+        return DatumFactory.createInt4(getInt4(fieldId));
+      case INT8:
+        return DatumFactory.createInt8(getInt8(fieldId));
+      case FLOAT4:
+        return DatumFactory.createFloat4(getFloat4(fieldId));
+      case FLOAT8:
+        return DatumFactory.createFloat8(getFloat8(fieldId));
+      case TEXT:
+        return DatumFactory.createText(getBytes(fieldId));
+      case BLOB:
+        return DatumFactory.createBlob(getBytes(fieldId));
+      case INET4:
+        return DatumFactory.createInet4(getBytes(fieldId));
+      case DATE:
+        return DatumFactory.createFromInt4(type, getInt4(fieldId));
+      case TIME:
+      case TIMESTAMP:
+        return DatumFactory.createFromInt8(type, getInt8(fieldId));
+      case PROTOBUF: {
+        ProtobufDatumFactory factory = ProtobufDatumFactory.get(type);
+        Message.Builder builder = factory.newBuilder();
+        try {
+          builder.mergeFrom(bytes, getFieldOffset(fieldId), getFieldLength(fieldId));
+        } catch (InvalidProtocolBufferException e) {
+          throw new RuntimeException(e);
+        }
+        return factory.createDatum(builder.build());
+      }
+      default:
+        throw new UnsupportedException(type.getType().name());
+    }
+  }
+
+  @Override
+  public void setOffset(long offset) {
+    this.offset = offset;
+  }
+
+  @Override
+  public long getOffset() {
+    return offset;
+  }
+
+  @Override
+  public boolean getBool(int fieldId) {
+    return bytes[slotOffset(fieldId)] != 0;
+  }
+
+  @Override
+  public byte getByte(int fieldId) {
+    return bytes[slotOffset(fieldId)];
+  }
+
+  @Override
+  public char getChar(int fieldId) {
+    return (char) bytes[getFieldOffset(fieldId)];
+  }
+
+  @Override
+  public byte[] getBytes(int fieldId) {
+    switch (types[fieldId].getType()) {
+      case INET4:
+        return Arrays.copyOfRange(bytes, slotOffset(fieldId), slotOffset(fieldId) + 4);
+      default:
+        int fieldOffset = getFieldOffset(fieldId);
+        return Arrays.copyOfRange(bytes, fieldOffset, fieldOffset + getFieldLength(fieldId));
+    }
+  }
+
+  @Override
+  public short getInt2(int fieldId) {
+    return Bytes.toShort(bytes, slotOffset(fieldId));
+  }
+
+  @Override
+  public int getInt4(int fieldId) {
+    return Bytes.toInt(bytes, slotOffset(fieldId));
+  }
+
+  @Override
+  public long getInt8(int fieldId) {
+    return Bytes.toLong(bytes, slotOffset(fieldId));
+  }
+
+  @Override
+  public float getFloat4(int fieldId) {
+    return Bytes.toFloat(bytes, slotOffset(fieldId));
+  }
+
+  @Override
+  public double getFloat8(int fieldId) {
+    return Bytes.toDouble(bytes, slotOffset(fieldId));
+  }
+
+  @Override
+  public String getText(int fieldId) {
+    return Bytes.toString(bytes, getFieldOffset(fieldId), getFieldLength(fieldId));
+  }
+
+  @Override
+  public Tuple clone() throws CloneNotSupportedException {
+    // the bytes are never modified, so only the offset is copied.
+    BinaryTuple copy = new BinaryTuple(types, bytes);
+    copy.offset = offset;
+    return copy;
+  }
+
+  @Override
+  public Datum[] getValues() {
+    Datum [] values = new Datum[types.length];
+    for (int i = 0; i < types.length; i++) {
+      values[i] = get(i);
+    }
+    return values;
+  }
+
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(bytes);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (obj instanceof BinaryTuple) {
+      return Arrays.equals(bytes, ((BinaryTuple) obj).bytes);
+    }
+    return false;
+  }
+
+  public String toString() {
+    boolean first = true;
+    StringBuilder str = new StringBuilder();
+    str.append("(");
+    for(int i = 0; i < types.length; i++) {
+      if(first) {
+        first = false;
+      } else {
+        str.append(", ");
+      }
+      str.append(i).append("=>").append(get(i));
+    }
+    str.append(")");
+    return str.toString();
+  }
+}
@@ -0,0 +1,171 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.storage;
+
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.common.TajoDataTypes.DataType;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.exception.UnsupportedException;
+import org.apache.tajo.util.Bytes;
+
+import java.util.Arrays;
+
+import static org.apache.tajo.storage.BinaryTuple.SLOT_SIZE;
+
+/**
+ * It packs tuples of a given schema into {@link BinaryTuple}s.
+ * A builder reuses its internal buffer, so it is not thread-safe.
+ *
+ * INT1 is not supported because there is no datum of INT1. It would be read back as INT2.
+ */
+public class BinaryTupleBuilder {
+  private final DataType [] types;
+  private final int nullBitmapSize;
+  private final int fixedSize;
+  private byte [] buffer;
+
+  public BinaryTupleBuilder(Schema schema) {
+    types = new DataType[schema.size()];
+    for (int i = 0; i < schema.size(); i++) {
+      types[i] = schema.getColumn(i).getDataType();
+    }
+    nullBitmapSize = BinaryTuple.nullBitmapSize(types.length);
+    fixedSize = nullBitmapSize + (types.length * SLOT_SIZE);
+    buffer = new byte[fixedSize * 2];
+  }
+
+  /**
+   * @return true if every column of the schema can be packed into a BinaryTuple
+   */
+  public static boolean isSupported(Schema schema) {
+    for (int i = 0; i < schema.size(); i++) {
+      switch (schema.getColumn(i).getDataType().getType()) {
+        case BOOLEAN:
+        case BIT:
+        case INT2:
+        case INT4:
+        case DATE:
+        case INT8:
+        case TIME:
+        case TIMESTAMP:
+        case FLOAT4:
+        case FLOAT8:
+        case INET4:
+        case CHAR:
+        case TEXT:
+        case BLOB:
+        case PROTOBUF:
+          break;
+        default:
+          return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Packs a tuple into a new BinaryTuple.
+   *
+   * @param tuple a tuple which follows the schema of this builder
+   * @return a new BinaryTuple which does not share any state with the given tuple
+   */
+  public BinaryTuple build(Tuple tuple) {
+    if (tuple instanceof BinaryTuple) {
+      return (BinaryTuple) tuple;
+    }
+
+    Arrays.fill(buffer, 0, fixedSize, (byte) 0);
+    int varOffset = fixedSize;
+
+    for (int i = 0; i < types.length; i++) {
+      Datum datum = tuple.get(i);
+      if (datum == null || datum.isNull()) {
+        buffer[i >> 3] |= (byte) (1 << (i & 7));
+        continue;
+      }
+
+      int slot = nullBitmapSize + (i * SLOT_SIZE);
+      switch (types[i].getType()) {
+        case BOOLEAN:
+          buffer[slot] = (byte) (datum.asBool() ? 1 : 0);
+          break;
+        case BIT:
+          buffer[slot] = datum.asByte();
+          break;
+        case INT2:
+          Bytes.putShort(buffer, slot, datum.asInt2());
+          break;
+        case INT4:
+        case DATE:
+          Bytes.putInt(buffer, slot, datum.asInt4());
+          break;
+        case INT8:
+        case TIME:
+        case TIMESTAMP:
+          Bytes.putLong(buffer, slot, datum.asInt8());
+          break;
+        case FLOAT4: {
+          float val = datum.asFloat4();
+          // -0.0 and 0.0 must have the same bytes for byte-wise equality
+          Bytes.putFloat(buffer, slot, val == 0.0f ? 0.0f : val);
+          break;
+        }
+        case FLOAT8: {
+          double val = datum.asFloat8();
+          Bytes.putDouble(buffer, slot, val == 0.0d ? 0.0d : val);
+          break;
+        }
+        case INET4:
+          System.arraycopy(datum.asByteArray(), 0, buffer, slot, 4);
+          break;
+        case CHAR:
+        case TEXT:
+        case BLOB:
+        case PROTOBUF: {
+          byte [] bytes = datum.asByteArray();
+          ensureCapacity(varOffset + bytes.length);
+          System.arraycopy(bytes, 0, buffer, varOffset, bytes.length);
+          Bytes.putInt(buffer, slot, varOffset);
+          Bytes.putInt(buffer, slot + 4, bytes.length);
+          varOffset += bytes.length;
+          break;
+        }
+        default:
+          throw new UnsupportedException(types[i].getType().name());
+      }
+    }
+
+    return new BinaryTuple(types, Arrays.copyOf(buffer, varOffset));
+  }
+
+  /**
+   * Creates a BinaryTuple from the bytes of a row, which was packed by a builder of the same schema.
+   *
+   * @param bytes the bytes returned by {@link BinaryTuple#getBytes()}
+   */
+  public BinaryTuple wrap(byte [] bytes) {
+    return new BinaryTuple(types, bytes);
+  }
+
+  private void ensureCapacity(int required) {
+    if (buffer.length < required) {
+      buffer = Arrays.copyOf(buffer, Math.max(required, buffer.length * 2));
+    }
+  }
+}
@@ -292,6 +292,8 @@ public class CSVFile {
     private ArrayList<Integer> startOffsets = new ArrayList<Integer>();
     private NonSyncByteArrayOutputStream buffer = new NonSyncByteArrayOutputStream(DEFAULT_PAGE_SIZE);
     private SerializerDeserializer serde;
+    // the tuple returned by next(). It is reset for each line.
+    private LazyTuple tuple;
 
     @Override
     public void init() throws IOException {
@@ -343,6 +345,8 @@ public class CSVFile {
         String serdeClass = this.meta.getOption(CatalogConstants.CSVFILE_SERDE,
             TextSerializerDeserializer.class.getName());
         serde = (SerializerDeserializer) Class.forName(serdeClass).newInstance();
+        // the tuple keeps the previous serde
+        tuple = null;
       } catch (Exception e) {
         LOG.error(e.getMessage(), e);
         throw new IOException(e);
@@ -466,7 +470,12 @@ public class CSVFile {
         byte[][] cells = Bytes.splitPreserveAllTokens(buffer.getData(), startOffsets.get(currentIdx),
             rowLengthList.get(currentIdx),  delimiter, targetColumnIndexes);
         currentIdx++;
-        return new LazyTuple(schema, cells, offset, nullChars, serde);
+        if (tuple == null) {
+          tuple = new LazyTuple(schema, cells, offset, nullChars, serde);
+        } else {
+          tuple.set(cells, offset);
+        }
+        return tuple;
       } catch (Throwable t) {
         LOG.error("Tuple list length: " + (fileOffsets != null ? fileOffsets.size() : 0), t);
         LOG.error("Tuple list current index: " + currentIdx, t);
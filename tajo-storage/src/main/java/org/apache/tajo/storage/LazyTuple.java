@@ -54,6 +54,18 @@ public class LazyTuple implements Tuple, Cloneable {
     this.serializeDeserialize = tuple.serializeDeserialize;
   }
 
+  /**
+   * Resets this tuple with the fields of another row, so that a scanner can reuse it for every row.
+   *
+   * @param textBytes the serialized fields of the row
+   * @param offset the offset of the row
+   */
+  public void set(byte[][] textBytes, long offset) {
+    this.textBytes = textBytes;
+    this.offset = offset;
+    Arrays.fill(values, null);
+  }
+
   @Override
   public int size() {
     return values.length;
@@ -96,6 +96,10 @@ public class MemoryUtil {
   }
 
   public static long calculateMemorySize(Tuple tuple) {
+    if (tuple instanceof BinaryTuple) {
+      return ((BinaryTuple) tuple).getMemorySize();
+    }
+
     long total = ClassSize.OBJECT;
     for (Datum datum : tuple.getValues()) {
       switch (datum.type()) {
@@ -0,0 +1,186 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.storage;
+
+import org.apache.tajo.catalog.Column;
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.catalog.TableMeta;
+import org.apache.tajo.catalog.statistics.TableStats;
+import org.apache.tajo.conf.TajoConf;
+import org.apache.tajo.storage.fragment.FileFragment;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * MorselScanner reads morsels, which are small ranges of fragments, from a queue shared by other scanners.
+ * Each scanner takes the next morsel when it finishes the current one, so scanners running in different threads
+ * balance their work by themselves.
+ */
+public class MorselScanner implements Scanner {
+  private final TajoConf conf;
+  private final TableMeta meta;
+  private final Schema schema;
+  private final Queue<FileFragment> morsels;
+  private Schema target;
+  private Scanner currentScanner;
+  private Tuple tuple;
+  private float progress;
+  private final TableStats tableStats;
+
+  public MorselScanner(TajoConf conf, Schema schema, TableMeta meta, Queue<FileFragment> morsels, Schema target) {
+    this.conf = conf;
+    this.schema = schema;
+    this.meta = meta;
+    this.morsels = morsels;
+    this.target = target;
+
+    tableStats = new TableStats();
+  }
+
+  /**
+   * Splits fragments into morsels. A fragment which cannot be split becomes one morsel.
+   *
+   * @param morselSize The max bytes of a morsel
+   * @return The morsels in the order of the given fragments
+   */
+  public static List<FileFragment> split(TajoConf conf, Schema schema, TableMeta meta, List<FileFragment> fragments,
+                                         long morselSize) throws IOException {
+    AbstractStorageManager sm = StorageManagerFactory.getStorageManager(conf);
+    List<FileFragment> morsels = new ArrayList<FileFragment>();
+
+    for (FileFragment fragment : fragments) {
+      // the end key of a file fragment is its length
+      long length = fragment.getEndKey();
+      if (length <= morselSize || !sm.getScanner(meta, schema, fragment).isSplittable()) {
+        morsels.add(fragment);
+        continue;
+      }
+
+      long end = fragment.getStartKey() + length;
+      for (long offset = fragment.getStartKey(); offset < end; offset += morselSize) {
+        morsels.add(new FileFragment(fragment.getTableName(), fragment.getPath(), offset,
+            Math.min(morselSize, end - offset), fragment.getHosts()));
+      }
+    }
+    return morsels;
+  }
+
+  @Override
+  public void init() throws IOException {
+    progress = 0.0f;
+  }
+
+  @Override
+  public Tuple next() throws IOException {
+    while (true) {
+      if (currentScanner == null && (currentScanner = getNextScanner()) == null) {
+        return null;
+      }
+
+      if ((tuple = currentScanner.next()) != null) {
+        return tuple;
+      }
+      closeCurrentScanner();
+    }
+  }
+
+  private Scanner getNextScanner() throws IOException {
+    FileFragment morsel = morsels.poll();
+    if (morsel == null) {
+      return null;
+    }
+    Scanner scanner = StorageManagerFactory.getStorageManager(conf).getScanner(meta, schema, morsel, target);
+    scanner.init();
+    tableStats.setNumBytes(tableStats.getNumBytes() + morsel.getEndKey());
+    tableStats.setNumBlocks(tableStats.getNumBlocks() + 1);
+    return scanner;
+  }
+
+  private void closeCurrentScanner() throws IOException {
+    currentScanner.close();
+    TableStats scannerStats = currentScanner.getInputStats();
+    if (scannerStats != null) {
+      tableStats.setReadBytes(tableStats.getReadBytes() + scannerStats.getReadBytes());
+      tableStats.setNumRows(tableStats.getNumRows() + scannerStats.getNumRows());
+    }
+    currentScanner = null;
+  }
+
+  /**
+   * Morsels taken by other scanners cannot be read again.
+   */
+  @Override
+  public void reset() throws IOException {
+    throw new UnsupportedOperationException("MorselScanner cannot be reset");
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (currentScanner != null) {
+      closeCurrentScanner();
+    }
+    progress = 1.0f;
+  }
+
+  @Override
+  public boolean isProjectable() {
+    return true;
+  }
+
+  @Override
+  public void setTarget(Column[] targets) {
+    this.target = new Schema(targets);
+  }
+
+  @Override
+  public boolean isSelectable() {
+    return false;
+  }
+
+  @Override
+  public void setSearchCondition(Object expr) {
+  }
+
+  @Override
+  public Schema getSchema() {
+    return schema;
+  }
+
+  @Override
+  public boolean isSplittable() {
+    return false;
+  }
+
+  /**
+   * The progress of all scanners is tracked by their owner, since this scanner does not know how many morsels
+   * it will read.
+   */
+  @Override
+  public float getProgress() {
+    return progress;
+  }
+
+  @Override
+  public TableStats getInputStats() {
+    return tableStats;
+  }
+}
@@ -299,7 +299,7 @@ public class RawFile {
             int len = readRawVarint32();
             byte [] strBytes = new byte[len];
             buffer.get(strBytes);
-            tuple.put(i, DatumFactory.createText(new String(strBytes)));
+            tuple.put(i, DatumFactory.createText(strBytes));
             break;
           }
 
@@ -359,7 +359,7 @@ public class RawFile {
       if(!buffer.hasRemaining() && channel.position() == fileSize){
         eof = true;
       }
-      return new VTuple(tuple);
+      return tuple;
     }
 
     @Override
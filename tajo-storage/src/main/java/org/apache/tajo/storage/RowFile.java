@@ -98,6 +98,8 @@ public class RowFile {
       bufferStartPos = in.getPos();
       fillBuffer();
 
+      tuple = new VTuple(schema.size());
+
       if (start != 0) {
         // TODO: improve
         boolean syncFound = false;
@@ -180,12 +182,11 @@ public class RowFile {
       }
 
       int i;
-      tuple = new VTuple(schema.size());
-
       int nullFlagSize = buffer.getShort();
-      byte[] nullFlagBytes = new byte[nullFlagSize];
-      buffer.get(nullFlagBytes, 0, nullFlagSize);
-      nullFlags = new BitArray(nullFlagBytes);
+      int bufferLimit = buffer.limit();
+      buffer.limit(buffer.position() + nullFlagSize);
+      nullFlags.fromByteBuffer(buffer);
+      buffer.limit(bufferLimit);
       int tupleSize = buffer.getShort();
 
       while (buffer.remaining() < (tupleSize)) {
@@ -34,6 +34,9 @@ public interface Scanner extends SchemaObject, Closeable {
 
   /**
    * It returns one tuple at each call. 
+   *
+   * A scanner may reuse the returned tuple for the next call, so the returned tuple is
+   * only valid until the next call of this method. A caller that retains tuples must copy them.
    * 
    * @return retrieve null if the scanner has no more tuples. 
    * Otherwise it returns one tuple.
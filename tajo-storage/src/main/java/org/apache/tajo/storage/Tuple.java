@@ -20,6 +20,15 @@ package org.apache.tajo.storage;
 
 import org.apache.tajo.datum.Datum;
 
+/**
+ * A row of datums.
+ *
+ * Scanners and physical executors may return the same tuple instance for every row in order to
+ * avoid per-row allocation. Such a tuple is only valid until the next call of <code>next()</code>.
+ * An operator which retains tuples (e.g., sort buffers or hash tables) must copy them explicitly,
+ * for example by <code>new VTuple(tuple)</code>. Datum instances contained in a tuple are immutable,
+ * so a shallow copy is sufficient.
+ */
 public interface Tuple extends Cloneable {
   
 	public int size();
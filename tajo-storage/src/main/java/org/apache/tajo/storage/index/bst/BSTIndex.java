@@ -446,7 +446,7 @@ public class BSTIndex implements IndexMethod {
             keyCursor++;
             offsetCursor = 0;
           } else {
-            if (offsetIndex.length -1 > rootCursor) {
+            if (offsetIndex != null && offsetIndex.length -1 > rootCursor) {
               rootCursor++;
               fillLeafIndex(loadNum + 1, subIn, this.offsetIndex[rootCursor]);
               keyCursor = 1;
@@ -461,6 +461,15 @@ public class BSTIndex implements IndexMethod {
       }
     }
     
+    /**
+     * @return the key of the offset which is returned by the last find() or next()
+     */
+    public Tuple getCurrentKey() {
+      synchronized (mutex) {
+        return dataSubIndex[keyCursor];
+      }
+    }
+
     public boolean isCurInMemory() {
       return (offsetSubIndex[keyCursor].length - 1 >= offsetCursor);
     }
@@ -612,7 +621,9 @@ public class BSTIndex implements IndexMethod {
     @Override
     public void close() throws IOException {
       this.indexIn.close();
-      this.subIn.close();
+      if (this.subIn != null) {
+        this.subIn.close();
+      }
     }
 
     @Override
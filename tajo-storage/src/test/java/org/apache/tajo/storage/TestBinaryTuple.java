@@ -0,0 +1,169 @@
+/**
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.tajo.storage;
+
+import org.apache.tajo.catalog.Schema;
+import org.apache.tajo.common.TajoDataTypes.Type;
+import org.apache.tajo.datum.Datum;
+import org.apache.tajo.datum.DatumFactory;
+import org.apache.tajo.datum.NullDatum;
+import org.apache.tajo.exception.UnsupportedException;
+import org.apache.tajo.util.Bytes;
+import org.apache.tajo.util.ClassSize;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TestBinaryTuple {
+  private Schema schema;
+  private BinaryTupleBuilder builder;
+
+  @Before
+  public void setUp() throws Exception {
+    schema = new Schema();
+    schema.addColumn("col1", Type.BOOLEAN);
+    schema.addColumn("col2", Type.INT2);
+    schema.addColumn("col3", Type.INT4);
+    schema.addColumn("col4", Type.INT8);
+    schema.addColumn("col5", Type.FLOAT4);
+    schema.addColumn("col6", Type.FLOAT8);
+    schema.addColumn("col7", Type.TEXT);
+    schema.addColumn("col8", Type.BLOB);
+    schema.addColumn("col9", Type.INET4);
+    schema.addColumn("col10", Type.TEXT);
+    builder = new BinaryTupleBuilder(schema);
+  }
+
+  private Tuple createTuple(int seed) {
+    Tuple tuple = new VTuple(schema.size());
+    tuple.put(new Datum[] {
+        DatumFactory.createBool(true),
+        DatumFactory.createInt2((short) seed),
+        DatumFactory.createInt4(seed * 10),
+        DatumFactory.createInt8(seed * 100L),
+        DatumFactory.createFloat4(seed + 0.5f),
+        DatumFactory.createFloat8(seed + 0.25d),
+        DatumFactory.createText("tajo" + seed),
+        DatumFactory.createBlob(("blob" + seed).getBytes()),
+        DatumFactory.createInet4("192.168.0." + seed),
+        NullDatum.get()
+    });
+    return tuple;
+  }
+
+  @Test
+  public void testGetters() {
+    Tuple tuple = createTuple(7);
+    BinaryTuple packed = builder.build(tuple);
+
+    assertEquals(schema.size(), packed.size());
+    assertTrue(packed.getBool(0));
+    assertEquals(7, packed.getInt2(1));
+    assertEquals(70, packed.getInt4(2));
+    assertEquals(700L, packed.getInt8(3));
+    assertEquals(7.5f, packed.getFloat4(4), 0.0f);
+    assertEquals(7.25d, packed.getFloat8(5), 0.0d);
+    assertEquals("tajo7", packed.getText(6));
+    assertArrayEquals("blob7".getBytes(), packed.getBytes(7));
+    assertArrayEquals(tuple.get(8).asByteArray(), packed.getBytes(8));
+    assertFalse(packed.isNull(6));
+    assertTrue(packed.isNull(9));
+
+    for (int i = 0; i < schema.size(); i++) {
+      assertEquals(tuple.get(i), packed.get(i));
+    }
+  }
+
+  @Test
+  public void testEqualsAndHashCode() {
+    BinaryTuple t1 = builder.build(createTuple(1));
+    BinaryTuple t2 = builder.build(createTuple(1));
+    BinaryTuple t3 = builder.build(createTuple(2));
+
+    assertEquals(t1, t2);
+    assertEquals(t1.hashCode(), t2.hashCode());
+    assertFalse(t1.equals(t3));
+  }
+
+  @Test
+  public void testWrap() {
+    Tuple tuple = createTuple(5);
+    byte [] bytes = builder.build(tuple).getBytes();
+
+    BinaryTuple wrapped = new BinaryTupleBuilder(schema).wrap(bytes);
+    assertEquals(builder.build(tuple), wrapped);
+    for (int i = 0; i < schema.size(); i++) {
+      assertEquals(tuple.get(i), wrapped.get(i));
+    }
+  }
+
+  @Test
+  public void testMemorySize() {
+    BinaryTuple packed = builder.build(createTuple(3));
+    assertEquals(packed.getMemorySize(), MemoryUtil.calculateMemorySize(packed));
+    assertTrue(packed.getMemorySize() >= ClassSize.ARRAY + packed.getBytes().length);
+  }
+
+  @Test
+  public void testClone() throws CloneNotSupportedException {
+    BinaryTuple packed = builder.build(createTuple(4));
+    packed.setOffset(10);
+
+    Tuple copy = packed.clone();
+    assertNotSame(packed, copy);
+    assertEquals(packed, copy);
+    assertEquals(10, copy.getOffset());
+
+    // the offset of the copy is independent from the original one.
+    copy.setOffset(20);
+    assertEquals(10, packed.getOffset());
+  }
+
+  @Test
+  public void testNonAsciiText() {
+    Tuple tuple = createTuple(1);
+    // UTF-8 bytes of a text
+    tuple.put(6, DatumFactory.createText(Bytes.toBytes("\ud0c0\uc870 \u00e9t\u00e9")));
+    BinaryTuple packed = builder.build(tuple);
+
+    assertEquals("\ud0c0\uc870 \u00e9t\u00e9", packed.getText(6));
+    assertEquals(tuple.get(6), packed.get(6));
+  }
+
+  @Test
+  public void testUnsupportedTypes() {
+    assertTrue(BinaryTupleBuilder.isSupported(schema));
+
+    Schema int1Schema = new Schema();
+    int1Schema.addColumn("col1", Type.INT4);
+    int1Schema.addColumn("col2", Type.INT1);
+    assertFalse(BinaryTupleBuilder.isSupported(int1Schema));
+
+    Tuple tuple = new VTuple(2);
+    tuple.put(0, DatumFactory.createInt4(1));
+    tuple.put(1, DatumFactory.createInt2((short) 1));
+    try {
+      new BinaryTupleBuilder(int1Schema).build(tuple);
+      fail("INT1 must not be packed as INT2");
+    } catch (UnsupportedException e) {
+      // expected
+    }
+  }
+}